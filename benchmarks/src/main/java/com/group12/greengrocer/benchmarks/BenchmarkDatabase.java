@@ -0,0 +1,95 @@
+package com.group12.greengrocer.benchmarks;
+
+import com.group12.greengrocer.database.DatabaseConnection;
+import com.group12.greengrocer.database.InvoiceWorker;
+import com.group12.greengrocer.database.MigrationRunner;
+import com.group12.greengrocer.loadtest.LocalDatabase;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The database behind the DAO benchmarks: the embedded MariaDB of the load test
+ * ({@link LocalDatabase}), seeded from {@code database/Group12.sql} plus the load-test
+ * accounts and migrated like the application at startup. The DAOs are pointed at it,
+ * so the benchmarks measure the real JDBC round trips, not just the mapping code.
+ * <p>
+ * One server is started per benchmark fork, on a free port. The dump is read from
+ * {@code ../greengrocer/database/Group12.sql}, or from the {@code benchmark.dump}
+ * system property.
+ * </p>
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private final LocalDatabase db;
+
+    private BenchmarkDatabase(LocalDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * Starts and seeds the server and points the DAOs at it.
+     *
+     * @param customers Number of customer accounts to add.
+     * @param carriers  Number of carrier accounts to add.
+     * @return The running database.
+     * @throws Exception If the server cannot be started or seeded.
+     */
+    static BenchmarkDatabase start(int customers, int carriers) throws Exception {
+        Path dump = Path.of(System.getProperty("benchmark.dump", "../greengrocer/database/Group12.sql"));
+        LocalDatabase db = LocalDatabase.start(0, dump);
+        LocalDatabase.seed(db.getJdbcUrl(), LocalDatabase.USER, LocalDatabase.PASSWORD, customers, carriers, 500);
+
+        // Must be set before the DAOs load DatabaseConfig
+        System.setProperty("greengrocer.db.url", db.getJdbcUrl());
+        System.setProperty("greengrocer.db.user", LocalDatabase.USER);
+        System.setProperty("greengrocer.db.password", LocalDatabase.PASSWORD);
+        if (!MigrationRunner.migrate())
+            throw new IllegalStateException("Schema migrations failed");
+        return new BenchmarkDatabase(db);
+    }
+
+    /**
+     * Opens a connection outside the application's pool, for seeding and resets.
+     *
+     * @return A new connection; the caller closes it.
+     * @throws SQLException If the connection fails.
+     */
+    Connection connect() throws SQLException {
+        return DriverManager.getConnection(db.getJdbcUrl(), LocalDatabase.USER, LocalDatabase.PASSWORD);
+    }
+
+    /**
+     * @param role {@code "customer"} or {@code "carrier"}.
+     * @return The IDs of all users with the role.
+     * @throws SQLException If the query fails.
+     */
+    List<Integer> userIds(String role) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = connect();
+                PreparedStatement ps = conn.prepareStatement("SELECT id FROM users WHERE role = ? ORDER BY id")) {
+            ps.setString(1, role);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next())
+                    ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Stops the application's background workers and pool, then the server.
+     */
+    @Override
+    public void close() {
+        InvoiceWorker.shutdown();
+        DatabaseConnection.closeConnection();
+        db.stop();
+    }
+}
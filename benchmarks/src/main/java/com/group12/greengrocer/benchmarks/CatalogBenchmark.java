@@ -0,0 +1,140 @@
+package com.group12.greengrocer.benchmarks;
+
+import com.group12.greengrocer.models.Product;
+import com.group12.greengrocer.utils.CatalogViewModel;
+import com.group12.greengrocer.utils.FuzzyMatcher;
+import com.group12.greengrocer.utils.ProductQuery;
+import com.group12.greengrocer.utils.ProductSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The customer catalog's search and sort ({@link ProductQuery}), the product
+ * search index ({@link ProductSearchIndex}) and the pre-sorted catalog
+ * ({@link CatalogViewModel}) over catalogs of up to 100k products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int products;
+
+    private List<Product> catalog;
+    private ProductSearchIndex index;
+    private CatalogViewModel viewModel;
+    private List<Product> domates;
+
+    /** A product whose stock alternates between plenty and below its threshold. */
+    private Product changing;
+    private boolean low;
+
+    @Setup
+    public void setUp() {
+        catalog = Fixtures.products(products, Fixtures.SEED);
+        index = ProductSearchIndex.of(catalog);
+        viewModel = new CatalogViewModel(catalog);
+        domates = index.search("domates");
+        Product p = catalog.get(catalog.size() / 2);
+        changing = new Product(p.getId(), p.getName(), p.getType(), p.getPrice(), p.getStock(), p.getThreshold());
+    }
+
+    /** A query that matches about one product in 24. */
+    @Benchmark
+    public List<Product> searchCommon() {
+        return ProductQuery.search(catalog, "Domates");
+    }
+
+    /** A query that matches (almost) nothing. */
+    @Benchmark
+    public List<Product> searchRare() {
+        return ProductQuery.search(catalog, "çengelköy kiraz 99");
+    }
+
+    /** The index with the same query, written without Turkish characters. */
+    @Benchmark
+    public List<Product> indexSearchCommon() {
+        return index.search("domates");
+    }
+
+    @Benchmark
+    public List<Product> indexSearchRare() {
+        return index.search("cengelkoy kiraz 99");
+    }
+
+    /** The second keystroke of a search as you type: a two-letter word prefix. */
+    @Benchmark
+    public List<Product> indexSearchPrefix() {
+        return index.search("do", 50);
+    }
+
+    /** "Domates" and "Organik" misspelled; the fallback when the index finds nothing. */
+    @Benchmark
+    public List<FuzzyMatcher.Match<Product>> indexSearchFuzzy() {
+        return index.searchFuzzy("orgnik domtaes", 50);
+    }
+
+    @Benchmark
+    public List<Product> indexRebuild() {
+        index.rebuild(catalog);
+        return catalog;
+    }
+
+    @Benchmark
+    public List<Product> sortByName() {
+        return ProductQuery.sort(catalog, ProductQuery.SORT_NAME_ASC);
+    }
+
+    @Benchmark
+    public List<Product> sortByPriceDescending() {
+        return ProductQuery.sort(catalog, ProductQuery.SORT_PRICE_DESC);
+    }
+
+    /** The same switch of the sort combo box served by the view model. */
+    @Benchmark
+    public List<Product> viewByName() {
+        return viewModel.view(ProductQuery.SORT_NAME_ASC);
+    }
+
+    @Benchmark
+    public List<Product> viewByPriceDescending() {
+        return viewModel.view(ProductQuery.SORT_PRICE_DESC);
+    }
+
+    /** Search results ("domates", about one product in 24) by price. */
+    @Benchmark
+    public List<Product> viewSearchByPrice() {
+        return viewModel.view(ProductQuery.SORT_PRICE_ASC, domates);
+    }
+
+    /** A stock change that doubles or restores the price, moving the product in the price order. */
+    @Benchmark
+    public CatalogViewModel viewUpdate() {
+        low = !low;
+        changing.setStock(low ? 0 : changing.getThreshold() + 100);
+        viewModel.update(changing);
+        return viewModel;
+    }
+
+    @Benchmark
+    public CatalogViewModel viewBuild() {
+        return new CatalogViewModel(catalog);
+    }
+}
@@ -0,0 +1,183 @@
+package com.group12.greengrocer.benchmarks;
+
+import com.group12.greengrocer.models.OrderItem;
+import com.group12.greengrocer.models.Product;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic data for the benchmarks.
+ * <p>
+ * Every generator takes a seed, so two runs (or two releases) benchmark exactly the
+ * same data. Catalogs scale to 100k products; orders are inserted into the embedded
+ * benchmark database (see {@link BenchmarkDatabase}).
+ * </p>
+ */
+public final class Fixtures {
+
+    /** Seed used by all benchmarks. */
+    public static final long SEED = 343L;
+
+    private static final String[] PRODUCE = {
+            "Domates", "Salatalık", "Patlıcan", "Biber", "Kabak", "Soğan", "Patates", "Havuç", "Ispanak",
+            "Marul", "Brokoli", "Pırasa", "Elma", "Armut", "Muz", "Portakal", "Mandalina", "Çilek",
+            "Kiraz", "Üzüm", "Şeftali", "Kayısı", "Karpuz", "Kavun" };
+
+    private static final String[] VARIETIES = {
+            "", "Organik ", "Yerli ", "İthal ", "Köy ", "Sera ", "Bahçe ", "Çengelköy " };
+
+    private static final String[] NEIGHBORHOODS = { "Beşiktaş", "Kadıköy", "Şişli", "Üsküdar", "Sarıyer" };
+
+    private static final String[] CONSONANTS = {
+            "b", "c", "ç", "d", "f", "g", "h", "k", "l", "m", "n", "p", "r", "s", "ş", "t", "v", "y", "z" };
+
+    private static final String[] VOWELS = { "a", "e", "ı", "i", "o", "ö", "u", "ü" };
+
+    private static final String[] STATUSES = { "pending", "assigned", "in_delivery", "completed", "cancelled" };
+
+    private Fixtures() {
+    }
+
+    /**
+     * Generates a product catalog. About one product in eight is at or below its
+     * threshold, so {@link Product#getCurrentPrice()} takes both branches.
+     *
+     * @param count Number of products.
+     * @param seed  Random seed.
+     * @return The products, in ID order.
+     */
+    public static List<Product> products(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String base = PRODUCE[random.nextInt(PRODUCE.length)];
+            String name = VARIETIES[random.nextInt(VARIETIES.length)] + base + " " + (i + 1);
+            String type = indexOf(PRODUCE, base) < 12 ? "vegetable" : "fruit";
+            double price = 5 + random.nextInt(9_500) / 100.0;
+            double threshold = 5 + random.nextInt(16);
+            double stock = random.nextInt(8) == 0 ? random.nextInt((int) threshold + 1) : threshold + random.nextInt(200);
+            products.add(new Product(i + 1, name, type, price, stock, threshold));
+        }
+        return products;
+    }
+
+    /**
+     * Generates the items of one order.
+     *
+     * @param count Number of items.
+     * @param seed  Random seed.
+     * @return The order items.
+     */
+    public static List<OrderItem> orderItems(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            OrderItem item = new OrderItem();
+            item.setId(i + 1);
+            item.setProductId(random.nextInt(1, 100_000));
+            item.setProductName(PRODUCE[random.nextInt(PRODUCE.length)] + " " + (i + 1));
+            item.setQuantity((1 + random.nextInt(10)) * 0.5);
+            item.setUnitPrice(5 + random.nextInt(9_500) / 100.0);
+            item.setTotalPrice(item.getQuantity() * item.getUnitPrice());
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Generates customer records as searched by the carrier and owner views: a
+     * first name, a surname, a street and a neighborhood, e.g. "Ferak Tülemiz,
+     * Kosur Sokak No:12, Beşiktaş". Names are random two- to four-syllable words, so
+     * the vocabulary grows with the count like real names and street names do.
+     *
+     * @param count Number of records.
+     * @param seed  Random seed.
+     * @return The records.
+     */
+    public static List<String> customerRecords(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> records = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(word(random) + " " + word(random) + ", " + word(random) + " Sokak No:"
+                    + (1 + random.nextInt(200)) + ", " + NEIGHBORHOODS[random.nextInt(NEIGHBORHOODS.length)]);
+        }
+        return records;
+    }
+
+    /** A capitalized word of two to four consonant-vowel syllables, sometimes ending in a consonant. */
+    private static String word(SplittableRandom random) {
+        StringBuilder sb = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++)
+            sb.append(CONSONANTS[random.nextInt(CONSONANTS.length)]).append(VOWELS[random.nextInt(VOWELS.length)]);
+        if (random.nextBoolean())
+            sb.append(CONSONANTS[random.nextInt(CONSONANTS.length)]);
+        return Character.toUpperCase(sb.charAt(0)) + sb.substring(1);
+    }
+
+    private static int indexOf(String[] values, String value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equals(value))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts an orders table into the benchmark database: one order every 30
+     * seconds from 2025-01-01, spread over all statuses, five neighborhoods and both
+     * payment methods. Orders are inserted 1000 rows per statement.
+     *
+     * @param conn      An open connection.
+     * @param count     Number of orders.
+     * @param customers IDs of existing customers.
+     * @param carriers  IDs of existing carriers, assigned to orders past {@code pending}.
+     * @param seed      Random seed.
+     * @throws SQLException If an insert fails.
+     */
+    public static void insertOrders(Connection conn, int count, List<Integer> customers, List<Integer> carriers,
+            long seed) throws SQLException {
+        String columns = "INSERT INTO orders (user_id, carrier_id, order_time, delivery_time, requested_delivery_date, "
+                + "delivery_address, delivery_neighborhood, total_cost, subtotal, vat_amount, status, priority_level, "
+                + "payment_method) VALUES ";
+        String row = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        SplittableRandom random = new SplittableRandom(seed);
+        long start = Timestamp.valueOf("2025-01-01 08:00:00").getTime();
+
+        for (int from = 0; from < count; from += 1000) {
+            int rows = Math.min(1000, count - from);
+            String sql = columns + String.join(", ", Collections.nCopies(rows, row));
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int p = 1;
+                for (int i = from; i < from + rows; i++) {
+                    String status = STATUSES[random.nextInt(STATUSES.length)];
+                    long orderTime = start + i * 30_000L;
+                    long requested = orderTime + 86_400_000L;
+                    double total = 20 + random.nextInt(200_000) / 100.0;
+                    boolean assigned = !status.equals("pending") && !status.equals("cancelled");
+                    ps.setInt(p++, customers.get(random.nextInt(customers.size())));
+                    ps.setObject(p++, assigned ? carriers.get(random.nextInt(carriers.size())) : null);
+                    ps.setTimestamp(p++, new Timestamp(orderTime));
+                    ps.setTimestamp(p++, status.equals("completed") ? new Timestamp(requested + 3_600_000L) : null);
+                    ps.setTimestamp(p++, new Timestamp(requested));
+                    ps.setString(p++, "Benchmark Sok. No:" + (1 + random.nextInt(200)));
+                    ps.setString(p++, NEIGHBORHOODS[random.nextInt(NEIGHBORHOODS.length)]);
+                    ps.setDouble(p++, total);
+                    ps.setDouble(p++, Math.round(total / 1.18 * 100) / 100.0);
+                    ps.setDouble(p++, Math.round((total - total / 1.18) * 100) / 100.0);
+                    ps.setString(p++, status);
+                    ps.setInt(p++, 1 + random.nextInt(3));
+                    ps.setString(p++, random.nextBoolean() ? "ONLINE_PAYMENT" : "CASH_ON_DELIVERY");
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.group12.greengrocer.benchmarks;
+
+import com.group12.greengrocer.utils.FuzzyMatcher;
+import com.group12.greengrocer.utils.ProductSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typo-tolerant search ({@link FuzzyMatcher}) over customer names and addresses,
+ * against comparing the query with every word of every record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FuzzySearchBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int records;
+
+    private List<String> data;
+    private FuzzyMatcher<String> matcher;
+
+    /** A surname of six or more letters with one letter dropped (one edit). */
+    private String oneTypo;
+
+    /** A long street name with two neighboring letters swapped and one replaced (two edits). */
+    private String twoTypos;
+
+    @Setup
+    public void setUp() {
+        data = Fixtures.customerRecords(records, Fixtures.SEED);
+        matcher = FuzzyMatcher.of(data, s -> s);
+
+        String surname = data.stream().skip(records / 2)
+                .map(s -> ProductSearchIndex.fold(s.split("[ ,]+")[1]))
+                .filter(w -> w.length() >= 6)
+                .findFirst().orElseThrow();
+        oneTypo = surname.substring(0, 2) + surname.substring(3);
+
+        String street = data.stream()
+                .map(s -> ProductSearchIndex.fold(s.split("[ ,]+")[2]))
+                .filter(w -> w.length() >= 9)
+                .findFirst().orElseThrow();
+        char[] c = street.toCharArray();
+        char t = c[1];
+        c[1] = c[2];
+        c[2] = t;
+        c[c.length - 2] = c[c.length - 2] == 'x' ? 'q' : 'x';
+        twoTypos = new String(c);
+    }
+
+    @Benchmark
+    public List<FuzzyMatcher.Match<String>> oneTypo() {
+        return matcher.match(oneTypo, 50);
+    }
+
+    @Benchmark
+    public List<FuzzyMatcher.Match<String>> twoTypos() {
+        return matcher.match(twoTypos, 50);
+    }
+
+    /** A misspelled neighborhood, matching about a fifth of the records. */
+    @Benchmark
+    public List<FuzzyMatcher.Match<String>> commonWord() {
+        return matcher.match("besiktsa", 50);
+    }
+
+    /** Customer name and neighborhood, both misspelled. */
+    @Benchmark
+    public List<FuzzyMatcher.Match<String>> twoWords() {
+        return matcher.match(oneTypo + " kadikoyy", 50);
+    }
+
+    @Benchmark
+    public FuzzyMatcher<String> build() {
+        return FuzzyMatcher.of(data, s -> s);
+    }
+
+    /** The same one-typo search comparing the query with every word. */
+    @Benchmark
+    public List<String> oneTypoLinearScan() {
+        int max = FuzzyMatcher.maxEdits(oneTypo.length());
+        List<String> result = new ArrayList<>();
+        for (String record : data) {
+            for (String word : ProductSearchIndex.fold(record).split("[^\\p{L}\\p{N}]+")) {
+                if (FuzzyMatcher.distance(oneTypo, word) <= max) {
+                    result.add(record);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
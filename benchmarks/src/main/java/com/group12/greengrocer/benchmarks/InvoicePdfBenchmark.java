@@ -0,0 +1,110 @@
+package com.group12.greengrocer.benchmarks;
+
+import com.group12.greengrocer.database.OrderDAO;
+import com.group12.greengrocer.models.OrderItem;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoice throughput of {@link OrderDAO#getInvoicePDF(int)} against the embedded
+ * database ({@link BenchmarkDatabase}), for orders with a typical, a large and an
+ * extreme number of lines: rendering a pending invoice (read the order, render the
+ * PDF, store it) and fetching a stored one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoicePdfBenchmark {
+
+    @Param({ "5", "50", "500" })
+    public int items;
+
+    private BenchmarkDatabase db;
+    private int orderId;
+
+    @Setup
+    public void setUp() throws Exception {
+        db = BenchmarkDatabase.start(10, 2);
+        List<Integer> customers = db.userIds("customer");
+        try (Connection conn = db.connect()) {
+            Fixtures.insertOrders(conn, 1, customers, db.userIds("carrier"), Fixtures.SEED);
+            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT MAX(id) FROM orders")) {
+                rs.next();
+                orderId = rs.getInt(1);
+            }
+            insertItems(conn, orderId, Fixtures.orderItems(items, Fixtures.SEED));
+        }
+        OrderDAO.getInvoicePDF(orderId); // stores the invoice for storedInvoice
+    }
+
+    @TearDown
+    public void tearDown() {
+        db.close();
+    }
+
+    /**
+     * Marks the invoice as not rendered before every call of {@link #renderInvoice}.
+     */
+    @State(Scope.Thread)
+    public static class Pending {
+
+        @Setup(Level.Invocation)
+        public void reset(InvoicePdfBenchmark benchmark) throws SQLException {
+            try (Connection conn = benchmark.db.connect();
+                    PreparedStatement ps = conn.prepareStatement(
+                            "UPDATE orders SET invoice = NULL, invoice_status = 'pending' WHERE id = ?")) {
+                ps.setInt(1, benchmark.orderId);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] renderInvoice(Pending pending) {
+        return OrderDAO.getInvoicePDF(orderId);
+    }
+
+    @Benchmark
+    public byte[] storedInvoice() {
+        return OrderDAO.getInvoicePDF(orderId);
+    }
+
+    private static void insertItems(Connection conn, int orderId, List<OrderItem> items) throws SQLException {
+        String sql = "INSERT INTO order_items (order_id, product_id, product_name, quantity, unit_price, total_price) "
+                + "VALUES (?, (SELECT MIN(id) FROM products), ?, ?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (OrderItem item : items) {
+                ps.setInt(1, orderId);
+                ps.setString(2, item.getProductName());
+                ps.setDouble(3, item.getQuantity());
+                ps.setDouble(4, item.getUnitPrice());
+                ps.setDouble(5, item.getTotalPrice());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.group12.greengrocer.benchmarks;
+
+import com.group12.greengrocer.database.OrderDAO;
+import com.group12.greengrocer.models.Order;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order list queries through the public {@link OrderDAO} API against the embedded
+ * database ({@link BenchmarkDatabase}): query, JDBC transfer and row mapping, as the
+ * owner's orders table, a customer's order history and the dashboard pay for them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderListBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int orders;
+
+    private BenchmarkDatabase db;
+    private int customerId;
+
+    @Setup
+    public void setUp() throws Exception {
+        db = BenchmarkDatabase.start(200, 20);
+        List<Integer> customers = db.userIds("customer");
+        try (Connection conn = db.connect()) {
+            Fixtures.insertOrders(conn, orders, customers, db.userIds("carrier"), Fixtures.SEED);
+        }
+        customerId = customers.get(customers.size() / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        db.close();
+    }
+
+    /** The owner's orders table: first page of all orders. */
+    @Benchmark
+    public OrderDAO.OrderPage firstPage() {
+        return OrderDAO.getOrdersPage(OrderDAO.OrderFilter.ALL, null, 100);
+    }
+
+    /** A customer's order history: first page of their orders. */
+    @Benchmark
+    public OrderDAO.OrderPage customerFirstPage() {
+        return OrderDAO.getOrdersPage(OrderDAO.OrderFilter.forCustomer(customerId), null, 30);
+    }
+
+    /** Pending orders of one neighborhood, as filtered in the owner's orders table. */
+    @Benchmark
+    public OrderDAO.OrderPage filteredPage() {
+        return OrderDAO.getOrdersPage(new OrderDAO.OrderFilter(null, "pending", null, null, "Kadıköy"), null, 100);
+    }
+
+    /** The dashboard's "Recent Orders" table. */
+    @Benchmark
+    public List<Order> recentOrders() {
+        return OrderDAO.getRecentOrders(5);
+    }
+
+    /** Every order, page by page: the full mapping cost of the table. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int allPages() {
+        int count = 0;
+        OrderDAO.PageCursor after = null;
+        do {
+            OrderDAO.OrderPage page = OrderDAO.getOrdersPage(OrderDAO.OrderFilter.ALL, after, 1000);
+            count += page.orders().size();
+            after = page.next();
+        } while (after != null);
+        return count;
+    }
+}
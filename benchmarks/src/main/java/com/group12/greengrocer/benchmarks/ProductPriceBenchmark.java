@@ -0,0 +1,50 @@
+package com.group12.greengrocer.benchmarks;
+
+import com.group12.greengrocer.models.Product;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Product#getCurrentPrice()} across a whole catalog, with a realistic mix of
+ * products above and at or below their stock threshold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductPriceBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int products;
+
+    private List<Product> catalog;
+
+    @Setup
+    public void setUp() {
+        catalog = Fixtures.products(products, Fixtures.SEED);
+    }
+
+    @Benchmark
+    public double sumCurrentPrices() {
+        double sum = 0;
+        for (Product p : catalog) {
+            sum += p.getCurrentPrice();
+        }
+        return sum;
+    }
+}
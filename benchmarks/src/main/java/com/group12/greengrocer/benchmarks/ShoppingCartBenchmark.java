@@ -0,0 +1,77 @@
+package com.group12.greengrocer.benchmarks;
+
+import com.group12.greengrocer.models.Product;
+import com.group12.greengrocer.utils.ShoppingCart;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ShoppingCart#addItem} and {@link ShoppingCart#calculateSubtotal} with carts
+ * far larger than a real customer would build.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShoppingCartBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int cartSize;
+
+    private ShoppingCart cart;
+    private Product lastInCart;
+    private Product notInCart;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = Fixtures.products(cartSize + 1, Fixtures.SEED);
+        cart = ShoppingCart.getInstance();
+        cart.clear();
+        for (int i = 0; i < cartSize; i++) {
+            cart.addItem(products.get(i), 1.0);
+        }
+        lastInCart = products.get(cartSize - 1);
+        notInCart = products.get(cartSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cart.clear();
+    }
+
+    /** Adds to a line that already exists; the worst case scans the whole cart. */
+    @Benchmark
+    public int addExistingItem() {
+        cart.addItem(lastInCart, 0.5);
+        return cart.getItemCount();
+    }
+
+    /** Adds a new line (full scan plus append) and removes it again. */
+    @Benchmark
+    public int addNewItem() {
+        cart.addItem(notInCart, 1.0);
+        cart.getItems().remove(cartSize);
+        return cart.getItemCount();
+    }
+
+    @Benchmark
+    public double calculateSubtotal() {
+        return cart.calculateSubtotal();
+    }
+}
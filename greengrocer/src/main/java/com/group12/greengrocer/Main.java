@@ -1,5 +1,10 @@
 package com.group12.greengrocer;
 
+import com.group12.greengrocer.database.DatabaseConnection;
+import com.group12.greengrocer.database.InvoiceWorker;
+import com.group12.greengrocer.database.MigrationRunner;
+import com.group12.greengrocer.utils.AsyncLoader;
+
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -20,6 +25,25 @@ import javafx.stage.Stage;
  */
 public class Main extends Application {
 
+    /**
+     * Prepares the application before the first window opens.
+     * <p>
+     * Brings the database schema up to date by applying pending
+     * {@link MigrationRunner schema migrations} and starts the {@link InvoiceWorker},
+     * which renders invoices left pending by earlier runs. If the database cannot be
+     * reached, the application still starts and the login screen reports the error.
+     * </p>
+     */
+    @Override
+    public void init() {
+        try {
+            MigrationRunner.migrate();
+        } catch (RuntimeException e) {
+            e.printStackTrace(); // the login screen reports database problems
+        }
+        InvoiceWorker.start();
+    }
+
     /**
      * Starts the JavaFX application.
      * <p>
@@ -44,6 +68,21 @@ public class Main extends Application {
         primaryStage.show();
     }
 
+    /**
+     * Stops the JavaFX application.
+     * <p>
+     * Stops the background DAO and invoice workers and shuts down the database connection
+     * pool so that pooled connections are closed cleanly when the last window is
+     * closed. Invoices still queued are rendered by the next start.
+     * </p>
+     */
+    @Override
+    public void stop() {
+        AsyncLoader.shutdown();
+        InvoiceWorker.shutdown();
+        DatabaseConnection.closeConnection();
+    }
+
     /**
      * The standard Java entry point for the application.
      * <p>
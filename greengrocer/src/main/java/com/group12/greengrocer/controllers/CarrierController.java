@@ -5,18 +5,27 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Stack;
 import java.util.stream.Collectors;
 
 import com.group12.greengrocer.database.OrderDAO;
 import com.group12.greengrocer.models.Order;
+import com.group12.greengrocer.models.OrderItem;
 import com.group12.greengrocer.models.User;
+import com.group12.greengrocer.utils.AsyncLoader;
+import com.group12.greengrocer.utils.KeyedDiff;
+import com.group12.greengrocer.utils.SearchPipeline;
 
 import javafx.animation.FadeTransition;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
@@ -26,6 +35,8 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.TextField;
@@ -49,9 +60,17 @@ import javafx.stage.Stage;
  */
 public class CarrierController {
 
-    // UI Containers for different order statuses
+    // UI Lists for different order statuses
     @FXML
-    private VBox availableDeliveriesBox, currentDeliveriesBox, completedDeliveriesBox;
+    private ListView<Order> availableDeliveriesList, currentDeliveriesList, completedDeliveriesList;
+
+    /** Orders shown in the three lists; updated in place by {@link #updateUI()}. */
+    private final ObservableList<Order> availableOrders = FXCollections.observableArrayList();
+    private final ObservableList<Order> currentOrders = FXCollections.observableArrayList();
+    private final ObservableList<Order> completedOrders = FXCollections.observableArrayList();
+
+    /** Horizontal room left next to an order card for the list's scroll bar. */
+    private static final double CARD_INSET = 18;
     
     // UI Filters and inputs
     @FXML
@@ -73,11 +92,26 @@ public class CarrierController {
     /** Local cache of all orders relevant to this carrier context. */
     private List<Order> allOrders;
 
+    /** The orders of {@link #allOrders} that match the search text. */
+    private List<Order> searchResults = List.of();
+
+    /** Filters {@link #allOrders} by customer name, address and neighborhood. */
+    private final SearchPipeline<Order> orderSearch = new SearchPipeline<>(
+            o -> safe(o.getCustomerName()) + "\n" + safe(o.getDeliveryAddress()) + "\n"
+                    + safe(o.getDeliveryNeighborhood()),
+            matches -> {
+                searchResults = matches;
+                updateUI();
+            });
+
     private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
 
     /** Stack to keep track of actions for the global "Undo" functionality. */
     private Stack<ActionRecord> historyStack = new Stack<>();
 
+    /** Runs the dashboard queries off the JavaFX thread. */
+    private final AsyncLoader loader = new AsyncLoader();
+
     /**
      * Enumeration representing the types of actions a carrier can perform.
      */
@@ -115,12 +149,11 @@ public class CarrierController {
         this.currentUser = user;
         lblUsername.setText("👤 " + user.getUsername());
 
-        double rating = OrderDAO.getCarrierAverageRating(user.getId());
-        lblCarrierRegion.setText(String.format("Bölge: %s | ⭐ Puan: %.1f", 
-            (user.getNeighborhood() != null ? user.getNeighborhood() : "Yok"), rating));
-
         String myNeighborhood = user.getNeighborhood();
         lblCarrierRegion.setText("Bölge: " + (myNeighborhood != null ? myNeighborhood : "Atanmamış"));
+        loader.submit("rating", () -> OrderDAO.getCarrierAverageRating(user.getId()),
+                rating -> lblCarrierRegion.setText(String.format("Bölge: %s | ⭐ Puan: %.1f",
+                        (myNeighborhood != null ? myNeighborhood : "Yok"), rating)));
 
         neighborhoodCombo.setItems(javafx.collections.FXCollections.observableArrayList(
                 "Tüm İstanbul", "Beşiktaş", "Kadıköy", "Şişli", "Üsküdar", "Fatih", "Maltepe"));
@@ -143,13 +176,47 @@ public class CarrierController {
         completedFilterCombo
                 .setItems(javafx.collections.FXCollections.observableArrayList("Son 24 Saat", "Son 30 Gün"));
         completedFilterCombo.setValue("Son 24 Saat");
-        completedFilterCombo.setOnAction(e -> updateUI(searchField.getText()));
-        searchField.textProperty().addListener((obs, old, val) -> updateUI(val));
+        completedFilterCombo.setOnAction(e -> updateUI());
+        orderSearch.bind(searchField);
+
+        setUpOrderList(availableDeliveriesList, availableOrders);
+        setUpOrderList(currentDeliveriesList, currentOrders);
+        setUpOrderList(completedDeliveriesList, completedOrders);
 
         if (undoButton != null)
             undoButton.setDisable(true);
         if (notificationLabel != null)
             notificationLabel.setVisible(false);
+        loader.bindBusyCursor(availableDeliveriesList);
+    }
+
+    /**
+     * Shows an order list as cards. The list is virtualized: only the cells on
+     * screen exist, each cell keeps one card and rebinds it to the order it shows.
+     */
+    private void setUpOrderList(ListView<Order> list, ObservableList<Order> orders) {
+        list.setItems(orders);
+        list.setFocusTraversable(false);
+        list.setCellFactory(lv -> new ListCell<>() {
+            private final OrderCard card = new OrderCard();
+
+            {
+                setStyle("-fx-background-color: transparent; -fx-padding: 0 0 12 0;");
+                card.prefWidthProperty().bind(lv.widthProperty().subtract(CARD_INSET));
+            }
+
+            @Override
+            protected void updateItem(Order o, boolean empty) {
+                super.updateItem(o, empty);
+                setText(null);
+                if (empty || o == null) {
+                    setGraphic(null);
+                } else {
+                    card.show(o);
+                    setGraphic(card);
+                }
+            }
+        });
     }
 
     /**
@@ -160,15 +227,17 @@ public class CarrierController {
     public void refreshData() {
         if (currentUser == null)
             return;
-        try {
-            allOrders = OrderDAO.getCarrierDashboardOrders(currentUser.getId(), neighborhoodCombo.getValue());
-            updateUI(searchField.getText());
+        int carrierId = currentUser.getId();
+        String neighborhood = neighborhoodCombo.getValue();
+        loader.submit("orders", () -> OrderDAO.getCarrierDashboardOrders(carrierId, neighborhood), orders -> {
+            allOrders = orders;
+            orderSearch.setItems(orders);
             updateStats();
             updateUndoButtonState();
-        } catch (Exception e) {
+        }, e -> {
             e.printStackTrace();
             showNotification("Veriler güncellenirken hata oluştu!", false);
-        }
+        });
     }
 
     /**
@@ -197,179 +266,206 @@ public class CarrierController {
                 + "\n\nBu işlemi geri almak istediğinizden emin misiniz?";
 
         if (showConfirm("İşlemi Geri Al Onayı", message)) {
-            boolean success = false;
-            switch (lastAction.type) {
-                case PICKUP:
-                    success = OrderDAO.releaseOrderToPool(lastAction.orderId, currentUser.getId());
-                    break;
-                case RELEASE:
-                    success = OrderDAO.assignAndPickUp(lastAction.orderId, currentUser.getId());
-                    break;
-                case COMPLETE:
-                    success = OrderDAO.undoCompleteOrder(lastAction.orderId, currentUser.getId());
-                    break;
-            }
-
-            if (success) {
-                historyStack.pop();
-                refreshData();
-                showNotification("Son işlem başarıyla geri alındı.", true);
-            } else {
-                showNotification("İşlem geri alınamadı. Durum değişmiş olabilir.", false);
-                historyStack.pop();
+            int carrierId = currentUser.getId();
+            loader.submit("undo-" + lastAction.orderId, () -> switch (lastAction.type) {
+                case PICKUP -> OrderDAO.releaseOrderToPool(lastAction.orderId, carrierId);
+                case RELEASE -> OrderDAO.assignAndPickUp(lastAction.orderId, carrierId);
+                case COMPLETE -> OrderDAO.undoCompleteOrder(lastAction.orderId, carrierId);
+            }, success -> {
+                historyStack.remove(lastAction);
                 refreshData();
-            }
+                if (success)
+                    showNotification("Son işlem başarıyla geri alındı.", true);
+                else
+                    showNotification("İşlem geri alınamadı. Durum değişmiş olabilir.", false);
+            }, e -> showNotification("Bağlantı hatası!", false));
         }
     }
 
     /**
-     * Refreshes the VBoxes for Available, Current, and Completed deliveries.
-     * Applies search filtering and date filtering logic.
-     *
-     * @param filterText The text from the search bar to filter orders by name/address.
+     * Refreshes the lists for Available, Current, and Completed deliveries from
+     * the current search results, applying the date filter.
+     * <p>
+     * The lists are diffed by order ID against what they show, so only cards of
+     * orders that appeared, disappeared or changed are rebuilt.
+     * </p>
      */
-    private void updateUI(String filterText) {
-        availableDeliveriesBox.getChildren().clear();
-        currentDeliveriesBox.getChildren().clear();
-        completedDeliveriesBox.getChildren().clear();
-
-        if (allOrders == null)
-            return;
-        LocalDateTime now = LocalDateTime.now();
-
-        for (Order o : allOrders) {
-            if (!matchesSearch(o, filterText))
-                continue;
-            VBox card = createOrderCard(o);
-
-            if (isPool(o)) {
-                availableDeliveriesBox.getChildren().add(card);
-            } else if (isActiveMine(o)) {
-                currentDeliveriesBox.getChildren().add(card);
-            } else if (isDeliveredMine(o)) {
-                if (checkDateFilter(o, now)) {
-                    completedDeliveriesBox.getChildren().add(card);
+    private void updateUI() {
+        List<Order> available = new ArrayList<>();
+        List<Order> current = new ArrayList<>();
+        List<Order> completed = new ArrayList<>();
+
+        if (currentUser != null) {
+            LocalDateTime now = LocalDateTime.now();
+            for (Order o : searchResults) {
+                if (isPool(o)) {
+                    available.add(o);
+                } else if (isActiveMine(o)) {
+                    current.add(o);
+                } else if (isDeliveredMine(o)) {
+                    if (checkDateFilter(o, now)) {
+                        completed.add(o);
+                    }
                 }
             }
         }
+
+        KeyedDiff.apply(availableOrders, available, Order::getId, this::sameCard);
+        KeyedDiff.apply(currentOrders, current, Order::getId, this::sameCard);
+        KeyedDiff.apply(completedOrders, completed, Order::getId, this::sameCard);
     }
 
     /**
-     * Creates a graphical card (VBox) representing a single order.
-     * The card includes details like customer name, address, price, and action buttons.
-     *
-     * @param o The Order object to visualize.
-     * @return A VBox containing the order details and controls.
+     * Checks if two versions of an order would be shown as the same card.
      */
-    private VBox createOrderCard(Order o) {
-        VBox card = new VBox(8);
-        String borderColor = "#e0e0e0";
-        if (o.getPriorityLevel() == 2)
-            borderColor = "#ffa726";
-        if (o.getPriorityLevel() == 3)
-            borderColor = "#d32f2f";
-
-        card.setStyle("-fx-background-color: white; -fx-border-color: " + borderColor +
-                "; -fx-border-width: 2; -fx-padding: 12; -fx-background-radius: 10; " +
-                "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 5, 0, 0, 1);");
-
-        Label lblId = new Label("📦 Sipariş #" + o.getId());
-        lblId.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: #2c3e50;");
-
-        Label lblName = new Label("👤 Müşteri: " + safe(o.getCustomerName()));
-        lblName.setStyle("-fx-text-fill: #34495e; -fx-font-weight: bold;");
-
-        Label lblAddr = new Label("📍 " + safe(o.getDeliveryNeighborhood()) + "\n" + safe(o.getDeliveryAddress()));
-        lblAddr.setWrapText(true);
-        lblAddr.setStyle("-fx-text-fill: #555555; -fx-font-size: 11px;");
-
-        // --- PAYMENT TYPE AND AMOUNT ---
-        String paymentText = "";
-        String paymentColor = "";
-        if ("ONLINE_PAYMENT".equalsIgnoreCase(o.getPaymentMethod())) {
-            paymentText = "💳 ÖDENDİ (ONLINE)";
-            paymentColor = "#27ae60"; // Green
-        } else {
-            paymentText = "💵 NAKİT TAHSİL ET";
-            paymentColor = "#c0392b"; // Red
-        }
-
-        Label lblPrice = new Label("Tutar: " + String.format("%.2f", o.getTotalCost()) + " TL");
-        lblPrice.setStyle("-fx-text-fill: #2c3e50; -fx-font-weight: bold;");
-
-        Label lblPaymentStatus = new Label(paymentText);
-        lblPaymentStatus.setStyle("-fx-text-fill: white; -fx-background-color: " + paymentColor
-                + "; -fx-padding: 3 6; -fx-background-radius: 4; -fx-font-size: 10px; -fx-font-weight: bold;");
-
-        HBox priceBox = new HBox(10, lblPrice, lblPaymentStatus);
-
-        // --- EARNINGS INDICATOR ---
-        Label lblEarnings = new Label("✨ Kazancın: " + String.format("%.2f", o.getCarrierEarnings()) + " TL");
-        lblEarnings.setStyle("-fx-text-fill: #8e44ad; -fx-font-size: 11px; -fx-font-weight: bold;");
-
-        // --- DATE ---
-        String reqDateStr = "Belirtilmemiş";
-        if (o.getRequestedDeliveryDate() != null) {
-            reqDateStr = o.getRequestedDeliveryDate().toLocalDateTime().format(dtf);
-        }
-        Label lblDate = new Label("📅 İstenen: " + reqDateStr);
-        lblDate.setStyle("-fx-text-fill: #e67e22; -fx-font-size: 11px;");
-
-        card.getChildren().addAll(lblId, lblName, lblAddr, priceBox, lblEarnings, lblDate);
+    private boolean sameCard(Order a, Order b) {
+        return Objects.equals(a.getStatus(), b.getStatus())
+                && Objects.equals(a.getCarrierId(), b.getCarrierId())
+                && a.getPriorityLevel() == b.getPriorityLevel()
+                && Objects.equals(a.getCustomerName(), b.getCustomerName())
+                && Objects.equals(a.getDeliveryNeighborhood(), b.getDeliveryNeighborhood())
+                && Objects.equals(a.getDeliveryAddress(), b.getDeliveryAddress())
+                && Objects.equals(a.getPaymentMethod(), b.getPaymentMethod())
+                && a.getTotalCost() == b.getTotalCost()
+                && a.getCarrierEarnings() == b.getCarrierEarnings()
+                && Objects.equals(a.getRequestedDeliveryDate(), b.getRequestedDeliveryDate())
+                && Objects.equals(a.getDeliveryTime(), b.getDeliveryTime())
+                && a.getItems().stream().map(OrderItem::getSummary).toList()
+                        .equals(b.getItems().stream().map(OrderItem::getSummary).toList());
+    }
 
-        // Add product list to card
-        List<String> products = OrderDAO.getOrderItemsAsText(o.getId());
-        if (!products.isEmpty()) {
-            VBox productsBox = new VBox(2);
+    /**
+     * Graphical card of a single order: customer, address, price, items and the
+     * action buttons for its status. The nodes are created once per list cell and
+     * rebound by {@link #show(Order)} as the cell is reused.
+     */
+    private final class OrderCard extends VBox {
+        private final Label lblId = new Label();
+        private final Label lblName = new Label();
+        private final Label lblAddr = new Label();
+        private final Label lblPrice = new Label();
+        private final Label lblPaymentStatus = new Label();
+        private final Label lblEarnings = new Label();
+        private final Label lblDate = new Label();
+        private final VBox productsBox = new VBox(2);
+
+        // Pool order
+        private final Button pickUpBtn = new Button("Teslim Al");
+        // My active order
+        private final HBox actionBox = new HBox(5);
+        // My delivered order
+        private final Label lblDelivered = new Label();
+        private final Button btnUndoDelivery = new Button("↩ Hatalı - Geri Al");
+
+        private Order order;
+
+        OrderCard() {
+            super(8);
+            lblId.setStyle("-fx-font-weight: bold; -fx-font-size: 14px; -fx-text-fill: #2c3e50;");
+            lblName.setStyle("-fx-text-fill: #34495e; -fx-font-weight: bold;");
+            lblAddr.setWrapText(true);
+            lblAddr.setStyle("-fx-text-fill: #555555; -fx-font-size: 11px;");
+            lblPrice.setStyle("-fx-text-fill: #2c3e50; -fx-font-weight: bold;");
+            lblEarnings.setStyle("-fx-text-fill: #8e44ad; -fx-font-size: 11px; -fx-font-weight: bold;");
+            lblDate.setStyle("-fx-text-fill: #e67e22; -fx-font-size: 11px;");
             productsBox.setStyle("-fx-background-color: #f8f9fa; -fx-padding: 5; -fx-background-radius: 5;");
-            for (String item : products) {
-                Label itemLbl = new Label(item);
-                itemLbl.setStyle("-fx-font-size: 10px; -fx-text-fill: #6c757d;");
-                productsBox.getChildren().add(itemLbl);
-            }
-            card.getChildren().add(productsBox);
-        }
 
-        // Add buttons based on order status
-        if (isPool(o)) {
-            Button pickUpBtn = new Button("Teslim Al");
             pickUpBtn.setStyle(
                     "-fx-background-color: #2e7d32; -fx-text-fill: white; -fx-cursor: hand; -fx-background-radius: 5;");
             pickUpBtn.setMaxWidth(Double.MAX_VALUE);
-            pickUpBtn.setOnAction(e -> handlePickUpInline(o));
-            card.getChildren().add(pickUpBtn);
+            pickUpBtn.setOnAction(e -> handlePickUpInline(order));
 
-        } else if (isActiveMine(o)) {
-            HBox actionBox = new HBox(5);
             Button btnComplete = new Button("Teslim Et");
             btnComplete.setStyle("-fx-background-color: #1976d2; -fx-text-fill: white; -fx-cursor: hand;");
             btnComplete.setMaxWidth(Double.MAX_VALUE);
             HBox.setHgrow(btnComplete, javafx.scene.layout.Priority.ALWAYS);
-
             Button btnCancel = new Button("İptal");
             btnCancel.setStyle("-fx-background-color: #d32f2f; -fx-text-fill: white; -fx-cursor: hand;");
-
-            btnComplete.setOnAction(e -> handleCompleteOrderWithDate(o));
-            btnCancel.setOnAction(e -> handleReleaseOrder(o));
-
+            btnComplete.setOnAction(e -> handleCompleteOrderWithDate(order));
+            btnCancel.setOnAction(e -> handleReleaseOrder(order));
             actionBox.getChildren().addAll(btnComplete, btnCancel);
-            card.getChildren().add(actionBox);
 
-        } else if (isDeliveredMine(o)) {
-            Label lblDelivered = new Label(
-                    "✅ " + (o.getDeliveryTime() != null ? o.getDeliveryTime().toLocalDateTime().format(dtf) : ""));
             lblDelivered.setStyle("-fx-text-fill: #2ecc71; -fx-font-size: 11px; -fx-font-weight: bold;");
-
-            Button btnUndoDelivery = new Button("↩ Hatalı - Geri Al");
             btnUndoDelivery.setStyle(
                     "-fx-background-color: #ffb74d; -fx-text-fill: #3e2723; -fx-font-size: 10px; -fx-cursor: hand; -fx-background-radius: 5;");
             btnUndoDelivery.setMaxWidth(Double.MAX_VALUE);
-            btnUndoDelivery.setOnAction(e -> handleUndoSpecificOrder(o));
+            btnUndoDelivery.setOnAction(e -> handleUndoSpecificOrder(order));
 
-            card.getChildren().addAll(lblDelivered, btnUndoDelivery);
+            // Nodes of other statuses are hidden and take no space
+            for (Node n : List.of(productsBox, pickUpBtn, actionBox, lblDelivered, btnUndoDelivery))
+                n.managedProperty().bind(n.visibleProperty());
+
+            getChildren().addAll(lblId, lblName, lblAddr, new HBox(10, lblPrice, lblPaymentStatus), lblEarnings,
+                    lblDate, productsBox, pickUpBtn, actionBox, lblDelivered, btnUndoDelivery);
         }
 
-        return card;
+        /**
+         * Binds the card to an order.
+         *
+         * @param o The Order object to visualize.
+         */
+        void show(Order o) {
+            order = o;
+
+            String borderColor = "#e0e0e0";
+            if (o.getPriorityLevel() == 2)
+                borderColor = "#ffa726";
+            if (o.getPriorityLevel() == 3)
+                borderColor = "#d32f2f";
+            setStyle("-fx-background-color: white; -fx-border-color: " + borderColor +
+                    "; -fx-border-width: 2; -fx-padding: 12; -fx-background-radius: 10; " +
+                    "-fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 5, 0, 0, 1);");
+
+            lblId.setText("📦 Sipariş #" + o.getId());
+            lblName.setText("👤 Müşteri: " + safe(o.getCustomerName()));
+            lblAddr.setText("📍 " + safe(o.getDeliveryNeighborhood()) + "\n" + safe(o.getDeliveryAddress()));
+
+            // --- PAYMENT TYPE AND AMOUNT ---
+            boolean paidOnline = "ONLINE_PAYMENT".equalsIgnoreCase(o.getPaymentMethod());
+            String paymentColor = paidOnline ? "#27ae60" : "#c0392b"; // Green : Red
+            lblPrice.setText("Tutar: " + String.format("%.2f", o.getTotalCost()) + " TL");
+            lblPaymentStatus.setText(paidOnline ? "💳 ÖDENDİ (ONLINE)" : "💵 NAKİT TAHSİL ET");
+            lblPaymentStatus.setStyle("-fx-text-fill: white; -fx-background-color: " + paymentColor
+                    + "; -fx-padding: 3 6; -fx-background-radius: 4; -fx-font-size: 10px; -fx-font-weight: bold;");
+
+            // --- EARNINGS INDICATOR ---
+            lblEarnings.setText("✨ Kazancın: " + String.format("%.2f", o.getCarrierEarnings()) + " TL");
+
+            // --- DATE ---
+            String reqDateStr = "Belirtilmemiş";
+            if (o.getRequestedDeliveryDate() != null) {
+                reqDateStr = o.getRequestedDeliveryDate().toLocalDateTime().format(dtf);
+            }
+            lblDate.setText("📅 İstenen: " + reqDateStr);
+
+            // Product list (items are loaded together with the orders); labels are reused
+            List<OrderItem> products = o.getItems();
+            ObservableList<Node> itemLabels = productsBox.getChildren();
+            while (itemLabels.size() > products.size())
+                itemLabels.remove(itemLabels.size() - 1);
+            for (int i = 0; i < products.size(); i++) {
+                if (i == itemLabels.size()) {
+                    Label itemLbl = new Label();
+                    itemLbl.setStyle("-fx-font-size: 10px; -fx-text-fill: #6c757d;");
+                    itemLabels.add(itemLbl);
+                }
+                ((Label) itemLabels.get(i)).setText(products.get(i).getSummary());
+            }
+            productsBox.setVisible(!products.isEmpty());
+
+            // Buttons based on order status
+            boolean pool = isPool(o);
+            boolean active = !pool && isActiveMine(o);
+            boolean delivered = !pool && !active && isDeliveredMine(o);
+            pickUpBtn.setVisible(pool);
+            actionBox.setVisible(active);
+            lblDelivered.setVisible(delivered);
+            btnUndoDelivery.setVisible(delivered);
+            if (delivered) {
+                lblDelivered.setText(
+                        "✅ " + (o.getDeliveryTime() != null ? o.getDeliveryTime().toLocalDateTime().format(dtf) : ""));
+            }
+        }
     }
 
     /**
@@ -378,20 +474,17 @@ public class CarrierController {
      * @param o The order to be picked up.
      */
     private void handlePickUpInline(Order o) {
-        try {
-            if (OrderDAO.assignAndPickUp(o.getId(), currentUser.getId())) {
+        int carrierId = currentUser.getId();
+        loader.submit("pickUp-" + o.getId(), () -> OrderDAO.assignAndPickUp(o.getId(), carrierId), success -> {
+            if (success) {
                 historyStack.push(
                         new ActionRecord(ActionType.PICKUP, o.getId(), "Sipariş #" + o.getId() + " teslim alındı."));
                 showNotification("Sipariş #" + o.getId() + " alındı.", true);
-                refreshData();
             } else {
                 showNotification("Sipariş alınamadı! Başka kurye almış olabilir.", false);
-                refreshData();
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            showNotification("Bağlantı hatası!", false);
-        }
+            refreshData();
+        }, e -> showNotification("Bağlantı hatası!", false));
     }
 
     /**
@@ -426,17 +519,18 @@ public class CarrierController {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(dt -> {
-            if (OrderDAO.completeOrder(o.getId(), currentUser.getId(), dt)) {
-                historyStack.push(
-                        new ActionRecord(ActionType.COMPLETE, o.getId(), "Sipariş #" + o.getId() + " teslim edildi."));
-                showNotification("Sipariş tamamlandı!", true);
-                refreshData();
-            } else {
-                showNotification("Hata oluştu veya sipariş iptal edildi.", false);
-                refreshData();
-            }
-        });
+        int carrierId = currentUser.getId();
+        dialog.showAndWait().ifPresent(dt -> loader.submit("complete-" + o.getId(),
+                () -> OrderDAO.completeOrder(o.getId(), carrierId, dt), success -> {
+                    if (success) {
+                        historyStack.push(new ActionRecord(ActionType.COMPLETE, o.getId(),
+                                "Sipariş #" + o.getId() + " teslim edildi."));
+                        showNotification("Sipariş tamamlandı!", true);
+                    } else {
+                        showNotification("Hata oluştu veya sipariş iptal edildi.", false);
+                    }
+                    refreshData();
+                }, e -> showNotification("Bağlantı hatası!", false)));
     }
 
     /**
@@ -446,14 +540,16 @@ public class CarrierController {
      */
     private void handleReleaseOrder(Order o) {
         if (showConfirm("İptal", "Siparişi havuza geri bırakmak istiyor musunuz?")) {
-            if (OrderDAO.releaseOrderToPool(o.getId(), currentUser.getId())) {
-                historyStack.push(new ActionRecord(ActionType.RELEASE, o.getId(), "Sipariş bırakıldı."));
-                refreshData();
-                showNotification("Sipariş havuza bırakıldı.", true);
-            } else {
-                showNotification("İptal edilemedi.", false);
+            int carrierId = currentUser.getId();
+            loader.submit("release-" + o.getId(), () -> OrderDAO.releaseOrderToPool(o.getId(), carrierId), success -> {
+                if (success) {
+                    historyStack.push(new ActionRecord(ActionType.RELEASE, o.getId(), "Sipariş bırakıldı."));
+                    showNotification("Sipariş havuza bırakıldı.", true);
+                } else {
+                    showNotification("İptal edilemedi.", false);
+                }
                 refreshData();
-            }
+            }, e -> showNotification("Bağlantı hatası!", false));
         }
     }
 
@@ -464,12 +560,15 @@ public class CarrierController {
      */
     private void handleUndoSpecificOrder(Order o) {
         if (showConfirm("Geri Al", "Sipariş #" + o.getId() + " teslimat durumunu geri almak istiyor musunuz?")) {
-            if (OrderDAO.undoCompleteOrder(o.getId(), currentUser.getId())) {
-                showNotification("Sipariş geri alındı (Üzerimdeki Paketler'e taşındı).", true);
-                refreshData();
-            } else {
-                showNotification("İşlem başarısız.", false);
-            }
+            int carrierId = currentUser.getId();
+            loader.submit("undo-" + o.getId(), () -> OrderDAO.undoCompleteOrder(o.getId(), carrierId), success -> {
+                if (success) {
+                    showNotification("Sipariş geri alındı (Üzerimdeki Paketler'e taşındı).", true);
+                    refreshData();
+                } else {
+                    showNotification("İşlem başarısız.", false);
+                }
+            }, e -> showNotification("Bağlantı hatası!", false));
         }
     }
 
@@ -554,22 +653,10 @@ public class CarrierController {
                 : dt.isAfter(now.minusDays(30));
     }
 
-    /**
-     * Checks if an order matches the current search text (Name, Address, Neighborhood).
-     */
-    private boolean matchesSearch(Order o, String filterText) {
-        if (filterText == null || filterText.isEmpty())
-            return true;
-        String lower = filterText.toLowerCase(java.util.Locale.forLanguageTag("tr-TR"));
-        return safe(o.getCustomerName()).toLowerCase().contains(lower) ||
-                safe(o.getDeliveryAddress()).toLowerCase().contains(lower) ||
-                safe(o.getDeliveryNeighborhood()).toLowerCase().contains(lower);
-    }
-
     /**
      * Null-safe string utility.
      */
-    private String safe(String s) {
+    private static String safe(String s) {
         return (s == null) ? "" : s;
     }
 
@@ -589,6 +676,8 @@ public class CarrierController {
      */
     @FXML
     public void handleLogout() {
+        loader.cancelAll();
+        orderSearch.cancel();
         try {
             Stage stage = (Stage) lblUsername.getScene().getWindow();
             Parent root = FXMLLoader.load(getClass().getResource("/fxml/login.fxml"));
@@ -612,8 +701,17 @@ public class CarrierController {
      */
     @FXML
     private void handleViewRatings() {
-        List<OrderDAO.CarrierRating> ratings = OrderDAO.getCarrierRatings(currentUser.getId());
+        int carrierId = currentUser.getId();
+        loader.submit("ratings", () -> OrderDAO.getCarrierRatings(carrierId), this::showRatings,
+                e -> showNotification("Bağlantı hatası!", false));
+    }
 
+    /**
+     * Shows the carrier's ratings and reviews in a dialog.
+     *
+     * @param ratings The ratings, newest first.
+     */
+    private void showRatings(List<OrderDAO.CarrierRating> ratings) {
         Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("⭐ Değerlendirmelerim");
         dialog.setHeaderText("Aldığınız müşteri değerlendirmeleri:");
@@ -6,13 +6,24 @@ import com.group12.greengrocer.database.ProductDAO;
 import com.group12.greengrocer.database.UserDAO;
 import com.group12.greengrocer.models.Message;
 import com.group12.greengrocer.models.Order;
+import com.group12.greengrocer.models.OrderItem;
 import com.group12.greengrocer.models.Product;
 import com.group12.greengrocer.models.User;
+import com.group12.greengrocer.utils.AsyncLoader;
+import com.group12.greengrocer.utils.CatalogViewModel;
+import com.group12.greengrocer.utils.FuzzyMatcher;
+import com.group12.greengrocer.utils.InfiniteScroll;
+import com.group12.greengrocer.utils.ProductGrid;
+import com.group12.greengrocer.utils.ProductImageCache;
+import com.group12.greengrocer.utils.ProductQuery;
+import com.group12.greengrocer.utils.ProductSearchIndex;
 import com.group12.greengrocer.utils.ShoppingCart;
 
 import javafx.animation.FadeTransition;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -23,10 +34,8 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.effect.BoxBlur;
 import javafx.scene.effect.DropShadow;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
@@ -36,11 +45,16 @@ import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 // For PDF
@@ -67,7 +81,44 @@ import javafx.stage.FileChooser;
 public class CustomerController {
 
     private User currentUser;
-    private List<Product> allProducts;
+    private CatalogViewModel catalog;
+    private ProductGrid productGrid;
+
+    /** Products changed since the last refresh, collected on the writing threads. */
+    private final Set<Integer> changedProducts = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    /** Changed products whose refresh has not been applied yet (JavaFX thread only). */
+    private final Set<Integer> unappliedProducts = new HashSet<>();
+
+    /**
+     * Files product changes made elsewhere (e.g. by the owner or other customers)
+     * into {@link #catalog}. A burst of changes, like a run of checkouts, leads to
+     * one refresh.
+     */
+    private final Consumer<ProductDAO.ProductChange> productChangeListener = change -> {
+        changedProducts.addAll(change.productIds());
+        if (refreshScheduled.compareAndSet(false, true))
+            Platform.runLater(this::refreshProducts);
+    };
+
+    /** Runs this view's DAO calls off the JavaFX thread. */
+    private final AsyncLoader loader = new AsyncLoader();
+
+    /** Orders fetched per page while scrolling the order history. */
+    private static final int ORDER_PAGE_SIZE = 30;
+
+    /** Orders fetched per page in the new-ticket dialog. */
+    private static final int TICKET_ORDER_PAGE_SIZE = 20;
+
+    /** Typo-tolerant matches shown when a search finds nothing. */
+    private static final int FUZZY_RESULT_LIMIT = 50;
+
+    private final ObservableList<Order> orderHistory = FXCollections.observableArrayList();
+    private OrderDAO.PageCursor nextOrderPage;
+    private boolean loadingOrderPage;
+
+    private OrderDAO.PageCursor nextTicketOrderPage;
+    private boolean loadingTicketOrders;
 
     // MAIN SCREEN
     @FXML
@@ -77,9 +128,7 @@ public class CustomerController {
     @FXML
     private Label cartItemsLabel;
     @FXML
-    private FlowPane vegetablesFlowPane;
-    @FXML
-    private FlowPane fruitsFlowPane;
+    private ListView<ProductGrid.Row> productListView;
     @FXML
     private TextField searchField;
     @FXML
@@ -156,11 +205,23 @@ public class CustomerController {
 
         // Load Sort Options
         if (sortComboBox != null) {
-            sortComboBox.getItems().addAll("Varsayılan (A-Z)", "İsim (Z-A)", "Fiyat (Artan)", "Fiyat (Azalan)");
-            sortComboBox.setValue("Varsayılan (A-Z)");
-            sortComboBox.setOnAction(e -> handleSortProducts());
+            sortComboBox.getItems().addAll(ProductQuery.SORT_OPTIONS);
+            sortComboBox.setValue(ProductQuery.SORT_NAME_ASC);
+            sortComboBox.setOnAction(e -> showCatalog());
         }
 
+        if (mainContent != null)
+            loader.bindBusyCursor(mainContent);
+        if (productListView != null) {
+            productGrid = new ProductGrid(productListView, List.of(
+                    new ProductGrid.Section("🌿 Fresh Vegetables", "vegetable"),
+                    new ProductGrid.Section("🍎 Fresh Fruits", "fruit")), this::addToCart);
+        }
+        if (ordersTable != null) {
+            ordersTable.setItems(orderHistory);
+            InfiniteScroll.install(ordersTable, this::loadMoreOrderHistory);
+        }
+        ProductDAO.addChangeListener(productChangeListener);
         loadProducts();
         updateCartLabel();
         closeAllOverlays();
@@ -179,143 +240,121 @@ public class CustomerController {
     // --- PRODUCT MANAGEMENT AND SORTING ---
 
     /**
-     * Fetches all products from the database and displays them.
+     * Fetches all products from the shared catalog cache of {@link ProductDAO},
+     * indexes them for searching, sorts them into a {@link CatalogViewModel} and
+     * displays them.
      */
     private void loadProducts() {
-        allProducts = ProductDAO.getAllProducts(); // Default A-Z
-        displayProducts(allProducts);
+        loader.submit("products", () -> {
+            List<Product> products = ProductDAO.getAllProducts();
+            ProductSearchIndex.getInstance().rebuild(products);
+            return new CatalogViewModel(products);
+        }, model -> {
+            catalog = model;
+            showCatalog();
+        });
     }
 
     /**
-     * Sorts the product list based on the selected criteria in the ComboBox.
-     * Supports sorting by Name (A-Z, Z-A) and Price (Ascending, Descending).
+     * Shows the catalog for the current search text and sort option.
+     * <p>
+     * Without a search, the products are shown in the selected order. Search
+     * results are ranked by relevance under the default sort option and otherwise
+     * shown in the selected order. Either way the order comes from the index or the
+     * pre-sorted {@link CatalogViewModel}; nothing is sorted here.
+     * </p>
      */
-    private void handleSortProducts() {
-        String sortType = sortComboBox.getValue();
-        if (sortType == null || allProducts == null)
-            return;
-
-        List<Product> sortedList = switch (sortType) {
-            case "İsim (Z-A)" -> allProducts.stream().sorted(Comparator.comparing(Product::getName).reversed())
-                    .collect(Collectors.toList());
-            case "Fiyat (Artan)" -> allProducts.stream().sorted(Comparator.comparingDouble(Product::getCurrentPrice))
-                    .collect(Collectors.toList());
-            case "Fiyat (Azalan)" ->
-                allProducts.stream().sorted(Comparator.comparingDouble(Product::getCurrentPrice).reversed())
-                        .collect(Collectors.toList());
-            default -> allProducts.stream().sorted(Comparator.comparing(Product::getName)).collect(Collectors.toList());
-        };
-        displayProducts(sortedList);
+    private void showCatalog() {
+        if (catalog == null)
+            return; // still loading
+        displayProducts(catalogView());
     }
 
     /**
-     * Renders the list of products into the UI FlowPanes.
-     * Separates products into "Vegetables" and "Fruits" categories.
-     *
-     * @param products The list of products to display.
+     * Returns the products of {@link #catalog} for the current search text and sort
+     * option, as described at {@link #showCatalog()}.
      */
-    private void displayProducts(List<Product> products) {
-        if (vegetablesFlowPane != null)
-            vegetablesFlowPane.getChildren().clear();
-        if (fruitsFlowPane != null)
-            fruitsFlowPane.getChildren().clear();
-
-        for (Product p : products) {
-            VBox card = createProductCard(p);
-            if ("vegetable".equalsIgnoreCase(p.getType()))
-                vegetablesFlowPane.getChildren().add(card);
-            else if ("fruit".equalsIgnoreCase(p.getType()))
-                fruitsFlowPane.getChildren().add(card);
-        }
+    private List<Product> catalogView() {
+        String sortType = sortComboBox != null && sortComboBox.getValue() != null ? sortComboBox.getValue()
+                : ProductQuery.SORT_NAME_ASC;
+        String query = searchField.getText();
+        if (query == null || query.isBlank())
+            return catalog.view(sortType);
+
+        ProductSearchIndex index = ProductSearchIndex.getInstance();
+        List<Product> matches = index.search(query);
+        if (matches.isEmpty())
+            matches = index.searchFuzzy(query, FUZZY_RESULT_LIMIT).stream().map(FuzzyMatcher.Match::item).toList();
+        return sortType.equals(ProductQuery.SORT_NAME_ASC) ? matches : catalog.view(sortType, matches);
     }
 
-    // --- PRODUCT CARD GENERATION ---
-
     /**
-     * Creates a graphical card (VBox) representing a single product.
-     * Includes the image, stock status, price, and "Add to Cart" functionality.
-     *
-     * @param p The product to visualize.
-     * @return A VBox containing the product controls.
-     */
-    private VBox createProductCard(Product p) {
-        VBox card = new VBox(10);
-        card.setStyle(
-                "-fx-background-color: white; -fx-background-radius: 15; -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 10, 0, 0, 2);");
-        card.setAlignment(Pos.TOP_CENTER);
-        card.setPadding(new Insets(15));
-        card.setPrefWidth(200);
-        card.setPrefHeight(290);
-
-        ImageView imgView = new ImageView();
-        imgView.setFitHeight(110);
-        imgView.setFitWidth(150);
-        imgView.setPreserveRatio(true);
-        if (p.getImage() != null) {
-            try {
-                imgView.setImage(new Image(new ByteArrayInputStream(p.getImage())));
-            } catch (Exception e) {
-            }
-        }
-
-        Label stockLbl = new Label(
-                p.getStock() <= 0 ? "TÜKENDİ" : (p.getStock() <= p.getThreshold() ? "AZ KALDI" : "STOKTA"));
-        stockLbl.setStyle("-fx-background-color: "
-                + (p.getStock() <= 0 ? "#c62828" : (p.getStock() <= p.getThreshold() ? "#f57c00" : "#4caf50"))
-                + "; -fx-text-fill: white; -fx-padding: 3 8; -fx-background-radius: 5; -fx-font-size: 10px; -fx-font-weight: bold;");
-
-        // Show exact stock amount if low
-        Label stockAmountLbl = new Label();
-        if (p.getStock() <= p.getThreshold()) {
-            stockAmountLbl.setText(String.format("Stok: %.1f kg", p.getStock()));
-            stockAmountLbl.setStyle("-fx-font-size: 11px; -fx-text-fill: " 
-            + (p.getStock() <= 0 ? "#c62828" : "#f57c00") + "; -fx-font-weight: bold;");
+     * Files the collected product changes into the catalog and updates the cards
+     * that show them, keeping the search, sort option and scroll position. The
+     * products are re-read in the background; a newer refresh takes over the
+     * products of one still running.
+     */
+    private void refreshProducts() {
+        refreshScheduled.set(false);
+        for (Iterator<Integer> it = changedProducts.iterator(); it.hasNext();) {
+            unappliedProducts.add(it.next());
+            it.remove();
         }
-
-        Label nameLbl = new Label(p.getName());
-        nameLbl.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #333;");
-        Label priceLbl = new Label(String.format("%.2f TL / kg", p.getCurrentPrice()));
-        priceLbl.setStyle("-fx-text-fill: #2e7d32; -fx-font-weight: bold; -fx-font-size: 14px;");
-        if (p.getStock() <= p.getThreshold() && p.getStock() > 0)
-            priceLbl.setText(priceLbl.getText() + " (🔥 x2 Fiyat)");
-
-        Spinner<Double> spinner = new Spinner<>(0.5, 20.0, 1.0, 0.5);
-        spinner.setEditable(true);
-        spinner.setPrefWidth(70);
-        Button addBtn = new Button("Ekle");
-        addBtn.setStyle(
-                "-fx-background-color: #2e7d32; -fx-text-fill: white; -fx-background-radius: 5; -fx-cursor: hand;");
-        if (p.getStock() <= 0) {
-            addBtn.setDisable(true);
-            spinner.setDisable(true);
+        if (catalog == null) {
+            unappliedProducts.clear(); // the running load includes the changes
+            return;
         }
-
-        addBtn.setOnAction(e -> {
-            if (spinner.getValue() > p.getStock()) {
-                showAlert("Hata", "Stok yetersiz!");
+        List<Integer> ids = List.copyOf(unappliedProducts);
+        loader.submit("productChanges", () -> {
+            Map<Integer, Product> current = new HashMap<>();
+            for (int id : ids) {
+                Product p = ProductDAO.getProductById(id);
+                if (p != null)
+                    current.put(id, p);
+            }
+            return current;
+        }, current -> {
+            ids.forEach(unappliedProducts::remove);
+            if (catalog == null)
                 return;
+            for (int id : ids) {
+                Product p = current.get(id);
+                if (p != null)
+                    catalog.update(p);
+                else
+                    catalog.delete(id); // deleted or deactivated
             }
-            ShoppingCart.getInstance().addItem(p, spinner.getValue());
-            updateCartLabel();
-            addBtn.setText("✔");
-            new java.util.Timer().schedule(new java.util.TimerTask() {
-                @Override
-                public void run() {
-                    javafx.application.Platform.runLater(() -> addBtn.setText("Ekle"));
-                }
-            }, 1000);
+            if (productGrid != null)
+                productGrid.updateProducts(catalogView());
         });
+    }
 
-        HBox actions = new HBox(10, spinner, addBtn);
-        actions.setAlignment(Pos.CENTER);
-        card.getChildren().addAll(stockLbl, imgView, nameLbl, priceLbl);
-        
-        if (!stockAmountLbl.getText().isEmpty()) {
-            card.getChildren().add(stockAmountLbl);
+    /**
+     * Shows the products in the storefront grid, split into "Vegetables" and
+     * "Fruits". The grid only builds cards for the rows on screen.
+     *
+     * @param products The list of products to display.
+     */
+    private void displayProducts(List<Product> products) {
+        if (productGrid != null)
+            productGrid.setProducts(products);
+    }
+
+    /**
+     * Adds the quantity chosen on a product card to the shopping cart.
+     *
+     * @param p        The product.
+     * @param quantity The quantity in kg.
+     * @return {@code true} if the product was added, {@code false} if the stock is insufficient.
+     */
+    private boolean addToCart(Product p, double quantity) {
+        if (quantity > p.getStock()) {
+            showAlert("Hata", "Stok yetersiz!");
+            return false;
         }
-        
-        card.getChildren().addAll(new Separator(), actions);
-        return card;
+        ShoppingCart.getInstance().addItem(p, quantity);
+        updateCartLabel();
+        return true;
     }
 
     /**
@@ -378,8 +417,8 @@ public class CustomerController {
         colDate.setCellValueFactory(new PropertyValueFactory<>("orderTime"));
         colTotal.setCellValueFactory(new PropertyValueFactory<>("totalCost"));
         colStatus.setCellValueFactory(new PropertyValueFactory<>("status"));
-        colItems.setCellValueFactory(cell -> new SimpleStringProperty(
-                String.join(", ", OrderDAO.getOrderItemsAsText(cell.getValue().getId()))));
+        colItems.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getItems().stream()
+                .map(OrderItem::getSummary).collect(Collectors.joining(", "))));
 
         colAction.setCellFactory(param -> new TableCell<>() {
             private final Button btnRate = new Button("⭐");
@@ -428,10 +467,66 @@ public class CustomerController {
             }
         });
 
-        ordersTable.setItems(FXCollections.observableArrayList(OrderDAO.getOrdersByUserId(currentUser.getId())));
+        loadOrderHistory();
         openOverlay(ordersOverlay);
     }
 
+    /**
+     * Reloads the order history from its newest page. Older orders are loaded by
+     * {@link #loadMoreOrderHistory()} as the user scrolls.
+     */
+    private void loadOrderHistory() {
+        loadingOrderPage = true;
+        loader.submit("orderHistory", () -> fetchOrderHistoryPage(null), page -> {
+            orderHistory.setAll(page.orders());
+            showOrderHistoryPage(page);
+        }, this::orderHistoryFailed);
+    }
+
+    /**
+     * Appends the next page of the order history when the table is scrolled near its end.
+     */
+    private void loadMoreOrderHistory() {
+        if (loadingOrderPage || nextOrderPage == null)
+            return;
+        OrderDAO.PageCursor after = nextOrderPage;
+        loadingOrderPage = true;
+        loader.submit("orderHistory", () -> fetchOrderHistoryPage(after), page -> {
+            orderHistory.addAll(page.orders());
+            showOrderHistoryPage(page);
+        }, this::orderHistoryFailed);
+    }
+
+    /**
+     * Reads one page of the customer's orders with their items (runs in the background).
+     */
+    private OrderDAO.OrderPage fetchOrderHistoryPage(OrderDAO.PageCursor after) {
+        OrderDAO.OrderPage page = OrderDAO.getOrdersPage(OrderDAO.OrderFilter.forCustomer(currentUser.getId()), after,
+                ORDER_PAGE_SIZE);
+        OrderDAO.attachItems(page.orders());
+        return page;
+    }
+
+    private void showOrderHistoryPage(OrderDAO.OrderPage page) {
+        nextOrderPage = page.next();
+        loadingOrderPage = false;
+    }
+
+    /**
+     * Logs a failed request and tells the user the server could not be reached.
+     *
+     * @param error The failure.
+     */
+    private void connectionFailed(Throwable error) {
+        error.printStackTrace();
+        showAlert("Hata", "Sunucuya bağlanılamadı.");
+    }
+
+    private void orderHistoryFailed(Throwable error) {
+        error.printStackTrace();
+        loadingOrderPage = false;
+    }
+
     /**
      * Displays the details of a selected order, including product images and prices.
      * Provides functionality to download the invoice as a PDF if the order is completed.
@@ -439,11 +534,20 @@ public class CustomerController {
      * @param order The order to display details for.
      */
     private void showOrderDetails(Order order) {
+        loader.submit("orderDetails", () -> OrderDAO.getOrderDetails(order.getId()),
+                details -> showOrderDetails(order, details), this::connectionFailed);
+    }
+
+    /**
+     * Fills and opens the order details overlay once the order's lines are loaded.
+     *
+     * @param order   The order to display details for.
+     * @param details The lines of the order.
+     */
+    private void showOrderDetails(Order order, List<OrderDAO.OrderDetail> details) {
         detailOrderIdLabel.setText("Sipariş #" + order.getId() + " Detayları");
         orderDetailContainer.getChildren().clear();
 
-        List<OrderDAO.OrderDetail> details = OrderDAO.getOrderDetailsWithImages(order.getId());
-
         for (OrderDAO.OrderDetail item : details) {
             HBox row = new HBox(15);
             row.setAlignment(Pos.CENTER_LEFT);
@@ -456,11 +560,8 @@ public class CustomerController {
             imgView.setFitWidth(50);
             imgView.setPreserveRatio(true);
 
-            if (item.image != null && item.image.length > 0) {
-                try {
-                    imgView.setImage(new Image(new ByteArrayInputStream(item.image)));
-                } catch (Exception e) {
-                }
+            if (item.hasImage) {
+                ProductImageCache.getInstance().load(imgView, item.productId, item.imageVersion, 50, 50);
             }
 
             StackPane imgContainer = new StackPane(imgView);
@@ -496,8 +597,8 @@ public class CustomerController {
 
             Button pdfBtn = new Button("📄 PDF Faturayı İndir");
             pdfBtn.setStyle("-fx-background-color: #2196f3; -fx-text-fill: white; -fx-background-radius: 5; -fx-cursor: hand;");
-            pdfBtn.setOnAction(e -> {
-                byte[] pdfBytes = OrderDAO.getInvoicePDF(order.getId());
+            pdfBtn.setOnAction(e -> loader.submit("invoice-" + order.getId(),
+                    () -> OrderDAO.getInvoicePDF(order.getId()), pdfBytes -> {
                 if (pdfBytes != null && pdfBytes.length > 0) {
                     FileChooser fileChooser = new FileChooser();
                     fileChooser.setTitle("PDF Faturayı Kaydet");
@@ -523,7 +624,7 @@ public class CustomerController {
                 } else {
                     showAlert("Hata", "PDF fatura bulunamadı.");
                 }
-            });
+            }, this::connectionFailed));
 
             pdfBox.getChildren().add(pdfBtn);
             orderDetailContainer.getChildren().add(pdfBox);
@@ -539,11 +640,7 @@ public class CustomerController {
      */
     @FXML
     private void handleOpenChat() {
-        refreshChatTopics();
-        if (chatTopicsList.getItems().isEmpty()) {
-            chatTopicsList.getItems().add("Genel Destek");
-        }
-        chatTopicsList.getSelectionModel().selectFirst();
+        refreshChatTopics(() -> chatTopicsList.getSelectionModel().selectFirst());
         openOverlay(chatOverlay);
     }
 
@@ -554,22 +651,35 @@ public class CustomerController {
      * @param topic The topic to open (e.g., "Sipariş #123").
      */
     private void openChatWithTopic(String topic) {
-        refreshChatTopics();
-        if (!chatTopicsList.getItems().contains(topic)) {
-            chatTopicsList.getItems().add(0, topic);
-        }
-        chatTopicsList.getSelectionModel().select(topic);
+        refreshChatTopics(() -> {
+            if (!chatTopicsList.getItems().contains(topic)) {
+                chatTopicsList.getItems().add(0, topic);
+            }
+            chatTopicsList.getSelectionModel().select(topic);
+        });
         openOverlay(chatOverlay);
     }
 
     /**
      * Refreshes the list of chat topics based on message history in the database.
      * Groups messages by their 'Subject'.
+     *
+     * @param then Runs once the topics are listed, e.g. to select one.
      */
-    private void refreshChatTopics() {
-        int ownerId = UserDAO.getOwnerId();
-        List<Message> allMsgs = MessageDAO.getConversation(currentUser.getId(), ownerId);
+    private void refreshChatTopics(Runnable then) {
+        int customerId = currentUser.getId();
+        loader.submit("chatTopics", () -> MessageDAO.getConversation(customerId, UserDAO.getOwnerId()), allMsgs -> {
+            showChatTopics(allMsgs);
+            then.run();
+        }, this::connectionFailed);
+    }
 
+    /**
+     * Lists one chat topic per message subject, with the date of its last message.
+     *
+     * @param allMsgs The customer's whole conversation with the owner.
+     */
+    private void showChatTopics(List<Message> allMsgs) {
         chatTopicsList.getItems().clear();
 
         if (allMsgs.isEmpty()) {
@@ -614,22 +724,23 @@ public class CustomerController {
         currentChatSubject = subject; 
 
         chatMessagesBox.getChildren().clear();
-        int ownerId = UserDAO.getOwnerId();
-        List<Message> msgs = MessageDAO.getConversation(currentUser.getId(), ownerId);
-
-        for (Message m : msgs) {
-            if (m.getSubject().equalsIgnoreCase(subject)) {
-                addMessageBubble(m.getContent(), m.getSenderId() == currentUser.getId());
+        int customerId = currentUser.getId();
+        String topic = subject;
+        loader.submit("chatMessages", () -> MessageDAO.getConversation(customerId, UserDAO.getOwnerId()), msgs -> {
+            for (Message m : msgs) {
+                if (m.getSubject().equalsIgnoreCase(topic)) {
+                    addMessageBubble(m.getContent(), m.getSenderId() == customerId);
+                }
             }
-        }
 
-        // Scroll to bottom
-        new java.util.Timer().schedule(new java.util.TimerTask() {
-            @Override
-            public void run() {
-                javafx.application.Platform.runLater(() -> chatScroll.setVvalue(1.0));
-            }
-        }, 100);
+            // Scroll to bottom
+            new java.util.Timer().schedule(new java.util.TimerTask() {
+                @Override
+                public void run() {
+                    javafx.application.Platform.runLater(() -> chatScroll.setVvalue(1.0));
+                }
+            }, 100);
+        }, this::connectionFailed);
     }
 
     /**
@@ -640,13 +751,23 @@ public class CustomerController {
         String txt = chatInput.getText().trim();
         if (txt.isEmpty())
             return;
-        int ownerId = UserDAO.getOwnerId();
-
-        if (MessageDAO.sendMessage(currentUser.getId(), ownerId, currentChatSubject, txt)) {
-            addMessageBubble(txt, true);
-            chatInput.clear();
-            chatScroll.setVvalue(1.0);
-        }
+        int customerId = currentUser.getId();
+        String subject = currentChatSubject;
+
+        // Disabled while sending, so the same text cannot be sent twice
+        chatInput.setDisable(true);
+        loader.submit("sendMessage", () -> MessageDAO.sendMessage(customerId, UserDAO.getOwnerId(), subject, txt),
+                sent -> {
+                    chatInput.setDisable(false);
+                    if (sent) {
+                        addMessageBubble(txt, true);
+                        chatInput.clear();
+                        chatScroll.setVvalue(1.0);
+                    }
+                }, e -> {
+                    chatInput.setDisable(false);
+                    connectionFailed(e);
+                });
     }
 
     /**
@@ -695,48 +816,95 @@ public class CustomerController {
 
     /**
      * Opens a dialog to create a new support ticket based on one of the user's orders.
+     * The first page of orders is read in the background; older orders are loaded
+     * as the user scrolls the list.
      */
     @FXML
     private void handleNewTicket() {
-        List<Order> myOrders = OrderDAO.getOrdersByUserId(currentUser.getId());
-        
-        java.util.List<String> choices = new java.util.ArrayList<>();
-        
-        if (myOrders.isEmpty()) {
+        loadingTicketOrders = true;
+        loader.submit("ticketOrders", () -> fetchTicketOrders(null), this::showNewTicketDialog,
+                this::ticketOrdersFailed);
+    }
+
+    /**
+     * Reads one page of the customer's orders for the ticket dialog (runs in the background).
+     */
+    private OrderDAO.OrderPage fetchTicketOrders(OrderDAO.PageCursor after) {
+        return OrderDAO.getOrdersPage(OrderDAO.OrderFilter.forCustomer(currentUser.getId()), after,
+                TICKET_ORDER_PAGE_SIZE);
+    }
+
+    private void ticketOrdersFailed(Throwable error) {
+        error.printStackTrace();
+        loadingTicketOrders = false;
+    }
+
+    private static String ticketSubject(Order order) {
+        return "Sipariş #" + order.getId() + " (" + order.getOrderTime().toString().substring(0, 10) + ")";
+    }
+
+    private void showNewTicketDialog(OrderDAO.OrderPage firstPage) {
+        nextTicketOrderPage = firstPage.next();
+        loadingTicketOrders = false;
+
+        if (firstPage.orders().isEmpty()) {
             showAlert("Bilgi", "Henüz bir siparişiniz yok. Lütfen 'Genel Destek' bölümünü kullanın.");
             return;
         }
 
-        for (Order o : myOrders) {
-            choices.add("Sipariş #" + o.getId() + " (" + o.getOrderTime().toString().substring(0, 10) + ")");
-        }
+        ListView<Order> ordersList = new ListView<>(FXCollections.observableArrayList(firstPage.orders()));
+        ordersList.setPrefHeight(300);
+        ordersList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(Order order, boolean empty) {
+                super.updateItem(order, empty);
+                setText(empty || order == null ? null : ticketSubject(order));
+            }
+        });
+        ordersList.getSelectionModel().selectFirst();
+        InfiniteScroll.install(ordersList, () -> {
+            if (loadingTicketOrders || nextTicketOrderPage == null)
+                return;
+            OrderDAO.PageCursor after = nextTicketOrderPage;
+            loadingTicketOrders = true;
+            loader.submit("ticketOrders", () -> fetchTicketOrders(after), page -> {
+                ordersList.getItems().addAll(page.orders());
+                nextTicketOrderPage = page.next();
+                loadingTicketOrders = false;
+            }, this::ticketOrdersFailed);
+        });
 
-        ChoiceDialog<String> dialog = new ChoiceDialog<>(choices.get(0), choices);
+        Dialog<String> dialog = new Dialog<>();
         dialog.setTitle("Yeni Destek Talebi");
         dialog.setHeaderText("Hangi siparişinizle ilgili sorun yaşıyorsunuz?");
-        dialog.setContentText("Sipariş Seçiniz:");
+        dialog.getDialogPane().setContent(new VBox(8, new Label("Sipariş Seçiniz:"), ordersList));
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.setResultConverter(button -> {
+            Order selected = ordersList.getSelectionModel().getSelectedItem();
+            return button == ButtonType.OK && selected != null ? ticketSubject(selected) : null;
+        });
 
         dialog.showAndWait().ifPresent(selectedSubject -> {
             if (!selectedSubject.trim().isEmpty()) {
                 currentChatSubject = selectedSubject;
                 
-                refreshChatTopics();
-                
-                String listItem = selectedSubject; 
-                boolean exists = false;
-                
-                for(String s : chatTopicsList.getItems()) {
-                    if(s.startsWith(selectedSubject)) {
-                        chatTopicsList.getSelectionModel().select(s);
-                        exists = true;
-                        break;
+                refreshChatTopics(() -> {
+                    String listItem = selectedSubject;
+                    boolean exists = false;
+
+                    for (String s : chatTopicsList.getItems()) {
+                        if (s.startsWith(selectedSubject)) {
+                            chatTopicsList.getSelectionModel().select(s);
+                            exists = true;
+                            break;
+                        }
                     }
-                }
-                
-                if (!exists) {
-                    chatTopicsList.getItems().add(0, listItem);
-                    chatTopicsList.getSelectionModel().select(listItem);
-                }
+
+                    if (!exists) {
+                        chatTopicsList.getItems().add(0, listItem);
+                        chatTopicsList.getSelectionModel().select(listItem);
+                    }
+                });
                 
                 chatMessagesBox.getChildren().clear(); 
                 chatCurrentTopicLabel.setText(currentChatSubject);
@@ -764,21 +932,17 @@ public class CustomerController {
         alert.setContentText("Konu: " + currentChatSubject + "\nOnaylıyor musunuz?");
 
         if (alert.showAndWait().get() == ButtonType.OK) {
-            boolean success = MessageDAO.deleteChatTopic(currentUser.getId(), currentChatSubject);
-            if (success) {
-                chatMessagesBox.getChildren().clear();
-                refreshChatTopics(); 
-                showAlert("Başarılı", "Sohbet geçmişi silindi.");
-                
-                if (chatTopicsList.getItems().isEmpty()) {
-                    chatTopicsList.getItems().add("Genel Destek");
-                    chatTopicsList.getSelectionModel().selectFirst();
+            int customerId = currentUser.getId();
+            String subject = currentChatSubject;
+            loader.submit("deleteChat", () -> MessageDAO.deleteChatTopic(customerId, subject), success -> {
+                if (success) {
+                    chatMessagesBox.getChildren().clear();
+                    refreshChatTopics(() -> chatTopicsList.getSelectionModel().selectFirst());
+                    showAlert("Başarılı", "Sohbet geçmişi silindi.");
                 } else {
-                    chatTopicsList.getSelectionModel().selectFirst();
+                    showAlert("Hata", "Silme işlemi başarısız veya zaten boş.");
                 }
-            } else {
-                showAlert("Hata", "Silme işlemi başarısız veya zaten boş.");
-            }
+            }, this::connectionFailed);
         }
     }
 
@@ -798,13 +962,19 @@ public class CustomerController {
      */
     @FXML
     private void saveProfile() {
-        if (UserDAO.updateUserProfile(currentUser.getId(), editAddressField.getText(), editEmailField.getText(),
-                editPhoneField.getText(),
-                editPasswordField.getText().isEmpty() ? currentUser.getPassword() : editPasswordField.getText())) {
-            showAlert("Başarılı", "Profil güncellendi.");
-            closeAllOverlays();
-        } else
-            showAlert("Hata", "Güncelleme başarısız.");
+        int customerId = currentUser.getId();
+        String address = editAddressField.getText();
+        String email = editEmailField.getText();
+        String phone = editPhoneField.getText();
+        String password = editPasswordField.getText().isEmpty() ? currentUser.getPassword() : editPasswordField.getText();
+        loader.submit("saveProfile", () -> UserDAO.updateUserProfile(customerId, address, email, phone, password),
+                success -> {
+                    if (success) {
+                        showAlert("Başarılı", "Profil güncellendi.");
+                        closeAllOverlays();
+                    } else
+                        showAlert("Hata", "Güncelleme başarısız.");
+                }, this::connectionFailed);
     }
 
     /**
@@ -833,12 +1003,14 @@ public class CustomerController {
         alert.setHeaderText("Sipariş #" + order.getId() + " iptal edilsin mi?");
         alert.setContentText("Stoklar geri yüklenecek.");
         if (alert.showAndWait().get() == ButtonType.OK) {
-            if (OrderDAO.cancelOrder(order.getId())) {
-                showAlert("Başarılı", "Sipariş iptal edildi.");
-                handleViewOrders(); 
-            } else {
-                showAlert("Hata", "İptal başarısız.");
-            }
+            loader.submit("cancel-" + order.getId(), () -> OrderDAO.cancelOrder(order.getId()), success -> {
+                if (success) {
+                    showAlert("Başarılı", "Sipariş iptal edildi.");
+                    handleViewOrders();
+                } else {
+                    showAlert("Hata", "İptal başarısız.");
+                }
+            }, this::connectionFailed);
         }
     }
 
@@ -854,25 +1026,31 @@ public class CustomerController {
         dialog.setContentText("Puan (1-5):");
         dialog.showAndWait().ifPresent(rating -> {
             int rate = Integer.parseInt(rating);
-            if (OrderDAO.rateOrder(order.getId(), rate)) {
-                showAlert("Başarılı", "Değerlendirme kaydedildi.");
-            } else {
-                showAlert("Hata", "Değerlendirme başarısız.");
-            }
+            loader.submit("rate-" + order.getId(), () -> OrderDAO.rateOrder(order.getId(), rate), success -> {
+                if (success) {
+                    showAlert("Başarılı", "Değerlendirme kaydedildi.");
+                } else {
+                    showAlert("Hata", "Değerlendirme başarısız.");
+                }
+            }, this::connectionFailed);
         });
     }
 
+    /**
+     * Shows the products matching the search text as it is typed, best matches
+     * first (or in the selected sort order). Matching ignores case and Turkish
+     * diacritics (see {@link ProductSearchIndex}); if nothing matches, products whose
+     * name is within a few typos are shown instead.
+     */
     @FXML
     private void handleSearch() {
-        String q = searchField.getText().toLowerCase();
-        displayProducts(q.isEmpty() ? allProducts
-                : allProducts.stream().filter(p -> p.getName().toLowerCase().contains(q)).collect(Collectors.toList()));
+        showCatalog();
     }
 
     @FXML
     private void handleClearSearch() {
         searchField.clear();
-        displayProducts(allProducts);
+        showCatalog();
     }
 
     /**
@@ -897,6 +1075,8 @@ public class CustomerController {
      */
     @FXML
     private void handleLogout() {
+        loader.cancelAll();
+        ProductDAO.removeChangeListener(productChangeListener);
         try {
             Stage stage = (Stage) usernameLabel.getScene().getWindow();
             
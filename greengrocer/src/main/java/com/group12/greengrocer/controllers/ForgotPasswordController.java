@@ -1,6 +1,7 @@
 package com.group12.greengrocer.controllers;
 
 import com.group12.greengrocer.database.UserDAO;
+import com.group12.greengrocer.utils.AsyncLoader;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -40,6 +41,9 @@ public class ForgotPasswordController {
     @FXML
     private Label statusLabel;
 
+    /** Runs the password reset off the JavaFX thread. */
+    private final AsyncLoader loader = new AsyncLoader();
+
     /**
      * Processes the password reset request.
      * Validates that all fields are filled and that the password meets the minimum length.
@@ -69,18 +73,22 @@ public class ForgotPasswordController {
         }
 
         // Database operation: Attempt to reset password
-        boolean success = UserDAO.resetPasswordSecure(user, email, phone, newPass);
-
-        if (success) {
-            Alert alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setTitle("Success");
-            alert.setContentText("Password reset successfully! returning to login...");
-            alert.showAndWait();
-            switchToLogin(event);
-        } else {
-            statusLabel.setText("Verification Failed! Check details.");
+        loader.submit("resetPassword", () -> UserDAO.resetPasswordSecure(user, email, phone, newPass), success -> {
+            if (success) {
+                Alert alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setTitle("Success");
+                alert.setContentText("Password reset successfully! returning to login...");
+                alert.showAndWait();
+                switchToLogin(event);
+            } else {
+                statusLabel.setText("Verification Failed! Check details.");
+                statusLabel.setStyle("-fx-text-fill: red;");
+            }
+        }, e -> {
+            e.printStackTrace();
+            statusLabel.setText("Connection error! Please try again.");
             statusLabel.setStyle("-fx-text-fill: red;");
-        }
+        });
     }
 
     /**
@@ -1,14 +1,20 @@
 package com.group12.greengrocer.controllers;
 
 import java.io.File;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 
+import com.group12.greengrocer.database.AnalyticsEngine;
+import com.group12.greengrocer.database.DashboardService;
 import com.group12.greengrocer.database.MessageDAO;
 import com.group12.greengrocer.database.OrderDAO;
 import com.group12.greengrocer.database.ProductDAO;
+import com.group12.greengrocer.database.ReportExporter;
 import com.group12.greengrocer.database.SettingsDAO;
 import com.group12.greengrocer.database.UserDAO;
 import com.group12.greengrocer.models.Coupon;
@@ -16,10 +22,13 @@ import com.group12.greengrocer.models.Message;
 import com.group12.greengrocer.models.Order;
 import com.group12.greengrocer.models.Product;
 import com.group12.greengrocer.models.User;
+import com.group12.greengrocer.utils.AsyncLoader;
+import com.group12.greengrocer.utils.InfiniteScroll;
+import com.group12.greengrocer.utils.SearchPipeline;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
@@ -35,6 +44,7 @@ import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
@@ -79,6 +89,9 @@ public class OwnerController {
 
     private User currentUser;
 
+    /** Runs this view's DAO calls off the JavaFX thread. */
+    private final AsyncLoader loader = new AsyncLoader();
+
     @FXML
     private Label usernameLabel;
     @FXML
@@ -108,6 +121,12 @@ public class OwnerController {
     @FXML
     private ComboBox<String> orderStatusFilter;
     @FXML
+    private ComboBox<String> orderNeighborhoodFilter;
+    @FXML
+    private DatePicker orderFromDate;
+    @FXML
+    private DatePicker orderToDate;
+    @FXML
     private Label ordersCountLabel;
 
     // --- CARRIER MANAGEMENT UI ---
@@ -148,6 +167,24 @@ public class OwnerController {
     private ComboBox<String> reportTypeCombo;
     @FXML
     private VBox reportContentBox;
+    @FXML
+    private DatePicker exportFromDate;
+    @FXML
+    private DatePicker exportToDate;
+    @FXML
+    private ComboBox<ReportExporter.Format> exportFormatCombo;
+    @FXML
+    private Button exportOrdersButton;
+    @FXML
+    private ProgressBar exportProgressBar;
+    @FXML
+    private Label exportStatusLabel;
+    @FXML
+    private Button cancelExportButton;
+
+    /** The running order line export, if any. */
+    private Task<Long> exportTask;
+    private ReportExporter.Cancellation exportCancellation;
 
     // --- CHARTS ---
     @FXML
@@ -161,9 +198,21 @@ public class OwnerController {
     @FXML
     private VBox revenueByCategoryChart;
 
-    private ObservableList<Product> masterProductList = FXCollections.observableArrayList();
+    /** Products shown in the products table: the ones matching the search text. */
+    private final ObservableList<Product> shownProducts = FXCollections.observableArrayList();
+
+    /** Filters the loaded products by name and type. */
+    private final SearchPipeline<Product> productSearch = new SearchPipeline<>(
+            p -> p.getName() + "\n" + p.getType(), shownProducts::setAll);
     private ObservableList<Order> masterOrderList = FXCollections.observableArrayList();
 
+    /** Orders fetched per page while scrolling the orders table. */
+    private static final int ORDER_PAGE_SIZE = 100;
+
+    private OrderDAO.OrderFilter orderFilter = OrderDAO.OrderFilter.ALL;
+    private OrderDAO.PageCursor nextOrderPage;
+    private boolean loadingOrderPage;
+
     /**
      * Initializes the controller with the logged-in user's data.
      * Performs a security check to ensure the user has the 'OWNER' role.
@@ -210,7 +259,22 @@ public class OwnerController {
         if (orderStatusFilter != null) {
             orderStatusFilter.getItems().addAll("All", "Pending", "Assigned", "Completed", "Cancelled");
             orderStatusFilter.getSelectionModel().selectFirst();
-            orderStatusFilter.setOnAction(e -> filterOrders());
+            orderStatusFilter.setOnAction(e -> loadOrders());
+        }
+        if (orderNeighborhoodFilter != null) {
+            orderNeighborhoodFilter.getItems().add("All");
+            orderNeighborhoodFilter.getSelectionModel().selectFirst();
+            orderNeighborhoodFilter.setOnAction(e -> loadOrders());
+            loader.submit("neighborhoods", OrderDAO::getDeliveryNeighborhoods,
+                    neighborhoods -> orderNeighborhoodFilter.getItems().addAll(neighborhoods));
+        }
+        if (orderFromDate != null)
+            orderFromDate.setOnAction(e -> loadOrders());
+        if (orderToDate != null)
+            orderToDate.setOnAction(e -> loadOrders());
+        if (ordersTable != null) {
+            ordersTable.setItems(masterOrderList);
+            InfiniteScroll.install(ordersTable, this::loadMoreOrders);
         }
 
         // Report Types
@@ -220,6 +284,12 @@ public class OwnerController {
                 "Revenue by Amount Range");
             reportTypeCombo.getSelectionModel().selectFirst();
         }
+        if (exportFormatCombo != null) {
+            exportFormatCombo.getItems().addAll(ReportExporter.Format.values());
+            exportFormatCombo.getSelectionModel().selectFirst();
+            exportFromDate.setValue(LocalDate.now().minusMonths(1));
+            exportToDate.setValue(LocalDate.now());
+        }
 
         // Chat Topic Listener
         if (chatTopicsList != null) {
@@ -228,6 +298,14 @@ public class OwnerController {
                     loadChatMessages(newVal);
             });
         }
+
+        // Loading state
+        loader.bindBusyCursor(usernameLabel);
+        loader.loadingProperty().addListener((obs, wasLoading, isLoading) -> {
+            if (statusLabel != null)
+                statusLabel.setText(isLoading ? "Loading..."
+                        : "Data refreshed at " + LocalDateTime.now().toString().substring(11, 19));
+        });
     }
 
     /**
@@ -241,7 +319,8 @@ public class OwnerController {
         loadMessages();
         loadCoupons();
         loadSettings();
-        statusLabel.setText("All data refreshed at " + LocalDateTime.now().toString().substring(11, 19));
+        loader.submit("report", AnalyticsEngine.getInstance()::sync, synced -> {
+        }); // warms up the report data
     }
 
     // --- DASHBOARD SECTION ---
@@ -249,31 +328,47 @@ public class OwnerController {
     /**
      * Loads high-level statistics (Total Revenue, Active Orders, etc.) for the dashboard summary.
      * Populates the "Recent Orders" table with the latest transactions.
+     * <p>
+     * The data comes from the {@link DashboardService} cache. A stale snapshot is shown
+     * right away and replaced once the background refresh completes.
+     * </p>
      */
     private void loadDashboardStats() {
-        try {
-        int prodCount = ProductDAO.getAllProducts().size();
-        int activeOrders = OrderDAO.getActiveOrderCount();
-        double revenue = OrderDAO.getTotalRevenue();
-        int carrierCount = UserDAO.getAllCarriers().size();
+        DashboardService service = DashboardService.getInstance();
+        loader.submit("dashboard", service::getSnapshot, snapshot -> {
+            showDashboard(snapshot);
+            if (!service.isFresh(snapshot))
+                loader.submit("dashboard", () -> service.refresh().join(), this::showDashboard,
+                        e -> showAlert("Error", "Failed to load dashboard stats: " + e.getMessage()));
+        }, e -> showAlert("Error", "Failed to load dashboard stats: " + e.getMessage()));
+    }
+
+    /**
+     * Marks the cached dashboard as outdated after a change to products, orders or
+     * carriers, and reloads it.
+     */
+    private void reloadDashboardStats() {
+        DashboardService.getInstance().invalidate();
+        loadDashboardStats();
+    }
 
+    /**
+     * Renders the dashboard statistics, the "Recent Orders" table and the charts.
+     *
+     * @param data The dashboard snapshot.
+     */
+    private void showDashboard(DashboardService.Snapshot data) {
+        try {
         if (totalProductsLabel != null)
-            totalProductsLabel.setText(String.valueOf(prodCount));
+            totalProductsLabel.setText(String.valueOf(data.productCount()));
         if (activeOrdersLabel != null)
-            activeOrdersLabel.setText(String.valueOf(activeOrders));
+            activeOrdersLabel.setText(String.valueOf(data.activeOrders()));
         if (totalRevenueLabel != null)
-            totalRevenueLabel.setText(String.format("₺%.2f", revenue));
+            totalRevenueLabel.setText(String.format("₺%.2f", data.revenue()));
         if (activeCarriersLabel != null)
-            activeCarriersLabel.setText(String.valueOf(carrierCount));
-
-        List<Order> allOrders = OrderDAO.getAllOrdersForAdmin();
-        ObservableList<Order> recent = FXCollections.observableArrayList();
-        if (allOrders != null && !allOrders.isEmpty()) {
-            if (allOrders.size() > 5)
-                recent.addAll(allOrders.subList(0, 5));
-            else
-                recent.addAll(allOrders);
-        }
+            activeCarriersLabel.setText(String.valueOf(data.carrierCount()));
+
+        ObservableList<Order> recent = FXCollections.observableArrayList(data.recentOrders());
 
         if (recentOrdersTable != null) {
             recentOrdersTable.setItems(recent);
@@ -284,14 +379,14 @@ public class OwnerController {
             }
         }
         
-        loadDashboardCharts();
+        showDashboardCharts(data);
         } catch (Exception e) {
             showAlert("Error", "Failed to load dashboard stats: " + e.getMessage());
         }
     }
 
     /**
-     * Fetches analytical data from the database and renders JavaFX Charts.
+     * Renders the dashboard's JavaFX Charts.
      * Includes:
      * <ul>
      * <li>Most Sold Products (Bar Chart)</li>
@@ -301,12 +396,12 @@ public class OwnerController {
      * <li>Revenue by Category (Pie Chart)</li>
      * </ul>
      */
-    private void loadDashboardCharts() {
+    private void showDashboardCharts(DashboardService.Snapshot dashboard) {
         try {
             // Most Sold Products Chart
             if (mostSoldProductsChart != null) {
                 mostSoldProductsChart.getChildren().clear();
-                Map<String, Double> data = OrderDAO.getMostSoldProducts(10);
+                Map<String, Double> data = dashboard.mostSold();
                 if (!data.isEmpty()) {
                     CategoryAxis xAxis = new CategoryAxis();
                     NumberAxis yAxis = new NumberAxis();
@@ -330,8 +425,8 @@ public class OwnerController {
             // Carrier Performance Chart
             if (carrierPerformanceChart != null) {
                 carrierPerformanceChart.getChildren().clear();
-                Map<String, Double> ratings = OrderDAO.getCarrierAverageRatings();
-                Map<String, Integer> deliveries = OrderDAO.getCarrierPerformanceReport();
+                Map<String, Double> ratings = dashboard.carrierRatings();
+                Map<String, Integer> deliveries = dashboard.carrierDeliveries();
                 
                 if (!ratings.isEmpty() || !deliveries.isEmpty()) {
                     CategoryAxis xAxis = new CategoryAxis();
@@ -366,7 +461,7 @@ public class OwnerController {
             // Order Intensity by Hour Chart
             if (orderIntensityHourChart != null) {
                 orderIntensityHourChart.getChildren().clear();
-                Map<String, Integer> data = OrderDAO.getOrderIntensityByHour();
+                Map<String, Integer> data = dashboard.ordersByHour();
                 if (!data.isEmpty()) {
                     CategoryAxis xAxis = new CategoryAxis();
                     NumberAxis yAxis = new NumberAxis();
@@ -390,7 +485,7 @@ public class OwnerController {
             // Most Active Customers Chart
             if (mostActiveCustomersChart != null) {
                 mostActiveCustomersChart.getChildren().clear();
-                Map<String, Integer> data = OrderDAO.getMostActiveCustomers(10);
+                Map<String, Integer> data = dashboard.mostActiveCustomers();
                 if (!data.isEmpty()) {
                     CategoryAxis xAxis = new CategoryAxis();
                     NumberAxis yAxis = new NumberAxis();
@@ -414,7 +509,7 @@ public class OwnerController {
             // Revenue by Category Chart
             if (revenueByCategoryChart != null) {
                 revenueByCategoryChart.getChildren().clear();
-                Map<String, Double> data = OrderDAO.getRevenueByCategory();
+                Map<String, Double> data = dashboard.revenueByCategory();
                 if (!data.isEmpty()) {
                     PieChart chart = new PieChart();
                     chart.setTitle("Revenue by Category");
@@ -441,6 +536,10 @@ public class OwnerController {
      * Applies custom CellFactories to color-code rows based on stock levels (Low Stock, Out of Stock).
      */
     private void setupProductTable() {
+        if (productsTable != null)
+            productsTable.setItems(shownProducts);
+        if (productSearchField != null)
+            productSearch.bind(productSearchField);
         if (productsTable != null && !productsTable.getColumns().isEmpty()) {
             productsTable.getColumns().get(0).setCellValueFactory(new PropertyValueFactory<>("id"));
             productsTable.getColumns().get(1).setCellValueFactory(new PropertyValueFactory<>("name"));
@@ -519,28 +618,20 @@ public class OwnerController {
     }
 
     /**
-     * Reloads product data from the database into the master list.
+     * Reloads product data from the shared catalog cache of {@link ProductDAO}; the
+     * table keeps showing the products that match the search text.
      */
     private void loadProducts() {
-        masterProductList.setAll(ProductDAO.getAllProducts());
-        if (productsTable != null)
-            productsTable.setItems(masterProductList);
+        loader.submit("products", ProductDAO::getAllProducts, productSearch::setItems);
     }
 
     /**
      * Filters the product table based on the search query (Name or Type).
+     * The table also filters while typing; the button searches without waiting.
      */
     @FXML
     private void handleSearchProducts() {
-        String filter = productSearchField.getText().toLowerCase();
-        if (filter.isEmpty()) {
-            productsTable.setItems(masterProductList);
-        } else {
-            FilteredList<Product> filtered = new FilteredList<>(masterProductList,
-                    p -> p.getName().toLowerCase().contains(filter) ||
-                            p.getType().toLowerCase().contains(filter));
-            productsTable.setItems(filtered);
-        }
+        productSearch.searchNow(productSearchField.getText());
     }
 
     /**
@@ -549,7 +640,7 @@ public class OwnerController {
      */
     @FXML
     private void handleAddProduct() {
-        Dialog<Boolean> dialog = new Dialog<>();
+        Dialog<Callable<ProductSave>> dialog = new Dialog<>();
         dialog.setTitle("Add New Product");
         dialog.setHeaderText("Enter product details");
 
@@ -625,60 +716,63 @@ public class OwnerController {
 
                     if (name == null || name.trim().isEmpty()) {
                         showAlert("Error", "Product name cannot be empty.");
-                        return false;
+                        return null;
                     }
 
                     if (price <= 0) {
                         showAlert("Error", "Price must be greater than 0.");
-                        return false;
+                        return null;
                     }
 
                     if (stock < 0) {
                         showAlert("Error", "Stock cannot be negative.");
-                        return false;
+                        return null;
                     }
 
                     if (threshold <= 0) {
                         showAlert("Error", "Threshold must be greater than 0.");
-                        return false;
+                        return null;
                     }
 
                     if (type == null) {
                         showAlert("Error", "Please select a product type.");
-                        return false;
+                        return null;
                     }
 
-                    if (ProductDAO.productExists(name, type)) {
-                        showAlert("Error", "This product already exists.");
-                        return false;
-                    }
-
-                    return ProductDAO.addProduct(
-                            name,
-                            type,
-                            price,
-                            stock,
-                            threshold,
-                            selectedFile[0]
-                    );
+                    File image = selectedFile[0];
+                    return () -> ProductDAO.productExists(name, type) ? ProductSave.DUPLICATE
+                            : ProductDAO.addProduct(name, type, price, stock, threshold, image)
+                                    ? ProductSave.SAVED : ProductSave.FAILED;
 
                 } catch (NumberFormatException e) {
                     showAlert("Error", "Please enter valid numeric values.");
-                    return false;
+                    return null;
                 } catch (Exception e) {
                     showAlert("Error", "Unexpected error: " + e.getMessage());
-                    return false;
+                    return null;
                 }
             }
             return null;
         });
 
-        Optional<Boolean> result = dialog.showAndWait();
-        if (result.isPresent() && result.get()) {
-            loadProducts();
-            loadDashboardStats();
-            showAlert("Success", "Product added successfully.");
-        }
+        dialog.showAndWait().ifPresent(save -> loader.submit("saveProduct", save, saved -> {
+            switch (saved) {
+                case SAVED -> {
+                    loadProducts();
+                    reloadDashboardStats();
+                    showAlert("Success", "Product added successfully.");
+                }
+                case DUPLICATE -> showAlert("Error", "This product already exists.");
+                case FAILED -> showAlert("Error", "Could not add product.");
+            }
+        }, e -> showAlert("Error", "Unexpected error: " + e.getMessage())));
+    }
+
+    /**
+     * Outcome of saving a product from the add or update dialog.
+     */
+    private enum ProductSave {
+        SAVED, DUPLICATE, FAILED
     }
 
     /**
@@ -699,17 +793,16 @@ public class OwnerController {
         
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-        if (ProductDAO.deleteProduct(selected.getId())) {
-            loadProducts();
-            loadDashboardStats();
-            showAlert("Success", "Product deleted.");
-        } else {
-            showAlert("Error", "Could not delete product.");
-        }
-                } catch (Exception e) {
-                    showAlert("Error", "Error deleting product: " + e.getMessage());
-                }
+                loader.submit("deleteProduct-" + selected.getId(), () -> ProductDAO.deleteProduct(selected.getId()),
+                        deleted -> {
+                            if (deleted) {
+                                loadProducts();
+                                reloadDashboardStats();
+                                showAlert("Success", "Product deleted.");
+                            } else {
+                                showAlert("Error", "Could not delete product.");
+                            }
+                        }, e -> showAlert("Error", "Error deleting product: " + e.getMessage()));
             }
         });
     }
@@ -726,7 +819,7 @@ public class OwnerController {
             return;
         }
 
-        Dialog<Boolean> dialog = new Dialog<>();
+        Dialog<Callable<ProductSave>> dialog = new Dialog<>();
         dialog.setTitle("Update Product");
         dialog.setHeaderText("Update product details for: " + selected.getName());
 
@@ -788,66 +881,57 @@ public class OwnerController {
                     // Validations
                     if (name.isEmpty()) {
                         showAlert("Error", "Product name cannot be empty.");
-                        return false;
+                        return null;
                     }
                     if (price <= 0) {
                         showAlert("Error", "Price must be greater than 0.");
-                        return false;
+                        return null;
                     }
                     if (stock < 0) {
                         showAlert("Error", "Stock cannot be negative.");
-                        return false;
+                        return null;
                     }
                     if (threshold <= 0) {
                         showAlert("Error", "Threshold must be greater than 0.");
-                        return false;
+                        return null;
                     }
                     if (type == null) {
                         showAlert("Error", "Please select a product type.");
-                        return false;
-                    }
-
-                    // Check for duplicate name (excluding itself)
-                    if (!name.equals(selected.getName()) || !type.equals(selected.getType())) {
-                        if (ProductDAO.productExists(name, type)) {
-                            showAlert("Error", "A product with this name and type already exists.");
-                            return false;
-                        }
+                        return null;
                     }
 
-                    boolean success = ProductDAO.updateProduct(
-                            selected.getId(),
-                            name,
-                            type,
-                            price,
-                            stock,
-                            threshold,
-                            selectedFile[0]);
-
-                    if (success) {
-                loadProducts();
-                        loadDashboardStats();
-                        return true;
-                    } else {
-                        showAlert("Error", "Failed to update product.");
-                        return false;
-                    }
+                    boolean renamed = !name.equals(selected.getName()) || !type.equals(selected.getType());
+                    File image = selectedFile[0];
+                    return () -> {
+                        // Check for duplicate name (excluding itself)
+                        if (renamed && ProductDAO.productExists(name, type))
+                            return ProductSave.DUPLICATE;
+                        return ProductDAO.updateProduct(selected.getId(), name, type, price, stock, threshold, image)
+                                ? ProductSave.SAVED : ProductSave.FAILED;
+                    };
 
             } catch (NumberFormatException e) {
                     showAlert("Error", "Please enter valid numeric values for price, stock, and threshold.");
-                    return false;
+                    return null;
                 } catch (Exception e) {
                     showAlert("Error", "Unexpected error: " + e.getMessage());
-                    return false;
+                    return null;
                 }
             }
             return null;
         });
 
-        Optional<Boolean> result = dialog.showAndWait();
-        if (result.isPresent() && result.get()) {
-            showAlert("Success", "Product updated successfully.");
-        }
+        dialog.showAndWait().ifPresent(save -> loader.submit("saveProduct", save, saved -> {
+            switch (saved) {
+                case SAVED -> {
+                    loadProducts();
+                    reloadDashboardStats();
+                    showAlert("Success", "Product updated successfully.");
+                }
+                case DUPLICATE -> showAlert("Error", "A product with this name and type already exists.");
+                case FAILED -> showAlert("Error", "Failed to update product.");
+            }
+        }, e -> showAlert("Error", "Unexpected error: " + e.getMessage())));
     }
 
 
@@ -1024,37 +1108,63 @@ public class OwnerController {
     }
 
     /**
-     * Reloads all orders for the admin view.
+     * Reloads the orders table from its first page, applying the selected filters
+     * on the server. Further pages are loaded by {@link #loadMoreOrders()}.
      */
     private void loadOrders() {
-        masterOrderList.setAll(OrderDAO.getAllOrdersForAdmin());
-        filterOrders();
+        OrderDAO.OrderFilter filter = buildOrderFilter();
+        orderFilter = filter;
+        loadingOrderPage = true;
+        loader.submit("orders", () -> OrderDAO.getOrdersPage(filter, null, ORDER_PAGE_SIZE), page -> {
+            masterOrderList.setAll(page.orders());
+            showOrderPage(page);
+        }, this::orderPageFailed);
     }
 
     /**
-     * Filters the order list based on the selected status in the dropdown.
+     * Appends the next page of orders when the table is scrolled near its end.
      */
-    private void filterOrders() {
-        if (ordersTable == null)
+    private void loadMoreOrders() {
+        if (loadingOrderPage || nextOrderPage == null)
             return;
-        String status = orderStatusFilter.getValue();
-        if (status == null || status.equals("All")) {
-            ordersTable.setItems(masterOrderList);
-            if (ordersCountLabel != null)
-                ordersCountLabel.setText("Total: " + masterOrderList.size());
-        } else {
-            FilteredList<Order> filtered = new FilteredList<>(masterOrderList,
-                    o -> o.getStatus() != null && o.getStatus().equalsIgnoreCase(status));
-            ordersTable.setItems(filtered);
-            if (ordersCountLabel != null)
-                ordersCountLabel.setText("Total: " + filtered.size());
-        }
+        OrderDAO.OrderFilter filter = orderFilter;
+        OrderDAO.PageCursor after = nextOrderPage;
+        loadingOrderPage = true;
+        loader.submit("orders", () -> OrderDAO.getOrdersPage(filter, after, ORDER_PAGE_SIZE), page -> {
+            masterOrderList.addAll(page.orders());
+            showOrderPage(page);
+        }, this::orderPageFailed);
+    }
+
+    private void showOrderPage(OrderDAO.OrderPage page) {
+        nextOrderPage = page.next();
+        loadingOrderPage = false;
+        if (ordersCountLabel != null)
+            ordersCountLabel.setText("Total: " + masterOrderList.size() + (page.hasMore() ? "+" : ""));
+    }
+
+    private void orderPageFailed(Throwable error) {
+        error.printStackTrace();
+        loadingOrderPage = false;
+    }
+
+    /**
+     * Builds the server-side filter from the status, neighborhood and date controls.
+     */
+    private OrderDAO.OrderFilter buildOrderFilter() {
+        String status = orderStatusFilter != null ? orderStatusFilter.getValue() : null;
+        String neighborhood = orderNeighborhoodFilter != null ? orderNeighborhoodFilter.getValue() : null;
+        return new OrderDAO.OrderFilter(null,
+                status == null || status.equals("All") ? null : status,
+                orderFromDate != null ? orderFromDate.getValue() : null,
+                orderToDate != null ? orderToDate.getValue() : null,
+                neighborhood == null || neighborhood.equals("All") ? null : neighborhood);
     }
 
     @FXML
     private void handleRefreshOrders() {
         loadOrders();
-        loadDashboardStats();
+        reloadDashboardStats();
     }
 
     // --- CARRIERS SECTION ---
@@ -1069,9 +1179,10 @@ public class OwnerController {
     }
 
     private void loadCarriers() {
-        ObservableList<User> carriers = FXCollections.observableArrayList(UserDAO.getAllCarriers());
-        if (carriersTable != null)
-            carriersTable.setItems(carriers);
+        loader.submit("carriers", UserDAO::getAllCarriers, carriers -> {
+            if (carriersTable != null)
+                carriersTable.setItems(FXCollections.observableArrayList(carriers));
+        });
     }
 
     /**
@@ -1079,7 +1190,7 @@ public class OwnerController {
      */
     @FXML
     private void handleHireCarrier() {
-        Dialog<Boolean> dialog = new Dialog<>();
+        Dialog<Callable<Boolean>> dialog = new Dialog<>();
         dialog.setTitle("Hire New Carrier");
         dialog.setHeaderText("Enter carrier credentials");
 
@@ -1114,24 +1225,24 @@ public class OwnerController {
 
         dialog.setResultConverter(btn -> {
             if (btn == hireBtn) {
-                return UserDAO.addCarrier(
-                        userField.getText(),
-                        passField.getText(),
-                        emailField.getText(),
-                        phoneField.getText());
+                String username = userField.getText();
+                String password = passField.getText();
+                String email = emailField.getText();
+                String phone = phoneField.getText();
+                return () -> UserDAO.addCarrier(username, password, email, phone);
             }
             return null;
         });
 
-        dialog.showAndWait().ifPresent(success -> {
+        dialog.showAndWait().ifPresent(hire -> loader.submit("hireCarrier", hire, success -> {
             if (success) {
                 loadCarriers();
-                loadDashboardStats();
+                reloadDashboardStats();
                 showAlert("Success", "Carrier hired successfully!");
             } else {
                 showAlert("Error", "Could not hire carrier. Username might be taken.");
             }
-        });
+        }, e -> showAlert("Error", "Could not hire carrier: " + e.getMessage())));
     }
 
     /**
@@ -1153,19 +1264,22 @@ public class OwnerController {
         confirm.showAndWait();
 
         if (confirm.getResult() == ButtonType.YES) {
+            loader.submit("fireCarrier-" + selected.getId(), () -> OrderDAO.hasActiveOrders(selected.getId()), active -> {
+                if (active) {
+                    showAlert("Error", "This carrier has active deliveries and cannot be removed.");
+                    return;
+                }
 
-            if (OrderDAO.hasActiveOrders(selected.getId())) {
-                showAlert("Error", "This carrier has active deliveries and cannot be removed.");
-                return;
-            }
-
-            if (UserDAO.deleteUser(selected.getId())) {
-                loadCarriers();
-                loadDashboardStats();
-                showAlert("Success", "Carrier fired.");
-            } else {
-                showAlert("Error", "Operation failed.");
-            }
+                loader.submit("fireCarrier-" + selected.getId(), () -> UserDAO.deleteUser(selected.getId()), fired -> {
+                    if (fired) {
+                        loadCarriers();
+                        reloadDashboardStats();
+                        showAlert("Success", "Carrier fired.");
+                    } else {
+                        showAlert("Error", "Operation failed.");
+                    }
+                }, e -> showAlert("Error", "Operation failed: " + e.getMessage()));
+            }, e -> showAlert("Error", "Operation failed: " + e.getMessage()));
         }
     }
 
@@ -1180,60 +1294,69 @@ public class OwnerController {
             return;
         }
 
-        try {
-            List<OrderDAO.CarrierRating> ratings = OrderDAO.getCarrierRatings(selected.getId());
-            double avgRating = OrderDAO.getCarrierAverageRating(selected.getId());
-        Map<String, Integer> performance = OrderDAO.getCarrierPerformanceReport();
-        int completedDeliveries = performance.getOrDefault(selected.getUsername(), 0);
-
-            Dialog<Void> dialog = new Dialog<>();
-            dialog.setTitle("Carrier Ratings & Performance");
-            dialog.setHeaderText("Detailed Performance: " + selected.getUsername());
-            dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
-
-            VBox content = new VBox(10);
-            content.setPadding(new Insets(20));
-
-            Label statsLabel = new Label();
-            statsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
-            statsLabel.setText(String.format("Average Rating: %.2f / 5.0\nCompleted Deliveries: %d", 
-                avgRating, completedDeliveries));
-            content.getChildren().add(statsLabel);
-
-            if (!ratings.isEmpty()) {
-                Label ratingsLabel = new Label("Recent Ratings:");
-                ratingsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
-                content.getChildren().add(ratingsLabel);
-
-                TableView<OrderDAO.CarrierRating> ratingsTable = new TableView<>();
-                TableColumn<OrderDAO.CarrierRating, Integer> orderCol = new TableColumn<>("Order ID");
-                orderCol.setCellValueFactory(data -> new SimpleIntegerProperty(data.getValue().orderId).asObject());
-                TableColumn<OrderDAO.CarrierRating, String> customerCol = new TableColumn<>("Customer");
-                customerCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().customerName));
-                TableColumn<OrderDAO.CarrierRating, Integer> ratingCol = new TableColumn<>("Rating");
-                ratingCol.setCellValueFactory(data -> new SimpleIntegerProperty(data.getValue().rating).asObject());
-                TableColumn<OrderDAO.CarrierRating, String> commentCol = new TableColumn<>("Comment");
-                commentCol.setCellValueFactory(data -> new SimpleStringProperty(
-                    data.getValue().comment != null ? data.getValue().comment : "-"));
-                
-                ratingsTable.getColumns().add(orderCol);
-                ratingsTable.getColumns().add(customerCol);
-                ratingsTable.getColumns().add(ratingCol);
-                ratingsTable.getColumns().add(commentCol);
-                ratingsTable.setItems(FXCollections.observableArrayList(ratings));
-                ratingsTable.setPrefHeight(200);
-                content.getChildren().add(ratingsTable);
-            } else {
-                Label noRatingsLabel = new Label("No ratings yet.");
-                noRatingsLabel.setStyle("-fx-text-fill: #666;");
-                content.getChildren().add(noRatingsLabel);
-            }
+        loader.submit("carrierRatings", () -> new CarrierStats(OrderDAO.getCarrierRatings(selected.getId()),
+                OrderDAO.getCarrierAverageRating(selected.getId()),
+                OrderDAO.getCarrierPerformanceReport().getOrDefault(selected.getUsername(), 0)),
+                stats -> showCarrierRatings(selected, stats),
+                e -> showAlert("Error", "Failed to load carrier ratings: " + e.getMessage()));
+    }
 
-            dialog.getDialogPane().setContent(content);
-            dialog.showAndWait();
-        } catch (Exception e) {
-            showAlert("Error", "Failed to load carrier ratings: " + e.getMessage());
+    /**
+     * Ratings and completed delivery count of one carrier, fetched together.
+     */
+    private record CarrierStats(List<OrderDAO.CarrierRating> ratings, double avgRating, int completedDeliveries) {
+    }
+
+    private void showCarrierRatings(User selected, CarrierStats stats) {
+        List<OrderDAO.CarrierRating> ratings = stats.ratings();
+        double avgRating = stats.avgRating();
+        int completedDeliveries = stats.completedDeliveries();
+
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("Carrier Ratings & Performance");
+        dialog.setHeaderText("Detailed Performance: " + selected.getUsername());
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+
+        VBox content = new VBox(10);
+        content.setPadding(new Insets(20));
+
+        Label statsLabel = new Label();
+        statsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        statsLabel.setText(String.format("Average Rating: %.2f / 5.0\nCompleted Deliveries: %d", 
+            avgRating, completedDeliveries));
+        content.getChildren().add(statsLabel);
+
+        if (!ratings.isEmpty()) {
+            Label ratingsLabel = new Label("Recent Ratings:");
+            ratingsLabel.setFont(Font.font("Arial", FontWeight.BOLD, 12));
+            content.getChildren().add(ratingsLabel);
+
+            TableView<OrderDAO.CarrierRating> ratingsTable = new TableView<>();
+            TableColumn<OrderDAO.CarrierRating, Integer> orderCol = new TableColumn<>("Order ID");
+            orderCol.setCellValueFactory(data -> new SimpleIntegerProperty(data.getValue().orderId).asObject());
+            TableColumn<OrderDAO.CarrierRating, String> customerCol = new TableColumn<>("Customer");
+            customerCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().customerName));
+            TableColumn<OrderDAO.CarrierRating, Integer> ratingCol = new TableColumn<>("Rating");
+            ratingCol.setCellValueFactory(data -> new SimpleIntegerProperty(data.getValue().rating).asObject());
+            TableColumn<OrderDAO.CarrierRating, String> commentCol = new TableColumn<>("Comment");
+            commentCol.setCellValueFactory(data -> new SimpleStringProperty(
+                data.getValue().comment != null ? data.getValue().comment : "-"));
+            
+            ratingsTable.getColumns().add(orderCol);
+            ratingsTable.getColumns().add(customerCol);
+            ratingsTable.getColumns().add(ratingCol);
+            ratingsTable.getColumns().add(commentCol);
+            ratingsTable.setItems(FXCollections.observableArrayList(ratings));
+            ratingsTable.setPrefHeight(200);
+            content.getChildren().add(ratingsTable);
+        } else {
+            Label noRatingsLabel = new Label("No ratings yet.");
+            noRatingsLabel.setStyle("-fx-text-fill: #666;");
+            content.getChildren().add(noRatingsLabel);
         }
+
+        dialog.getDialogPane().setContent(content);
+        dialog.showAndWait();
     }
 
     // --- MESSAGING SYSTEM ---
@@ -1243,9 +1366,18 @@ public class OwnerController {
      */
     private void loadMessages() {
         if (chatTopicsList == null) return;
-        
+
+        loader.submit("messages", MessageDAO::getAllMessages, this::showMessageTopics,
+                e -> showAlert("Error", "Failed to load messages: " + e.getMessage()));
+    }
+
+    /**
+     * Fills the topic list with one entry per customer and subject.
+     *
+     * @param allMsgs All messages.
+     */
+    private void showMessageTopics(List<Message> allMsgs) {
         try {
-            List<Message> allMsgs = MessageDAO.getAllMessages();
             chatTopicsList.getItems().clear();
             
             if (allMsgs.isEmpty()) {
@@ -1287,43 +1419,46 @@ public class OwnerController {
      */
     private void loadChatMessages(String selection) {
         if (selection == null || chatMessagesBox == null) return;
-        
-        try {
-            String[] parts = selection.split(" - ");
-            if (parts.length < 2) return;
-            
-            String customerName = parts[0];
-            String subject = parts[1];
-            if (subject.contains(" (")) {
-                subject = subject.substring(0, subject.lastIndexOf(" ("));
-            }
-            
-            currentChatSubject = subject;
-            
+
+        String[] parts = selection.split(" - ");
+        if (parts.length < 2) return;
+
+        String customerName = parts[0];
+        String subject = parts[1];
+        if (subject.contains(" (")) {
+            subject = subject.substring(0, subject.lastIndexOf(" ("));
+        }
+
+        currentChatSubject = subject;
+
+        if (chatCurrentTopicLabel != null)
+            chatCurrentTopicLabel.setText(subject);
+        if (chatCustomerNameLabel != null)
+            chatCustomerNameLabel.setText(customerName);
+
+        chatMessagesBox.getChildren().clear();
+
+        String topic = subject;
+        int ownerId = currentUser.getId();
+        loader.submit("chatMessages", () -> {
             // Find Customer ID
-            List<User> customers = UserDAO.getAllCustomers();
-            for (User customer : customers) {
+            int customerId = 0;
+            for (User customer : UserDAO.getAllCustomers()) {
                 if (customer.getUsername().equals(customerName)) {
-                    currentChatCustomerId = customer.getId();
+                    customerId = customer.getId();
                     break;
                 }
             }
-            
-            if (chatCurrentTopicLabel != null)
-                chatCurrentTopicLabel.setText(subject);
-            if (chatCustomerNameLabel != null)
-                chatCustomerNameLabel.setText(customerName);
-            
-            chatMessagesBox.getChildren().clear();
-            
-            List<Message> msgs = MessageDAO.getConversation(currentChatCustomerId, currentUser.getId());
-            for (Message m : msgs) {
-                if (m.getSubject().equalsIgnoreCase(subject)) {
-                    addMessageBubble(m.getContent(), m.getSenderId() == currentUser.getId(), 
+            return new ChatHistory(customerId, MessageDAO.getConversation(customerId, ownerId));
+        }, chat -> {
+            currentChatCustomerId = chat.customerId();
+            for (Message m : chat.messages()) {
+                if (m.getSubject().equalsIgnoreCase(topic)) {
+                    addMessageBubble(m.getContent(), m.getSenderId() == ownerId,
                         m.getCreatedAt() != null ? m.getCreatedAt().toString() : "");
                 }
             }
-            
+
             // Auto scroll to bottom
             new java.util.Timer().schedule(new java.util.TimerTask() {
                 @Override
@@ -1333,9 +1468,13 @@ public class OwnerController {
                     });
                 }
             }, 100);
-        } catch (Exception e) {
-            showAlert("Error", "Failed to load chat: " + e.getMessage());
-        }
+        }, e -> showAlert("Error", "Failed to load chat: " + e.getMessage()));
+    }
+
+    /**
+     * A customer's ID and their conversation with the owner, fetched together.
+     */
+    private record ChatHistory(int customerId, List<Message> messages) {
     }
 
     /**
@@ -1403,17 +1542,25 @@ public class OwnerController {
         String txt = chatInput.getText().trim();
         if (txt.isEmpty()) return;
         
-        try {
-            if (MessageDAO.sendMessage(currentUser.getId(), currentChatCustomerId, currentChatSubject, txt)) {
+        int ownerId = currentUser.getId();
+        int customerId = currentChatCustomerId;
+        String subject = currentChatSubject;
+
+        // Disabled while sending, so the same text cannot be sent twice
+        chatInput.setDisable(true);
+        loader.submit("sendMessage", () -> MessageDAO.sendMessage(ownerId, customerId, subject, txt), sent -> {
+            chatInput.setDisable(false);
+            if (sent) {
                 addMessageBubble(txt, true, LocalDateTime.now().toString());
                 chatInput.clear();
                 if (chatScroll != null) chatScroll.setVvalue(1.0);
             } else {
                 showAlert("Error", "Failed to send message.");
             }
-        } catch (Exception e) {
+        }, e -> {
+            chatInput.setDisable(false);
             showAlert("Error", "Error sending message: " + e.getMessage());
-        }
+        });
     }
 
     @FXML
@@ -1430,9 +1577,11 @@ public class OwnerController {
         
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    if (MessageDAO.deleteChatTopic(currentChatCustomerId, currentChatSubject)) {
-            loadMessages();
+                int customerId = currentChatCustomerId;
+                String subject = currentChatSubject;
+                loader.submit("deleteChat", () -> MessageDAO.deleteChatTopic(customerId, subject), deleted -> {
+                    if (deleted) {
+                        loadMessages();
                         if (chatMessagesBox != null) chatMessagesBox.getChildren().clear();
                         if (chatCurrentTopicLabel != null) chatCurrentTopicLabel.setText("-");
                         if (chatCustomerNameLabel != null) chatCustomerNameLabel.setText("-");
@@ -1440,9 +1589,7 @@ public class OwnerController {
                     } else {
                         showAlert("Error", "Failed to delete conversation.");
                     }
-                } catch (Exception e) {
-                    showAlert("Error", "Error deleting conversation: " + e.getMessage());
-                }
+                }, e -> showAlert("Error", "Error deleting conversation: " + e.getMessage()));
             }
         });
     }
@@ -1461,8 +1608,8 @@ public class OwnerController {
 
     private void loadCoupons() {
         if (couponsTable != null) {
-            List<Coupon> coupons = SettingsDAO.getAllCoupons();
-            couponsTable.setItems(FXCollections.observableArrayList(coupons));
+            loader.submit("coupons", SettingsDAO::getAllCoupons,
+                    coupons -> couponsTable.setItems(FXCollections.observableArrayList(coupons)));
         }
     }
 
@@ -1470,8 +1617,20 @@ public class OwnerController {
      * Loads system settings like Loyalty Program parameters and Minimum Cart Value.
      */
     private void loadSettings() {
+        loader.submit("settings",
+                () -> new SettingsData(SettingsDAO.getLoyaltySettings(), SettingsDAO.getMinCartValue()),
+                this::showSettings, e -> showAlert("Error", "Failed to load settings: " + e.getMessage()));
+    }
+
+    /**
+     * Loyalty program parameters and minimum cart value, fetched together.
+     */
+    private record SettingsData(Integer[] loyalty, double minCartValue) {
+    }
+
+    private void showSettings(SettingsData settings) {
         try {
-            Integer[] loyalty = SettingsDAO.getLoyaltySettings();
+            Integer[] loyalty = settings.loyalty();
             if (minOrdersField != null) {
                 if (loyalty[0] != null) {
             minOrdersField.setText(String.valueOf(loyalty[0]));
@@ -1482,7 +1641,7 @@ public class OwnerController {
         if (loyaltyDiscountField != null)
             loyaltyDiscountField.setText(String.valueOf(loyalty[1]));
             
-            double minCartValue = SettingsDAO.getMinCartValue();
+            double minCartValue = settings.minCartValue();
             if (minCartValueField != null)
                 minCartValueField.setText(String.format("%.2f", minCartValue));
         } catch (Exception e) {
@@ -1492,7 +1651,7 @@ public class OwnerController {
 
     @FXML
     private void handleAddCoupon() {
-        Dialog<Boolean> dialog = new Dialog<>();
+        Dialog<Callable<Boolean>> dialog = new Dialog<>();
         dialog.setTitle("Add Coupon");
         dialog.setHeaderText("Create a new discount coupon");
 
@@ -1534,40 +1693,41 @@ public class OwnerController {
 
                     if (code.isEmpty()) {
                         showAlert("Error", "Coupon code cannot be empty.");
-                        return false;
+                        return null;
                     }
                     if (discount <= 0 || discount > 100) {
                         showAlert("Error", "Discount must be between 0 and 100.");
-                        return false;
+                        return null;
                     }
                     if (minPurchase < 0) {
                         showAlert("Error", "Minimum purchase cannot be negative.");
-                        return false;
+                        return null;
                     }
                     if (validUntil == null || validUntil.isBefore(java.time.LocalDate.now())) {
                         showAlert("Error", "Valid until date must be in the future.");
-                        return false;
+                        return null;
                     }
 
-                    return SettingsDAO.addCoupon(code, discount, minPurchase, validUntil);
+                    return () -> SettingsDAO.addCoupon(code, discount, minPurchase, validUntil);
                 } catch (NumberFormatException e) {
                     showAlert("Error", "Please enter valid numeric values.");
-                    return false;
+                    return null;
                 } catch (Exception e) {
                     showAlert("Error", "Error adding coupon: " + e.getMessage());
-                    return false;
+                    return null;
                 }
             }
             return null;
         });
 
-        Optional<Boolean> result = dialog.showAndWait();
-        if (result.isPresent() && result.get()) {
-            loadCoupons();
-            showAlert("Success", "Coupon added.");
-        } else if (result.isPresent() && !result.get()) {
-            showAlert("Error", "Invalid input or code already exists.");
-        }
+        dialog.showAndWait().ifPresent(save -> loader.submit("saveCoupon", save, saved -> {
+            if (saved) {
+                loadCoupons();
+                showAlert("Success", "Coupon added.");
+            } else {
+                showAlert("Error", "Invalid input or code already exists.");
+            }
+        }, e -> showAlert("Error", "Error adding coupon: " + e.getMessage())));
     }
 
     @FXML
@@ -1585,16 +1745,15 @@ public class OwnerController {
 
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                try {
-                    if (SettingsDAO.deleteCoupon(selected.getId())) {
-                        loadCoupons();
-                        showAlert("Success", "Coupon deleted.");
-                    } else {
-                        showAlert("Error", "Could not delete coupon.");
-                    }
-                } catch (Exception e) {
-                    showAlert("Error", "Error deleting coupon: " + e.getMessage());
-                }
+                loader.submit("deleteCoupon-" + selected.getId(), () -> SettingsDAO.deleteCoupon(selected.getId()),
+                        deleted -> {
+                            if (deleted) {
+                                loadCoupons();
+                                showAlert("Success", "Coupon deleted.");
+                            } else {
+                                showAlert("Error", "Could not delete coupon.");
+                            }
+                        }, e -> showAlert("Error", "Error deleting coupon: " + e.getMessage()));
             }
         });
     }
@@ -1607,7 +1766,7 @@ public class OwnerController {
             return;
         }
 
-        Dialog<Boolean> dialog = new Dialog<>();
+        Dialog<Callable<Boolean>> dialog = new Dialog<>();
         dialog.setTitle("Update Coupon");
         dialog.setHeaderText("Update coupon: " + selected.getCode());
 
@@ -1651,38 +1810,40 @@ public class OwnerController {
 
                     if (code.isEmpty()) {
                         showAlert("Error", "Coupon code cannot be empty.");
-                        return false;
+                        return null;
                     }
                     if (discount <= 0 || discount > 100) {
                         showAlert("Error", "Discount must be between 0 and 100.");
-                        return false;
+                        return null;
                     }
                     if (minPurchase < 0) {
                         showAlert("Error", "Minimum purchase cannot be negative.");
-                        return false;
+                        return null;
                     }
                     if (validUntil == null) {
                         showAlert("Error", "Please select a valid date.");
-                        return false;
+                        return null;
                     }
 
-                    return SettingsDAO.updateCoupon(selected.getId(), code, discount, minPurchase, validUntil, isActive);
+                    return () -> SettingsDAO.updateCoupon(selected.getId(), code, discount, minPurchase, validUntil,
+                            isActive);
                 } catch (NumberFormatException e) {
                     showAlert("Error", "Please enter valid numeric values.");
-                    return false;
+                    return null;
                 } catch (Exception e) {
                     showAlert("Error", "Error updating coupon: " + e.getMessage());
-                    return false;
+                    return null;
                 }
             }
             return null;
         });
 
-        Optional<Boolean> result = dialog.showAndWait();
-        if (result.isPresent() && result.get()) {
-            loadCoupons();
-            showAlert("Success", "Coupon updated.");
-        }
+        dialog.showAndWait().ifPresent(save -> loader.submit("saveCoupon", save, saved -> {
+            if (saved) {
+                loadCoupons();
+                showAlert("Success", "Coupon updated.");
+            }
+        }, e -> showAlert("Error", "Error updating coupon: " + e.getMessage())));
     }
 
     @FXML
@@ -1704,12 +1865,14 @@ public class OwnerController {
                 return;
             }
             
-            SettingsDAO.updateLoyaltySettings(minOrders, discount);
-            showAlert("Success", "Loyalty settings updated.");
+            Integer orders = minOrders;
+            loader.submit("loyaltySettings", () -> {
+                SettingsDAO.updateLoyaltySettings(orders, discount);
+                return null;
+            }, saved -> showAlert("Success", "Loyalty settings updated."),
+                    e -> showAlert("Error", "Error updating loyalty settings: " + e.getMessage()));
         } catch (NumberFormatException e) {
             showAlert("Error", "Please enter valid numbers.");
-        } catch (Exception e) {
-            showAlert("Error", "Error updating loyalty settings: " + e.getMessage());
         }
     }
 
@@ -1721,15 +1884,15 @@ public class OwnerController {
                 showAlert("Error", "Minimum cart value cannot be negative.");
                 return;
             }
-            if (SettingsDAO.updateMinCartValue(minValue)) {
-                showAlert("Success", "Minimum cart value updated.");
-            } else {
-                showAlert("Error", "Failed to update minimum cart value.");
-            }
+            loader.submit("minCartValue", () -> SettingsDAO.updateMinCartValue(minValue), saved -> {
+                if (saved) {
+                    showAlert("Success", "Minimum cart value updated.");
+                } else {
+                    showAlert("Error", "Failed to update minimum cart value.");
+                }
+            }, e -> showAlert("Error", "Error updating minimum cart value: " + e.getMessage()));
         } catch (NumberFormatException e) {
             showAlert("Error", "Please enter a valid number.");
-        } catch (Exception e) {
-            showAlert("Error", "Error updating minimum cart value: " + e.getMessage());
         }
     }
 
@@ -1738,6 +1901,10 @@ public class OwnerController {
     /**
      * Generates a report preview in the UI based on the selected report type.
      * Supported types: Revenue (Time/Amount), Product Revenue, Carrier Performance.
+     * <p>
+     * Reports are computed in memory by the {@link AnalyticsEngine}; if its data is
+     * stale, the latest changes are pulled in the background first.
+     * </p>
      */
     @FXML
     private void handleGenerateReport() {
@@ -1747,6 +1914,20 @@ public class OwnerController {
             return;
         }
 
+        AnalyticsEngine analytics = AnalyticsEngine.getInstance();
+        if (analytics.isStale())
+            loader.submit("report", analytics::sync, synced -> showReport(type));
+        else
+            showReport(type);
+    }
+
+    /**
+     * Renders the report preview.
+     *
+     * @param type The selected report type.
+     */
+    private void showReport(String type) {
+        AnalyticsEngine analytics = AnalyticsEngine.getInstance();
         reportContentBox.getChildren().clear();
 
         try {
@@ -1798,7 +1979,7 @@ public class OwnerController {
             if (type.contains("Revenue by Time")) {
                 String period = type.contains("Daily") ? "daily" : 
                                type.contains("Weekly") ? "weekly" : "monthly";
-                Map<String, Double> reportData = OrderDAO.getRevenueByTimeReport(period);
+                Map<String, Double> reportData = analytics.getRevenueByTimeReport(period);
                 
                 if (reportData.isEmpty()) {
                     Label noDataLabel = new Label("No data available for this period.");
@@ -1814,7 +1995,7 @@ public class OwnerController {
                 }
                 
             } else if (type.equals("Revenue by Amount Range")) {
-                Map<String, Double> reportData = OrderDAO.getRevenueByAmountRange();
+                Map<String, Double> reportData = analytics.getRevenueByAmountRange();
                 
                 if (reportData.isEmpty()) {
                     Label noDataLabel = new Label("No data available.");
@@ -1830,7 +2011,7 @@ public class OwnerController {
                 }
                 
             } else if (type.equals("Product Revenue")) {
-                Map<String, Double> map = OrderDAO.getRevenueByProductReport();
+                Map<String, Double> map = analytics.getRevenueByProductReport();
                 
                 if (map.isEmpty()) {
                     Label noDataLabel = new Label("No product revenue data available.");
@@ -1846,7 +2027,7 @@ public class OwnerController {
                 }
                 
             } else if (type.equals("Carrier Performance")) {
-                Map<String, Integer> map = OrderDAO.getCarrierPerformanceReport();
+                Map<String, Integer> map = analytics.getCarrierPerformanceReport();
                 
                 if (map.isEmpty()) {
                     Label noDataLabel = new Label("No carrier performance data available.");
@@ -1884,9 +2065,13 @@ public class OwnerController {
         Stage stage = (Stage) usernameLabel.getScene().getWindow();
         File file = fileChooser.showSaveDialog(stage);
 
-        if (file != null) {
+        if (file == null)
+            return;
+        AnalyticsEngine analytics = AnalyticsEngine.getInstance();
+        if (analytics.isStale())
+            loader.submit("reportPdf", analytics::sync, synced -> saveReportToPDF(file));
+        else
             saveReportToPDF(file);
-        }
     }
 
     /**
@@ -1951,19 +2136,20 @@ public class OwnerController {
             // Fallback: If table is not in UI, fetch data again
             if (reportItems.isEmpty()) {
                 String type = reportType;
+                AnalyticsEngine analytics = AnalyticsEngine.getInstance();
                 if (type.contains("Revenue by Time")) {
                     String period = type.contains("Daily") ? "daily" : 
                                    type.contains("Weekly") ? "weekly" : "monthly";
-                    Map<String, Double> data = OrderDAO.getRevenueByTimeReport(period);
+                    Map<String, Double> data = analytics.getRevenueByTimeReport(period);
                     data.forEach((k, v) -> reportItems.add(new ReportItem(k, String.format("%.2f TL", v))));
                 } else if (type.equals("Revenue by Amount Range")) {
-                    Map<String, Double> data = OrderDAO.getRevenueByAmountRange();
+                    Map<String, Double> data = analytics.getRevenueByAmountRange();
                     data.forEach((k, v) -> reportItems.add(new ReportItem(k, String.format("%.2f TL", v))));
                 } else if (type.equals("Product Revenue")) {
-                    Map<String, Double> map = OrderDAO.getRevenueByProductReport();
+                    Map<String, Double> map = analytics.getRevenueByProductReport();
                     map.forEach((k, v) -> reportItems.add(new ReportItem(k, String.format("%.2f TL", v))));
                 } else if (type.equals("Carrier Performance")) {
-                    Map<String, Integer> map = OrderDAO.getCarrierPerformanceReport();
+                    Map<String, Integer> map = analytics.getCarrierPerformanceReport();
                     map.forEach((k, v) -> reportItems.add(new ReportItem(k, String.valueOf(v))));
                 }
             }
@@ -2035,11 +2221,111 @@ public class OwnerController {
         }
     }
 
+    /**
+     * Exports all order lines of the selected date range to a CSV or PDF file.
+     * <p>
+     * The export streams rows from the database to the file in the background, so
+     * any range can be exported; progress is shown next to the button and the
+     * export can be cancelled.
+     * </p>
+     */
+    @FXML
+    private void handleExportOrderLines() {
+        LocalDate from = exportFromDate.getValue();
+        LocalDate to = exportToDate.getValue();
+        ReportExporter.Format format = exportFormatCombo.getValue();
+        if (from == null || to == null || from.isAfter(to)) {
+            showAlert("Warning", "Please select a valid date range.");
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Order Lines");
+        fileChooser.setInitialFileName("OrderLines_" + from + "_" + to + "." + format.extension());
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+                format + " Files", "*." + format.extension()));
+        File file = fileChooser.showSaveDialog(usernameLabel.getScene().getWindow());
+        if (file == null)
+            return;
+
+        ReportExporter.Cancellation cancellation = new ReportExporter.Cancellation();
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                updateMessage("Exporting...");
+                return ReportExporter.exportOrderLines(from, to, format, file, (rows, fraction) -> {
+                    updateProgress(fraction, 1.0);
+                    updateMessage(String.format("%,d rows", rows));
+                }, cancellation);
+            }
+        };
+        task.setOnSucceeded(e -> {
+            finishExport(task, String.format("Exported %,d rows", task.getValue()));
+            showAlert("Success", "Order lines saved to: " + file.getAbsolutePath());
+        });
+        task.setOnFailed(e -> {
+            Throwable error = task.getException();
+            if (error instanceof CancellationException) {
+                finishExport(task, "Export cancelled.");
+            } else {
+                finishExport(task, "Export failed.");
+                error.printStackTrace();
+                showAlert("Error", "Could not export order lines: " + error.getMessage());
+            }
+        });
+
+        exportTask = task;
+        exportCancellation = cancellation;
+        exportProgressBar.progressProperty().bind(task.progressProperty());
+        exportStatusLabel.textProperty().bind(task.messageProperty());
+        showExportRunning(true);
+        // Own thread rather than the view's loader: a long export keeps neither the
+        // busy cursor nor a pooled-request permit of the screen
+        Thread.ofVirtual().name("order-export").start(task);
+    }
+
+    /**
+     * Shows the outcome of an export, unless a newer one has started since.
+     */
+    private void finishExport(Task<Long> task, String status) {
+        if (exportTask != task)
+            return;
+        exportTask = null;
+        exportCancellation = null;
+        exportProgressBar.progressProperty().unbind();
+        exportStatusLabel.textProperty().unbind();
+        exportStatusLabel.setText(status);
+        showExportRunning(false);
+    }
+
+    /**
+     * Stops the running order line export, including its query; the partial file
+     * is deleted.
+     */
+    @FXML
+    private void handleCancelExport() {
+        if (exportCancellation != null) {
+            exportCancellation.cancel();
+            exportStatusLabel.textProperty().unbind();
+            exportStatusLabel.setText("Cancelling...");
+        }
+    }
+
+    private void showExportRunning(boolean running) {
+        exportOrdersButton.setDisable(running);
+        exportProgressBar.setVisible(running);
+        cancelExportButton.setVisible(running);
+    }
+
     /**
      * Logs the admin out and returns to the login screen.
      */
     @FXML 
     private void handleLogout() {
+        productSearch.cancel();
+        if (exportCancellation != null)
+            exportCancellation.cancel();
+        loader.cancelAll();
         try {
             Stage stage = (Stage) usernameLabel.getScene().getWindow();
             Parent root = FXMLLoader.load(getClass().getResource("/fxml/login.fxml"));
@@ -2,6 +2,7 @@ package com.group12.greengrocer.controllers;
 
 import java.security.SecureRandom;
 import com.group12.greengrocer.database.UserDAO;
+import com.group12.greengrocer.utils.AsyncLoader;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -41,6 +42,9 @@ public class RegisterController {
     @FXML private Label errorLabel;
     @FXML private Label strengthLabel;
 
+    /** Runs the registration queries off the JavaFX thread. */
+    private final AsyncLoader loader = new AsyncLoader();
+
     /**
      * Initializes the controller class.
      * Sets up initial data (neighborhoods), binds password fields for visibility toggling,
@@ -112,10 +116,6 @@ public class RegisterController {
             setErrorStyle(usernameField);
             errorMsg.append("• Username must be at least 3 chars.\n");
             hasError = true;
-        } else if (UserDAO.isUserExists(user)) {
-            setErrorStyle(usernameField);
-            errorMsg.append("• Username is already taken.\n");
-            hasError = true;
         }
 
         // 3. Email Format Validation
@@ -150,12 +150,33 @@ public class RegisterController {
         }
 
         // --- REGISTRATION EXECUTION ---
-        if (UserDAO.registerCustomer(user, pass, addr, hood, email, phone)) {
-            showInfo("Success", "Registration Complete!\nWelcome, " + user);
-            switchToLogin(event);
-        } else {
-            errorLabel.setText("⚠ Database error occurred. Please try again.");
-        }
+        loader.submit("register", () -> UserDAO.isUserExists(user), taken -> {
+            if (taken) {
+                setErrorStyle(usernameField);
+                errorLabel.setText("• Username is already taken.");
+                errorLabel.setTextFill(Color.RED);
+                return;
+            }
+
+            loader.submit("register", () -> UserDAO.registerCustomer(user, pass, addr, hood, email, phone),
+                    registered -> {
+                        if (registered) {
+                            showInfo("Success", "Registration Complete!\nWelcome, " + user);
+                            switchToLogin(event);
+                        } else {
+                            errorLabel.setText("⚠ Database error occurred. Please try again.");
+                        }
+                    }, this::registrationFailed);
+        }, this::registrationFailed);
+    }
+
+    /**
+     * Shows a database error when a registration query fails.
+     * @param error The failure.
+     */
+    private void registrationFailed(Throwable error) {
+        error.printStackTrace();
+        errorLabel.setText("⚠ Database error occurred. Please try again.");
     }
 
     // --- HELPER METHODS ---
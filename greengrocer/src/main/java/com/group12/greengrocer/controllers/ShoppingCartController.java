@@ -1,17 +1,20 @@
 package com.group12.greengrocer.controllers;
 
 import com.group12.greengrocer.database.OrderDAO;
+import com.group12.greengrocer.database.ProductDAO;
 import com.group12.greengrocer.database.SettingsDAO;
 import com.group12.greengrocer.models.CartItem;
 import com.group12.greengrocer.models.Coupon;
+import com.group12.greengrocer.models.Product;
 import com.group12.greengrocer.models.User;
+import com.group12.greengrocer.utils.AsyncLoader;
+import com.group12.greengrocer.utils.ProductImageCache;
 import com.group12.greengrocer.utils.ShoppingCart;
 
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -19,8 +22,8 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -63,6 +66,12 @@ public class ShoppingCartController {
     private double discountAmount = 0.0;
     private final double VAT_RATE = 0.18;
 
+    /** The customer's completed order count, loaded in the background for the loyalty discount. */
+    private int completedOrders = 0;
+
+    /** Runs the checkout queries off the JavaFX thread. */
+    private final AsyncLoader loader = new AsyncLoader();
+
     /**
      * Initializes the controller class.
      * Sets up delivery options, configures payment toggles, and renders the initial state of the cart.
@@ -72,6 +81,13 @@ public class ShoppingCartController {
         setupDeliveryOptions();
         setupPaymentOptions(); // Configure payment methods
         renderCartItems(); // Load visual cards instead of a table
+        loader.bindBusyCursor(cartItemsContainer);
+
+        User user = ShoppingCart.getInstance().getCurrentUser();
+        loader.submit("loyalty", () -> OrderDAO.getCompletedOrderCount(user.getId()), count -> {
+            completedOrders = count;
+            updateTotals();
+        });
     }
 
     /**
@@ -124,12 +140,9 @@ public class ShoppingCartController {
         imgView.setFitHeight(60);
         imgView.setFitWidth(60);
         imgView.setPreserveRatio(true);
-        if (item.getProduct().getImage() != null) {
-            try {
-                imgView.setImage(new Image(new ByteArrayInputStream(item.getProduct().getImage())));
-            } catch (Exception e) {
-                // Ignore image load errors
-            }
+        if (item.getProduct().hasImage()) {
+            ProductImageCache.getInstance().load(imgView, item.getProduct().getId(),
+                    item.getProduct().getImageVersion(), 60, 60);
         }
 
         // 2. Product Info
@@ -210,8 +223,6 @@ public class ShoppingCartController {
         double vat = subtotal * VAT_RATE;
 
         // Calculate Loyalty Discount
-        User user = ShoppingCart.getInstance().getCurrentUser();
-        int completedOrders = OrderDAO.getCompletedOrderCount(user.getId());
         double loyaltyDiscount = 0;
         if (completedOrders >= 5) {
             loyaltyDiscount = subtotal * 0.10; // 10%
@@ -268,7 +279,17 @@ public class ShoppingCartController {
         if (code.isEmpty())
             return;
 
-        List<Coupon> coupons = SettingsDAO.getAllCoupons();
+        loader.submit("coupons", SettingsDAO::getAllCoupons, coupons -> applyCoupon(code, coupons));
+    }
+
+    /**
+     * Applies the coupon with the given code if it is active and the cart meets its
+     * minimum purchase amount.
+     *
+     * @param code    The entered coupon code.
+     * @param coupons All coupons.
+     */
+    private void applyCoupon(String code, List<Coupon> coupons) {
         boolean found = false;
 
         for (Coupon c : coupons) {
@@ -310,10 +331,15 @@ public class ShoppingCartController {
      * </ul>
      * <p>
      * If validation passes, creates the order via {@link OrderDAO} and clears the cart.
+     * The database calls run in the background; a second click while the order is
+     * being placed is ignored.
      * </p>
      */
     @FXML
     private void handleCheckout() {
+        if (loader.isLoading()) {
+            return; // order is already being placed
+        }
         if (ShoppingCart.getInstance().getItemCount() == 0) {
             checkoutMessageLabel.setText("Cart is empty!");
             return;
@@ -327,12 +353,23 @@ public class ShoppingCartController {
             return;
         }
 
+        User user = ShoppingCart.getInstance().getCurrentUser();
+        checkoutMessageLabel.setText("Placing order...");
+        loader.submit("checkout", () -> OrderDAO.getCompletedOrderCount(user.getId()), this::placeOrder,
+                e -> checkoutMessageLabel.setText("Order failed. Database error."));
+    }
+
+    /**
+     * Second step of the checkout: applies the loyalty discount, checks the minimum
+     * cart value and places the order.
+     *
+     * @param completedOrders The customer's number of completed orders.
+     */
+    private void placeOrder(int completedOrders) {
         double subtotal = ShoppingCart.getInstance().calculateSubtotal();
         double vat = subtotal * VAT_RATE;
 
         // Loyalty Discount: 10% discount for 5+ completed orders
-        User user = ShoppingCart.getInstance().getCurrentUser();
-        int completedOrders = OrderDAO.getCompletedOrderCount(user.getId());
         double loyaltyDiscount = 0;
         if (completedOrders >= 5) {
             loyaltyDiscount = subtotal * 0.10; // 10% discount
@@ -350,14 +387,32 @@ public class ShoppingCartController {
         // Get Payment Method
         String paymentMethod = rbCreditCard.isSelected() ? "ONLINE_PAYMENT" : "CASH_ON_DELIVERY";
 
-        boolean success = OrderDAO.createOrder(
-                ShoppingCart.getInstance().getCurrentUser(),
-                subtotal, vat, discountAmount, total,
-                deliveryDatePicker.getValue(), deliveryTimeCombo.getValue(),
-                paymentMethod, loyaltyDiscount
-        );
+        // Snapshot the cart and inputs; the order is placed on a background thread
+        User user = ShoppingCart.getInstance().getCurrentUser();
+        List<CartItem> items = new ArrayList<>(ShoppingCart.getInstance().getItems());
+        double discount = discountAmount;
+        double loyalty = loyaltyDiscount;
+        LocalDate date = deliveryDatePicker.getValue();
+        String timeSlot = deliveryTimeCombo.getValue();
+
+        loader.submit("checkout",
+                () -> OrderDAO.placeOrder(user, items, subtotal, vat, discount, total, date, timeSlot,
+                        paymentMethod, loyalty),
+                result -> showCheckoutResult(result, paymentMethod),
+                e -> checkoutMessageLabel.setText("Order failed. Database error."));
+    }
 
-        if (success) {
+    /**
+     * Shows the outcome of {@link OrderDAO#placeOrder}: closes the window on success,
+     * or lists the products that ran short or changed their price. Changed prices
+     * are taken over into the cart, so the customer can review the new total and
+     * check out again.
+     *
+     * @param result        The order result.
+     * @param paymentMethod The selected payment method.
+     */
+    private void showCheckoutResult(OrderDAO.OrderResult result, String paymentMethod) {
+        if (result.isSuccess()) {
             ShoppingCart.getInstance().clear();
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setTitle("Success");
@@ -366,6 +421,34 @@ public class ShoppingCartController {
                     "Payment: " + (paymentMethod.equals("ONLINE_PAYMENT") ? "Credit Card" : "Cash on Delivery"));
             alert.showAndWait();
             ((Stage) checkoutMessageLabel.getScene().getWindow()).close();
+        } else if (!result.shortages.isEmpty()) {
+            StringBuilder msg = new StringBuilder("Not enough stock:");
+            for (OrderDAO.StockShortage s : result.shortages) {
+                msg.append(String.format("%n%s (requested %.2f kg, available %.2f kg)",
+                        s.productName, s.requested, s.available));
+            }
+            checkoutMessageLabel.setText(msg.toString());
+        } else if (!result.priceChanges.isEmpty()) {
+            StringBuilder msg = new StringBuilder("Prices changed, please review your cart:");
+            List<Integer> changed = new ArrayList<>();
+            for (OrderDAO.PriceChange c : result.priceChanges) {
+                msg.append(String.format("%n%s (%.2f TL / kg, now %.2f TL / kg)", c.productName, c.expected, c.current));
+                changed.add(c.productId);
+            }
+            checkoutMessageLabel.setText(msg.toString());
+            loader.submit("cartPrices", () -> {
+                List<Product> products = new ArrayList<>();
+                for (int id : changed) {
+                    Product p = ProductDAO.getProductById(id);
+                    if (p != null)
+                        products.add(p);
+                }
+                return products;
+            }, products -> {
+                for (Product p : products)
+                    ShoppingCart.getInstance().updateProduct(p);
+                renderCartItems();
+            });
         } else {
             checkoutMessageLabel.setText("Order failed. Database error.");
         }
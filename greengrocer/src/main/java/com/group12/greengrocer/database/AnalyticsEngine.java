@@ -0,0 +1,616 @@
+package com.group12.greengrocer.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory, column-oriented copy of the completed orders for the owner's ad-hoc
+ * reports.
+ * <p>
+ * This class implements the <b>Singleton Pattern</b>. Completed orders and their
+ * items are loaded once into primitive arrays (IDs as {@code int}, order times as
+ * epoch day, money in {@code long} cents, quantities in hundredths of a
+ * kg). Each report is then a single scan over those arrays, split into chunks that
+ * run in parallel for large tables, so switching between reports takes well under
+ * a millisecond and never touches MySQL.
+ * </p>
+ * <ul>
+ * <li><b>Deltas:</b> {@link #sync()} only reads orders whose {@code updated_at}
+ * changed since the last sync (completions, undos, cancellations from any client)
+ * and appends or retires them. Retired rows stay in the arrays as dead rows.</li>
+ * <li><b>Full reload:</b> every {@link #FULL_RELOAD_INTERVAL}, to drop dead rows and
+ * orders deleted together with their customer.</li>
+ * <li><b>Names:</b> product names and carrier usernames are re-read on every sync,
+ * so renamed products show their current name.</li>
+ * </ul>
+ * <p>
+ * The engine is the only source of the report tab; the dashboard reads the rollup
+ * queries in {@link OrderDAO} through {@link DashboardService}. Report methods read
+ * an immutable {@link View} of the columns and never wait for a running sync;
+ * before the first sync they return empty results. Call {@link #sync()} off the
+ * JavaFX thread.
+ * </p>
+ */
+public class AnalyticsEngine {
+
+    /** Reports may use data this old before {@link #isStale()} asks for a sync. */
+    public static final Duration SYNC_INTERVAL = Duration.ofSeconds(10);
+
+    /** How often {@link #sync()} reloads everything instead of applying deltas. */
+    public static final Duration FULL_RELOAD_INTERVAL = Duration.ofMinutes(30);
+
+    /** Re-read window before the last watermark, for transactions that committed late. */
+    private static final int OVERLAP_SECONDS = 60;
+
+    /** Rows per parallel chunk; smaller tables are scanned on the calling thread. */
+    private static final int CHUNK_SIZE = 1 << 15;
+
+    private static final String[] AMOUNT_RANGES = { "0-100 TL", "100-200 TL", "200-300 TL", "300-500 TL", "500+ TL" };
+    private static final long[] AMOUNT_LIMITS = { 100_00, 200_00, 300_00, 500_00 };
+
+    /** MySQL's YEARWEEK() mode 0: weeks start on Sunday, week 1 holds the first Sunday. */
+    private static final WeekFields YEARWEEK = WeekFields.of(DayOfWeek.SUNDAY, 7);
+
+    private static final String ORDER_COLUMNS = "SELECT o.id, o.carrier_id, o.order_time, o.total_cost, o.status "
+            + "FROM orders o ";
+    private static final String ITEM_COLUMNS = "SELECT oi.order_id, oi.product_id, oi.quantity, oi.total_price "
+            + "FROM order_items oi JOIN orders o ON o.id = oi.order_id ";
+
+    /** The single static instance of the engine. */
+    private static AnalyticsEngine instance;
+
+    /** Serializes {@link #sync()} calls, which own {@link #columns}. */
+    private final Object syncLock = new Object();
+
+    private Columns columns;
+    private Timestamp watermark;
+    private Instant lastFullLoad = Instant.EPOCH;
+
+    private volatile View view;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    /**
+     * Private constructor to prevent direct instantiation.
+     */
+    private AnalyticsEngine() {
+    }
+
+    /**
+     * Retrieves the singleton instance of the AnalyticsEngine.
+     *
+     * @return The single instance of {@link AnalyticsEngine}.
+     */
+    public static synchronized AnalyticsEngine getInstance() {
+        if (instance == null) {
+            instance = new AnalyticsEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * @return {@code true} if the data was never loaded or is older than
+     *         {@link #SYNC_INTERVAL}.
+     */
+    public boolean isStale() {
+        return view == null || Duration.between(lastSync, Instant.now()).compareTo(SYNC_INTERVAL) > 0;
+    }
+
+    /**
+     * Brings the columns up to date: a full load the first time and every
+     * {@link #FULL_RELOAD_INTERVAL}, otherwise only the changed orders.
+     *
+     * @return true if the data is current, false if the database could not be read.
+     */
+    public boolean sync() {
+        synchronized (syncLock) {
+            boolean full = columns == null
+                    || Duration.between(lastFullLoad, Instant.now()).compareTo(FULL_RELOAD_INTERVAL) > 0;
+
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                if (conn == null)
+                    return false;
+                Timestamp now = queryNow(conn);
+                if (full) {
+                    Columns loaded = new Columns();
+                    readNames(conn, loaded);
+                    readOrders(conn, loaded, "WHERE o.status = 'completed' ORDER BY o.id", null);
+                    readItems(conn, loaded, "WHERE o.status = 'completed' ORDER BY oi.order_id", null);
+                    columns = loaded;
+                    lastFullLoad = Instant.now();
+                } else {
+                    Columns delta = new Columns();
+                    Timestamp from = new Timestamp(watermark.getTime() - OVERLAP_SECONDS * 1000L);
+                    readNames(conn, delta);
+                    readOrders(conn, delta, "WHERE o.updated_at >= ?", from);
+                    readItems(conn, delta, "WHERE o.updated_at >= ? AND o.status = 'completed'", from);
+                    columns.apply(delta);
+                }
+                watermark = now;
+                view = columns.view();
+                lastSync = Instant.now();
+                return true;
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return false;
+            }
+        }
+    }
+
+    // --- REPORTS ---
+
+    /**
+     * Revenue of completed orders per day (last 30), week (last 12, keyed like
+     * MySQL's {@code YEARWEEK}) or month (last 12, {@code yyyy-MM}), newest first.
+     *
+     * @param period {@code "daily"}, {@code "weekly"} or {@code "monthly"}.
+     * @return Revenue in TL by period.
+     */
+    public Map<String, Double> getRevenueByTimeReport(String period) {
+        View c = view();
+        if (c.orderCount == 0)
+            return new LinkedHashMap<>();
+        int firstDay = c.minDay;
+        int days = c.maxDay - c.minDay + 1;
+        long[][] perDay = scan(c.orderCount, () -> new long[2][days], (acc, from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (c.alive[i]) {
+                    acc[0][c.day[i] - firstDay] += c.totalCents[i];
+                    acc[1][c.day[i] - firstDay]++;
+                }
+            }
+        }, AnalyticsEngine::addAll);
+
+        String p = period.toLowerCase();
+        int limit = p.equals("weekly") || p.equals("monthly") ? 12 : 30;
+        TreeMap<String, Long> buckets = new TreeMap<>(Comparator.reverseOrder());
+        for (int d = 0; d < days; d++) {
+            if (perDay[1][d] == 0)
+                continue;
+            LocalDate date = LocalDate.ofEpochDay(firstDay + d);
+            String key = switch (p) {
+                case "weekly" -> String.valueOf(date.get(YEARWEEK.weekBasedYear()) * 100
+                        + date.get(YEARWEEK.weekOfWeekBasedYear()));
+                case "monthly" -> date.toString().substring(0, 7);
+                default -> date.toString();
+            };
+            buckets.merge(key, perDay[0][d], Long::sum);
+        }
+
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> e : buckets.entrySet()) {
+            if (result.size() == limit)
+                break;
+            result.put(e.getKey(), e.getValue() / 100.0);
+        }
+        return result;
+    }
+
+    /**
+     * Revenue of completed orders by order total range, highest revenue first.
+     *
+     * @return Revenue in TL by range label.
+     */
+    public Map<String, Double> getRevenueByAmountRange() {
+        View c = view();
+        long[][] perRange = scan(c.orderCount, () -> new long[2][AMOUNT_RANGES.length], (acc, from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (c.alive[i]) {
+                    long cents = c.totalCents[i];
+                    int r = 0;
+                    while (r < AMOUNT_LIMITS.length && cents >= AMOUNT_LIMITS[r])
+                        r++;
+                    acc[0][r] += cents;
+                    acc[1][r]++;
+                }
+            }
+        }, AnalyticsEngine::addAll);
+
+        Map<String, Long> cents = new HashMap<>();
+        for (int r = 0; r < AMOUNT_RANGES.length; r++) {
+            if (perRange[1][r] > 0)
+                cents.put(AMOUNT_RANGES[r], perRange[0][r]);
+        }
+        return toMoney(sortDescending(cents));
+    }
+
+    /**
+     * Revenue of completed orders by product name.
+     *
+     * @return Revenue in TL by product name.
+     */
+    public Map<String, Double> getRevenueByProductReport() {
+        View c = view();
+        long[][] perProduct = scanItemsByProduct(c);
+        Map<String, Long> cents = new HashMap<>();
+        for (int p = 0; p < perProduct[0].length; p++) {
+            if (perProduct[0][p] > 0 && c.productName[p] != null)
+                cents.merge(c.productName[p], perProduct[1][p], Long::sum);
+        }
+        return toMoney(cents);
+    }
+
+    /**
+     * Completed deliveries per carrier.
+     *
+     * @return Delivery count by carrier username.
+     */
+    public Map<String, Integer> getCarrierPerformanceReport() {
+        View c = view();
+        int carriers = c.carrierName.length;
+        long[] perCarrier = scan(c.orderCount, () -> new long[carriers], (acc, from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (c.alive[i] && c.carrier[i] >= 0)
+                    acc[c.carrier[i]]++;
+            }
+        }, AnalyticsEngine::add);
+
+        Map<String, Integer> result = new HashMap<>();
+        for (int k = 0; k < carriers; k++) {
+            String name = c.carrierName[k];
+            if (perCarrier[k] > 0 && name != null)
+                result.merge(name, (int) perCarrier[k], Integer::sum);
+        }
+        return result;
+    }
+
+    // --- SCANNING ---
+
+    /** Quantity (row 0) and revenue (row 1) per product index. */
+    private static long[][] scanItemsByProduct(View c) {
+        int products = c.productName.length;
+        return scan(c.itemCount, () -> new long[2][products], (acc, from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (c.alive[c.itemOrder[i]]) {
+                    acc[0][c.itemProduct[i]] += c.itemQuantity[i];
+                    acc[1][c.itemProduct[i]] += c.itemCents[i];
+                }
+            }
+        }, AnalyticsEngine::addAll);
+    }
+
+    /**
+     * Runs {@code scanner} over rows {@code [0, size)}, in parallel chunks for large
+     * tables, and merges the per-chunk accumulators.
+     */
+    private static <A> A scan(int size, Supplier<A> accumulator, RangeScanner<A> scanner, BinaryOperator<A> merge) {
+        if (size <= CHUNK_SIZE) {
+            A acc = accumulator.get();
+            scanner.scan(acc, 0, size);
+            return acc;
+        }
+        int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+            A acc = accumulator.get();
+            scanner.scan(acc, chunk * CHUNK_SIZE, Math.min(size, (chunk + 1) * CHUNK_SIZE));
+            return acc;
+        }).reduce(merge).orElseGet(accumulator);
+    }
+
+    @FunctionalInterface
+    private interface RangeScanner<A> {
+        void scan(A accumulator, int from, int to);
+    }
+
+    private static long[] add(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++)
+            a[i] += b[i];
+        return a;
+    }
+
+    private static long[][] addAll(long[][] a, long[][] b) {
+        for (int i = 0; i < a.length; i++)
+            add(a[i], b[i]);
+        return a;
+    }
+
+    private static Map<String, Long> sortDescending(Map<String, Long> values) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    private static Map<String, Double> toMoney(Map<String, Long> cents) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        cents.forEach((k, v) -> result.put(k, v / 100.0));
+        return result;
+    }
+
+    /** Returns the current view, or an empty one if nothing was synced yet. */
+    private View view() {
+        View current = view;
+        return current != null ? current : new Columns().view();
+    }
+
+    // --- LOADING ---
+
+    private static Timestamp queryNow(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT NOW()"); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1);
+        }
+    }
+
+    private static void readNames(Connection conn, Columns target) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT id, name FROM products");
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                target.productName.set(target.productIndex(rs.getInt(1)), rs.getString(2));
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement("SELECT id, username FROM users WHERE role = 'carrier'");
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next())
+                target.carrierName.set(target.carrierIndex(rs.getInt(1)), rs.getString(2));
+        }
+    }
+
+    private static void readOrders(Connection conn, Columns target, String where, Timestamp since)
+            throws SQLException {
+        ZoneId zone = ZoneId.systemDefault();
+        try (PreparedStatement ps = conn.prepareStatement(ORDER_COLUMNS + where)) {
+            ps.setFetchSize(Integer.MIN_VALUE); // stream rows instead of buffering millions
+            if (since != null)
+                ps.setTimestamp(1, since);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int carrierId = rs.getInt(2);
+                    int carrier = rs.wasNull() ? -1 : target.carrierIndex(carrierId);
+                    Timestamp time = rs.getTimestamp(3);
+                    LocalDate date = time == null ? LocalDate.EPOCH : time.toInstant().atZone(zone).toLocalDate();
+                    target.addOrder(rs.getInt(1), carrier, (int) date.toEpochDay(), Math.round(rs.getDouble(4) * 100),
+                            "completed".equals(rs.getString(5)));
+                }
+            }
+        }
+    }
+
+    private static void readItems(Connection conn, Columns target, String where, Timestamp since)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(ITEM_COLUMNS + where)) {
+            ps.setFetchSize(Integer.MIN_VALUE);
+            if (since != null)
+                ps.setTimestamp(1, since);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    target.addItem(rs.getInt(1), rs.getInt(2), Math.round(rs.getDouble(3) * 100),
+                            Math.round(rs.getDouble(4) * 100));
+                }
+            }
+        }
+    }
+
+    /**
+     * The primitive columns, owned by the syncing thread. Orders and items are
+     * append-only; an order that stops being completed is marked dead, and its items
+     * are skipped through {@link #itemOrder}.
+     */
+    private static final class Columns {
+        int orderCount;
+        int[] orderId = new int[1024];
+        int[] carrier = new int[1024];
+        int[] day = new int[1024];
+        long[] totalCents = new long[1024];
+        boolean[] alive = new boolean[1024];
+        /** Set once {@link #alive} was published in a view; the next flip copies it first. */
+        boolean aliveShared;
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+
+        int itemCount;
+        int[] itemOrder = new int[4096];
+        int[] itemProduct = new int[4096];
+        long[] itemQuantity = new long[4096];
+        long[] itemCents = new long[4096];
+
+        /** Row of each order ID; for a delta, also the orders that should be dead. */
+        final IntIntMap rowByOrderId = new IntIntMap();
+
+        final Map<Integer, Integer> productIndexById = new HashMap<>();
+        final List<Integer> productIds = new ArrayList<>();
+        final List<String> productName = new ArrayList<>();
+
+        final Map<Integer, Integer> carrierIndexById = new HashMap<>();
+        final List<Integer> carrierIds = new ArrayList<>();
+        final List<String> carrierName = new ArrayList<>();
+
+        int productIndex(int productId) {
+            return productIndexById.computeIfAbsent(productId, id -> {
+                productIds.add(id);
+                productName.add(null);
+                return productIds.size() - 1;
+            });
+        }
+
+        int carrierIndex(int carrierId) {
+            return carrierIndexById.computeIfAbsent(carrierId, id -> {
+                carrierIds.add(id);
+                carrierName.add(null);
+                return carrierIds.size() - 1;
+            });
+        }
+
+        void addOrder(int id, int carrierIndex, int epochDay, long cents, boolean completed) {
+            if (orderCount == orderId.length) {
+                int n = orderCount * 2;
+                orderId = Arrays.copyOf(orderId, n);
+                carrier = Arrays.copyOf(carrier, n);
+                day = Arrays.copyOf(day, n);
+                totalCents = Arrays.copyOf(totalCents, n);
+                alive = Arrays.copyOf(alive, n);
+            }
+            orderId[orderCount] = id;
+            carrier[orderCount] = carrierIndex;
+            day[orderCount] = epochDay;
+            totalCents[orderCount] = cents;
+            alive[orderCount] = completed;
+            if (completed) {
+                minDay = Math.min(minDay, epochDay);
+                maxDay = Math.max(maxDay, epochDay);
+            }
+            rowByOrderId.put(id, orderCount);
+            orderCount++;
+        }
+
+        /** Adds an item of an order added before; items of other orders are ignored. */
+        void addItem(int orderId, int productId, long quantity, long cents) {
+            int row = rowByOrderId.get(orderId);
+            if (row < 0 || !alive[row])
+                return;
+            if (itemCount == itemOrder.length) {
+                int n = itemCount * 2;
+                itemOrder = Arrays.copyOf(itemOrder, n);
+                itemProduct = Arrays.copyOf(itemProduct, n);
+                itemQuantity = Arrays.copyOf(itemQuantity, n);
+                itemCents = Arrays.copyOf(itemCents, n);
+            }
+            itemOrder[itemCount] = row;
+            itemProduct[itemCount] = productIndex(productId);
+            itemQuantity[itemCount] = quantity;
+            itemCents[itemCount] = cents;
+            itemCount++;
+        }
+
+        /**
+         * @return An immutable view of the rows added so far. Arrays are shared: later
+         *         appends go beyond the view's counts or into reallocated arrays, and
+         *         {@link #apply} copies {@code alive} before retiring a published row.
+         */
+        View view() {
+            aliveShared = true;
+            return new View(orderCount, carrier, day, totalCents, alive, minDay, maxDay, itemCount, itemOrder,
+                    itemProduct, itemQuantity, itemCents, productName.toArray(new String[0]),
+                    carrierName.toArray(new String[0]));
+        }
+
+        /**
+         * Merges changed orders into these columns. Completed orders that are already
+         * alive are kept as they are (a completed order no longer changes); orders that
+         * are no longer completed are marked dead; newly completed ones are appended
+         * with their items.
+         */
+        void apply(Columns delta) {
+            for (int p = 0; p < delta.productIds.size(); p++) {
+                int index = productIndex(delta.productIds.get(p));
+                productName.set(index, delta.productName.get(p));
+            }
+            for (int k = 0; k < delta.carrierIds.size(); k++)
+                carrierName.set(carrierIndex(delta.carrierIds.get(k)), delta.carrierName.get(k));
+
+            List<Integer> added = new ArrayList<>();
+            for (int r = 0; r < delta.orderCount; r++) {
+                int row = rowByOrderId.get(delta.orderId[r]);
+                boolean isAlive = row >= 0 && alive[row];
+                if (delta.alive[r] && !isAlive) {
+                    int carrierId = delta.carrier[r] < 0 ? -1 : carrierIndex(delta.carrierIds.get(delta.carrier[r]));
+                    addOrder(delta.orderId[r], carrierId, delta.day[r], delta.totalCents[r], true);
+                    added.add(r);
+                } else if (!delta.alive[r] && isAlive) {
+                    if (aliveShared) {
+                        alive = alive.clone();
+                        aliveShared = false;
+                    }
+                    alive[row] = false;
+                }
+            }
+            if (added.isEmpty())
+                return;
+
+            boolean[] isAdded = new boolean[delta.orderCount];
+            for (int r : added)
+                isAdded[r] = true;
+            for (int i = 0; i < delta.itemCount; i++) {
+                if (isAdded[delta.itemOrder[i]]) {
+                    addItem(delta.orderId[delta.itemOrder[i]], delta.productIds.get(delta.itemProduct[i]),
+                            delta.itemQuantity[i], delta.itemCents[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Open-addressing map from order ID to row, so millions of orders need no boxed
+     * entries. Linear probing over a power-of-two table kept at most half full.
+     */
+    private static final class IntIntMap {
+        private int[] keys = new int[2048];
+        private int[] values = new int[2048];
+        private int size;
+
+        IntIntMap() {
+            Arrays.fill(values, -1);
+        }
+
+        /** @return The row of the key, or -1 if absent. */
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask);; i = (i + 1) & mask) {
+                if (values[i] < 0)
+                    return -1;
+                if (keys[i] == key)
+                    return values[i];
+            }
+        }
+
+        /** Maps the key to a row; rows are never negative. */
+        void put(int key, int value) {
+            if (2 * (size + 1) > keys.length)
+                resize();
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (values[i] >= 0 && keys[i] != key)
+                i = (i + 1) & mask;
+            if (values[i] < 0)
+                size++;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(values, -1);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] >= 0)
+                    put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private static int slot(int key, int mask) {
+            int h = key * 0x9E3779B9;
+            return (h ^ h >>> 16) & mask;
+        }
+    }
+
+    /**
+     * What the reports scan: row counts, the column arrays and the names by index.
+     */
+    private record View(int orderCount, int[] carrier, int[] day, long[] totalCents, boolean[] alive, int minDay,
+            int maxDay, int itemCount, int[] itemOrder, int[] itemProduct, long[] itemQuantity, long[] itemCents,
+            String[] productName, String[] carrierName) {
+    }
+}
@@ -0,0 +1,472 @@
+package com.group12.greengrocer.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe pool of JDBC connections.
+ * <p>
+ * The pool hands out lightweight proxies around physical connections. Calling
+ * {@link Connection#close()} on a proxy does not close the socket; it returns the
+ * physical connection to the pool so that the next DAO call can reuse it. This keeps
+ * the existing {@code try (Connection conn = DatabaseConnection.getConnection())}
+ * pattern in every DAO working unchanged.
+ * </p>
+ * <ul>
+ * <li><b>Bounded:</b> at most {@code maxSize} connections are borrowed at once;
+ * further callers wait up to the acquisition timeout.</li>
+ * <li><b>Validation on borrow:</b> idle connections are checked with
+ * {@link Connection#isValid(int)} before being handed out.</li>
+ * <li><b>Idle eviction:</b> a background task closes connections that stayed idle
+ * too long, while always keeping {@code minSize} connections warm.</li>
+ * <li><b>Clean return:</b> unfinished transactions are rolled back, auto-commit is
+ * restored and statements left open by the caller are closed.</li>
+ * <li><b>Statement cache:</b> each physical connection keeps an LRU
+ * {@link StatementCache} so repeated {@code prepareStatement} calls with the same
+ * SQL reuse the already prepared statement.</li>
+ * </ul>
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMs;
+    private final long idleTimeoutMs;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    /** Idle connections; the most recently returned connection sits at the head. */
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    /** One permit per connection that may be borrowed at the same time. */
+    private final Semaphore permits;
+
+    private final ScheduledExecutorService evictor;
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger borrowed = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    private volatile boolean shutdown = false;
+
+    /**
+     * Guards the hand-over of connections to {@link #idle} against {@link #shutdown()},
+     * so no connection is put back into a pool that was already drained.
+     */
+    private final Object poolLock = new Object();
+
+    /**
+     * Creates a pool and opens the minimum number of connections.
+     * <p>
+     * A failure to open the initial connections is logged but does not prevent the
+     * pool from being created; connections are opened on demand later.
+     * </p>
+     *
+     * @param url                      The JDBC URL.
+     * @param user                     The database user.
+     * @param password                 The database password.
+     * @param minSize                  Connections kept open even when idle.
+     * @param maxSize                  Maximum number of borrowed connections.
+     * @param acquireTimeoutMs         Maximum wait for a free connection.
+     * @param idleTimeoutMs            Idle time after which extra connections are closed.
+     * @param evictionIntervalMs       How often the eviction task runs.
+     * @param validationTimeoutSeconds Timeout for {@link Connection#isValid(int)}.
+     * @param statementCacheSize       Prepared statements cached per connection
+     *                                 ({@code 0} disables the cache).
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+            long acquireTimeoutMs, long idleTimeoutMs, long evictionIntervalMs, int validationTimeoutSeconds,
+            int statementCacheSize) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        this.evictor.scheduleWithFixedDelay(this::evictIdleConnections,
+                evictionIntervalMs, evictionIntervalMs, TimeUnit.MILLISECONDS);
+
+        try {
+            fillToMinimum();
+        } catch (SQLException e) {
+            System.err.println("Could not open initial pool connections: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Borrows a connection from the pool, waiting up to the acquisition timeout.
+     *
+     * @return A pooled {@link Connection}; closing it returns it to the pool.
+     * @throws SQLException If no connection became available in time, or a new
+     *                      physical connection could not be opened.
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTimeoutException("Timed out after " + acquireTimeoutMs
+                    + " ms waiting for a database connection. " + getStats());
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled))
+                    break;
+                discard(pooled);
+            }
+            if (pooled == null)
+                pooled = open();
+
+            borrowed.incrementAndGet();
+            borrowCount.increment();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool counters, e.g. for sizing the pool under load.
+     *
+     * @return The current {@link Stats}.
+     */
+    public Stats getStats() {
+        long borrows = borrowCount.sum();
+        long waits = borrows + timeoutCount.sum();
+        double avgWaitMs = waits == 0 ? 0.0 : totalWaitNanos.sum() / (double) waits / 1_000_000.0;
+        return new Stats(
+                borrowed.get(),
+                idle.size(),
+                total.get(),
+                maxSize,
+                borrows,
+                timeoutCount.sum(),
+                createdCount.sum(),
+                avgWaitMs,
+                maxWaitNanos.get() / 1_000_000.0,
+                statementCacheHits.sum(),
+                statementCacheMisses.sum());
+    }
+
+    /**
+     * Closes all idle connections and stops the eviction task.
+     * <p>
+     * Connections that are still borrowed are closed as soon as they are returned.
+     * </p>
+     */
+    public void shutdown() {
+        evictor.shutdownNow();
+        synchronized (poolLock) {
+            shutdown = true;
+        }
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    // --- INTERNALS ---
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        total.incrementAndGet();
+        createdCount.increment();
+        return new PooledConnection(physical);
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return !pooled.physical.isClosed() && pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        total.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * Called when a borrowed handle is closed. Resets the physical connection and
+     * puts it back at the head of the idle deque, or discards it if it is broken.
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.decrementAndGet();
+        boolean reusable = false;
+        try {
+            pooled.closeOpenStatements();
+            if (!pooled.broken && !pooled.physical.isClosed()) {
+                if (!pooled.physical.getAutoCommit()) {
+                    pooled.physical.rollback();
+                    pooled.physical.setAutoCommit(true);
+                }
+                reusable = total.get() <= maxSize;
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pooled.lastUsed = System.currentTimeMillis();
+            reusable = offerIdle(pooled, true);
+        }
+        if (!reusable) {
+            discard(pooled);
+        }
+        permits.release();
+    }
+
+    /**
+     * Puts a connection into the idle deque unless the pool has been shut down.
+     *
+     * @return {@code false} if the pool is shut down and the caller must discard the connection.
+     */
+    private boolean offerIdle(PooledConnection pooled, boolean first) {
+        synchronized (poolLock) {
+            if (shutdown)
+                return false;
+            if (first)
+                idle.offerFirst(pooled);
+            else
+                idle.offerLast(pooled);
+            return true;
+        }
+    }
+
+    private void fillToMinimum() throws SQLException {
+        while (!shutdown && total.get() < minSize) {
+            PooledConnection pooled = open();
+            pooled.lastUsed = System.currentTimeMillis();
+            if (!offerIdle(pooled, false))
+                discard(pooled);
+        }
+    }
+
+    private void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && total.get() > minSize) {
+            PooledConnection pooled = it.next();
+            if (pooled.lastUsed < cutoff && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+        try {
+            fillToMinimum();
+        } catch (SQLException e) {
+            System.err.println("Could not refill connection pool: " + e.getMessage());
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        final Connection physical;
+        final List<Statement> openStatements = new ArrayList<>();
+        final StatementCache statementCache;
+        volatile long lastUsed;
+        volatile boolean broken;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementCacheHits, statementCacheMisses)
+                    : null;
+        }
+
+        /**
+         * Creates a new logical handle for one borrow. A handle that has been closed
+         * stays closed, even after the physical connection is borrowed again.
+         */
+        Connection newHandle() {
+            LogicalConnection handler = new LogicalConnection(this);
+            handler.proxy = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    handler);
+            return handler.proxy;
+        }
+
+        void closeOpenStatements() {
+            for (Statement st : openStatements) {
+                try {
+                    if (!st.isClosed())
+                        st.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            openStatements.clear();
+        }
+    }
+
+    /**
+     * Invocation handler behind each borrowed {@link Connection} proxy.
+     */
+    private final class LogicalConnection implements InvocationHandler {
+        private final PooledConnection pooled;
+        private Connection proxy;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        LogicalConnection(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (closed.get()) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+
+            try {
+                Object result = isCacheablePrepare(method, args)
+                        ? pooled.statementCache.prepare(this.proxy, (String) args[0],
+                                args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS)
+                        : method.invoke(pooled.physical, args);
+                if (result instanceof Statement st) {
+                    pooled.openStatements.add(st);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw markIfBroken(e.getCause());
+            } catch (SQLException e) {
+                throw markIfBroken(e);
+            }
+        }
+
+        /**
+         * Only {@code prepareStatement(sql)} and
+         * {@code prepareStatement(sql, autoGeneratedKeys)} go through the cache.
+         */
+        private boolean isCacheablePrepare(Method method, Object[] args) {
+            return pooled.statementCache != null
+                    && method.getName().equals("prepareStatement")
+                    && (args.length == 1 || (args.length == 2 && args[1] instanceof Integer));
+        }
+
+        private Throwable markIfBroken(Throwable error) {
+            if (error instanceof SQLException sqlEx && sqlEx.getSQLState() != null
+                    && sqlEx.getSQLState().startsWith("08")) {
+                pooled.broken = true;
+            }
+            return error;
+        }
+    }
+
+    /**
+     * Point-in-time pool counters.
+     *
+     * @param active            Connections currently borrowed.
+     * @param idle              Connections waiting in the pool.
+     * @param total             Physical connections currently open.
+     * @param maxSize           Configured maximum number of borrowed connections.
+     * @param borrowCount       Successful borrows since the pool started.
+     * @param timeoutCount      Borrows that timed out waiting for a connection.
+     * @param createdCount      Physical connections opened since the pool started.
+     * @param averageWaitMillis Average time callers waited for a permit.
+     * @param maxWaitMillis     Longest time a caller waited for a permit.
+     * @param statementHits     Prepared statements served from the statement cache.
+     * @param statementMisses   Prepared statements that had to be prepared on the server.
+     */
+    public record Stats(int active, int idle, int total, int maxSize, long borrowCount, long timeoutCount,
+            long createdCount, double averageWaitMillis, double maxWaitMillis,
+            long statementHits, long statementMisses) {
+
+        /**
+         * @return The share of {@code prepareStatement} calls served from the cache (0..1).
+         */
+        public double statementHitRatio() {
+            long lookups = statementHits + statementMisses;
+            return lookups == 0 ? 0.0 : statementHits / (double) lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pool[active=%d, idle=%d, total=%d/%d, borrows=%d, timeouts=%d, created=%d, "
+                    + "avgWait=%.2f ms, maxWait=%.2f ms, stmtCache=%d hits/%d misses (%.1f%%)]",
+                    active, idle, total, maxSize, borrowCount, timeoutCount, createdCount,
+                    averageWaitMillis, maxWaitMillis, statementHits, statementMisses,
+                    statementHitRatio() * 100);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.group12.greengrocer.database;
+
+import com.group12.greengrocer.models.Order;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Computes and caches the data shown on the owner dashboard.
+ * <p>
+ * This class implements the <b>Singleton Pattern</b>. A dashboard refresh used to run
+ * about ten queries one after another; this service runs them in parallel (three
+ * headline figures in a single round trip, the product count from the catalog
+ * cache of {@link ProductDAO}) and returns one immutable {@link Snapshot}.
+ * </p>
+ * <ul>
+ * <li><b>Fresh:</b> a snapshot younger than {@link #FRESH_TTL} is returned as is.</li>
+ * <li><b>Stale-while-revalidate:</b> an older snapshot, up to {@link #MAX_STALE}, is
+ * still returned immediately while a refresh runs in the background.</li>
+ * <li><b>Single flight:</b> concurrent callers share one running refresh.</li>
+ * </ul>
+ * <p>
+ * Callers that changed data the dashboard shows (products, orders, carriers) call
+ * {@link #invalidate()} or {@link #refresh()}.
+ * </p>
+ */
+public class DashboardService {
+
+    /** How long a snapshot is served without revalidation. */
+    public static final Duration FRESH_TTL = Duration.ofSeconds(30);
+
+    /** How old a snapshot may get before callers wait for a refresh instead. */
+    public static final Duration MAX_STALE = Duration.ofMinutes(10);
+
+    /** Number of rows in the "Recent Orders" table. */
+    public static final int RECENT_ORDERS = 5;
+
+    /** Number of entries in the top-N charts. */
+    public static final int TOP_N = 10;
+
+    /** Parallel queries per refresh; leaves the rest of the pool to the UI. */
+    private static final int PARALLELISM = 4;
+
+    private static final String TOTALS_SQL = "SELECT "
+            + "(SELECT COUNT(*) FROM orders WHERE status IN ('pending', 'assigned')), "
+            + "(SELECT COALESCE(SUM(revenue), 0) FROM order_rollup_daily), "
+            + "(SELECT COUNT(*) FROM users WHERE role = 'carrier')";
+
+    /** The single static instance of the service. */
+    private static DashboardService instance;
+
+    private final ExecutorService executor;
+
+    private volatile Snapshot snapshot;
+    private volatile Instant invalidatedAt = Instant.EPOCH;
+    private CompletableFuture<Snapshot> refreshing;
+
+    /**
+     * Private constructor to prevent direct instantiation.
+     */
+    private DashboardService() {
+        this.executor = Executors.newFixedThreadPool(PARALLELISM, r -> {
+            Thread t = new Thread(r, "dashboard-loader");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Retrieves the singleton instance of the DashboardService.
+     *
+     * @return The single instance of {@link DashboardService}.
+     */
+    public static synchronized DashboardService getInstance() {
+        if (instance == null) {
+            instance = new DashboardService();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the dashboard data, from the cache when possible.
+     * <p>
+     * Blocks only if there is no snapshot yet or it is older than {@link #MAX_STALE}.
+     * A stale snapshot (see {@link #isFresh(Snapshot)}) is returned immediately and a
+     * background refresh is started.
+     * </p>
+     *
+     * @return The current {@link Snapshot}.
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && isFresh(current))
+            return current;
+        if (current != null && current.age().compareTo(MAX_STALE) < 0) {
+            refresh();
+            return current;
+        }
+        return refresh().join();
+    }
+
+    /**
+     * Starts a refresh, or joins the one already running.
+     *
+     * @return A future completed with the new snapshot.
+     */
+    public synchronized CompletableFuture<Snapshot> refresh() {
+        if (refreshing == null) {
+            CompletableFuture<Snapshot> future = load();
+            refreshing = future;
+            future.whenComplete((s, e) -> {
+                synchronized (this) {
+                    if (s != null)
+                        snapshot = s;
+                    refreshing = null;
+                }
+            });
+            return future;
+        }
+        return refreshing;
+    }
+
+    /**
+     * Checks whether a snapshot can be shown without revalidation: it is younger than
+     * {@link #FRESH_TTL} and was loaded after the last {@link #invalidate()}.
+     *
+     * @param s A snapshot returned by this service.
+     * @return {@code true} if the snapshot is fresh.
+     */
+    public boolean isFresh(Snapshot s) {
+        return s.age().compareTo(FRESH_TTL) < 0 && s.loadedAt().isAfter(invalidatedAt);
+    }
+
+    /**
+     * Marks the cached snapshot as outdated. The next {@link #getSnapshot()} still
+     * returns it, but triggers a refresh.
+     */
+    public void invalidate() {
+        invalidatedAt = Instant.now();
+    }
+
+    /**
+     * Runs all dashboard queries in parallel. The snapshot is stamped with the start
+     * time, so an invalidation during the load marks it stale.
+     */
+    private CompletableFuture<Snapshot> load() {
+        Instant started = Instant.now();
+        CompletableFuture<Totals> totals = async(DashboardService::loadTotals);
+        CompletableFuture<Integer> productCount = async(ProductDAO::getProductCount);
+        CompletableFuture<List<Order>> recent = async(() -> OrderDAO.getRecentOrders(RECENT_ORDERS));
+        CompletableFuture<Map<String, Double>> mostSold = async(() -> OrderDAO.getMostSoldProducts(TOP_N));
+        CompletableFuture<Map<String, Double>> ratings = async(OrderDAO::getCarrierAverageRatings);
+        CompletableFuture<Map<String, Integer>> deliveries = async(OrderDAO::getCarrierPerformanceReport);
+        CompletableFuture<Map<String, Integer>> byHour = async(OrderDAO::getOrderIntensityByHour);
+        CompletableFuture<Map<String, Integer>> customers = async(() -> OrderDAO.getMostActiveCustomers(TOP_N));
+        CompletableFuture<Map<String, Double>> byCategory = async(OrderDAO::getRevenueByCategory);
+
+        return CompletableFuture.allOf(totals, productCount, recent, mostSold, ratings, deliveries, byHour,
+                        customers, byCategory)
+                .thenApply(v -> {
+                    Totals t = totals.join();
+                    return new Snapshot(productCount.join(), t.activeOrders, t.revenue, t.carrierCount,
+                            List.copyOf(recent.join()), immutable(mostSold.join()), immutable(ratings.join()),
+                            immutable(deliveries.join()), immutable(byHour.join()), immutable(customers.join()),
+                            immutable(byCategory.join()), started);
+                });
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    private static <K, V> Map<K, V> immutable(Map<K, V> map) {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(map)); // keeps the query's order
+    }
+
+    /**
+     * Reads the order, revenue and carrier figures in one round trip.
+     */
+    private static Totals loadTotals() {
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(TOTALS_SQL);
+                ResultSet rs = ps.executeQuery()) {
+            if (rs.next())
+                return new Totals(rs.getInt(1), rs.getDouble(2), rs.getInt(3));
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new Totals(0, 0.0, 0);
+    }
+
+    private record Totals(int activeOrders, double revenue, int carrierCount) {
+    }
+
+    /**
+     * An immutable view of the dashboard at one point in time.
+     *
+     * @param productCount        Number of active products.
+     * @param activeOrders        Pending and assigned orders.
+     * @param revenue             Revenue of completed orders.
+     * @param carrierCount        Number of carriers.
+     * @param recentOrders        The latest {@link #RECENT_ORDERS} orders, newest first.
+     * @param mostSold            Top products by quantity sold.
+     * @param carrierRatings      Average rating per carrier.
+     * @param carrierDeliveries   Completed deliveries per carrier.
+     * @param ordersByHour        Order count per hour of day.
+     * @param mostActiveCustomers Top customers by order count.
+     * @param revenueByCategory   Revenue per product type.
+     * @param loadedAt            When reading the data started.
+     */
+    public record Snapshot(int productCount, int activeOrders, double revenue, int carrierCount,
+            List<Order> recentOrders, Map<String, Double> mostSold, Map<String, Double> carrierRatings,
+            Map<String, Integer> carrierDeliveries, Map<String, Integer> ordersByHour,
+            Map<String, Integer> mostActiveCustomers, Map<String, Double> revenueByCategory, Instant loadedAt) {
+
+        /**
+         * @return How long ago the data was read.
+         */
+        public Duration age() {
+            return Duration.between(loadedAt, Instant.now());
+        }
+    }
+}
@@ -7,6 +7,11 @@ package com.group12.greengrocer.database;
  * password, and driver class name required to establish a JDBC connection
  * to the Green Grocer application's MySQL database.
  * </p>
+ * <p>
+ * The connection and pool settings can be overridden with system properties
+ * (e.g. {@code -Dgreengrocer.db.url=...}) so that tools such as the load test can
+ * point the DAOs at another database without code changes.
+ * </p>
  */
 public class DatabaseConfig {
 
@@ -14,20 +19,23 @@ public class DatabaseConfig {
      * The JDBC URL for connecting to the MySQL database.
      * <p>
      * It specifies the protocol, host (localhost), port (3306), and the specific
-     * database name (greengrocer).
+     * database name (greengrocer). Overridable with {@code greengrocer.db.url}.
      * </p>
      */
-    public static final String DB_URL = "jdbc:mysql://localhost:3306/greengrocer";
+    public static final String DB_URL = System.getProperty("greengrocer.db.url",
+            "jdbc:mysql://localhost:3306/greengrocer");
 
     /**
      * The username used for database authentication.
+     * Overridable with {@code greengrocer.db.user}.
      */
-    public static final String DB_USER = "myuser";
+    public static final String DB_USER = System.getProperty("greengrocer.db.user", "myuser");
 
     /**
      * The password used for database authentication.
+     * Overridable with {@code greengrocer.db.password}.
      */
-    public static final String DB_PASSWORD = "1234";
+    public static final String DB_PASSWORD = System.getProperty("greengrocer.db.password", "1234");
 
     /**
      * The fully qualified class name of the MySQL JDBC driver.
@@ -37,4 +45,105 @@ public class DatabaseConfig {
      * </p>
      */
     public static final String JDBC_DRIVER = "com.mysql.cj.jdbc.Driver";
-}
\ No newline at end of file
+
+    // --- CONNECTION POOL ---
+
+    /**
+     * The number of physical connections the pool keeps open even when idle.
+     * <p>
+     * These connections are opened when the pool starts and are never evicted,
+     * so the first queries after login do not pay the TCP and authentication handshake.
+     * Overridable with {@code greengrocer.db.pool.min}.
+     * </p>
+     */
+    public static final int POOL_MIN_SIZE = Integer.getInteger("greengrocer.db.pool.min", 2);
+
+    /**
+     * The maximum number of physical connections (borrowed plus idle) the pool may hold.
+     * Overridable with {@code greengrocer.db.pool.max}.
+     */
+    public static final int POOL_MAX_SIZE = Integer.getInteger("greengrocer.db.pool.max", 10);
+
+    /**
+     * How long (in milliseconds) a caller waits for a free connection before giving up.
+     * Overridable with {@code greengrocer.db.pool.acquireTimeoutMs}.
+     */
+    public static final long POOL_ACQUIRE_TIMEOUT_MS = Long.getLong("greengrocer.db.pool.acquireTimeoutMs", 5_000);
+
+    /**
+     * How long (in milliseconds) a connection above {@link #POOL_MIN_SIZE} may stay
+     * idle before it is closed by the eviction task.
+     */
+    public static final long POOL_IDLE_TIMEOUT_MS = 5 * 60_000;
+
+    /**
+     * How often (in milliseconds) the eviction task scans the idle connections.
+     */
+    public static final long POOL_EVICTION_INTERVAL_MS = 30_000;
+
+    /**
+     * The timeout (in seconds) passed to {@link java.sql.Connection#isValid(int)}
+     * when a connection is validated on borrow.
+     */
+    public static final int POOL_VALIDATION_TIMEOUT_SECONDS = 2;
+
+    // --- PREPARED STATEMENTS ---
+
+    /**
+     * Number of prepared statements cached per pooled connection.
+     * <p>
+     * The DAOs use a few dozen constant SQL strings, so this comfortably holds
+     * the hot set. Set to {@code 0} to disable the statement cache.
+     * </p>
+     */
+    public static final int STATEMENT_CACHE_SIZE = 64;
+
+    /**
+     * Whether the driver should use server-side prepared statements.
+     * <p>
+     * When enabled, MySQL parses and plans each cached statement once per
+     * connection instead of on every execution.
+     * </p>
+     */
+    public static final boolean USE_SERVER_PREP_STMTS = true;
+
+    /**
+     * Whether the driver should rewrite JDBC batches into multi-row statements.
+     * <p>
+     * This turns the {@code addBatch()}/{@code executeBatch()} loop that inserts
+     * order items into a single {@code INSERT ... VALUES (...), (...)} round trip.
+     * </p>
+     */
+    public static final boolean REWRITE_BATCHED_STATEMENTS = true;
+
+    /**
+     * Whether a positive fetch size reads a result through a server-side cursor.
+     * <p>
+     * Statements that set a fetch size (e.g. report exports) then receive their
+     * rows in batches of that size, so the client holds one batch at a time and
+     * closing the result early does not have to read the remaining rows. Statements
+     * without a fetch size are not affected.
+     * </p>
+     */
+    public static final boolean USE_CURSOR_FETCH = true;
+
+    /**
+     * Builds the JDBC URL used by the connection pool.
+     * <p>
+     * Appends the prepared statement, batching and cursor switches above to
+     * {@link #DB_URL}.
+     * </p>
+     *
+     * @return The full JDBC URL including driver properties.
+     */
+    public static String getJdbcUrl() {
+        StringBuilder url = new StringBuilder(DB_URL);
+        url.append(DB_URL.contains("?") ? '&' : '?');
+        url.append("useServerPrepStmts=").append(USE_SERVER_PREP_STMTS);
+        url.append("&cachePrepStmts=").append(STATEMENT_CACHE_SIZE > 0);
+        url.append("&prepStmtCacheSize=").append(Math.max(STATEMENT_CACHE_SIZE, 25));
+        url.append("&rewriteBatchedStatements=").append(REWRITE_BATCHED_STATEMENTS);
+        url.append("&useCursorFetch=").append(USE_CURSOR_FETCH);
+        return url.toString();
+    }
+}
@@ -1,55 +1,43 @@
 package com.group12.greengrocer.database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Manages the lifecycle of the JDBC database connection.
+ * Manages the lifecycle of the JDBC database connections.
  * <p>
- * This utility class provides static methods to establish, retrieve, close,
- * and test the connection to the database using configurations defined
- * in {@link DatabaseConfig}.
+ * This utility class provides static methods to retrieve, close, and test
+ * connections to the database using configurations defined in
+ * {@link DatabaseConfig}. Connections are served from a bounded
+ * {@link ConnectionPool}; closing a connection returns it to the pool instead of
+ * tearing down the physical socket.
  * </p>
  */
 public class DatabaseConnection {
 
     /**
-     * The single static connection instance shared across the application.
+     * The shared connection pool, created lazily on the first request.
      */
-    private static Connection connection = null;
+    private static volatile ConnectionPool pool = null;
 
     /**
-     * Retrieves the active database connection.
+     * Retrieves a database connection from the pool.
      * <p>
-     * This method implements a lazy initialization pattern. If the connection
-     * is null or closed, it attempts to load the JDBC driver and establish a
-     * new connection using the credentials from {@link DatabaseConfig}.
+     * This method implements a lazy initialization pattern. On the first call it
+     * loads the JDBC driver and creates the {@link ConnectionPool} using the
+     * credentials and pool settings from {@link DatabaseConfig}. Callers must close
+     * the returned connection (preferably with try-with-resources) so that it is
+     * returned to the pool.
      * </p>
      *
-     * @return The active {@link Connection} object, or {@code null} if the
-     *         connection could not be established due to a driver or SQL error.
+     * @return A pooled {@link Connection} object, or {@code null} if the
+     *         connection could not be obtained due to a driver or SQL error.
      */
     public static Connection getConnection() {
         try {
-            if (connection == null || connection.isClosed()) {
-                // Load MySQL JDBC Driver
-                Class.forName(DatabaseConfig.JDBC_DRIVER);
+            ConnectionPool current = getPool();
+            return current == null ? null : current.borrow();
 
-                // Create connection
-                connection = DriverManager.getConnection(
-                        DatabaseConfig.DB_URL,
-                        DatabaseConfig.DB_USER,
-                        DatabaseConfig.DB_PASSWORD);
-
-                System.out.println("Database connection established successfully!");
-            }
-            return connection;
-
-        } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found!");
-            e.printStackTrace();
-            return null;
         } catch (SQLException e) {
             System.err.println("Failed to connect to database!");
             e.printStackTrace();
@@ -58,40 +46,89 @@ public class DatabaseConnection {
     }
 
     /**
-     * Closes the current database connection safely.
+     * Returns the shared pool, creating it on first use.
+     *
+     * @return The {@link ConnectionPool}, or {@code null} if the JDBC driver is missing.
+     */
+    private static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (DatabaseConnection.class) {
+            if (pool == null) {
+                try {
+                    // Load MySQL JDBC Driver
+                    Class.forName(DatabaseConfig.JDBC_DRIVER);
+                } catch (ClassNotFoundException e) {
+                    System.err.println("MySQL JDBC Driver not found!");
+                    e.printStackTrace();
+                    return null;
+                }
+
+                pool = new ConnectionPool(
+                        DatabaseConfig.getJdbcUrl(),
+                        DatabaseConfig.DB_USER,
+                        DatabaseConfig.DB_PASSWORD,
+                        DatabaseConfig.POOL_MIN_SIZE,
+                        DatabaseConfig.POOL_MAX_SIZE,
+                        DatabaseConfig.POOL_ACQUIRE_TIMEOUT_MS,
+                        DatabaseConfig.POOL_IDLE_TIMEOUT_MS,
+                        DatabaseConfig.POOL_EVICTION_INTERVAL_MS,
+                        DatabaseConfig.POOL_VALIDATION_TIMEOUT_SECONDS,
+                        DatabaseConfig.STATEMENT_CACHE_SIZE);
+
+                System.out.println("Database connection pool started!");
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * Returns the current pool counters (active, idle, waits, timeouts and
+     * prepared statement cache hits/misses).
+     *
+     * @return The pool {@link ConnectionPool.Stats}, or {@code null} if the pool
+     *         has not been started yet.
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        ConnectionPool current = pool;
+        return current == null ? null : current.getStats();
+    }
+
+    /**
+     * Shuts down the connection pool safely.
      * <p>
-     * It checks if the connection exists and is open before attempting to close it.
-     * Any {@code SQLException} occurring during this process is caught and logged.
+     * All idle connections are closed immediately; connections that are still in
+     * use are closed as soon as their owners return them. A later call to
+     * {@link #getConnection()} starts a new pool.
      * </p>
      */
     public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
+        synchronized (DatabaseConnection.class) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+                System.out.println("Database connection pool closed.");
             }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection!");
-            e.printStackTrace();
         }
     }
 
     /**
      * Tests the validity of the database connection.
      * <p>
-     * This method attempts to retrieve a connection instance and checks if it
-     * is open and valid.
+     * This method borrows a connection, checks that it is open and valid,
+     * and returns it to the pool.
      * </p>
      *
      * @return {@code true} if a valid connection is established;
      *         {@code false} otherwise.
      */
     public static boolean testConnection() {
-        try {
-            Connection conn = getConnection();
-            return conn != null && !conn.isClosed();
+        try (Connection conn = getConnection()) {
+            return conn != null && conn.isValid(DatabaseConfig.POOL_VALIDATION_TIMEOUT_SECONDS);
         } catch (SQLException e) {
             return false;
         }
     }
-}
\ No newline at end of file
+}
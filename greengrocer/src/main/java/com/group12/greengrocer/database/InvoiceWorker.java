@@ -0,0 +1,188 @@
+package com.group12.greengrocer.database;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background queue that renders and stores PDF invoices after checkout.
+ * <p>
+ * {@link OrderDAO#createOrder} commits the order and the stock updates first and
+ * then submits the order here, so no product row locks are held while iText renders
+ * the document. Each order's {@code invoice_status} moves from {@code pending} to
+ * {@code rendering} when a client claims it, then to {@code ready}, or to
+ * {@code failed} after {@link #MAX_ATTEMPTS} attempts.
+ * </p>
+ * <ul>
+ * <li><b>Bounded:</b> at most {@link #MAX_QUEUED} invoices wait at a time. When the
+ * queue is full the order simply stays {@code pending}.</li>
+ * <li><b>Sweep:</b> every {@link #SWEEP_INTERVAL_MS} the worker queues invoices that
+ * are still {@code pending} (e.g. dropped while the queue was full, or queued when the
+ * application was closed), oldest first.</li>
+ * <li><b>Claims:</b> every running client sweeps, so a job first claims its
+ * invoice with a conditional update; only the client that changed the row renders
+ * it. Claims of clients that stopped mid-render are taken over after
+ * {@link #CLAIM_TIMEOUT_SECONDS}.</li>
+ * <li><b>Retries:</b> failed renders are retried with an exponential back-off.</li>
+ * <li><b>Safety net:</b> {@link OrderDAO#getInvoicePDF(int)} renders any invoice
+ * that is not ready yet on demand, so a dropped or failed job never loses an
+ * invoice.</li>
+ * </ul>
+ */
+public class InvoiceWorker {
+
+    /** Maximum number of invoices waiting to be rendered. */
+    public static final int MAX_QUEUED = 200;
+
+    /** Render attempts per invoice before it is marked as failed. */
+    public static final int MAX_ATTEMPTS = 3;
+
+    /** Delay before the first retry; doubled for every further retry. */
+    private static final long RETRY_DELAY_MS = 2_000;
+
+    /** How often pending invoices are looked up and queued; the first sweep runs at start. */
+    public static final long SWEEP_INTERVAL_MS = 60_000;
+
+    /**
+     * Age an order must reach before a sweep picks up its invoice, so invoices that
+     * were just queued at checkout are not rendered twice.
+     */
+    private static final int SWEEP_MIN_AGE_SECONDS = 60;
+
+    /** Age after which another client's unfinished claim is taken over. */
+    public static final int CLAIM_TIMEOUT_SECONDS = 600;
+
+    /** Orders whose invoice is waiting or being rendered; guarded by the class lock. */
+    private static final Set<Integer> queued = new HashSet<>();
+
+    private static ScheduledExecutorService executor;
+
+    /**
+     * Queues the invoice of a committed order for rendering.
+     *
+     * @param orderId The ID of the order.
+     * @return {@code true} if the job was queued; {@code false} if the queue is full
+     *         (the invoice will then be rendered on demand).
+     */
+    public static synchronized boolean submit(int orderId) {
+        if (queued.contains(orderId))
+            return true;
+        if (queued.size() >= MAX_QUEUED) {
+            System.err.println("Invoice queue full, invoice #" + orderId + " will be rendered later.");
+            return false;
+        }
+        queued.add(orderId);
+        getExecutor().execute(() -> run(orderId, 1));
+        return true;
+    }
+
+    /**
+     * Starts the worker and its sweep of pending invoices. {@link #submit(int)} also
+     * starts it.
+     */
+    public static void start() {
+        getExecutor();
+    }
+
+    /**
+     * Returns the number of invoices currently waiting or being rendered.
+     *
+     * @return The queue length.
+     */
+    public static synchronized int getQueueLength() {
+        return queued.size();
+    }
+
+    /**
+     * Stops the worker. Invoices still queued stay {@code pending}; they are picked
+     * up by the next sweep of any client, or rendered on demand. An invoice being
+     * rendered or retried stays claimed until {@link #CLAIM_TIMEOUT_SECONDS} pass.
+     */
+    public static synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+            // A job still running finds its order gone from the set, which is harmless
+            queued.clear();
+        }
+    }
+
+    private static synchronized ScheduledExecutorService getExecutor() {
+        if (executor == null) {
+            ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = new Thread(r, "invoice-worker");
+                t.setDaemon(true);
+                return t;
+            });
+            pool.setRemoveOnCancelPolicy(true);
+            pool.scheduleWithFixedDelay(InvoiceWorker::sweep, 0, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            executor = pool;
+        }
+        return executor;
+    }
+
+    /**
+     * Queues pending invoices of older orders, as many as the queue has room for.
+     * Errors are only logged, as they would cancel further sweeps.
+     */
+    private static void sweep() {
+        try {
+            queuePending();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void queuePending() {
+        int room;
+        synchronized (InvoiceWorker.class) {
+            room = MAX_QUEUED - queued.size();
+        }
+        if (room <= 0)
+            return;
+        List<Integer> pending = OrderDAO.getPendingInvoiceOrderIds(SWEEP_MIN_AGE_SECONDS, CLAIM_TIMEOUT_SECONDS, room);
+        for (int orderId : pending) {
+            if (!submit(orderId))
+                break;
+        }
+    }
+
+    private static synchronized void finished(int orderId) {
+        queued.remove(orderId);
+    }
+
+    private static synchronized boolean scheduleRetry(int orderId, int attempt, long delayMs) {
+        if (executor == null) // shut down in the meantime
+            return false;
+        executor.schedule(() -> run(orderId, attempt), delayMs, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    private static void run(int orderId, int attempt) {
+        // Retries keep the claim of the first attempt
+        if (attempt == 1 && !OrderDAO.claimInvoice(orderId, CLAIM_TIMEOUT_SECONDS)) {
+            finished(orderId); // rendered, failed or claimed by another client
+            return;
+        }
+        try {
+            OrderDAO.renderAndStoreInvoice(orderId);
+            finished(orderId);
+        } catch (Exception e) {
+            if (attempt < MAX_ATTEMPTS) {
+                long delay = RETRY_DELAY_MS << (attempt - 1);
+                System.err.println("Invoice #" + orderId + " failed (attempt " + attempt + "), retrying in "
+                        + delay + " ms: " + e.getMessage());
+                if (!scheduleRetry(orderId, attempt + 1, delay))
+                    finished(orderId);
+            } else {
+                finished(orderId);
+                System.err.println("Invoice #" + orderId + " failed after " + attempt + " attempts.");
+                e.printStackTrace();
+                OrderDAO.markInvoiceFailed(orderId);
+            }
+        }
+    }
+}
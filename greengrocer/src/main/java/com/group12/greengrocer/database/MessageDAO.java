@@ -20,6 +20,13 @@ import java.util.Map;
  */
 public class MessageDAO {
 
+    /** Both directions of a conversation; binds user 1, user 2, user 2, user 1. */
+    static final String CONVERSATION_SQL = "SELECT m.*, u.username FROM messages m " +
+            "JOIN users u ON m.sender_id = u.id " +
+            "WHERE (m.sender_id = ? AND m.receiver_id = ?) " +
+            "   OR (m.sender_id = ? AND m.receiver_id = ?) " +
+            "ORDER BY m.created_at ASC";
+
     /**
      * Retrieves all messages stored in the database.
      * <p>
@@ -94,14 +101,9 @@ public class MessageDAO {
      */
     public static List<Message> getConversation(int userId1, int userId2) {
         List<Message> messages = new ArrayList<>();
-        String sql = "SELECT m.*, u.username FROM messages m " +
-                "JOIN users u ON m.sender_id = u.id " +
-                "WHERE (m.sender_id = ? AND m.receiver_id = ?) " +
-                "   OR (m.sender_id = ? AND m.receiver_id = ?) " +
-                "ORDER BY m.created_at ASC";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+             PreparedStatement ps = conn.prepareStatement(CONVERSATION_SQL)) {
             ps.setInt(1, userId1);
             ps.setInt(2, userId2);
             ps.setInt(3, userId2);
@@ -0,0 +1,404 @@
+package com.group12.greengrocer.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Applies versioned schema changes on startup.
+ * <p>
+ * {@code database/Group12.sql} is the baseline schema; later changes are SQL
+ * scripts under {@code /db/migration}, named {@code V<version>__<name>.sql} and
+ * listed in {@link #MIGRATIONS}. Applied versions are recorded in
+ * {@code schema_migrations}, so every script runs once per database.
+ * </p>
+ * <ul>
+ * <li><b>Locking:</b> a named lock ({@code GET_LOCK}) keeps two application
+ * instances starting at the same time from applying the same migration twice.</li>
+ * <li><b>Idempotent changes:</b> MySQL has no {@code ADD KEY IF NOT EXISTS}, so an
+ * {@code ALTER TABLE} that fails because an index or column already exists, or an
+ * index is already gone, is treated as done if {@code information_schema} confirms
+ * that every index and column it adds exists and every index it drops is gone.
+ * This lets the migrations run against databases that were changed by hand;
+ * scripts make one change per statement so that one existing index does not
+ * skip the others.</li>
+ * <li><b>Checksums:</b> a script that changed after it was applied is reported,
+ * not re-run; write a new migration instead.</li>
+ * <li><b>Index checks:</b> each migration lists the queries it is meant to speed
+ * up. After it is applied, {@code EXPLAIN} confirms that the optimizer actually
+ * picks the new index. On a table with fewer than {@link #MIN_ROWS_FOR_CHECKS}
+ * rows the optimizer may rightly prefer another plan, so such checks are skipped.
+ * At startup a failed check is a warning; {@link #main(String[])} runs all checks
+ * and fails if any does not pass.</li>
+ * </ul>
+ * <p>
+ * DDL statements commit implicitly in MySQL, so a migration that fails halfway is
+ * not rolled back. It is not recorded either; once the cause is fixed, the next
+ * start re-runs it and skips the statements that already took effect.
+ * </p>
+ */
+public class MigrationRunner {
+
+    private static final String LOCK_NAME = "greengrocer.schema_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    /** MySQL error codes for "Duplicate column name", "Duplicate key name" and "Can't DROP; check that it exists". */
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+    private static final int ER_CANT_DROP_FIELD_OR_KEY = 1091;
+
+    private static final Pattern ALTER_TABLE = Pattern.compile("^ALTER\\s+TABLE\\s+`?(\\w+)`?",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALTER_CLAUSE = Pattern.compile("\\b(ADD|DROP)\\s+(KEY|INDEX|COLUMN)\\s+`?(\\w+)`?",
+            Pattern.CASE_INSENSITIVE);
+
+    /** Index checks need a table at least this large to be meaningful. */
+    static final int MIN_ROWS_FOR_CHECKS = 1000;
+
+    /** All migrations, in the order they are applied. */
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "order_list_indexes", List.of(
+                    ordersPageCheck("all orders", OrderDAO.OrderFilter.ALL, "idx_order_time"),
+                    ordersPageCheck("orders of a customer", OrderDAO.OrderFilter.forCustomer(1),
+                            "idx_user_order_time"),
+                    ordersPageCheck("cancelled orders",
+                            new OrderDAO.OrderFilter(null, "cancelled", null, null, null),
+                            "idx_status_order_time"))),
+            new Migration(2, "carrier_dashboard_indexes", List.of(
+                    carrierDashboardCheck("carrier dashboard", "idx_carrier_dashboard"))),
+            new Migration(3, "message_indexes", List.of(
+                    new IndexCheck("conversation", "messages", MessageDAO.CONVERSATION_SQL, List.of(1, 2, 2, 1),
+                            "idx_conversation"))),
+            new Migration(4, "report_indexes", List.of(
+                    new IndexCheck("completed orders of a customer", "orders",
+                            "SELECT COUNT(*) FROM orders WHERE user_id = ? AND status = 'completed'", List.of(1),
+                            "idx_status_user"),
+                    new IndexCheck("average rating of a carrier", "carrier_ratings",
+                            "SELECT AVG(rating) FROM carrier_ratings WHERE carrier_id = ?", List.of(2),
+                            "idx_carrier_rating"))),
+            new Migration(5, "neighborhood_index", List.of(
+                    new IndexCheck("delivery neighborhoods", "orders", OrderDAO.DELIVERY_NEIGHBORHOODS_SQL, List.of(),
+                            "idx_delivery_neighborhood"))),
+            new Migration(6, "product_image_version", List.of()),
+            new Migration(7, "product_image_variants", List.of()),
+            new Migration(8, "invoice_status", List.of()),
+            new Migration(9, "analytics_rollups", List.of()),
+            new Migration(10, "order_change_tracking", List.of()),
+            new Migration(11, "product_change_tracking", List.of()),
+            new Migration(12, "invoice_claims", List.of()));
+
+    private static IndexCheck ordersPageCheck(String query, OrderDAO.OrderFilter filter, String index) {
+        List<Object> params = new ArrayList<>();
+        String sql = OrderDAO.ordersPageSql(filter, null, 100, params);
+        return new IndexCheck(query, "orders", sql, params, index);
+    }
+
+    private static IndexCheck carrierDashboardCheck(String query, String index) {
+        List<Object> params = new ArrayList<>();
+        String sql = OrderDAO.carrierDashboardSql(2, "Kadıköy", params);
+        return new IndexCheck(query, "orders", sql, params, index);
+    }
+
+    /**
+     * Applies all pending migrations and checks the indexes they add.
+     *
+     * @return true if the schema is up to date, false if a migration failed or the
+     *         database is unreachable.
+     */
+    public static boolean migrate() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                System.err.println("Schema migrations skipped: the database is unreachable.");
+                return false;
+            }
+            if (!acquireLock(conn)) {
+                System.err.println("Schema migrations skipped: another instance holds the migration lock.");
+                return false;
+            }
+            try {
+                createHistoryTable(conn);
+                Map<Integer, String> applied = loadHistory(conn);
+                for (Migration migration : MIGRATIONS) {
+                    String script = migration.load();
+                    String checksum = checksum(script);
+                    String appliedChecksum = applied.get(migration.version());
+                    if (appliedChecksum != null) {
+                        if (!appliedChecksum.equals(checksum))
+                            System.err.println("Schema migration " + migration.fileName()
+                                    + " was changed after it was applied; the change is ignored.");
+                        continue;
+                    }
+                    apply(conn, migration, script, checksum);
+                    System.out.println("Applied schema migration " + migration.fileName());
+                    for (String failure : verify(conn, migration))
+                        System.err.println("Warning: " + failure);
+                }
+                return true;
+            } finally {
+                releaseLock(conn);
+            }
+        } catch (SQLException | IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Runs the index checks of all migrations.
+     *
+     * @return One message per query that does not use its intended index; empty if
+     *         all checks pass or were skipped.
+     */
+    public static List<String> verifyIndexes() {
+        List<String> failures = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                failures.add("Index checks failed: the database is unreachable.");
+                return failures;
+            }
+            for (Migration migration : MIGRATIONS)
+                failures.addAll(verify(conn, migration));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            failures.add("Index checks failed: " + e.getMessage());
+        }
+        return failures;
+    }
+
+    private static List<String> verify(Connection conn, Migration migration) throws SQLException {
+        List<String> failures = new ArrayList<>();
+        for (IndexCheck check : migration.checks()) {
+            if (countRows(conn, check.table()) < MIN_ROWS_FOR_CHECKS)
+                continue;
+            List<String> used = explainKeys(conn, check);
+            if (!used.contains(check.index()))
+                failures.add(migration.fileName() + ": " + check.query() + " should use " + check.index()
+                        + " but uses " + (used.isEmpty() ? "no index" : String.join(", ", used)));
+        }
+        return failures;
+    }
+
+    private static long countRows(Connection conn, String table) throws SQLException {
+        try (Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * @return The indexes chosen by the optimizer for all tables of the query.
+     */
+    private static List<String> explainKeys(Connection conn, IndexCheck check) throws SQLException {
+        List<String> keys = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + check.sql())) {
+            for (int i = 0; i < check.params().size(); i++)
+                ps.setObject(i + 1, check.params().get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String key = rs.getString("key");
+                    if (key != null)
+                        keys.addAll(List.of(key.split(","))); // index_merge lists several
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static void apply(Connection conn, Migration migration, String script, String checksum)
+            throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String statement : splitStatements(script)) {
+                try {
+                    st.execute(statement);
+                } catch (SQLException e) {
+                    int code = e.getErrorCode();
+                    if (code != ER_DUP_FIELDNAME && code != ER_DUP_KEYNAME && code != ER_CANT_DROP_FIELD_OR_KEY
+                            || !alreadyApplied(conn, statement))
+                        throw e;
+                    System.out.println(migration.fileName() + ": already applied (" + e.getMessage() + ")");
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO schema_migrations (version, name, checksum) VALUES (?, ?, ?)")) {
+            ps.setInt(1, migration.version());
+            ps.setString(2, migration.name());
+            ps.setString(3, checksum);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Checks whether an {@code ALTER TABLE} already took effect: every index and
+     * column it adds exists and every one it drops is gone.
+     *
+     * @return false if the statement is not an {@code ALTER TABLE} of indexes and
+     *         columns, or if any of them is not in the intended state.
+     */
+    static boolean alreadyApplied(Connection conn, String statement) throws SQLException {
+        Matcher table = ALTER_TABLE.matcher(statement.trim());
+        if (!table.find())
+            return false;
+        Matcher clause = ALTER_CLAUSE.matcher(statement);
+        boolean found = false;
+        while (clause.find()) {
+            found = true;
+            boolean add = clause.group(1).equalsIgnoreCase("ADD");
+            boolean column = clause.group(2).equalsIgnoreCase("COLUMN");
+            if (exists(conn, column, table.group(1), clause.group(3)) != add)
+                return false;
+        }
+        return found;
+    }
+
+    private static boolean exists(Connection conn, boolean column, String table, String name) throws SQLException {
+        String sql = column
+                ? "SELECT 1 FROM information_schema.columns "
+                        + "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ? LIMIT 1"
+                : "SELECT 1 FROM information_schema.statistics "
+                        + "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            ps.setString(2, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Splits a script into statements at semicolons that end a line; comment lines
+     * are dropped.
+     */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--"))
+                continue;
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String statement = current.toString().trim();
+                statements.add(statement.substring(0, statement.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank())
+            statements.add(current.toString().trim());
+        return statements;
+    }
+
+    private static void createHistoryTable(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS schema_migrations ("
+                    + "version int NOT NULL, "
+                    + "name varchar(100) NOT NULL, "
+                    + "checksum char(64) NOT NULL, "
+                    + "applied_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                    + "PRIMARY KEY (version))");
+        }
+    }
+
+    private static Map<Integer, String> loadHistory(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new TreeMap<>();
+        try (Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next())
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+        }
+        return applied;
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+
+    private static String checksum(String script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(script.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM provides SHA-256
+        }
+    }
+
+    /**
+     * One versioned schema change.
+     *
+     * @param version The version; migrations are applied in ascending order.
+     * @param name    The script name without version prefix and extension.
+     * @param checks  Queries that should use the indexes this migration adds.
+     */
+    record Migration(int version, String name, List<IndexCheck> checks) {
+
+        String fileName() {
+            return "V" + version + "__" + name + ".sql";
+        }
+
+        String load() throws IOException {
+            try (InputStream in = MigrationRunner.class.getResourceAsStream("/db/migration/" + fileName())) {
+                if (in == null)
+                    throw new IOException("Missing schema migration " + fileName());
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * A query and the index the optimizer is expected to choose for it.
+     *
+     * @param query  A short description for messages.
+     * @param table  The table whose index is checked.
+     * @param sql    The query, as run by the DAO.
+     * @param params Sample parameters.
+     * @param index  The expected index.
+     */
+    record IndexCheck(String query, String table, String sql, List<Object> params, String index) {
+    }
+
+    /**
+     * Applies pending migrations and runs all index checks, e.g. against a copy of
+     * the production database. Uses the connection settings of
+     * {@link DatabaseConfig}.
+     *
+     * @param args Command line arguments (not used).
+     */
+    public static void main(String[] args) {
+        boolean migrated = migrate();
+        List<String> failures = verifyIndexes();
+        DatabaseConnection.closeConnection();
+        failures.forEach(System.err::println);
+        System.out.println(migrated && failures.isEmpty() ? "Schema is up to date; all index checks passed."
+                : "Schema migration or index checks failed.");
+        if (!migrated || !failures.isEmpty())
+            System.exit(1);
+    }
+}
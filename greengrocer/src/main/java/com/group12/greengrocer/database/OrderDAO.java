@@ -14,9 +14,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import com.group12.greengrocer.models.CartItem;
 import com.group12.greengrocer.models.Order;
+import com.group12.greengrocer.models.OrderItem;
+import com.group12.greengrocer.models.Product;
 import com.group12.greengrocer.models.User;
 import com.group12.greengrocer.utils.ShoppingCart;
 import com.itextpdf.text.BaseColor;
@@ -43,19 +46,17 @@ import com.itextpdf.text.pdf.PdfWriter;
  */
 public class OrderDAO {
 
+    /** Maximum number of order IDs bound into one {@code IN (...)} list. */
+    private static final int ITEM_BATCH_SIZE = 500;
+
     // --- ORDER CREATION ---
 
     /**
-     * Creates a new order in the database.
-     * <p>
-     * This method executes a complex transaction:
-     * 1. Inserts the order record.
-     * 2. Checks product stock availability (locking rows for thread safety).
-     * 3. Inserts individual order items.
-     * 4. Updates (decrements) product stock levels.
-     * 5. Generates a PDF invoice and updates the order record with the BLOB.
+     * Creates a new order from the current {@link ShoppingCart}.
      * <p>
-     * If any step fails, the entire transaction is rolled back.
+     * Kept for existing callers; see {@link #placeOrder} for the transaction and for
+     * details about stock shortages.
+     * </p>
      *
      * @param user            The user placing the order.
      * @param subtotal        The cost before tax and discounts.
@@ -70,6 +71,48 @@ public class OrderDAO {
      */
     public static boolean createOrder(User user, double subtotal, double vat, double discount, double total,
             LocalDate date, String timeSlot, String paymentMethod, double loyaltyDiscount) {
+        return placeOrder(user, ShoppingCart.getInstance().getItems(), subtotal, vat, discount, total,
+                date, timeSlot, paymentMethod, loyaltyDiscount).isSuccess();
+    }
+
+    /**
+     * Places a new order in the database.
+     * <p>
+     * This method executes a single transaction:
+     * 1. Merges the cart lines per product and sorts them by product ID.
+     * 2. Locks the product rows ({@code SELECT ... FOR UPDATE}) in ID order, so
+     * concurrent checkouts cannot deadlock, and prices every line from its locked
+     * row. The cart's products may come from an outdated catalog copy; if a price
+     * differs from the one the customer saw, or the stock is short, nothing is
+     * ordered. This includes a price doubled because another checkout took the
+     * stock to its threshold: the totals passed in were confirmed at the old
+     * prices, so the customer reviews the new ones instead of being charged them.
+     * 3. Reserves stock for all products with one batch of decrements; the rows are
+     * locked and checked, so every decrement applies.
+     * 4. Inserts the order record and its items (batched) at the locked prices.
+     * <p>
+     * If any product is short or changed its price, the transaction is rolled back
+     * and the result lists exactly which products were affected. After the commit
+     * the PDF invoice is queued on the {@link InvoiceWorker}, so the product row
+     * locks are not held while the invoice is rendered, and the stock left after
+     * the reservation is reported to {@link ProductDAO} so its catalog cache and
+     * listeners see it without reading it again.
+     *
+     * @param user            The user placing the order.
+     * @param items           The cart lines to order.
+     * @param subtotal        The cost before tax and discounts.
+     * @param vat             The calculated VAT amount.
+     * @param discount        The discount amount applied.
+     * @param total           The final total cost.
+     * @param date            The requested delivery date.
+     * @param timeSlot        The requested delivery time slot string.
+     * @param paymentMethod   The selected payment method.
+     * @param loyaltyDiscount The amount deducted via loyalty points.
+     * @return An {@link OrderResult} with the new order ID, the stock shortages or the price changes.
+     */
+    public static OrderResult placeOrder(User user, List<CartItem> items, double subtotal, double vat,
+            double discount, double total, LocalDate date, String timeSlot, String paymentMethod,
+            double loyaltyDiscount) {
 
         String orderSql = "INSERT INTO orders (user_id, status, subtotal, vat_amount, discount_amount, total_cost, " +
                 "order_time, requested_delivery_date, delivery_neighborhood, delivery_address, payment_method, loyalty_discount) " +
@@ -79,8 +122,7 @@ public class OrderDAO {
                 +
                 "VALUES (?, ?, ?, ?, ?, ?)";
 
-        String stockCheckSql = "SELECT stock FROM products WHERE id = ? FOR UPDATE";
-        String updateStockSql = "UPDATE products SET stock = stock - ? WHERE id = ?";
+        String reserveStockSql = "UPDATE products SET stock = stock - ? WHERE id = ?";
 
         String startTime = timeSlot.split(" - ")[0];
         if (startTime.length() == 4)
@@ -88,75 +130,96 @@ public class OrderDAO {
 
         Timestamp deliveryTs = Timestamp.valueOf(date.atTime(LocalTime.parse(startTime)));
 
-        Connection conn = null;
-        PreparedStatement psOrder = null, psItem = null, psCheck = null, psUpdateStock = null;
-        ResultSet rs = null;
+        // One line per product, in ascending product ID (= lock) order
+        TreeMap<Integer, CartItem> lines = new TreeMap<>();
+        for (CartItem item : items) {
+            CartItem line = lines.get(item.getProduct().getId());
+            if (line == null)
+                lines.put(item.getProduct().getId(), new CartItem(item.getProduct(), item.getQuantity()));
+            else
+                line.addQuantity(item.getQuantity());
+        }
+        if (lines.isEmpty())
+            return OrderResult.failed(List.of());
 
+        OrderResult placed;
+        Map<Integer, Double> lockedStock = new HashMap<>();
+        Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
+            if (conn == null)
+                return OrderResult.failed(List.of());
             conn.setAutoCommit(false); // Start Transaction
 
-            // 1. Register Order
-            psOrder = conn.prepareStatement(orderSql, Statement.RETURN_GENERATED_KEYS);
-            psOrder.setInt(1, user.getId());
-            psOrder.setDouble(2, subtotal);
-            psOrder.setDouble(3, vat);
-            psOrder.setDouble(4, discount);
-            psOrder.setDouble(5, total);
-            psOrder.setTimestamp(6, deliveryTs);
-            psOrder.setString(7, user.getNeighborhood());
-            psOrder.setString(8, user.getAddress());
-            psOrder.setString(9, paymentMethod);
-            psOrder.setDouble(10, loyaltyDiscount);
-
-            if (psOrder.executeUpdate() == 0)
-                throw new SQLException("Order creation failed.");
-
-            rs = psOrder.getGeneratedKeys();
-            if (!rs.next())
-                throw new SQLException("Order ID not generated.");
-            int orderId = rs.getInt(1);
-
-            psCheck = conn.prepareStatement(stockCheckSql);
-            psUpdateStock = conn.prepareStatement(updateStockSql);
-            psItem = conn.prepareStatement(itemSql);
-
-            // 2. Register Items and Update Stock
-            for (CartItem item : ShoppingCart.getInstance().getItems()) {
-                psCheck.setInt(1, item.getProduct().getId());
-                ResultSet rsStock = psCheck.executeQuery();
-
-                if (!rsStock.next())
-                    throw new SQLException("Product not found.");
-                if (rsStock.getDouble("stock") < item.getQuantity())
-                    throw new SQLException("Not enough stock.");
-
-                psItem.setInt(1, orderId);
-                psItem.setInt(2, item.getProduct().getId());
-                psItem.setString(3, item.getProduct().getName());
-                psItem.setDouble(4, item.getQuantity());
-                psItem.setDouble(5, item.getProduct().getCurrentPrice());
-                psItem.setDouble(6, item.getTotalPrice());
-                psItem.addBatch();
-
-                psUpdateStock.setDouble(1, item.getQuantity());
-                psUpdateStock.setInt(2, item.getProduct().getId());
-                psUpdateStock.executeUpdate();
+            // 1. Lock the product rows and check stock and prices against them
+            List<CartItem> ordered = new ArrayList<>(lines.values());
+            Map<Integer, Double> unitPrices = new HashMap<>();
+            List<StockShortage> shortages = new ArrayList<>();
+            List<PriceChange> priceChanges = new ArrayList<>();
+            lockProducts(conn, ordered, lockedStock, unitPrices, shortages, priceChanges);
+            if (!shortages.isEmpty()) {
+                conn.rollback();
+                return OrderResult.failed(shortages);
             }
+            if (!priceChanges.isEmpty()) {
+                conn.rollback();
+                placed = OrderResult.pricesChanged(priceChanges);
+            } else {
+                // 2. Reserve stock for all products in one batch
+                try (PreparedStatement psReserve = conn.prepareStatement(reserveStockSql)) {
+                    for (CartItem line : ordered) {
+                        psReserve.setDouble(1, line.getQuantity());
+                        psReserve.setInt(2, line.getProduct().getId());
+                        psReserve.addBatch();
+                    }
+                    psReserve.executeBatch();
+                }
+
+                // 3. Register Order
+                int orderId;
+                try (PreparedStatement psOrder = conn.prepareStatement(orderSql, Statement.RETURN_GENERATED_KEYS)) {
+                    psOrder.setInt(1, user.getId());
+                    psOrder.setDouble(2, subtotal);
+                    psOrder.setDouble(3, vat);
+                    psOrder.setDouble(4, discount);
+                    psOrder.setDouble(5, total);
+                    psOrder.setTimestamp(6, deliveryTs);
+                    psOrder.setString(7, user.getNeighborhood());
+                    psOrder.setString(8, user.getAddress());
+                    psOrder.setString(9, paymentMethod);
+                    psOrder.setDouble(10, loyaltyDiscount);
+
+                    if (psOrder.executeUpdate() == 0)
+                        throw new SQLException("Order creation failed.");
+
+                    try (ResultSet rs = psOrder.getGeneratedKeys()) {
+                        if (!rs.next())
+                            throw new SQLException("Order ID not generated.");
+                        orderId = rs.getInt(1);
+                    }
+                }
 
-            psItem.executeBatch();
+                // 4. Register Items
+                try (PreparedStatement psItem = conn.prepareStatement(itemSql)) {
+                    for (CartItem line : ordered) {
+                        psItem.setInt(1, orderId);
+                        psItem.setInt(2, line.getProduct().getId());
+                        psItem.setString(3, line.getProduct().getName());
+                        psItem.setDouble(4, line.getQuantity());
+                        double unitPrice = unitPrices.get(line.getProduct().getId());
+                        psItem.setDouble(5, unitPrice);
+                        psItem.setDouble(6, unitPrice * line.getQuantity());
+                        psItem.addBatch();
+                    }
+                    psItem.executeBatch();
+                }
 
-            // Generate and Save PDF Invoice
-            byte[] pdfBytes = generateInvoicePDF(orderId, user, subtotal, vat, discount, loyaltyDiscount, total, ShoppingCart.getInstance().getItems());
-            String updatePdfSql = "UPDATE orders SET invoice = ? WHERE id = ?";
-            try (PreparedStatement psPdf = conn.prepareStatement(updatePdfSql)) {
-                psPdf.setBytes(1, pdfBytes);
-                psPdf.setInt(2, orderId);
-                psPdf.executeUpdate();
-            }
+                conn.commit(); // Commit Transaction
 
-            conn.commit(); // Commit Transaction
-            return true;
+                // Render the PDF invoice in the background, outside the transaction
+                InvoiceWorker.submit(orderId);
+                placed = OrderResult.placed(orderId);
+            }
 
         } catch (SQLException e) {
             try {
@@ -165,24 +228,9 @@ public class OrderDAO {
             } catch (SQLException ignored) {
             }
             e.printStackTrace();
-            return false;
+            return OrderResult.failed(List.of());
         } finally {
             // Resource cleanup
-            try {
-                if (rs != null) rs.close();
-            } catch (Exception e) {}
-            try {
-                if (psOrder != null) psOrder.close();
-            } catch (Exception e) {}
-            try {
-                if (psItem != null) psItem.close();
-            } catch (Exception e) {}
-            try {
-                if (psCheck != null) psCheck.close();
-            } catch (Exception e) {}
-            try {
-                if (psUpdateStock != null) psUpdateStock.close();
-            } catch (Exception e) {}
             try {
                 if (conn != null) {
                     conn.setAutoCommit(true);
@@ -190,6 +238,131 @@ public class OrderDAO {
                 }
             } catch (Exception e) {}
         }
+        if (!placed.isSuccess()) {
+            // The customer's catalog copy was outdated; the cache re-reads the rows
+            List<Integer> changed = new ArrayList<>();
+            for (PriceChange change : placed.priceChanges)
+                changed.add(change.productId);
+            ProductDAO.fireChanges(ProductDAO.ChangeType.UPDATED, changed);
+            return placed;
+        }
+        // The rows were locked, so the reservation left exactly the locked stock minus the quantity
+        Map<Integer, Double> newStock = new HashMap<>();
+        lines.forEach((id, line) -> newStock.put(id, lockedStock.get(id) - line.getQuantity()));
+        ProductDAO.stockChanged(newStock);
+        return placed;
+    }
+
+    /**
+     * Locks the rows of the ordered products in ID order and checks each line
+     * against its row: the stock must cover the quantity, and the current price
+     * (doubled at or below the threshold, like {@link Product#getCurrentPrice()})
+     * must be the one the cart was priced with.
+     *
+     * @param conn         The checkout transaction.
+     * @param ordered      The merged cart lines, sorted by product ID.
+     * @param stock        Receives the stock of each product as locked.
+     * @param unitPrices   Receives the current price of each product.
+     * @param shortages    Receives the lines whose stock is short.
+     * @param priceChanges Receives the lines whose price changed.
+     */
+    private static void lockProducts(Connection conn, List<CartItem> ordered, Map<Integer, Double> stock,
+            Map<Integer, Double> unitPrices, List<StockShortage> shortages, List<PriceChange> priceChanges)
+            throws SQLException {
+        String sql = "SELECT id, price, stock, threshold FROM products WHERE id IN ("
+                + "?,".repeat(ordered.size() - 1) + "?) ORDER BY id FOR UPDATE";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ordered.size(); i++)
+                ps.setInt(i + 1, ordered.get(i).getProduct().getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    double price = rs.getDouble("price");
+                    double available = rs.getDouble("stock");
+                    stock.put(rs.getInt("id"), available);
+                    unitPrices.put(rs.getInt("id"), available <= rs.getDouble("threshold") ? price * 2 : price);
+                }
+            }
+        }
+
+        for (CartItem line : ordered) {
+            Product product = line.getProduct();
+            double available = stock.getOrDefault(product.getId(), 0.0);
+            if (available < line.getQuantity()) {
+                shortages.add(new StockShortage(product.getId(), product.getName(), line.getQuantity(), available));
+                continue;
+            }
+            double current = unitPrices.get(product.getId());
+            if (Math.abs(current - product.getCurrentPrice()) >= 0.005)
+                priceChanges.add(new PriceChange(product.getId(), product.getName(), product.getCurrentPrice(), current));
+        }
+    }
+
+    /**
+     * Outcome of {@link #placeOrder}.
+     */
+    public static class OrderResult {
+        /** The ID of the new order, or -1 if the order was not placed. */
+        public final int orderId;
+        /** The products that did not have enough stock (empty on success or other errors). */
+        public final List<StockShortage> shortages;
+        /** The products whose price changed since the cart was priced (empty on success or other errors). */
+        public final List<PriceChange> priceChanges;
+
+        private OrderResult(int orderId, List<StockShortage> shortages, List<PriceChange> priceChanges) {
+            this.orderId = orderId;
+            this.shortages = shortages;
+            this.priceChanges = priceChanges;
+        }
+
+        static OrderResult placed(int orderId) {
+            return new OrderResult(orderId, List.of(), List.of());
+        }
+
+        static OrderResult failed(List<StockShortage> shortages) {
+            return new OrderResult(-1, List.copyOf(shortages), List.of());
+        }
+
+        static OrderResult pricesChanged(List<PriceChange> priceChanges) {
+            return new OrderResult(-1, List.of(), List.copyOf(priceChanges));
+        }
+
+        public boolean isSuccess() {
+            return orderId > 0;
+        }
+    }
+
+    /**
+     * A product that could not be reserved in the requested quantity.
+     */
+    public static class StockShortage {
+        public final int productId;
+        public final String productName;
+        public final double requested;
+        public final double available;
+
+        public StockShortage(int productId, String productName, double requested, double available) {
+            this.productId = productId;
+            this.productName = productName;
+            this.requested = requested;
+            this.available = available;
+        }
+    }
+
+    /**
+     * A product whose current price differs from the one in the customer's cart.
+     */
+    public static class PriceChange {
+        public final int productId;
+        public final String productName;
+        public final double expected;
+        public final double current;
+
+        public PriceChange(int productId, String productName, double expected, double current) {
+            this.productId = productId;
+            this.productName = productName;
+            this.expected = expected;
+            this.current = current;
+        }
     }
 
     // --- CARRIER RATING SYSTEM ---
@@ -271,6 +444,10 @@ public class OrderDAO {
      * 1. 'Pending' orders in the pool (no carrier assigned) matching the carrier's neighborhood (or All).
      * 2. 'Assigned' orders specifically for this carrier (My Active Deliveries).
      * 3. 'Completed' orders by this carrier within the last 30 days (History).
+     * <p>
+     * The items of all returned orders are loaded with a single bulk query and
+     * attached to {@link Order#getItems()}, so the dashboard can render and filter
+     * the cards without further queries.
      *
      * @param carrierId    The logged-in carrier's ID.
      * @param neighborhood The carrier's designated working region filter.
@@ -278,37 +455,115 @@ public class OrderDAO {
      */
     public static List<Order> getCarrierDashboardOrders(int carrierId, String neighborhood) {
         List<Order> orders = new ArrayList<>();
-        boolean isAllRegions = neighborhood == null || neighborhood.equalsIgnoreCase("All")
-                || neighborhood.equalsIgnoreCase("Tüm İstanbul");
-
-        StringBuilder sql = new StringBuilder();
-        sql.append("SELECT o.*, u.username AS customer_name FROM orders o ")
-                .append("JOIN users u ON o.user_id = u.id WHERE (")
-                .append("(o.status = 'pending' AND (o.carrier_id IS NULL OR o.carrier_id = 0)) ")
-                .append("OR (o.carrier_id = ? AND o.status = 'assigned') ")
-                .append("OR (o.carrier_id = ? AND o.status = 'completed' AND o.delivery_time >= DATE_SUB(NOW(), INTERVAL 30 DAY))")
-                .append(") ");
-
-        if (!isAllRegions)
-            sql.append(" AND o.delivery_neighborhood = ? ");
-        sql.append(" ORDER BY o.priority_level DESC, o.order_time ASC");
+        List<Object> params = new ArrayList<>();
+        String sql = carrierDashboardSql(carrierId, neighborhood, params);
 
         try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement ps = conn.prepareStatement(sql.toString())) {
-            ps.setInt(1, carrierId);
-            ps.setInt(2, carrierId);
-            if (!isAllRegions)
-                ps.setString(3, neighborhood);
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++)
+                ps.setObject(i + 1, params.get(i));
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next())
                     orders.add(mapResultSetToOrder(rs));
             }
+            attachItems(conn, orders);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return orders;
     }
 
+    /**
+     * Builds the carrier dashboard query. Each of the three order groups is a
+     * separate {@code UNION ALL} branch, so each can look up its rows in
+     * {@code idx_carrier_dashboard} instead of one OR condition that scans the table.
+     *
+     * @param params Receives the query parameters, in order.
+     * @return The SQL text.
+     */
+    static String carrierDashboardSql(int carrierId, String neighborhood, List<Object> params) {
+        boolean isAllRegions = neighborhood == null || neighborhood.equalsIgnoreCase("All")
+                || neighborhood.equalsIgnoreCase("Tüm İstanbul");
+        String region = isAllRegions ? "" : " AND o.delivery_neighborhood = ?";
+        String select = "SELECT " + ORDER_LIST_COLUMNS + ", "
+                + "(SELECT u.username FROM users u WHERE u.id = o.user_id) AS customer_name FROM orders o WHERE ";
+
+        String sql = select + "o.status = 'pending' AND (o.carrier_id IS NULL OR o.carrier_id = 0)" + region
+                + " UNION ALL " + select + "o.carrier_id = ? AND o.status = 'assigned'" + region
+                + " UNION ALL " + select + "o.carrier_id = ? AND o.status = 'completed' "
+                + "AND o.delivery_time >= DATE_SUB(NOW(), INTERVAL 30 DAY)" + region
+                + " ORDER BY priority_level DESC, order_time ASC";
+
+        if (!isAllRegions)
+            params.add(neighborhood);
+        params.add(carrierId);
+        if (!isAllRegions)
+            params.add(neighborhood);
+        params.add(carrierId);
+        if (!isAllRegions)
+            params.add(neighborhood);
+        return sql;
+    }
+
+    /**
+     * Loads the items of all given orders with one query per
+     * {@link #ITEM_BATCH_SIZE} orders and stores them in {@link Order#getItems()}.
+     * <p>
+     * Use this instead of calling {@link #getOrderItemsAsText(int)} once per order.
+     * </p>
+     *
+     * @param orders The orders to fill; orders without items get an empty list.
+     */
+    public static void attachItems(List<Order> orders) {
+        if (orders.isEmpty())
+            return;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            attachItems(conn, orders);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void attachItems(Connection conn, List<Order> orders) throws SQLException {
+        Map<Integer, Order> byId = new HashMap<>();
+        for (Order o : orders) {
+            o.setItems(new ArrayList<>());
+            byId.put(o.getId(), o);
+        }
+
+        List<Integer> ids = new ArrayList<>(byId.keySet());
+        for (int from = 0; from < ids.size(); from += ITEM_BATCH_SIZE) {
+            List<Integer> batch = ids.subList(from, Math.min(from + ITEM_BATCH_SIZE, ids.size()));
+            String sql = "SELECT id AS item_id, order_id, product_id, product_name, quantity, unit_price, total_price "
+                    + "FROM order_items WHERE order_id IN (" + "?,".repeat(batch.size() - 1) + "?) "
+                    + "ORDER BY order_id, id";
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < batch.size(); i++)
+                    ps.setInt(i + 1, batch.get(i));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Order owner = byId.get(rs.getInt("order_id"));
+                        if (owner != null)
+                            owner.getItems().add(mapResultSetToOrderItem(rs));
+                    }
+                }
+            }
+        }
+    }
+
+    private static OrderItem mapResultSetToOrderItem(ResultSet rs) throws SQLException {
+        OrderItem item = new OrderItem();
+        item.setId(rs.getInt("item_id"));
+        item.setOrderId(rs.getInt("order_id"));
+        item.setProductId(rs.getInt("product_id"));
+        item.setProductName(rs.getString("product_name"));
+        item.setQuantity(rs.getDouble("quantity"));
+        item.setUnitPrice(rs.getDouble("unit_price"));
+        item.setTotalPrice(rs.getDouble("total_price"));
+        return item;
+    }
+
     /**
      * Helper method to get a simplified text representation of order items for UI cards.
      */
@@ -365,81 +620,241 @@ public class OrderDAO {
     }
 
     /**
-     * Marks an order as delivered/completed.
+     * Marks an order as delivered/completed and adds it to the analytics rollups.
      */
     public static boolean completeOrder(int orderId, int carrierId, LocalDateTime deliveryDateTime) {
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement ps = conn.prepareStatement(
-                        "UPDATE orders SET status = 'completed', delivery_time = ? WHERE id = ? AND carrier_id = ? AND status = 'assigned'")) {
-            ps.setTimestamp(1, Timestamp.valueOf(deliveryDateTime));
-            ps.setInt(2, orderId);
-            ps.setInt(3, carrierId);
-            return ps.executeUpdate() > 0;
+        return updateCompletion(orderId, 1,
+                "UPDATE orders SET status = 'completed', delivery_time = ? WHERE id = ? AND carrier_id = ? AND status = 'assigned'",
+                Timestamp.valueOf(deliveryDateTime), orderId, carrierId);
+    }
+
+    /**
+     * Reverts a completed order back to assigned status (Undo functionality) and
+     * removes it from the analytics rollups.
+     */
+    public static boolean undoCompleteOrder(int orderId, int carrierId) {
+        return updateCompletion(orderId, -1,
+                "UPDATE orders SET status = 'assigned', delivery_time = NULL WHERE id = ? AND carrier_id = ? AND status = 'completed'",
+                orderId, carrierId);
+    }
+
+    /**
+     * Runs a completion status change and the matching {@link RollupDAO} update in one
+     * transaction.
+     *
+     * @param orderId The order being changed.
+     * @param sign    {@code 1} for completion, {@code -1} for undo.
+     * @param sql     The status update; must affect no rows if the change is not allowed.
+     * @param params  The update's parameters.
+     * @return true if the status was changed, false otherwise.
+     */
+    private static boolean updateCompletion(int orderId, int sign, String sql, Object... params) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.length; i++)
+                    ps.setObject(i + 1, params[i]);
+                if (ps.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+                RollupDAO.apply(conn, orderId, sign);
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    // --- ORDER LISTS (KEYSET PAGINATION) ---
+
+    /**
+     * Server-side filters for {@link #getOrdersPage}. A {@code null} field does not
+     * filter.
+     *
+     * @param userId       Only orders of this customer.
+     * @param status       Only orders with this status (e.g. {@code "pending"}), case-insensitive.
+     * @param from         Only orders placed on or after this day.
+     * @param to           Only orders placed on or before this day.
+     * @param neighborhood Only orders delivered to this neighborhood.
+     */
+    public record OrderFilter(Integer userId, String status, LocalDate from, LocalDate to, String neighborhood) {
+
+        /** All orders of all customers. */
+        public static final OrderFilter ALL = new OrderFilter(null, null, null, null, null);
+
+        /**
+         * @param userId The customer's ID.
+         * @return A filter for all orders of one customer.
+         */
+        public static OrderFilter forCustomer(int userId) {
+            return new OrderFilter(userId, null, null, null, null);
+        }
+    }
+
     /**
-     * Reverts a completed order back to assigned status (Undo functionality).
+     * Position after the last order of a page, in {@code order_time DESC, id DESC}
+     * order.
+     *
+     * @param orderTime The order time of the last order on the page.
+     * @param id        The ID of the last order on the page.
      */
-    public static boolean undoCompleteOrder(int orderId, int carrierId) {
-        return executeUpdate(
-                "UPDATE orders SET status = 'assigned', delivery_time = NULL WHERE id = ? AND carrier_id = ? AND status = 'completed'",
-                orderId, carrierId);
+    public record PageCursor(Timestamp orderTime, int id) {
     }
 
-    // --- OWNER REPORTS & ANALYTICS ---
+    /**
+     * One page of orders.
+     *
+     * @param orders The orders, newest first.
+     * @param next   The cursor for the following page, or {@code null} if this is the last page.
+     */
+    public record OrderPage(List<Order> orders, PageCursor next) {
 
-    public static List<Order> getAllOrdersForAdmin() {
-        return getList(
-                "SELECT o.*, u.username AS customer_name FROM orders o JOIN users u ON o.user_id = u.id ORDER BY o.order_time DESC");
+        public boolean hasMore() {
+            return next != null;
+        }
     }
 
-    public static double getTotalRevenue() {
+    /**
+     * Retrieves one page of orders, newest first, with the customer name filled in.
+     * <p>
+     * Uses keyset pagination: instead of an {@code OFFSET}, the query continues after
+     * the last {@code (order_time, id)} of the previous page. With the
+     * {@code idx_*_order_time} indexes every page reads only its own rows, so a page
+     * costs the same on page 1 as on page 1000 and no matter how large
+     * {@code orders} grows. Orders placed while paging appear on the first page of
+     * the next reload, not in the middle of the current listing.
+     * </p>
+     *
+     * @param filter   The server-side filters.
+     * @param after    The cursor returned with the previous page, or {@code null} for the first page.
+     * @param pageSize Maximum number of orders on the page.
+     * @return The page; empty if an error occurs.
+     */
+    public static OrderPage getOrdersPage(OrderFilter filter, PageCursor after, int pageSize) {
+        List<Object> params = new ArrayList<>();
+        String sql = ordersPageSql(filter, after, pageSize, params);
+
+        List<Order> orders = new ArrayList<>();
         try (Connection conn = DatabaseConnection.getConnection();
-                ResultSet rs = conn.createStatement()
-                        .executeQuery("SELECT SUM(total_cost) FROM orders WHERE status = 'completed'")) {
-            if (rs.next())
-                return rs.getDouble(1);
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.size(); i++)
+                ps.setObject(i + 1, params.get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next())
+                    orders.add(mapResultSetToOrder(rs));
+            }
         } catch (SQLException e) {
+            e.printStackTrace();
+            return new OrderPage(List.of(), null);
         }
-        return 0.0;
+
+        if (orders.size() <= pageSize)
+            return new OrderPage(orders, null);
+        orders.remove(pageSize);
+        Order last = orders.get(pageSize - 1);
+        return new OrderPage(orders, new PageCursor(last.getOrderTime(), last.getId()));
     }
 
-    public static int getActiveOrderCount() {
-        try (Connection conn = DatabaseConnection.getConnection();
-                ResultSet rs = conn.createStatement()
-                        .executeQuery("SELECT COUNT(*) FROM orders WHERE status IN ('pending', 'assigned')")) {
-            if (rs.next())
-                return rs.getInt(1);
+    /**
+     * Builds the query for {@link #getOrdersPage}.
+     *
+     * @param params Receives the query parameters, in order.
+     * @return The SQL text.
+     */
+    static String ordersPageSql(OrderFilter filter, PageCursor after, int pageSize, List<Object> params) {
+        // customer name as a subquery: with a join, the optimizer may start from the
+        // (small) users table and sort all of a user's orders instead of reading the index
+        StringBuilder sql = new StringBuilder("SELECT " + ORDER_LIST_COLUMNS + ", "
+                + "(SELECT u.username FROM users u WHERE u.id = o.user_id) AS customer_name FROM orders o WHERE 1 = 1");
+        if (filter.userId() != null) {
+            sql.append(" AND o.user_id = ?");
+            params.add(filter.userId());
+        }
+        if (filter.status() != null) {
+            sql.append(" AND o.status = ?");
+            params.add(filter.status().toLowerCase());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND o.order_time >= ?");
+            params.add(Timestamp.valueOf(filter.from().atStartOfDay()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND o.order_time < ?");
+            params.add(Timestamp.valueOf(filter.to().plusDays(1).atStartOfDay()));
+        }
+        if (filter.neighborhood() != null) {
+            sql.append(" AND o.delivery_neighborhood = ?");
+            params.add(filter.neighborhood());
+        }
+        if (after != null) {
+            // (order_time, id) < (?, ?), spelled out so the optimizer uses a range scan
+            sql.append(" AND (o.order_time < ? OR (o.order_time = ? AND o.id < ?))");
+            params.add(after.orderTime());
+            params.add(after.orderTime());
+            params.add(after.id());
+        }
+        sql.append(" ORDER BY o.order_time DESC, o.id DESC LIMIT ?");
+        params.add(pageSize + 1); // one extra row tells whether another page exists
+        return sql.toString();
+    }
+
+    /** The neighborhoods of all orders, one index lookup each. */
+    static final String DELIVERY_NEIGHBORHOODS_SQL = "SELECT DISTINCT delivery_neighborhood FROM orders "
+            + "WHERE delivery_neighborhood IS NOT NULL AND delivery_neighborhood <> '' ORDER BY delivery_neighborhood";
+
+    /**
+     * Lists the delivery neighborhoods that occur in the orders, for the owner's
+     * neighborhood filter. Reads idx_delivery_neighborhood, so it needs one index
+     * lookup per neighborhood rather than a scan of all orders.
+     *
+     * @return The neighborhoods in alphabetical order; empty if a database error occurs.
+     */
+    public static List<String> getDeliveryNeighborhoods() {
+        List<String> neighborhoods = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null)
+                return neighborhoods;
+            try (PreparedStatement ps = conn.prepareStatement(DELIVERY_NEIGHBORHOODS_SQL);
+                    ResultSet rs = ps.executeQuery()) {
+                while (rs.next())
+                    neighborhoods.add(rs.getString(1));
+            }
         } catch (SQLException e) {
+            e.printStackTrace();
         }
-        return 0;
+        return neighborhoods;
     }
 
+    // --- OWNER REPORTS & ANALYTICS ---
+
     /**
-     * Aggregates total revenue grouped by product name.
+     * Retrieves the latest orders of all customers, e.g. for the dashboard's
+     * "Recent Orders" table.
+     *
+     * @param limit Maximum number of orders.
+     * @return The orders, newest first.
      */
-    public static Map<String, Double> getRevenueByProductReport() {
-        Map<String, Double> result = new HashMap<>();
-        String sql = """
-            SELECT p.name, SUM(oi.quantity * oi.price) AS revenue
-            FROM order_items oi
-            JOIN products p ON oi.product_id = p.id
-            GROUP BY p.name
-        """;
+    public static List<Order> getRecentOrders(int limit) {
+        List<Order> orders = new ArrayList<>();
+        String sql = "SELECT " + ORDER_LIST_COLUMNS + ", u.username AS customer_name "
+                + "FROM orders o JOIN users u ON o.user_id = u.id ORDER BY o.order_time DESC LIMIT ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                result.put(rs.getString("name"), rs.getDouble("revenue"));
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next())
+                    orders.add(mapResultSetToOrder(rs));
             }
-        } catch (Exception e) {
+        } catch (SQLException e) {
             e.printStackTrace();
         }
-        return result;
+        return orders;
     }
 
     /**
@@ -448,11 +863,11 @@ public class OrderDAO {
     public static Map<String, Integer> getCarrierPerformanceReport() {
         Map<String, Integer> result = new HashMap<>();
         String sql = """
-            SELECT u.username, COUNT(o.id) AS completed_count
-            FROM orders o
-            JOIN users u ON o.carrier_id = u.id
-            WHERE o.status = 'Completed'
+            SELECT u.username, SUM(r.order_count) AS completed_count
+            FROM order_rollup_daily r
+            JOIN users u ON r.carrier_id = u.id
             GROUP BY u.username
+            HAVING completed_count > 0
         """;
         try (Connection conn = DatabaseConnection.getConnection();
             PreparedStatement ps = conn.prepareStatement(sql);
@@ -468,12 +883,11 @@ public class OrderDAO {
     // --- MOST SOLD PRODUCTS (QUANTITY BASED) ---
     public static Map<String, Double> getMostSoldProducts(int limit) {
         Map<String, Double> data = new HashMap<>();
-        String sql = "SELECT p.name, SUM(oi.quantity) as total_quantity " +
-                     "FROM order_items oi " +
-                     "JOIN products p ON oi.product_id = p.id " +
-                     "JOIN orders o ON oi.order_id = o.id " +
-                     "WHERE o.status = 'completed' " +
+        String sql = "SELECT p.name, SUM(s.quantity) as total_quantity " +
+                     "FROM sales_rollup_daily s " +
+                     "JOIN products p ON s.product_id = p.id " +
                      "GROUP BY p.name " +
+                     "HAVING total_quantity > 0 " +
                      "ORDER BY total_quantity DESC " +
                      "LIMIT ?";
         try (Connection conn = DatabaseConnection.getConnection();
@@ -517,10 +931,10 @@ public class OrderDAO {
     // --- ORDER INTENSITY (HOUR BASED) ---
     public static Map<String, Integer> getOrderIntensityByHour() {
         Map<String, Integer> data = new HashMap<>();
-        String sql = "SELECT HOUR(order_time) as hour, COUNT(*) as order_count " +
-                     "FROM orders " +
-                     "WHERE status = 'completed' " +
-                     "GROUP BY HOUR(order_time) " +
+        String sql = "SELECT HOUR(bucket_start) as hour, SUM(order_count) as order_count " +
+                     "FROM order_rollup_hourly " +
+                     "GROUP BY HOUR(bucket_start) " +
+                     "HAVING SUM(order_count) > 0 " +
                      "ORDER BY hour";
         try (Connection conn = DatabaseConnection.getConnection();
              ResultSet rs = conn.createStatement().executeQuery(sql)) {
@@ -537,11 +951,11 @@ public class OrderDAO {
     // --- ORDER INTENSITY (DAY BASED) ---
     public static Map<String, Integer> getOrderIntensityByDay() {
         Map<String, Integer> data = new HashMap<>();
-        String sql = "SELECT DAYNAME(order_time) as day_name, COUNT(*) as order_count " +
-                     "FROM orders " +
-                     "WHERE status = 'completed' " +
-                     "GROUP BY DAYNAME(order_time) " +
-                     "ORDER BY FIELD(DAYNAME(order_time), 'Monday', 'Tuesday', 'Wednesday', 'Thursday', 'Friday', 'Saturday', 'Sunday')";
+        String sql = "SELECT DAYNAME(bucket_date) as day_name, SUM(order_count) as order_count " +
+                     "FROM order_rollup_daily " +
+                     "GROUP BY DAYNAME(bucket_date) " +
+                     "HAVING SUM(order_count) > 0 " +
+                     "ORDER BY FIELD(day_name, 'Monday', 'Tuesday', 'Wednesday', 'Thursday', 'Friday', 'Saturday', 'Sunday')";
         try (Connection conn = DatabaseConnection.getConnection();
              ResultSet rs = conn.createStatement().executeQuery(sql)) {
             while (rs.next()) {
@@ -573,12 +987,11 @@ public class OrderDAO {
 
     public static Map<String, Double> getRevenueByCategory() {
         Map<String, Double> data = new HashMap<>();
-        String sql = "SELECT p.type, SUM(oi.total_price) as total_revenue " +
-                     "FROM order_items oi " +
-                     "JOIN products p ON oi.product_id = p.id " +
-                     "JOIN orders o ON oi.order_id = o.id " +
-                     "WHERE o.status = 'completed' " +
-                     "GROUP BY p.type";
+        String sql = "SELECT p.type, SUM(s.revenue) as total_revenue " +
+                     "FROM sales_rollup_daily s " +
+                     "JOIN products p ON s.product_id = p.id " +
+                     "GROUP BY p.type " +
+                     "HAVING SUM(s.quantity) > 0";
         try (Connection conn = DatabaseConnection.getConnection();
              ResultSet rs = conn.createStatement().executeQuery(sql)) {
             while (rs.next()) {
@@ -590,93 +1003,27 @@ public class OrderDAO {
         return data;
     }
 
-    // --- TIME BASED REVENUE REPORTS ---
-    public static Map<String, Double> getRevenueByTimeReport(String period) {
-        Map<String, Double> data = new HashMap<>();
-        String sql;
-        
-        switch (period.toLowerCase()) {
-            case "daily":
-                sql = "SELECT DATE(order_time) as period, SUM(total_cost) as revenue " +
-                      "FROM orders WHERE status = 'completed' " +
-                      "GROUP BY DATE(order_time) ORDER BY period DESC LIMIT 30";
-                break;
-            case "weekly":
-                sql = "SELECT YEARWEEK(order_time) as period, SUM(total_cost) as revenue " +
-                      "FROM orders WHERE status = 'completed' " +
-                      "GROUP BY YEARWEEK(order_time) ORDER BY period DESC LIMIT 12";
-                break;
-            case "monthly":
-                sql = "SELECT DATE_FORMAT(order_time, '%Y-%m') as period, SUM(total_cost) as revenue " +
-                      "FROM orders WHERE status = 'completed' " +
-                      "GROUP BY DATE_FORMAT(order_time, '%Y-%m') ORDER BY period DESC LIMIT 12";
-                break;
-            default:
-                sql = "SELECT DATE(order_time) as period, SUM(total_cost) as revenue " +
-                      "FROM orders WHERE status = 'completed' " +
-                      "GROUP BY DATE(order_time) ORDER BY period DESC LIMIT 30";
-        }
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-                ResultSet rs = conn.createStatement().executeQuery(sql)) {
-            while (rs.next()) {
-                data.put(rs.getString("period"), rs.getDouble("revenue"));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return data;
-    }
-
-    // --- REVENUE BY AMOUNT RANGE ---
-    public static Map<String, Double> getRevenueByAmountRange() {
-        Map<String, Double> data = new HashMap<>();
-        String sql = "SELECT " +
-                      "CASE " +
-                      "  WHEN total_cost < 100 THEN '0-100 TL' " +
-                      "  WHEN total_cost < 200 THEN '100-200 TL' " +
-                      "  WHEN total_cost < 300 THEN '200-300 TL' " +
-                      "  WHEN total_cost < 500 THEN '300-500 TL' " +
-                      "  ELSE '500+ TL' " +
-                      "END as range, " +
-                      "SUM(total_cost) as revenue " +
-                      "FROM orders WHERE status = 'completed' " +
-                      "GROUP BY range ORDER BY revenue DESC";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-                ResultSet rs = conn.createStatement().executeQuery(sql)) {
-            while (rs.next()) {
-                data.put(rs.getString("range"), rs.getDouble("revenue"));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return data;
-    }
-
     // --- CUSTOMER HISTORY ---
-    public static List<Order> getOrdersByUserId(int userId) {
-        List<Order> orders = new ArrayList<>();
-        String sql = "SELECT * FROM orders WHERE user_id = ? ORDER BY order_time DESC";
-        try (Connection conn = DatabaseConnection.getConnection();
-                PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, userId);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next())
-                    orders.add(mapResultSetToOrder(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return orders;
-    }
 
     /**
-     * Retrieves detailed order items including product images (BLOBs) for display.
+     * Order columns needed by {@link #mapResultSetToOrder(ResultSet)}; excludes the
+     * invoice BLOB, which order lists never show.
      */
-    public static List<OrderDetail> getOrderDetailsWithImages(int orderId) {
+    private static final String ORDER_LIST_COLUMNS = "o.id, o.delivery_neighborhood, o.delivery_address, o.status, "
+            + "o.priority_level, o.total_cost, o.order_time, o.delivery_time, o.requested_delivery_date, "
+            + "o.payment_method, o.carrier_id";
+
+    /**
+     * Retrieves detailed order items for display.
+     * <p>
+     * Image bytes are not loaded; each detail carries the product ID and image
+     * version so the UI can fetch the image through the shared image cache.
+     * </p>
+     */
+    public static List<OrderDetail> getOrderDetails(int orderId) {
         List<OrderDetail> details = new ArrayList<>();
-        String sql = "SELECT oi.product_name, oi.quantity, oi.unit_price, oi.total_price, p.image " +
+        String sql = "SELECT oi.product_id, oi.product_name, oi.quantity, oi.unit_price, oi.total_price, " +
+                "p.image_version, (p.image IS NOT NULL) AS has_image " +
                 "FROM order_items oi " +
                 "LEFT JOIN products p ON oi.product_id = p.id " +
                 "WHERE oi.order_id = ?";
@@ -687,21 +1034,14 @@ public class OrderDAO {
             ps.setInt(1, orderId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    byte[] imgBytes = null;
-                    try {
-                        java.sql.Blob blob = rs.getBlob("image");
-                        if (blob != null) {
-                            imgBytes = blob.getBytes(1, (int) blob.length());
-                        }
-                    } catch (Exception e) {
-                    }
-
                     details.add(new OrderDetail(
+                            rs.getInt("product_id"),
                             rs.getString("product_name"),
                             rs.getDouble("quantity"),
                             rs.getDouble("unit_price"),
                             rs.getDouble("total_price"),
-                            imgBytes));
+                            rs.getInt("image_version"),
+                            rs.getBoolean("has_image")));
                 }
             }
         } catch (SQLException e) {
@@ -711,18 +1051,23 @@ public class OrderDAO {
     }
 
     public static class OrderDetail {
+        public int productId;
         public String name;
         public double quantity;
         public double unitPrice;
         public double totalPrice;
-        public byte[] image;
+        public int imageVersion;
+        public boolean hasImage;
 
-        public OrderDetail(String name, double quantity, double unitPrice, double totalPrice, byte[] image) {
+        public OrderDetail(int productId, String name, double quantity, double unitPrice, double totalPrice,
+                int imageVersion, boolean hasImage) {
+            this.productId = productId;
             this.name = name;
             this.quantity = quantity;
             this.unitPrice = unitPrice;
             this.totalPrice = totalPrice;
-            this.image = image;
+            this.imageVersion = imageVersion;
+            this.hasImage = hasImage;
         }
     }
 
@@ -737,17 +1082,17 @@ public class OrderDAO {
         }
     }
 
-    private static List<Order> getList(String sql) {
-        List<Order> list = new ArrayList<>();
-        try (Connection conn = DatabaseConnection.getConnection();
-                ResultSet rs = conn.createStatement().executeQuery(sql)) {
-            while (rs.next())
-                list.add(mapResultSetToOrder(rs));
-        } catch (SQLException e) {
-        }
-        return list;
-    }
-
+    /**
+     * Maps the current row of an orders query to an {@link Order}.
+     * <p>
+     * {@code customer_name}, {@code priority_level} and {@code payment_method} are
+     * optional columns. The order's items are not loaded.
+     * </p>
+     *
+     * @param rs A result set positioned on an order row.
+     * @return The mapped order.
+     * @throws SQLException If a required column is missing.
+     */
     private static Order mapResultSetToOrder(ResultSet rs) throws SQLException {
         Order order = new Order();
         order.setId(rs.getInt("id"));
@@ -793,13 +1138,155 @@ public class OrderDAO {
 
     // --- PDF GENERATION (iText) ---
 
+    /**
+     * Renders the invoice of an order from its stored data and saves it.
+     * <p>
+     * Called by the {@link InvoiceWorker} and by {@link #getInvoicePDF(int)} when an
+     * invoice is not ready yet. The invoice is built from the order row and its
+     * {@code order_items}, i.e. the prices the customer actually paid.
+     * </p>
+     *
+     * @param orderId The ID of the order.
+     * @return The rendered PDF bytes.
+     * @throws SQLException If the order cannot be read or the invoice cannot be stored.
+     */
+    static byte[] renderAndStoreInvoice(int orderId) throws SQLException {
+        String orderSql = "SELECT o.order_time, o.delivery_address, o.delivery_neighborhood, o.subtotal, o.vat_amount, "
+                + "o.discount_amount, o.loyalty_discount, o.total_cost, u.username, u.phone_number "
+                + "FROM orders o JOIN users u ON o.user_id = u.id WHERE o.id = ?";
+        String itemSql = "SELECT product_name, quantity, unit_price, total_price FROM order_items "
+                + "WHERE order_id = ? ORDER BY id";
+        String storeSql = "UPDATE orders SET invoice = ?, invoice_status = 'ready' WHERE id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null)
+                throw new SQLException("No database connection.");
+
+            List<OrderItem> items = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(itemSql)) {
+                ps.setInt(1, orderId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        OrderItem item = new OrderItem();
+                        item.setProductName(rs.getString("product_name"));
+                        item.setQuantity(rs.getDouble("quantity"));
+                        item.setUnitPrice(rs.getDouble("unit_price"));
+                        item.setTotalPrice(rs.getDouble("total_price"));
+                        items.add(item);
+                    }
+                }
+            }
+
+            byte[] pdfBytes;
+            try (PreparedStatement ps = conn.prepareStatement(orderSql)) {
+                ps.setInt(1, orderId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next())
+                        throw new SQLException("Order #" + orderId + " not found.");
+                    Timestamp orderTime = rs.getTimestamp("order_time");
+                    pdfBytes = generateInvoicePDF(orderId,
+                            rs.getString("username"),
+                            rs.getString("delivery_address") + ", " + rs.getString("delivery_neighborhood"),
+                            rs.getString("phone_number"),
+                            orderTime != null ? orderTime.toLocalDateTime() : LocalDateTime.now(),
+                            rs.getDouble("subtotal"), rs.getDouble("vat_amount"), rs.getDouble("discount_amount"),
+                            rs.getDouble("loyalty_discount"), rs.getDouble("total_cost"), items);
+                }
+            }
+            if (pdfBytes.length == 0)
+                throw new SQLException("Invoice #" + orderId + " could not be rendered.");
+
+            try (PreparedStatement ps = conn.prepareStatement(storeSql)) {
+                ps.setBytes(1, pdfBytes);
+                ps.setInt(2, orderId);
+                ps.executeUpdate();
+            }
+            return pdfBytes;
+        }
+    }
+
+    /**
+     * Finds orders whose invoice has not been rendered yet, for the sweep of the
+     * {@link InvoiceWorker}: pending ones, and those claimed by a client that did
+     * not finish them in time.
+     *
+     * @param minAgeSeconds      Only pending orders placed at least this long ago.
+     * @param claimTimeoutSeconds Only claims at least this old.
+     * @param limit              The maximum number of orders.
+     * @return The order IDs, oldest first; empty if a database error occurs.
+     */
+    static List<Integer> getPendingInvoiceOrderIds(int minAgeSeconds, int claimTimeoutSeconds, int limit) {
+        String sql = "SELECT id FROM orders WHERE (invoice_status = 'pending' AND order_time < NOW() - INTERVAL ? SECOND) "
+                + "OR (invoice_status = 'rendering' AND invoice_claimed_at < NOW() - INTERVAL ? SECOND) "
+                + "ORDER BY id LIMIT ?";
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null)
+                return ids;
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, minAgeSeconds);
+                ps.setInt(2, claimTimeoutSeconds);
+                ps.setInt(3, limit);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next())
+                        ids.add(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return ids;
+    }
+
+    /**
+     * Claims the invoice of an order for rendering by this client. Only one client
+     * can claim a pending invoice; a claim older than the timeout can be taken over.
+     *
+     * @param orderId             The ID of the order.
+     * @param claimTimeoutSeconds Age after which another client's claim is taken over.
+     * @return true if this client now renders the invoice, false if it is ready,
+     *         failed, claimed by another client or a database error occurs.
+     */
+    static boolean claimInvoice(int orderId, int claimTimeoutSeconds) {
+        String sql = "UPDATE orders SET invoice_status = 'rendering', invoice_claimed_at = NOW() WHERE id = ? "
+                + "AND (invoice_status = 'pending' "
+                + "OR (invoice_status = 'rendering' AND invoice_claimed_at < NOW() - INTERVAL ? SECOND))";
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, orderId);
+            ps.setInt(2, claimTimeoutSeconds);
+            return ps.executeUpdate() == 1;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Marks an invoice as failed after the {@link InvoiceWorker} gave up on it.
+     *
+     * @param orderId The ID of the order.
+     */
+    static void markInvoiceFailed(int orderId) {
+        String sql = "UPDATE orders SET invoice_status = 'failed' WHERE id = ? AND invoice IS NULL";
+        try (Connection conn = DatabaseConnection.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, orderId);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Generates a PDF invoice for the order using the iText library.
      * The PDF is generated in memory as a byte array to be stored in the database.
      *
-     * @return byte array containing the PDF data.
+     * @return byte array containing the PDF data, or an empty array if rendering failed.
      */
-    private static byte[] generateInvoicePDF(int orderId, User user, double subtotal, double vat, double discount, double loyalty, double total, List<CartItem> items) {
+    private static byte[] generateInvoicePDF(int orderId, String customerName, String address, String phone,
+            LocalDateTime invoiceDate, double subtotal, double vat, double discount, double loyalty, double total,
+            List<OrderItem> items) {
         Document document = new Document();
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
         try {
@@ -836,7 +1323,7 @@ public class OrderDAO {
             infoTable.addCell(new Phrase("#" + orderId, normalFont));
 
             infoTable.addCell(new Phrase("Tarih:", normalFont));
-            infoTable.addCell(new Phrase(LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")), normalFont));
+            infoTable.addCell(new Phrase(invoiceDate.format(java.time.format.DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")), normalFont));
 
             cell = new PdfPCell(new Phrase("MÜŞTERİ BİLGİLERİ", headerFont));
             cell.setBackgroundColor(BaseColor.LIGHT_GRAY);
@@ -844,13 +1331,13 @@ public class OrderDAO {
             infoTable.addCell(cell);
 
             infoTable.addCell(new Phrase("Ad Soyad:", normalFont));
-            infoTable.addCell(new Phrase(user.getUsername(), normalFont));
+            infoTable.addCell(new Phrase(customerName, normalFont));
 
             infoTable.addCell(new Phrase("Adres:", normalFont));
-            infoTable.addCell(new Phrase(user.getAddress() + ", " + user.getNeighborhood(), normalFont));
+            infoTable.addCell(new Phrase(address, normalFont));
 
             infoTable.addCell(new Phrase("Telefon:", normalFont));
-            infoTable.addCell(new Phrase(user.getPhoneNumber(), normalFont));
+            infoTable.addCell(new Phrase(phone, normalFont));
 
             document.add(infoTable);
             document.add(new Paragraph(" "));
@@ -878,11 +1365,11 @@ public class OrderDAO {
             productTable.addCell(cell);
 
             boolean alternate = false;
-            for (CartItem item : items) {
+            for (OrderItem item : items) {
                 BaseColor rowColor = alternate ? BaseColor.WHITE : new BaseColor(245, 245, 245);
                 alternate = !alternate;
 
-                cell = new PdfPCell(new Phrase(item.getProduct().getName(), normalFont));
+                cell = new PdfPCell(new Phrase(item.getProductName(), normalFont));
                 cell.setBackgroundColor(rowColor);
                 productTable.addCell(cell);
 
@@ -890,7 +1377,7 @@ public class OrderDAO {
                 cell.setBackgroundColor(rowColor);
                 productTable.addCell(cell);
 
-                cell = new PdfPCell(new Phrase(String.format("%.2f TL", item.getProduct().getCurrentPrice()), normalFont));
+                cell = new PdfPCell(new Phrase(String.format("%.2f TL", item.getUnitPrice()), normalFont));
                 cell.setBackgroundColor(rowColor);
                 productTable.addCell(cell);
 
@@ -950,13 +1437,15 @@ public class OrderDAO {
             document.close();
         } catch (Exception e) {
             e.printStackTrace();
+            return new byte[0];
         }
         return baos.toByteArray();
     }
 
     /**
      * Cancels a pending order and restores the stock levels of the items.
-     * This is a transactional operation.
+     * This is a transactional operation; the restored stock levels are read back
+     * before the commit and reported to {@link ProductDAO} afterwards.
      *
      * @param orderId The ID of the order to cancel.
      * @return true if successfully canceled, false if order is not pending or error.
@@ -969,6 +1458,8 @@ public class OrderDAO {
         Connection conn = null;
         PreparedStatement psStatus = null, psItems = null, psStock = null;
         ResultSet rs = null;
+        Map<Integer, Double> restocked = new HashMap<>();
+        List<Integer> productIds = new ArrayList<>();
 
         try {
             conn = DatabaseConnection.getConnection();
@@ -993,10 +1484,25 @@ public class OrderDAO {
                 psStock.setDouble(1, quantity);
                 psStock.setInt(2, productId);
                 psStock.executeUpdate();
+                if (!productIds.contains(productId))
+                    productIds.add(productId);
+            }
+
+            // The updates hold the row locks, so this is the stock the commit leaves
+            if (!productIds.isEmpty()) {
+                String readStockSql = "SELECT id, stock FROM products WHERE id IN ("
+                        + "?,".repeat(productIds.size() - 1) + "?)";
+                try (PreparedStatement psRead = conn.prepareStatement(readStockSql)) {
+                    for (int i = 0; i < productIds.size(); i++)
+                        psRead.setInt(i + 1, productIds.get(i));
+                    try (ResultSet stock = psRead.executeQuery()) {
+                        while (stock.next())
+                            restocked.put(stock.getInt("id"), stock.getDouble("stock"));
+                    }
+                }
             }
 
             conn.commit();
-            return true;
         } catch (SQLException e) {
             try {
                 if (conn != null) conn.rollback();
@@ -1012,6 +1518,8 @@ public class OrderDAO {
                 if (conn != null) conn.close();
             } catch (SQLException ignored) {}
         }
+        ProductDAO.stockChanged(restocked);
+        return true;
     }
 
     public static boolean rateOrder(int orderId, int rating) {
@@ -1041,6 +1549,13 @@ public class OrderDAO {
 
     /**
      * Retrieves the stored PDF invoice BLOB for a specific order.
+     * <p>
+     * If the background worker has not stored the invoice yet (or gave up on it),
+     * the invoice is rendered and stored on demand.
+     * </p>
+     *
+     * @return The PDF bytes, or {@code null} if the order does not exist or the
+     *         invoice cannot be rendered.
      */
     public static byte[] getInvoicePDF(int orderId) {
         String sql = "SELECT invoice FROM orders WHERE id = ?";
@@ -1048,14 +1563,23 @@ public class OrderDAO {
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, orderId);
             try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getBytes("invoice");
-                }
+                if (!rs.next())
+                    return null;
+                byte[] invoice = rs.getBytes("invoice");
+                if (invoice != null)
+                    return invoice;
             }
         } catch (SQLException e) {
             e.printStackTrace();
+            return null;
+        }
+
+        try {
+            return renderAndStoreInvoice(orderId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
         }
-        return null;
     }
 
     /**
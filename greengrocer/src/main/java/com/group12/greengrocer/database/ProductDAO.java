@@ -1,17 +1,32 @@
 package com.group12.greengrocer.database;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.sql.Blob;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import com.group12.greengrocer.models.Product;
+import com.group12.greengrocer.utils.ProductImageProcessor;
 
 /**
  * Data Access Object (DAO) for managing {@link Product} entities.
@@ -20,49 +35,605 @@ import com.group12.greengrocer.models.Product;
  * operations on the 'products' table in the database, including handling
  * binary image data.
  * </p>
+ * <p>
+ * Uploaded images are stored as the original plus a thumbnail and a card-sized
+ * variant (see {@link ProductImageProcessor}); list views read the small variants.
+ * </p>
+ * <p>
+ * Successful writes are reported to the registered change listeners (see
+ * {@link #addChangeListener(Consumer)}), so in-memory copies of the catalog can
+ * follow them without reloading it.
+ * </p>
+ * <p>
+ * The active catalog itself is cached process-wide as an immutable snapshot,
+ * shared by all screens:
+ * </p>
+ * <ul>
+ * <li><b>Versioned:</b> every product write, including the stock changes of
+ * {@link OrderDAO} checkouts and cancellations, increments a version counter. A
+ * snapshot is only served while it matches the current version, so a missed or
+ * failed update can never leave an outdated copy in use.</li>
+ * <li><b>Patched:</b> after a write, the changed products are replaced in a new
+ * snapshot instead of reloading the catalog. Checkouts and cancellations pass the
+ * stock changes along, so nothing is read again; other writes re-read their rows.
+ * New and renamed products make the next reader load the catalog again, so the
+ * order always is the one of {@code ORDER BY name}.</li>
+ * <li><b>Fresh across processes:</b> other clients write to the same database.
+ * At most every {@link #FRESHNESS_CHECK_MILLIS} ms a reader re-reads the products
+ * whose {@code updated_at} changed since the last check, patches them in and
+ * reports them to the listeners as {@link ChangeType#UPDATED}.</li>
+ * <li><b>Copied:</b> the cached products are never handed out; every read returns
+ * copies, which callers may change freely.</li>
+ * <li><b>Non-blocking:</b> readers and writers only swap references; nobody waits
+ * for a lock. Concurrent writes at worst drop the cache, and the next reader loads
+ * it again.</li>
+ * </ul>
+ * <p>
+ * The cache keeps the database's collation of {@code products.name}
+ * (case- and accent-insensitive). Screens that sort by name themselves, like
+ * {@code CatalogViewModel}, may order some names differently.
+ * </p>
  */
 public class ProductDAO {
 
     /**
-     * Retrieves a list of all active products from the database.
+     * The stored sizes of a product image.
+     */
+    public enum ImageVariant {
+        /** Small variant for cart rows and order details. */
+        THUMBNAIL("thumbnail"),
+        /** Medium variant for the customer product grid. */
+        CARD("card_image"),
+        /** The image as uploaded. */
+        ORIGINAL("image");
+
+        private final String column;
+
+        ImageVariant(String column) {
+            this.column = column;
+        }
+
+        /**
+         * Picks the smallest variant that covers the given display size.
+         *
+         * @param width  The display width in pixels.
+         * @param height The display height in pixels.
+         * @return The matching variant.
+         */
+        public static ImageVariant forSize(double width, double height) {
+            if (width <= ProductImageProcessor.THUMBNAIL_SIZE && height <= ProductImageProcessor.THUMBNAIL_SIZE)
+                return THUMBNAIL;
+            if (width <= ProductImageProcessor.CARD_WIDTH && height <= ProductImageProcessor.CARD_HEIGHT)
+                return CARD;
+            return ORIGINAL;
+        }
+    }
+
+    /**
+     * Kinds of product changes reported to change listeners.
+     */
+    public enum ChangeType {
+        /** A product was inserted. */
+        ADDED,
+        /** Details, price, stock or image of a product changed. */
+        UPDATED,
+        /** Only the stock changed, by a checkout or a cancellation. */
+        STOCK,
+        /** A product was (soft) deleted. */
+        DELETED
+    }
+
+    /**
+     * A successful write to some products, e.g. all products of one checkout.
+     *
+     * @param type       What happened to the products.
+     * @param productIds The products, each listed once.
+     */
+    public record ProductChange(ChangeType type, List<Integer> productIds) {
+    }
+
+    private static final List<Consumer<ProductChange>> changeListeners = new CopyOnWriteArrayList<>();
+
+    /** How long the cached catalog is served before it is checked for writes of other clients. */
+    public static final long FRESHNESS_CHECK_MILLIS = 2_000;
+
+    /** Re-read window before the last check, for transactions that committed late. */
+    private static final int OVERLAP_SECONDS = 60;
+
+    /**
+     * An immutable copy of the active catalog. Its products are never handed out or
+     * changed; patches replace them in a new copy.
+     */
+    private static final class CatalogSnapshot {
+        /** The active products in the order of {@code ORDER BY name}. */
+        final Product[] products;
+        /** The position of each product in {@link #products}. */
+        final Map<Integer, Integer> indexById;
+        /** The write count the copy is current for. */
+        final long version;
+        /** Database time of the last load or check; later writes of other clients are missing. */
+        final Timestamp checkedUpTo;
+        /** {@link System#nanoTime()} of the last load or check. */
+        final long checkedAt;
+
+        private CatalogSnapshot(Product[] products, Map<Integer, Integer> indexById, long version,
+                Timestamp checkedUpTo, long checkedAt) {
+            this.products = products;
+            this.indexById = indexById;
+            this.version = version;
+            this.checkedUpTo = checkedUpTo;
+            this.checkedAt = checkedAt;
+        }
+
+        static CatalogSnapshot of(List<Product> products, long version, Timestamp checkedUpTo, long checkedAt) {
+            Map<Integer, Integer> indexById = new HashMap<>();
+            for (int i = 0; i < products.size(); i++)
+                indexById.put(products.get(i).getId(), i);
+            return new CatalogSnapshot(products.toArray(new Product[0]), Map.copyOf(indexById), version,
+                    checkedUpTo, checkedAt);
+        }
+
+        /** Returns the cached product, or {@code null} if it is not in the catalog. */
+        Product get(int productId) {
+            Integer index = indexById.get(productId);
+            return index == null ? null : products[index];
+        }
+
+        /**
+         * Returns a copy with some products replaced in place. Their names must not
+         * have changed, so the order and the index stay valid and are shared.
+         */
+        CatalogSnapshot with(Collection<Product> replaced, long version, Timestamp checkedUpTo, long checkedAt) {
+            Product[] patched = products.clone();
+            for (Product p : replaced)
+                patched[indexById.get(p.getId())] = p;
+            return new CatalogSnapshot(patched, indexById, version, checkedUpTo, checkedAt);
+        }
+
+        /** Returns a copy without some products. */
+        CatalogSnapshot without(Collection<Integer> productIds, long version) {
+            List<Product> kept = new ArrayList<>(products.length);
+            for (Product p : products) {
+                if (!productIds.contains(p.getId()))
+                    kept.add(p);
+            }
+            return of(kept, version, checkedUpTo, checkedAt);
+        }
+    }
+
+    /** Number of product writes so far; a cached catalog is valid for one value. */
+    private static final AtomicLong catalogVersion = new AtomicLong();
+
+    private static final AtomicReference<CatalogSnapshot> catalogCache = new AtomicReference<>();
+
+    /** Set while a reader checks the cache, so concurrent readers do not repeat the check. */
+    private static final AtomicBoolean checkingFreshness = new AtomicBoolean();
+
+    /**
+     * An uploaded image ready to be written: original bytes, hash and variants.
+     */
+    private record StoredImage(byte[] bytes, String hash, ProductImageProcessor.Variants variants) {
+    }
+
+    /**
+     * The catalog projection. Deliberately excludes the {@code image} BLOB; only a
+     * NULL check is made so the UI knows whether an image can be fetched.
+     */
+    private static final String CATALOG_COLUMNS =
+            "id, name, type, price, stock, threshold, image_type, image_version, is_active, "
+            + "(image IS NOT NULL) AS has_image";
+
+    /**
+     * Retrieves a list of all active products.
      * <p>
-     * This method queries for products where {@code is_active} is TRUE,
-     * orders them alphabetically by name, and converts the Blob image data
-     * into byte arrays for the Product model.
+     * The list holds the products where {@code is_active} is TRUE, ordered by name
+     * in the database's collation, and is copied from the shared catalog cache.
+     * Image data is <b>not</b> loaded; use {@link #getProductImage(int)} when an
+     * image is actually displayed.
      * </p>
      *
-     * @return A {@link List} of {@link Product} objects. Returns an empty list
-     *         if no products are found or if a database error occurs.
+     * @return A new {@link List} of {@link Product} copies. Returns an empty list if
+     *         no products are found or if a database error occurs.
      */
     public static List<Product> getAllProducts() {
+        Product[] products = getCatalog().products;
+        List<Product> copies = new ArrayList<>(products.length);
+        for (Product p : products)
+            copies.add(new Product(p));
+        return copies;
+    }
+
+    /**
+     * Returns the cached catalog, loading it first if there is none for the current
+     * version, or checking it for writes of other clients once it is older than
+     * {@link #FRESHNESS_CHECK_MILLIS}.
+     *
+     * @return The active catalog; empty (and not cached) if a database error occurs.
+     */
+    private static CatalogSnapshot getCatalog() {
+        // Read before loading: a write during the load makes the loaded copy outdated
+        long version = catalogVersion.get();
+        CatalogSnapshot cached = catalogCache.get();
+        if (cached != null && cached.version == version) {
+            if (System.nanoTime() - cached.checkedAt < FRESHNESS_CHECK_MILLIS * 1_000_000L
+                    || !checkingFreshness.compareAndSet(false, true))
+                return cached;
+            try {
+                return checkForWrites(cached);
+            } finally {
+                checkingFreshness.set(false);
+            }
+        }
+        CatalogSnapshot loaded = loadCatalog(version);
+        return loaded != null ? loaded : CatalogSnapshot.of(List.of(), version, null, 0);
+    }
+
+    /**
+     * Loads the active catalog and caches it, unless a newer copy was cached meanwhile.
+     *
+     * @param version The current write count, read before the load.
+     * @return The loaded catalog, or {@code null} if a database error occurs.
+     */
+    private static CatalogSnapshot loadCatalog(long version) {
+        String sql = "SELECT " + CATALOG_COLUMNS + " FROM products WHERE is_active = TRUE ORDER BY name ASC";
         List<Product> products = new ArrayList<>();
-        String sql = "SELECT * FROM products WHERE is_active = TRUE ORDER BY name ASC";
+        Timestamp loadedAt;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            loadedAt = queryNow(conn);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    products.add(mapCatalogRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        CatalogSnapshot loaded = CatalogSnapshot.of(products, version, loadedAt, System.nanoTime());
+        // A concurrent reader or writer may have installed a newer copy meanwhile
+        catalogCache.accumulateAndGet(loaded, (current, next) ->
+                current == null || current.version <= next.version ? next : current);
+        return loaded;
+    }
+
+    /**
+     * Re-reads the products written since the last check, by this or any other
+     * client, and patches those that differ from the cache into a new copy. New,
+     * deactivated and renamed products change the order, so the catalog is loaded
+     * again instead. The differing products are then reported to the listeners as
+     * {@link ChangeType#UPDATED}; they find deactivated products missing.
+     *
+     * @param cached The current cache.
+     * @return The checked catalog; the given one if the check fails.
+     */
+    private static CatalogSnapshot checkForWrites(CatalogSnapshot cached) {
+        String sql = "SELECT " + CATALOG_COLUMNS + " FROM products WHERE updated_at >= ?";
+        List<Product> written = new ArrayList<>();
+        Timestamp checkedUpTo;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            checkedUpTo = queryNow(conn);
+            ps.setTimestamp(1, new Timestamp(cached.checkedUpTo.getTime() - OVERLAP_SECONDS * 1000L));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    written.add(mapCatalogRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return cached; // the next reader checks again
+        }
+
+        List<Product> replaced = new ArrayList<>();
+        List<Integer> changedIds = new ArrayList<>();
+        boolean reload = false;
+        for (Product row : written) {
+            Product old = cached.get(row.getId());
+            if (old == null ? !row.isActive() : sameValues(old, row))
+                continue;
+            changedIds.add(row.getId());
+            if (old == null || !row.isActive() || !old.getName().equals(row.getName()))
+                reload = true;
+            else
+                replaced.add(row);
+        }
+
+        CatalogSnapshot checked;
+        if (reload) {
+            checked = loadCatalog(cached.version);
+            if (checked == null)
+                return cached;
+        } else {
+            checked = cached.with(replaced, cached.version, checkedUpTo, System.nanoTime());
+            if (!catalogCache.compareAndSet(cached, checked))
+                return checked; // a write came first; the next check reports the rows
+        }
+        if (!changedIds.isEmpty())
+            notifyListeners(new ProductChange(ChangeType.UPDATED, List.copyOf(changedIds)));
+        return checked;
+    }
+
+    /**
+     * Checks whether two rows of the same product hold the same catalog values.
+     */
+    private static boolean sameValues(Product a, Product b) {
+        return a.getName().equals(b.getName())
+                && a.isActive() == b.isActive()
+                && Objects.equals(a.getType(), b.getType())
+                && a.getPrice() == b.getPrice()
+                && a.getStock() == b.getStock()
+                && a.getThreshold() == b.getThreshold()
+                && Objects.equals(a.getImageType(), b.getImageType())
+                && a.getImageVersion() == b.getImageVersion()
+                && a.hasImage() == b.hasImage();
+    }
+
+    /**
+     * Returns the cached catalog if it is current, without checking it for writes
+     * of other clients.
+     *
+     * @return The snapshot, or {@code null} if it must be loaded first.
+     */
+    private static CatalogSnapshot currentCatalog() {
+        CatalogSnapshot cached = catalogCache.get();
+        return cached != null && cached.version == catalogVersion.get() ? cached : null;
+    }
+
+    /**
+     * Retrieves a single active product, without its image data.
+     *
+     * @param productId The unique ID of the product.
+     * @return A copy of the product, or {@code null} if it does not exist, is
+     *         inactive or a database error occurs.
+     */
+    public static Product getProductById(int productId) {
+        CatalogSnapshot cached = currentCatalog();
+        if (cached != null) {
+            Product p = cached.get(productId);
+            return p == null ? null : new Product(p);
+        }
+
+        String sql = "SELECT " + CATALOG_COLUMNS + " FROM products WHERE id = ? AND is_active = TRUE";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, productId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return mapCatalogRow(rs);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Reads the current rows of some products.
+     *
+     * @return The active ones among them by ID, or {@code null} if a database error occurs.
+     */
+    private static Map<Integer, Product> getProductsById(Collection<Integer> productIds) {
+        String sql = "SELECT " + CATALOG_COLUMNS + " FROM products WHERE is_active = TRUE AND id IN ("
+                + String.join(", ", Collections.nCopies(productIds.size(), "?")) + ")";
+
+        Map<Integer, Product> products = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (int id : productIds)
+                ps.setInt(index++, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Product p = mapCatalogRow(rs);
+                    products.put(p.getId(), p);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return products;
+    }
+
+    /**
+     * Registers a listener for product changes: those made through this class and
+     * through the orders of {@link OrderDAO}, called on the writing thread after the
+     * change was committed, its connection returned to the pool and the catalog
+     * cache patched; and those of other clients, called on the reading thread that
+     * found them in a freshness check.
+     *
+     * @param listener The listener.
+     */
+    public static void addChangeListener(Consumer<ProductChange> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener registered with {@link #addChangeListener(Consumer)}.
+     *
+     * @param listener The listener.
+     */
+    public static void removeChangeListener(Consumer<ProductChange> listener) {
+        changeListeners.remove(listener);
+    }
+
+    /**
+     * Reports a product change to the catalog cache and the listeners.
+     */
+    static void fireChange(ChangeType type, int productId) {
+        fireChanges(type, List.of(productId));
+    }
+
+    /**
+     * Reports a committed write to some products: the catalog cache is patched, then
+     * the listeners get one change for all of them.
+     *
+     * @param type       What happened to the products.
+     * @param productIds The products written.
+     */
+    static void fireChanges(ChangeType type, Collection<Integer> productIds) {
+        if (productIds.isEmpty())
+            return;
+        List<Integer> ids = List.copyOf(new LinkedHashSet<>(productIds));
+        patchCatalog(type, ids);
+        notifyListeners(new ProductChange(type, ids));
+    }
+
+    /**
+     * Reports the committed stock levels of a checkout or a cancellation. The
+     * catalog cache is patched with the given values, without reading the products
+     * again, and the listeners get one {@link ChangeType#STOCK} change.
+     * <p>
+     * The values are the stock as the transaction left it, so patching a copy that
+     * a freshness check already updated changes nothing. If two writes to the same
+     * product report in the opposite order of their commits, the older value wins
+     * until the next check reads the row again.
+     * </p>
+     *
+     * @param stock The new stock per product.
+     */
+    static void stockChanged(Map<Integer, Double> stock) {
+        if (stock.isEmpty())
+            return;
+        long version = catalogVersion.incrementAndGet();
+        CatalogSnapshot cached = catalogCache.get();
+        if (cached != null && cached.version == version - 1) {
+            List<Product> replaced = new ArrayList<>(stock.size());
+            stock.forEach((id, value) -> {
+                Product old = cached.get(id);
+                if (old != null) {
+                    Product p = new Product(old);
+                    // Stock is stored with two decimals
+                    p.setStock(Math.round(value * 100) / 100.0);
+                    replaced.add(p);
+                }
+            });
+            catalogCache.compareAndSet(cached, cached.with(replaced, version, cached.checkedUpTo, cached.checkedAt));
+        }
+        notifyListeners(new ProductChange(ChangeType.STOCK, List.copyOf(stock.keySet())));
+    }
+
+    /**
+     * Passes a change to the listeners. A failing listener does not affect the
+     * others or the write.
+     */
+    private static void notifyListeners(ProductChange change) {
+        for (Consumer<ProductChange> listener : changeListeners) {
+            try {
+                listener.accept(change);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Moves the catalog cache to the next version. If it was current until this
+     * write, the written rows are read again and replaced in place; deleted products
+     * are dropped. New, deactivated or renamed products, a failed read or another
+     * write coming first just leave the cache outdated, and the next reader loads it
+     * in database order. The rows are read after the commit, so a patch never holds
+     * older values than the write it follows.
+     */
+    private static void patchCatalog(ChangeType type, List<Integer> productIds) {
+        long version = catalogVersion.incrementAndGet();
+        CatalogSnapshot cached = catalogCache.get();
+        if (cached == null || cached.version != version - 1)
+            return;
+        if (type == ChangeType.DELETED) {
+            catalogCache.compareAndSet(cached, cached.without(new HashSet<>(productIds), version));
+            return;
+        }
+        Map<Integer, Product> current = getProductsById(productIds);
+        if (current == null)
+            return;
+        for (int id : productIds) {
+            Product old = cached.get(id);
+            Product now = current.get(id);
+            if (old == null || now == null || !old.getName().equals(now.getName()))
+                return;
+        }
+        catalogCache.compareAndSet(cached, cached.with(current.values(), version, cached.checkedUpTo, cached.checkedAt));
+    }
+
+    /**
+     * Counts the active products, from the catalog cache if it is current and
+     * otherwise without loading them.
+     *
+     * @return The number of active products, or 0 if a database error occurs.
+     */
+    public static int getProductCount() {
+        CatalogSnapshot cached = currentCatalog();
+        if (cached != null)
+            return cached.products.length;
+
+        String sql = "SELECT COUNT(*) FROM products WHERE is_active = TRUE";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                Product p = new Product();
-                p.setId(rs.getInt("id"));
-                p.setName(rs.getString("name"));
-                p.setType(rs.getString("type"));
-                p.setPrice(rs.getDouble("price"));
-                p.setStock(rs.getDouble("stock"));
-                p.setThreshold(rs.getDouble("threshold"));
-
-                Blob blob = rs.getBlob("image");
-                if (blob != null) {
-                    p.setImage(blob.getBytes(1, (int) blob.length()));
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Fetches the original image of a single product.
+     *
+     * @param productId The unique ID of the product.
+     * @return The image bytes, or {@code null} if the product has no image or a
+     *         database error occurs.
+     */
+    public static byte[] getProductImage(int productId) {
+        return getProductImage(productId, ImageVariant.ORIGINAL);
+    }
+
+    /**
+     * Fetches one variant of a product image.
+     * <p>
+     * Products uploaded before variants existed have no thumbnail or card image;
+     * for them the original is returned instead.
+     * </p>
+     *
+     * @param productId The unique ID of the product.
+     * @param variant   The requested size.
+     * @return The image bytes, or {@code null} if the product has no image or a
+     *         database error occurs.
+     */
+    public static byte[] getProductImage(int productId, ImageVariant variant) {
+        String sql = "SELECT COALESCE(" + variant.column + ", image) AS image FROM products WHERE id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, productId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    Blob blob = rs.getBlob("image");
+                    if (blob != null) {
+                        return blob.getBytes(1, (int) blob.length());
+                    }
                 }
-                products.add(p);
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return products;
+        return null;
     }
 
+
     /**
      * Checks if a product with the specific name and type already exists.
      * <p>
@@ -116,32 +687,36 @@ public class ProductDAO {
         if (productExists(name, type)) {
             return false;
         }
-        String sql = "INSERT INTO products (name, type, price, stock, threshold, image, image_type) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO products (name, type, price, stock, threshold, image, image_type, image_hash, "
+                + "thumbnail, card_image) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        int productId;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            StoredImage image = imageFile != null ? prepareImage(conn, imageFile) : null;
 
-            ps.setString(1, name);
-            ps.setString(2, type);
-            ps.setDouble(3, price);
-            ps.setDouble(4, stock);
-            ps.setDouble(5, threshold);
-
-            if (imageFile != null) {
-                FileInputStream fis = new FileInputStream(imageFile);
-                ps.setBinaryStream(6, fis, (int) imageFile.length());
-                ps.setString(7, getFileExtension(imageFile.getName()));
-            } else {
-                ps.setNull(6, java.sql.Types.BLOB);
-                ps.setNull(7, java.sql.Types.VARCHAR);
-            }
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, name);
+                ps.setString(2, type);
+                ps.setDouble(3, price);
+                ps.setDouble(4, stock);
+                ps.setDouble(5, threshold);
+                setImageParameters(ps, 6, image);
 
-            return ps.executeUpdate() > 0;
+                if (ps.executeUpdate() == 0)
+                    return false;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    productId = keys.next() ? keys.getInt(1) : 0;
+                }
+            }
 
-        } catch (SQLException | FileNotFoundException e) {
+        } catch (SQLException | IOException e) {
             e.printStackTrace();
             return false;
         }
+        // Listeners may query the database, so they run after the connection is returned
+        if (productId > 0)
+            fireChange(ChangeType.ADDED, productId);
+        return true;
     }
 
     /**
@@ -160,12 +735,15 @@ public class ProductDAO {
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, productId);
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0)
+                return false;
 
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
+        fireChange(ChangeType.DELETED, productId);
+        return true;
     }
 
     /**
@@ -183,18 +761,23 @@ public class ProductDAO {
             ps.setDouble(1, price);
             ps.setDouble(2, stock);
             ps.setInt(3, id);
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() == 0)
+                return false;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
+        fireChange(ChangeType.UPDATED, id);
+        return true;
     }
 
     /**
      * Updates all details of an existing product.
      * <p>
      * This method dynamically constructs the SQL query. If {@code imageFile} is provided,
-     * the image BLOB is updated; otherwise, the existing image remains unchanged.
+     * the image BLOB, its type and its variants are updated and {@code image_version}
+     * is incremented so that cached copies are refreshed. If no file is provided, or
+     * the file is identical to the stored image, the existing image remains unchanged.
      * </p>
      *
      * @param id        The unique ID of the product to update.
@@ -207,34 +790,159 @@ public class ProductDAO {
      * @return {@code true} if the update was successful; {@code false} otherwise.
      */
     public static boolean updateProduct(int id, String name, String type, double price, double stock, double threshold, File imageFile) {
-        String sql;
-        if (imageFile != null) {
-            sql = "UPDATE products SET name = ?, type = ?, price = ?, stock = ?, threshold = ?, image = ? WHERE id = ?";
-        } else {
-            sql = "UPDATE products SET name = ?, type = ?, price = ?, stock = ?, threshold = ? WHERE id = ?";
-        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            StoredImage image = imageFile != null ? prepareImage(conn, imageFile) : null;
+            if (image != null && image.hash().equals(getImageHash(conn, id))) {
+                image = null; // Same file uploaded again, keep the stored image and its version
+            }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, name);
-            ps.setString(2, type);
-            ps.setDouble(3, price);
-            ps.setDouble(4, stock);
-            ps.setDouble(5, threshold);
-
-            if (imageFile != null) {
-                FileInputStream fis = new FileInputStream(imageFile);
-                ps.setBinaryStream(6, fis, (int) imageFile.length());
-                ps.setInt(7, id);
+            String sql;
+            if (image != null) {
+                sql = "UPDATE products SET name = ?, type = ?, price = ?, stock = ?, threshold = ?, image = ?, "
+                        + "image_type = ?, image_hash = ?, thumbnail = ?, card_image = ?, "
+                        + "image_version = image_version + 1 WHERE id = ?";
             } else {
-                ps.setInt(6, id);
+                sql = "UPDATE products SET name = ?, type = ?, price = ?, stock = ?, threshold = ? WHERE id = ?";
             }
 
-            return ps.executeUpdate() > 0;
-        } catch (SQLException | FileNotFoundException e) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, name);
+                ps.setString(2, type);
+                ps.setDouble(3, price);
+                ps.setDouble(4, stock);
+                ps.setDouble(5, threshold);
+
+                if (image != null) {
+                    setImageParameters(ps, 6, image);
+                    ps.setInt(11, id);
+                } else {
+                    ps.setInt(6, id);
+                }
+
+                if (ps.executeUpdate() == 0)
+                    return false;
+            }
+        } catch (SQLException | IOException e) {
             e.printStackTrace();
             return false;
         }
+        fireChange(ChangeType.UPDATED, id);
+        return true;
+    }
+
+    /**
+     * Reads an uploaded image file and resolves its variants.
+     * <p>
+     * Variants are reused when an image with the same hash was processed earlier in
+     * this session or is already stored for any product; otherwise they are generated.
+     * </p>
+     *
+     * @param conn      An open connection.
+     * @param imageFile The uploaded file.
+     * @return The image with its hash and variants.
+     * @throws IOException  If the file cannot be read.
+     * @throws SQLException If the lookup of stored variants fails.
+     */
+    private static StoredImage prepareImage(Connection conn, File imageFile) throws IOException, SQLException {
+        byte[] bytes = Files.readAllBytes(imageFile.toPath());
+        String hash = ProductImageProcessor.hash(bytes);
+
+        ProductImageProcessor.Variants variants = ProductImageProcessor.getRecent(hash);
+        if (variants == null) {
+            variants = findVariantsByHash(conn, hash);
+            if (variants != null)
+                ProductImageProcessor.remember(hash, variants);
+        }
+        if (variants == null) {
+            variants = ProductImageProcessor.getVariants(hash, bytes, getFileExtension(imageFile.getName()));
+        }
+        return new StoredImage(bytes, hash, variants);
+    }
+
+    /**
+     * Looks up the variants already stored for an image with the given hash.
+     *
+     * @return The stored {@link ProductImageProcessor.Variants}, or {@code null}.
+     */
+    private static ProductImageProcessor.Variants findVariantsByHash(Connection conn, String hash) throws SQLException {
+        String sql = "SELECT image_type, thumbnail, card_image FROM products "
+                + "WHERE image_hash = ? AND thumbnail IS NOT NULL AND card_image IS NOT NULL LIMIT 1";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, hash);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new ProductImageProcessor.Variants(
+                            rs.getString("image_type"), rs.getBytes("thumbnail"), rs.getBytes("card_image"));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the hash of the image currently stored for a product.
+     *
+     * @return The hash, or {@code null} if the product has no (hashed) image.
+     */
+    private static String getImageHash(Connection conn, int productId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT image_hash FROM products WHERE id = ?")) {
+            ps.setInt(1, productId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString("image_hash") : null;
+            }
+        }
+    }
+
+    /**
+     * Sets the five image parameters (image, image_type, image_hash, thumbnail,
+     * card_image) starting at {@code index}, or NULLs if there is no image.
+     */
+    private static void setImageParameters(PreparedStatement ps, int index, StoredImage image) throws SQLException {
+        if (image == null) {
+            ps.setNull(index, java.sql.Types.BLOB);
+            ps.setNull(index + 1, java.sql.Types.VARCHAR);
+            ps.setNull(index + 2, java.sql.Types.CHAR);
+            ps.setNull(index + 3, java.sql.Types.BLOB);
+            ps.setNull(index + 4, java.sql.Types.BLOB);
+            return;
+        }
+        ps.setBytes(index, image.bytes());
+        ps.setString(index + 1, image.variants().imageType());
+        ps.setString(index + 2, image.hash());
+        ps.setBytes(index + 3, image.variants().thumbnail());
+        ps.setBytes(index + 4, image.variants().card());
+    }
+
+    /**
+     * Reads the database time, the watermark of a catalog load or check.
+     */
+    private static Timestamp queryNow(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT NOW()"); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1);
+        }
+    }
+
+    /**
+     * Maps a row of the catalog projection to a {@link Product} without image bytes.
+     *
+     * @param rs The result set positioned at a catalog row.
+     * @return The mapped product.
+     * @throws SQLException If a column cannot be read.
+     */
+    private static Product mapCatalogRow(ResultSet rs) throws SQLException {
+        Product p = new Product();
+        p.setId(rs.getInt("id"));
+        p.setName(rs.getString("name"));
+        p.setType(rs.getString("type"));
+        p.setPrice(rs.getDouble("price"));
+        p.setStock(rs.getDouble("stock"));
+        p.setThreshold(rs.getDouble("threshold"));
+        p.setImageType(rs.getString("image_type"));
+        p.setImageVersion(rs.getInt("image_version"));
+        p.setActive(rs.getBoolean("is_active"));
+        p.setHasImage(rs.getBoolean("has_image"));
+        return p;
     }
 
     /**
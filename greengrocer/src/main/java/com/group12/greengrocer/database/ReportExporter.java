@@ -0,0 +1,386 @@
+package com.group12.greengrocer.database;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+
+/**
+ * Exports order lines of a date range to CSV or PDF without holding them in
+ * memory.
+ * <p>
+ * Rows are read through a forward-only server-side cursor in batches of
+ * {@link #FETCH_SIZE} (see {@link DatabaseConfig#USE_CURSOR_FETCH}) and written to
+ * disk as they arrive:
+ * </p>
+ * <ul>
+ * <li><b>CSV:</b> UTF-8 with a byte order mark, so spreadsheet programs show
+ * Turkish characters correctly.</li>
+ * <li><b>PDF:</b> a landscape table that iText flushes to the file every
+ * {@link #PDF_FLUSH_ROWS} rows, with the header repeated on every page.</li>
+ * </ul>
+ * <p>
+ * Memory use therefore does not depend on the number of rows. The file is written
+ * next to the target and only moved into place when the export completes, so a
+ * cancelled or failed export leaves no partial file behind. A {@link Cancellation}
+ * also stops the query on the server, which matters while it is still executing.
+ * </p>
+ */
+public class ReportExporter {
+
+    /** Rows fetched from the server per round trip. */
+    public static final int FETCH_SIZE = 1000;
+
+    /** PDF table rows buffered before they are written to the file. */
+    static final int PDF_FLUSH_ROWS = 200;
+
+    /** Output formats. */
+    public enum Format {
+        CSV, PDF;
+
+        /**
+         * @return The file extension, e.g. {@code "csv"}.
+         */
+        public String extension() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Receives progress while an export runs, on the exporting thread.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        /**
+         * @param rows     Rows written so far.
+         * @param fraction Estimated share of the date range done, from 0 to 1.
+         */
+        void progress(long rows, double fraction);
+    }
+
+    private static final String[] COLUMNS = { "Order ID", "Order Time", "Customer", "Neighborhood", "Carrier",
+            "Status", "Product", "Quantity (kg)", "Unit Price", "Line Total", "Order Total" };
+
+    private static final float[] PDF_WIDTHS = { 5, 10, 9, 8, 8, 7, 9, 6, 6, 6, 6 };
+
+    // Names as subqueries, so the optimizer reads orders in order_time order through
+    // idx_order_time instead of starting from the small users table. Sorting only by
+    // columns of that index avoids a filesort of the whole range; the items of an
+    // order are joined right after it, in the order of their order_id index.
+    private static final String ORDER_LINES_SQL = "SELECT o.id, o.order_time, "
+            + "(SELECT u.username FROM users u WHERE u.id = o.user_id), o.delivery_neighborhood, "
+            + "(SELECT u.username FROM users u WHERE u.id = o.carrier_id), o.status, "
+            + "oi.product_name, oi.quantity, oi.unit_price, oi.total_price, o.total_cost "
+            + "FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id "
+            + "WHERE o.order_time >= ? AND o.order_time < ? ORDER BY o.order_time, o.id";
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    /**
+     * Writes every order line placed between two days (inclusive) to a file.
+     * Orders without items are written as one row with empty item columns.
+     *
+     * @param from      The first day.
+     * @param to        The last day.
+     * @param format    The output format.
+     * @param file      The target file; replaced if it exists.
+     * @param progress     Receives progress after every {@link #FETCH_SIZE} rows and at the end.
+     * @param cancellation Checked for every row; cancelling it also stops the running query.
+     * @return The number of rows written.
+     * @throws CancellationException If the export was cancelled.
+     * @throws SQLException          If reading fails or the database is unreachable.
+     * @throws IOException           If writing fails.
+     */
+    public static long exportOrderLines(LocalDate from, LocalDate to, Format format, File file,
+            ProgressListener progress, Cancellation cancellation) throws SQLException, IOException {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        double span = Math.max(1, Timestamp.valueOf(end).getTime() - Timestamp.valueOf(start).getTime());
+
+        Path target = file.toPath();
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        boolean completed = false;
+        long rows = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null)
+                throw new SQLException("Database is unreachable");
+            try (PreparedStatement ps = conn.prepareStatement(ORDER_LINES_SQL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setTimestamp(1, Timestamp.valueOf(start));
+                ps.setTimestamp(2, Timestamp.valueOf(end));
+                cancellation.attach(ps);
+                try {
+                    rows = writeRows(ps, format, partial, "Order Lines " + from + " - " + to, start, span, progress,
+                            cancellation);
+                } catch (SQLException e) {
+                    if (cancellation.isCancelled())
+                        throw new CancellationException("Export cancelled");
+                    throw e;
+                } finally {
+                    cancellation.detach();
+                }
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            completed = true;
+            progress.progress(rows, 1.0);
+            return rows;
+        } finally {
+            if (!completed)
+                Files.deleteIfExists(partial);
+        }
+    }
+
+    private static long writeRows(PreparedStatement ps, Format format, Path partial, String title,
+            LocalDateTime start, double span, ProgressListener progress, Cancellation cancellation)
+            throws SQLException, IOException {
+        long startMillis = Timestamp.valueOf(start).getTime();
+        long rows = 0;
+        try (ResultSet rs = ps.executeQuery();
+                RowWriter out = format == Format.CSV ? new CsvWriter(partial) : new PdfTableWriter(partial, title)) {
+            out.header(COLUMNS);
+            String[] row = new String[COLUMNS.length];
+            while (rs.next()) {
+                if (cancellation.isCancelled())
+                    throw new CancellationException("Export cancelled");
+                Timestamp orderTime = rs.getTimestamp(2);
+                row[0] = String.valueOf(rs.getInt(1));
+                row[1] = orderTime != null ? orderTime.toLocalDateTime().format(TIME_FORMAT) : "";
+                row[2] = text(rs.getString(3));
+                row[3] = text(rs.getString(4));
+                row[4] = text(rs.getString(5));
+                row[5] = text(rs.getString(6));
+                row[6] = text(rs.getString(7));
+                row[7] = number(rs, 8);
+                row[8] = number(rs, 9);
+                row[9] = number(rs, 10);
+                row[10] = number(rs, 11);
+                out.row(row);
+
+                if (++rows % FETCH_SIZE == 0 && orderTime != null)
+                    progress.progress(rows, (orderTime.getTime() - startMillis) / span);
+            }
+        }
+        return rows;
+    }
+
+    private static String text(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String number(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? "" : String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    /**
+     * Cancels a running export from another thread. Unlike a flag polled per row,
+     * it also reaches a query that is still executing on the server.
+     */
+    public static final class Cancellation {
+        private boolean cancelled;
+        private Statement statement;
+
+        /**
+         * Stops the export; the partial file is deleted.
+         */
+        public synchronized void cancel() {
+            cancelled = true;
+            if (statement != null) {
+                try {
+                    statement.cancel();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        /**
+         * @return {@code true} once {@link #cancel()} was called.
+         */
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        /** Makes {@link #cancel()} stop the statement until {@link #detach()}. */
+        synchronized void attach(Statement running) {
+            if (cancelled)
+                throw new CancellationException("Export cancelled");
+            statement = running;
+        }
+
+        /** Called before the statement is closed, so it is never cancelled afterwards. */
+        synchronized void detach() {
+            statement = null;
+        }
+    }
+
+    /**
+     * Destination of the exported rows.
+     */
+    private interface RowWriter extends AutoCloseable {
+        void header(String[] columns) throws IOException;
+
+        void row(String[] values) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * RFC 4180 CSV: fields with separators, quotes or line breaks are quoted.
+     */
+    private static final class CsvWriter implements RowWriter {
+        private final Writer out;
+
+        CsvWriter(Path file) throws IOException {
+            out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8),
+                    64 * 1024);
+            out.write('\uFEFF'); // byte order mark
+        }
+
+        @Override
+        public void header(String[] columns) throws IOException {
+            row(columns);
+        }
+
+        @Override
+        public void row(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0)
+                    out.write(',');
+                String value = values[i];
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                        || value.indexOf('\r') >= 0) {
+                    out.write('"');
+                    out.write(value.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(value);
+                }
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * A PDF table written in chunks: the table is marked incomplete, so every
+     * {@code document.add} writes the rows collected so far and releases them.
+     */
+    private static final class PdfTableWriter implements RowWriter {
+        private final OutputStream stream;
+        private final Document document;
+        private final Font cellFont;
+        private PdfPTable table;
+        private int pending;
+
+        PdfTableWriter(Path file, String title) throws IOException {
+            stream = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024);
+            document = new Document(PageSize.A4.rotate(), 20, 20, 30, 30);
+            try {
+                PdfWriter.getInstance(document, stream);
+            } catch (DocumentException e) {
+                stream.close();
+                throw new IOException(e);
+            }
+            document.open();
+            // Cp1254 covers the Turkish letters in names and neighborhoods
+            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, "Cp1254", BaseFont.NOT_EMBEDDED, 16,
+                    Font.NORMAL, BaseColor.BLACK);
+            cellFont = FontFactory.getFont(FontFactory.HELVETICA, "Cp1254", BaseFont.NOT_EMBEDDED, 7);
+            Paragraph heading = new Paragraph("GREEN GROCER - " + title, titleFont);
+            heading.setAlignment(Element.ALIGN_CENTER);
+            heading.setSpacingAfter(10);
+            add(heading);
+        }
+
+        @Override
+        public void header(String[] columns) throws IOException {
+            table = new PdfPTable(columns.length);
+            table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            table.setComplete(false);
+            try {
+                table.setWidths(PDF_WIDTHS);
+            } catch (DocumentException e) {
+                throw new IOException(e);
+            }
+            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, "Cp1254", BaseFont.NOT_EMBEDDED, 7,
+                    Font.NORMAL, BaseColor.WHITE);
+            for (String column : columns) {
+                PdfPCell cell = new PdfPCell(new Phrase(column, headerFont));
+                cell.setBackgroundColor(BaseColor.DARK_GRAY);
+                table.addCell(cell);
+            }
+        }
+
+        @Override
+        public void row(String[] values) throws IOException {
+            for (String value : values)
+                table.addCell(new Phrase(value, cellFont));
+            if (++pending == PDF_FLUSH_ROWS) {
+                add(table);
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (table != null) {
+                    table.setComplete(true);
+                    add(table);
+                }
+                document.close(); // also closes the stream
+            } finally {
+                stream.close();
+            }
+        }
+
+        private void add(Element element) throws IOException {
+            try {
+                document.add(element);
+            } catch (DocumentException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
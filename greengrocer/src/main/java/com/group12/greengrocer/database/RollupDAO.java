@@ -0,0 +1,140 @@
+package com.group12.greengrocer.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) for the analytics rollup tables.
+ * <p>
+ * The owner reports read pre-aggregated totals instead of scanning the whole
+ * order history. Only completed orders are counted, bucketed by order time:
+ * </p>
+ * <ul>
+ * <li><b>order_rollup_hourly / order_rollup_daily:</b> order count and revenue
+ * ({@code total_cost}) per carrier and delivery neighborhood.</li>
+ * <li><b>sales_rollup_hourly / sales_rollup_daily:</b> quantity and revenue
+ * ({@code total_price}) per product; per-category figures join {@code products}.</li>
+ * </ul>
+ * <p>
+ * The rollups are maintained incrementally by {@link OrderDAO#completeOrder} (+1) and
+ * {@link OrderDAO#undoCompleteOrder} (-1), in the same transaction as the status
+ * change. Cancellation only applies to pending orders, which were never counted.
+ * Buckets whose orders were all undone keep a row with zero totals; reports filter
+ * them out. {@link #main(String[])} rebuilds all rollups from {@code orders} for
+ * backfilling.
+ * </p>
+ */
+public class RollupDAO {
+
+    private static final List<String> TABLES = List.of(
+            "order_rollup_hourly", "order_rollup_daily", "sales_rollup_hourly", "sales_rollup_daily");
+
+    private static final String HOUR = "DATE_FORMAT(o.order_time, '%Y-%m-%d %H:00:00')";
+    private static final String DAY = "DATE(o.order_time)";
+
+    /** Adds {@code sign} times one order to every rollup; binds sign, sign, order ID. */
+    private static final List<String> APPLY_SQL = rollupSql("o.id = ?");
+
+    /** Aggregates all completed orders; binds sign, sign (always 1). */
+    private static final List<String> REBUILD_SQL = rollupSql("o.status = 'completed'");
+
+    private static List<String> rollupSql(String where) {
+        return List.of(
+                orderRollup("order_rollup_hourly", "bucket_start", HOUR, where),
+                orderRollup("order_rollup_daily", "bucket_date", DAY, where),
+                salesRollup("sales_rollup_hourly", "bucket_start", HOUR, where),
+                salesRollup("sales_rollup_daily", "bucket_date", DAY, where));
+    }
+
+    private static String orderRollup(String table, String bucketColumn, String bucket, String where) {
+        return "INSERT INTO " + table + " (" + bucketColumn + ", carrier_id, neighborhood, order_count, revenue) "
+                + "SELECT " + bucket + ", COALESCE(o.carrier_id, 0), COALESCE(o.delivery_neighborhood, ''), "
+                + "? * COUNT(*), ? * SUM(o.total_cost) FROM orders o WHERE " + where + " GROUP BY 1, 2, 3 "
+                + "ON DUPLICATE KEY UPDATE " + table + ".order_count = " + table + ".order_count + VALUES(order_count), "
+                + table + ".revenue = " + table + ".revenue + VALUES(revenue)";
+    }
+
+    private static String salesRollup(String table, String bucketColumn, String bucket, String where) {
+        // ORDER BY keeps the row lock order stable across concurrent completions
+        return "INSERT INTO " + table + " (" + bucketColumn + ", product_id, quantity, revenue) "
+                + "SELECT " + bucket + ", oi.product_id, ? * SUM(oi.quantity), ? * SUM(oi.total_price) "
+                + "FROM orders o JOIN order_items oi ON oi.order_id = o.id WHERE " + where
+                + " GROUP BY 1, 2 ORDER BY 1, 2 "
+                + "ON DUPLICATE KEY UPDATE " + table + ".quantity = " + table + ".quantity + VALUES(quantity), "
+                + table + ".revenue = " + table + ".revenue + VALUES(revenue)";
+    }
+
+    /**
+     * Adds an order to, or removes it from, all rollups. Must run in the caller's
+     * transaction, after the status change it accounts for.
+     *
+     * @param conn    A connection with auto-commit disabled.
+     * @param orderId The order that was completed or un-completed.
+     * @param sign    {@code 1} when the order was completed, {@code -1} when undone.
+     * @throws SQLException If an update fails; the caller rolls back.
+     */
+    static void apply(Connection conn, int orderId, int sign) throws SQLException {
+        for (String sql : APPLY_SQL) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, sign);
+                ps.setInt(2, sign);
+                ps.setInt(3, orderId);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Recomputes all rollups from the completed orders in one transaction.
+     * <p>
+     * Best run while no deliveries are being completed; a completion that conflicts
+     * with the rebuild's locks fails and can simply be retried.
+     * </p>
+     *
+     * @return true if the rollups were rebuilt, false otherwise.
+     */
+    public static boolean rebuild() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement st = conn.createStatement()) {
+                    for (String table : TABLES)
+                        st.executeUpdate("DELETE FROM " + table);
+                }
+                for (String sql : REBUILD_SQL) {
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        ps.setInt(1, 1);
+                        ps.setInt(2, 1);
+                        ps.executeUpdate();
+                    }
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Rebuilds the rollups, e.g. after importing historical orders. Uses the
+     * connection settings of {@link DatabaseConfig}.
+     *
+     * @param args Command line arguments (not used).
+     */
+    public static void main(String[] args) {
+        System.out.println("Rebuilding analytics rollups...");
+        boolean rebuilt = rebuild();
+        DatabaseConnection.closeConnection();
+        System.out.println(rebuilt ? "Rollups rebuilt." : "Rebuild failed.");
+        if (!rebuilt)
+            System.exit(1);
+    }
+}
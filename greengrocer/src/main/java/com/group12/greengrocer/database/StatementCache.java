@@ -0,0 +1,215 @@
+package com.group12.greengrocer.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An LRU cache of {@link PreparedStatement}s bound to one pooled physical connection.
+ * <p>
+ * DAO methods prepare the same constant SQL strings on every call. With this cache,
+ * {@code conn.prepareStatement(sql)} on a pooled connection returns a handle to a
+ * statement that was already prepared on that connection, so MySQL does not have to
+ * parse and plan the query again. Closing the handle clears its parameters and
+ * keeps the underlying statement open for the next caller.
+ * </p>
+ * <p>
+ * A statement is never shared: if the cached statement for a SQL string is still in
+ * use (e.g. the same query is prepared twice within one method), an uncached
+ * statement is returned instead.
+ * </p>
+ */
+final class StatementCache {
+
+    /**
+     * Statement settings that outlive a single use. A statement whose settings were
+     * changed is closed on return instead of going back into the cache.
+     */
+    private static final Set<String> STATEFUL_SETTERS = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows", "setMaxFieldSize",
+            "setQueryTimeout", "setEscapeProcessing", "setCursorName", "setPoolable", "closeOnCompletion");
+
+    private final Connection physical;
+    private final int capacity;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final Map<String, Entry> entries;
+
+    /**
+     * @param physical The physical connection the statements are prepared on.
+     * @param capacity Maximum number of cached statements.
+     * @param hits     Pool-wide counter incremented on every cache hit.
+     * @param misses   Pool-wide counter incremented on every cache miss.
+     */
+    StatementCache(Connection physical, int capacity, LongAdder hits, LongAdder misses) {
+        this.physical = physical;
+        this.capacity = capacity;
+        this.hits = hits;
+        this.misses = misses;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= StatementCache.this.capacity)
+                    return false;
+                Entry entry = eldest.getValue();
+                entry.evicted = true;
+                if (!entry.inUse)
+                    closeQuietly(entry.statement);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns a statement for {@code sql}, reusing a cached one when possible.
+     *
+     * @param owner             The logical connection returned by
+     *                          {@link PreparedStatement#getConnection()}.
+     * @param sql               The SQL string.
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or
+     *                          {@link Statement#NO_GENERATED_KEYS}.
+     * @return A {@link PreparedStatement} handle; closing it returns it to the cache.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    synchronized PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + "|" + sql;
+        Entry entry = entries.get(key);
+
+        if (entry != null && !entry.inUse && !entry.statement.isClosed()) {
+            hits.increment();
+        } else if (entry != null && entry.inUse) {
+            // Same SQL prepared twice at once: hand out a private, uncached statement
+            misses.increment();
+            Entry uncached = new Entry(physical.prepareStatement(sql, autoGeneratedKeys));
+            uncached.evicted = true;
+            entry = uncached;
+        } else {
+            misses.increment();
+            entry = new Entry(physical.prepareStatement(sql, autoGeneratedKeys));
+            entries.put(key, entry);
+        }
+
+        entry.inUse = true;
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new Handle(entry, key, owner));
+    }
+
+    /**
+     * Called when a handle is closed. Resets the statement for reuse, or closes it if
+     * it was evicted or its settings were changed.
+     */
+    private synchronized void giveBack(Entry entry, String key, boolean dirty) {
+        entry.inUse = false;
+        try {
+            if (entry.evicted || dirty || entry.statement.isClosed()) {
+                if (entries.get(key) == entry)
+                    entries.remove(key);
+                closeQuietly(entry.statement);
+                return;
+            }
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+            entry.statement.clearWarnings();
+        } catch (SQLException e) {
+            entries.remove(key);
+            closeQuietly(entry.statement);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * A cached physical statement.
+     */
+    private static final class Entry {
+        final PreparedStatement statement;
+        boolean inUse;
+        boolean evicted;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * Invocation handler behind each {@link PreparedStatement} handle.
+     */
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final String key;
+        private final Connection owner;
+        private final List<ResultSet> resultSets = new ArrayList<>();
+        private boolean closed = false;
+        private boolean dirty = false;
+
+        Handle(Entry entry, String key, Connection owner) {
+            this.entry = entry;
+            this.key = key;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        for (ResultSet rs : resultSets)
+                            closeQuietly(rs);
+                        resultSets.clear();
+                        giveBack(entry, key, dirty);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement has already been closed.");
+            }
+            if (STATEFUL_SETTERS.contains(name)) {
+                dirty = true;
+            }
+
+            try {
+                Object result = method.invoke(entry.statement, args);
+                if (result instanceof ResultSet rs) {
+                    resultSets.add(rs);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -180,6 +180,14 @@ public class OrderItem {
      */
     public void setTotalPrice(double totalPrice) { this.totalPrice = totalPrice; }
     
+    /**
+     * Returns the one-line summary shown in order lists (e.g. "- 1.50 kg Domates").
+     * @return The formatted quantity and product name.
+     */
+    public String getSummary() {
+        return String.format("- %.2f kg %s", quantity, productName);
+    }
+    
     /**
      * Returns a string representation of the order item.
      * @return A formatted string containing the product name, quantity, and total price.
@@ -35,6 +35,18 @@ public class Product {
     
     /** The file extension/type of the image (e.g., "jpg", "png"). */
     private String imageType;
+
+    /**
+     * Version of the stored image, incremented whenever the image is replaced.
+     * Used together with the ID to key cached images.
+     */
+    private int imageVersion;
+
+    /**
+     * Flag indicating if an image is stored in the database, even when the image
+     * bytes have not been loaded into {@link #image} yet.
+     */
+    private boolean hasImage;
     
     /** Flag indicating if the product is active (true) or soft-deleted (false). */
     private boolean isActive;
@@ -66,7 +78,26 @@ public class Product {
         this.threshold = threshold;
         this.isActive = true;
     }
-    
+
+    /**
+     * Constructs a copy of another product. The image bytes, if loaded, are shared.
+     *
+     * @param other The product to copy.
+     */
+    public Product(Product other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.type = other.type;
+        this.price = other.price;
+        this.stock = other.stock;
+        this.threshold = other.threshold;
+        this.image = other.image;
+        this.imageType = other.imageType;
+        this.imageVersion = other.imageVersion;
+        this.hasImage = other.hasImage;
+        this.isActive = other.isActive;
+    }
+
     // Getters and Setters
 
     /**
@@ -164,6 +195,30 @@ public class Product {
      * @param imageType The image type string.
      */
     public void setImageType(String imageType) { this.imageType = imageType; }
+
+    /**
+     * Gets the version of the stored image.
+     * @return The image version.
+     */
+    public int getImageVersion() { return imageVersion; }
+
+    /**
+     * Sets the version of the stored image.
+     * @param imageVersion The image version to set.
+     */
+    public void setImageVersion(int imageVersion) { this.imageVersion = imageVersion; }
+
+    /**
+     * Checks if the product has an image, whether or not it has been loaded yet.
+     * @return {@code true} if an image is stored or loaded; {@code false} otherwise.
+     */
+    public boolean hasImage() { return hasImage || image != null; }
+
+    /**
+     * Sets whether an image is stored in the database for this product.
+     * @param hasImage The flag to set.
+     */
+    public void setHasImage(boolean hasImage) { this.hasImage = hasImage; }
     
     /**
      * Checks if the product is active.
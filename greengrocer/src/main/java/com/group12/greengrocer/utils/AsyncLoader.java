@@ -0,0 +1,180 @@
+package com.group12.greengrocer.utils;
+
+import com.group12.greengrocer.database.DatabaseConfig;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Runs DAO calls off the JavaFX Application Thread and delivers their results back
+ * on it.
+ * <p>
+ * Each controller owns one loader. Work is submitted under a key (e.g.
+ * {@code "products"}); submitting again under the same key supersedes the earlier
+ * request, whose result is then dropped instead of overwriting newer data. The
+ * loader's {@link #loadingProperty()} is {@code true} while any of its requests is
+ * running, so views can show a busy state.
+ * </p>
+ * <ul>
+ * <li><b>Executor:</b> all loaders share one virtual-thread executor.</li>
+ * <li><b>Bounded:</b> at most {@link DatabaseConfig#POOL_MAX_SIZE} requests run at
+ * once (one per pooled connection); the rest wait their turn.</li>
+ * <li><b>Cancellation:</b> superseded and cancelled requests are not interrupted,
+ * because interrupting a thread blocked in JDBC socket I/O closes the connection.
+ * They finish their query and the result is discarded.</li>
+ * </ul>
+ * <p>
+ * All methods except {@link #shutdown()} must be called on the JavaFX Application
+ * Thread.
+ * </p>
+ */
+public class AsyncLoader {
+
+    private static final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("dao-worker-", 0).factory());
+
+    private static final Semaphore permits = new Semaphore(DatabaseConfig.POOL_MAX_SIZE, true);
+
+    /** The running request per key; only touched on the JavaFX thread. */
+    private final Map<String, Request> pending = new HashMap<>();
+
+    private final ReadOnlyBooleanWrapper loading = new ReadOnlyBooleanWrapper(this, "loading", false);
+
+    /**
+     * Runs {@code work} in the background and passes its result to {@code onSuccess}
+     * on the JavaFX thread. Failures are logged.
+     *
+     * @param key       The request key; a running request with the same key is superseded.
+     * @param work      The DAO call(s) to run.
+     * @param onSuccess Receives the result on the JavaFX thread.
+     * @param <T>       The result type.
+     */
+    public <T> void submit(String key, Callable<T> work, Consumer<? super T> onSuccess) {
+        submit(key, work, onSuccess, Throwable::printStackTrace);
+    }
+
+    /**
+     * Runs {@code work} in the background and passes its result (or failure) to the
+     * callbacks on the JavaFX thread. Callbacks of superseded or cancelled requests
+     * are never called.
+     *
+     * @param key       The request key; a running request with the same key is superseded.
+     * @param work      The DAO call(s) to run.
+     * @param onSuccess Receives the result on the JavaFX thread.
+     * @param onFailure Receives the exception on the JavaFX thread.
+     * @param <T>       The result type.
+     */
+    public <T> void submit(String key, Callable<T> work, Consumer<? super T> onSuccess,
+            Consumer<? super Throwable> onFailure) {
+        Request request = new Request();
+        Request previous = pending.put(key, request);
+        if (previous != null)
+            previous.cancelled = true;
+        loading.set(true);
+
+        executor.execute(() -> {
+            T result = null;
+            Throwable failure = null;
+            try {
+                permits.acquire();
+                try {
+                    if (!request.cancelled)
+                        result = work.call();
+                } finally {
+                    permits.release();
+                }
+            } catch (Throwable t) {
+                failure = t;
+            }
+
+            T value = result;
+            Throwable error = failure;
+            Platform.runLater(() -> {
+                if (pending.get(key) != request)
+                    return; // superseded or cancelled
+                pending.remove(key);
+                loading.set(!pending.isEmpty());
+                if (error != null)
+                    onFailure.accept(error);
+                else
+                    onSuccess.accept(value);
+            });
+        });
+    }
+
+    /**
+     * Cancels the running request with the given key, if any. Its callbacks will not
+     * be called.
+     *
+     * @param key The request key.
+     */
+    public void cancel(String key) {
+        Request request = pending.remove(key);
+        if (request != null)
+            request.cancelled = true;
+        loading.set(!pending.isEmpty());
+    }
+
+    /**
+     * Cancels all running requests of this loader, e.g. when its view is closed.
+     */
+    public void cancelAll() {
+        for (Request request : pending.values())
+            request.cancelled = true;
+        pending.clear();
+        loading.set(false);
+    }
+
+    /**
+     * @return {@code true} while a request of this loader is running.
+     */
+    public boolean isLoading() {
+        return loading.get();
+    }
+
+    /**
+     * @return The loading state of this loader's view.
+     */
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.getReadOnlyProperty();
+    }
+
+    /**
+     * Shows a wait cursor over the view while this loader is loading.
+     *
+     * @param node Any node of the view; the cursor is set on its scene's root once
+     *             the node is part of a scene.
+     */
+    public void bindBusyCursor(Node node) {
+        loading.addListener((obs, wasLoading, isLoading) -> {
+            Node target = node.getScene() != null ? node.getScene().getRoot() : node;
+            target.setCursor(isLoading ? Cursor.WAIT : null);
+        });
+    }
+
+    /**
+     * Stops the shared executor. Requests still running finish, but no new requests
+     * are accepted.
+     */
+    public static void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Cancellation flag of one submitted request.
+     */
+    private static final class Request {
+        volatile boolean cancelled;
+    }
+}
@@ -0,0 +1,196 @@
+package com.group12.greengrocer.utils;
+
+import com.group12.greengrocer.models.Product;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * The customer catalog kept in every order the storefront can show.
+ * <p>
+ * The products are held sorted by name and by current price ({@link Product#getCurrentPrice()},
+ * computed once per product). Switching between the {@link ProductQuery#SORT_OPTIONS}
+ * therefore only copies one of the two orderings, forwards or backwards, instead of
+ * sorting the catalog again:
+ * </p>
+ * <ul>
+ * <li><b>Incremental:</b> a changed product (new price, stock crossing its
+ * threshold, renamed) is moved within both orderings by binary search;
+ * nothing else is touched.</li>
+ * <li><b>Filtered:</b> {@link #view(String, Collection)} walks an ordering and
+ * keeps only the given products, e.g. search results, so a sorted search result
+ * needs no sort either.</li>
+ * </ul>
+ * <p>
+ * Products with the same price are listed by name, like in {@link ProductQuery#sort}.
+ * The model is not thread-safe; it is built once (possibly off the JavaFX thread)
+ * and then used from one thread.
+ * </p>
+ */
+public class CatalogViewModel {
+
+    /**
+     * A product with the sort keys it was filed under. The keys are kept so the
+     * product can be found again after the {@link Product} object itself changed.
+     */
+    private record Entry(Product product, String name, double price) {
+
+        static Entry of(Product p) {
+            return new Entry(p, p.getName(), p.getCurrentPrice());
+        }
+
+        int id() {
+            return product.getId();
+        }
+    }
+
+    private static final Comparator<Entry> BY_NAME = Comparator.comparing(Entry::name)
+            .thenComparingInt(Entry::id);
+
+    private static final Comparator<Entry> BY_PRICE = Comparator.comparingDouble(Entry::price)
+            .thenComparing(BY_NAME);
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final List<Entry> byName = new ArrayList<>();
+    private final List<Entry> byPrice = new ArrayList<>();
+
+    /**
+     * Creates the model, sorting the products once.
+     *
+     * @param products The catalog.
+     */
+    public CatalogViewModel(List<Product> products) {
+        for (Product p : products) {
+            Entry entry = Entry.of(p);
+            if (entries.put(p.getId(), entry) == null)
+                byName.add(entry);
+        }
+        // A product listed twice keeps its last version
+        if (entries.size() != byName.size())
+            byName.removeIf(e -> entries.get(e.id()) != e);
+        byName.sort(BY_NAME);
+        // The sort is stable, so equal prices stay in name order, as BY_PRICE wants
+        byPrice.addAll(byName);
+        byPrice.sort(Comparator.comparingDouble(Entry::price));
+    }
+
+    /**
+     * @return The number of products.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return {@code true} if the catalog is empty.
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Adds a product, or files a changed product under its new name and price.
+     *
+     * @param product The current version of the product.
+     */
+    public void update(Product product) {
+        delete(product.getId());
+        Entry entry = Entry.of(product);
+        entries.put(product.getId(), entry);
+        insert(byName, entry, BY_NAME);
+        insert(byPrice, entry, BY_PRICE);
+    }
+
+    /**
+     * Removes a product, e.g. after it was deleted.
+     *
+     * @param productId The product ID.
+     */
+    public void delete(int productId) {
+        Entry old = entries.remove(productId);
+        if (old == null)
+            return;
+        byName.remove(Collections.binarySearch(byName, old, BY_NAME));
+        byPrice.remove(Collections.binarySearch(byPrice, old, BY_PRICE));
+    }
+
+    /**
+     * Returns the catalog in the given order.
+     *
+     * @param sortType One of the {@link ProductQuery#SORT_OPTIONS}; unknown options
+     *                 fall back to {@link ProductQuery#SORT_NAME_ASC}.
+     * @return A new list of all products.
+     */
+    public List<Product> view(String sortType) {
+        return view(sortType, null);
+    }
+
+    /**
+     * Returns some of the products in the given order.
+     *
+     * @param sortType One of the {@link ProductQuery#SORT_OPTIONS}; unknown options
+     *                 fall back to {@link ProductQuery#SORT_NAME_ASC}.
+     * @param subset   The products to include, matched by ID (e.g. search results),
+     *                 or {@code null} for all.
+     * @return A new list of the included products.
+     */
+    public List<Product> view(String sortType, Collection<Product> subset) {
+        BitSet included = null;
+        if (subset != null) {
+            included = new BitSet();
+            for (Product p : subset) {
+                if (p.getId() >= 0)
+                    included.set(p.getId());
+            }
+        }
+        List<Product> result = new ArrayList<>(subset != null ? subset.size() : entries.size());
+        switch (sortType) {
+            case ProductQuery.SORT_NAME_DESC -> descending(byName, included, result,
+                    (a, b) -> a.name().equals(b.name()));
+            case ProductQuery.SORT_PRICE_ASC -> ascending(byPrice, included, result);
+            case ProductQuery.SORT_PRICE_DESC -> descending(byPrice, included, result,
+                    (a, b) -> a.price() == b.price());
+            default -> ascending(byName, included, result);
+        }
+        return result;
+    }
+
+    private static void insert(List<Entry> ordering, Entry entry, Comparator<Entry> order) {
+        int at = Collections.binarySearch(ordering, entry, order);
+        ordering.add(at < 0 ? -at - 1 : at, entry);
+    }
+
+    private static void ascending(List<Entry> ordering, BitSet included, List<Product> result) {
+        for (Entry e : ordering) {
+            if (included == null || included.get(e.id()))
+                result.add(e.product());
+        }
+    }
+
+    /**
+     * Adds the ordering back to front, but keeps each run of entries with the same
+     * key front to back, so ties stay in name order like a stable descending sort.
+     */
+    private static void descending(List<Entry> ordering, BitSet included, List<Product> result,
+            BiPredicate<Entry, Entry> sameKey) {
+        int end = ordering.size();
+        while (end > 0) {
+            int start = end - 1;
+            while (start > 0 && sameKey.test(ordering.get(start - 1), ordering.get(end - 1)))
+                start--;
+            for (int i = start; i < end; i++) {
+                Entry e = ordering.get(i);
+                if (included == null || included.get(e.id()))
+                    result.add(e.product());
+            }
+            end = start;
+        }
+    }
+}
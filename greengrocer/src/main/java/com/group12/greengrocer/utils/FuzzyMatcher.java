@@ -0,0 +1,339 @@
+package com.group12.greengrocer.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Typo-tolerant matching of items by the words of their text.
+ * <p>
+ * A query word matches the words within {@link #maxEdits(int)} edits of it, where
+ * inserting, deleting or replacing a letter and swapping two neighboring letters
+ * each count as one edit ({@link #distance(String, String)}). Words are folded like
+ * in {@link ProductSearchIndex}, so case and Turkish diacritics never count as
+ * edits. Words without letters (numbers) are not indexed.
+ * </p>
+ * <p>
+ * The distinct words of all items are kept in a trie. A lookup walks it computing
+ * one row of the edit distance table per trie node, so words sharing a prefix share
+ * its work, and leaves a branch as soon as every entry of the row exceeds the
+ * allowed edits. Only prefixes that are themselves within reach of the query are
+ * visited, which is a small part of a large vocabulary.
+ * </p>
+ * <p>
+ * An item matches when every query word matches one of its words. Its score is the
+ * mean similarity of those word pairs, from 1 (no edits) down to 0.
+ * </p>
+ * <p>
+ * Items are compared by identity. The matcher is not thread-safe; callers that
+ * share one must synchronize.
+ * </p>
+ *
+ * @param <T> The item type.
+ */
+public class FuzzyMatcher<T> {
+
+    /**
+     * A matching item and how close it is to the query.
+     *
+     * @param item  The item.
+     * @param score The similarity, 0 to 1; 1 means all query words occur without edits.
+     * @param <T>   The item type.
+     */
+    public record Match<T>(T item, double score) {
+    }
+
+    private final Function<? super T, String> text;
+    private final Node<T> root = new Node<>();
+
+    /** Length of the longest indexed word, i.e. the depth of the trie. */
+    private int maxWordLength;
+
+    /**
+     * Creates an empty matcher.
+     *
+     * @param text The text of an item, e.g. its name.
+     */
+    public FuzzyMatcher(Function<? super T, String> text) {
+        this.text = text;
+    }
+
+    /**
+     * Creates a matcher over the given items.
+     *
+     * @param items The items.
+     * @param text  The text of an item, e.g. its name.
+     * @param <T>   The item type.
+     * @return The matcher.
+     */
+    public static <T> FuzzyMatcher<T> of(List<T> items, Function<? super T, String> text) {
+        FuzzyMatcher<T> matcher = new FuzzyMatcher<>(text);
+        for (T item : items)
+            matcher.add(item);
+        return matcher;
+    }
+
+    /**
+     * Edits tolerated in a query word: none up to 3 letters, one up to 7 letters,
+     * two for longer words.
+     *
+     * @param length The length of the query word.
+     * @return The maximum distance of a matching word.
+     */
+    public static int maxEdits(int length) {
+        return length <= 3 ? 0 : length <= 7 ? 1 : 2;
+    }
+
+    /**
+     * Adds an item under the words of its text.
+     *
+     * @param item The item.
+     */
+    public void add(T item) {
+        for (String word : indexedWords(item)) {
+            Node<T> node = root;
+            for (int i = 0; i < word.length(); i++)
+                node = node.childOrCreate(word.charAt(i));
+            if (node.items == null)
+                node.items = new ArrayList<>(1);
+            node.items.add(item);
+            maxWordLength = Math.max(maxWordLength, word.length());
+        }
+    }
+
+    /**
+     * Removes an item added earlier. Its words stay in the trie and are skipped
+     * while no item uses them.
+     *
+     * @param item The item, as added.
+     */
+    public void remove(T item) {
+        for (String word : indexedWords(item)) {
+            Node<T> node = root;
+            for (int i = 0; i < word.length() && node != null; i++)
+                node = node.child(word.charAt(i));
+            if (node != null && node.items != null)
+                node.items.removeIf(i -> i == item);
+        }
+    }
+
+    /**
+     * Finds the items matching every word of the query, best first.
+     *
+     * @param query The search text.
+     * @param limit The maximum number of results.
+     * @return The matches, by descending score; empty if the query has no words.
+     */
+    public List<Match<T>> match(String query, int limit) {
+        String[] terms = ProductSearchIndex.words(ProductSearchIndex.fold(query));
+        if (terms.length == 0 || limit <= 0)
+            return List.of();
+
+        // The words matching each query word; the one with the fewest items narrows the rest
+        List<Walk> walks = new ArrayList<>(terms.length);
+        for (String term : terms) {
+            Walk walk = new Walk(term);
+            walk.run();
+            if (walk.itemCount == 0)
+                return List.of();
+            walks.add(walk);
+        }
+        walks.sort((a, b) -> Integer.compare(a.itemCount, b.itemCount));
+
+        // Sum of each item's best similarity per query word, for items matching all words so far
+        Map<T, double[]> scores = new IdentityHashMap<>();
+        walks.get(0).score(scores, null);
+        for (int i = 1; i < walks.size() && !scores.isEmpty(); i++) {
+            Map<T, double[]> termScores = new IdentityHashMap<>();
+            walks.get(i).score(termScores, scores);
+            for (Map.Entry<T, double[]> e : termScores.entrySet())
+                e.getValue()[0] += scores.get(e.getKey())[0];
+            scores = termScores;
+        }
+        if (scores.isEmpty())
+            return List.of();
+
+        List<Match<T>> matches = new ArrayList<>(scores.size());
+        for (Map.Entry<T, double[]> e : scores.entrySet())
+            matches.add(new Match<>(e.getKey(), e.getValue()[0] / terms.length));
+        matches.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /** The distinct folded words of an item that contain a letter. */
+    private List<String> indexedWords(T item) {
+        String[] all = ProductSearchIndex.words(ProductSearchIndex.fold(text.apply(item)));
+        List<String> words = new ArrayList<>(all.length);
+        for (String word : all) {
+            if (hasLetter(word) && !words.contains(word))
+                words.add(word);
+        }
+        return words;
+    }
+
+    private static boolean hasLetter(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.isLetter(word.charAt(i)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * The edit distance used for matching: the fewest insertions, deletions,
+     * substitutions and swaps of neighboring letters turning one word into the
+     * other, each letter being edited at most once (optimal string alignment).
+     *
+     * @param a A word.
+     * @param b Another word.
+     * @return The edit distance.
+     */
+    public static int distance(String a, String b) {
+        int m = b.length();
+        int[] before = new int[m + 1], previous = new int[m + 1], row = new int[m + 1];
+        for (int j = 0; j <= m; j++)
+            row[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            int[] t = before;
+            before = previous;
+            previous = row;
+            row = t;
+            row[0] = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(previous[j - 1] + cost, Math.min(previous[j], row[j - 1]) + 1);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1))
+                    d = Math.min(d, before[j - 2] + 1);
+                row[j] = d;
+            }
+        }
+        return row[m];
+    }
+
+    /**
+     * One query word's walk over the trie, collecting the nodes of the words within
+     * reach. Row {@code i} of {@link #rows} holds the distances between the visited
+     * trie prefix of length {@code i} and every prefix of the term, as in
+     * {@link #distance(String, String)}.
+     */
+    private final class Walk {
+        private final String term;
+        private final int max;
+        private final int[][] rows;
+        private final List<Node<T>> found = new ArrayList<>();
+        private final List<Double> similarities = new ArrayList<>();
+        int itemCount;
+
+        Walk(String term) {
+            this.term = term;
+            this.max = maxEdits(term.length());
+            this.rows = new int[maxWordLength + 1][term.length() + 1];
+            for (int j = 0; j <= term.length(); j++)
+                rows[0][j] = j;
+        }
+
+        void run() {
+            visitChildren(root, (char) 0, 0);
+        }
+
+        /**
+         * Puts each item of the found words into {@code scores} with its best
+         * similarity.
+         *
+         * @param scores The map to fill.
+         * @param among  The items to keep, or {@code null} for all.
+         */
+        void score(Map<T, double[]> scores, Map<T, double[]> among) {
+            for (int k = 0; k < found.size(); k++) {
+                double similarity = similarities.get(k);
+                for (T item : found.get(k).items) {
+                    if (among != null && !among.containsKey(item))
+                        continue;
+                    double[] best = scores.computeIfAbsent(item, x -> new double[1]);
+                    best[0] = Math.max(best[0], similarity);
+                }
+            }
+        }
+
+        private void visitChildren(Node<T> node, char c, int depth) {
+            for (int k = 0; k < node.size; k++)
+                visit(node.children[k], node.keys[k], c, depth + 1);
+        }
+
+        /**
+         * Fills the row of the trie node reached by appending {@code c} to a prefix
+         * ending in {@code previousChar}, records the node's word if it is close
+         * enough, and descends while a longer word still can be.
+         */
+        private void visit(Node<T> node, char c, char previousChar, int depth) {
+            int n = term.length();
+            int[] previous = rows[depth - 1];
+            int[] row = rows[depth];
+            // Entries further than max from the diagonal exceed max anyway: only the band
+            // is computed, with max + 1 on its edges
+            int lo = Math.max(1, depth - max), hi = Math.min(n, depth + max);
+            row[0] = depth;
+            if (lo > 1)
+                row[lo - 1] = max + 1;
+            if (hi < n)
+                row[hi + 1] = max + 1;
+            int rowMin = depth;
+            for (int j = lo; j <= hi; j++) {
+                char t = term.charAt(j - 1);
+                int d = Math.min(previous[j - 1] + (t == c ? 0 : 1), Math.min(previous[j], row[j - 1]) + 1);
+                if (depth > 1 && j > 1 && t == previousChar && term.charAt(j - 2) == c)
+                    d = Math.min(d, rows[depth - 2][j - 2] + 1);
+                row[j] = d;
+                rowMin = Math.min(rowMin, d);
+            }
+
+            if (Math.abs(n - depth) <= max && row[n] <= max && node.items != null && !node.items.isEmpty()) {
+                found.add(node);
+                similarities.add(1.0 - (double) row[n] / Math.max(n, depth));
+                itemCount += node.items.size();
+            }
+            if (rowMin <= max)
+                visitChildren(node, c, depth);
+        }
+    }
+
+    /**
+     * A trie node: the children by next letter, and the items having the node's
+     * prefix as a whole word.
+     */
+    private static final class Node<T> {
+        char[] keys;
+        Node<T>[] children;
+        int size;
+        List<T> items;
+
+        Node<T> child(char c) {
+            for (int k = 0; k < size; k++) {
+                if (keys[k] == c)
+                    return children[k];
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        Node<T> childOrCreate(char c) {
+            Node<T> child = child(c);
+            if (child != null)
+                return child;
+            if (keys == null) {
+                keys = new char[2];
+                children = (Node<T>[]) new Node<?>[2];
+            } else if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                children = Arrays.copyOf(children, keys.length);
+            }
+            child = new Node<>();
+            keys[size] = c;
+            children[size++] = child;
+            return child;
+        }
+    }
+}
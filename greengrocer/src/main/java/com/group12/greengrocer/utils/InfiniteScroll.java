@@ -0,0 +1,51 @@
+package com.group12.greengrocer.utils;
+
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Control;
+import javafx.scene.control.ScrollBar;
+
+/**
+ * Loads the next page of a paged table or list when the user scrolls near its end.
+ * <p>
+ * The callback is called on the JavaFX thread every time the vertical scroll
+ * position enters the last {@link #THRESHOLD} of the table, so it must ignore
+ * calls while a page is loading or when there are no more pages.
+ * </p>
+ */
+public class InfiniteScroll {
+
+    /** Fraction of the scroll range before the end at which the next page is requested. */
+    public static final double THRESHOLD = 0.1;
+
+    /**
+     * Calls {@code loadMore} whenever the table is scrolled near its last row.
+     * Install once per table; the table's skin may not have been created yet.
+     *
+     * @param table    The paged table or list view.
+     * @param loadMore Requests the next page.
+     */
+    public static void install(Control table, Runnable loadMore) {
+        if (table.getSkin() != null) {
+            attach(table, loadMore);
+        } else {
+            table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+                if (newSkin != null)
+                    attach(table, loadMore);
+            });
+        }
+    }
+
+    private static void attach(Control table, Runnable loadMore) {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldValue, value) -> {
+                    double range = bar.getMax() - bar.getMin();
+                    if (range > 0 && value.doubleValue() >= bar.getMax() - range * THRESHOLD)
+                        loadMore.run();
+                });
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.group12.greengrocer.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Updates a list in place to match a new version of it, matching items by key.
+ * <p>
+ * List views bound to the list then only rebuild the cells whose item actually
+ * changed: an item whose key is still present and whose content is unchanged
+ * keeps its old instance (and therefore its cell), removed items are removed,
+ * new items are inserted and only changed items are replaced. A full
+ * {@code setAll} would instead make every visible cell render again.
+ * </p>
+ */
+public class KeyedDiff {
+
+    /**
+     * Counts of the edits made by {@link #apply}.
+     *
+     * @param inserted Items added.
+     * @param removed  Items removed.
+     * @param replaced Items whose content changed.
+     * @param moved    Items that changed position.
+     */
+    public record Result(int inserted, int removed, int replaced, int moved) {
+
+        /**
+         * @return {@code true} if the list was not modified.
+         */
+        public boolean isEmpty() {
+            return inserted == 0 && removed == 0 && replaced == 0 && moved == 0;
+        }
+    }
+
+    /**
+     * Makes {@code target} equal to {@code next}, keeping the old instances of
+     * unchanged items.
+     *
+     * @param <T>       The item type.
+     * @param <K>       The key type; keys must be unique within each list.
+     * @param target    The list to update, usually a list view's items.
+     * @param next      The new contents, in display order.
+     * @param key       Extracts an item's key, e.g. the order ID.
+     * @param unchanged Whether an old and a new item with the same key look the same.
+     * @return The edits made.
+     */
+    public static <T, K> Result apply(List<T> target, List<T> next, Function<T, K> key,
+            BiPredicate<T, T> unchanged) {
+        Set<K> nextKeys = new HashSet<>();
+        for (T item : next)
+            nextKeys.add(key.apply(item));
+
+        int before = target.size();
+        target.removeIf(item -> !nextKeys.contains(key.apply(item)));
+        int removed = before - target.size();
+
+        Map<K, T> current = new HashMap<>();
+        for (T item : target)
+            current.put(key.apply(item), item);
+
+        int inserted = 0, replaced = 0, moved = 0;
+        List<K> targetKeys = new ArrayList<>(target.size());
+        for (T item : target)
+            targetKeys.add(key.apply(item));
+
+        for (int i = 0; i < next.size(); i++) {
+            T item = next.get(i);
+            K k = key.apply(item);
+            T old = current.get(k);
+
+            if (old == null) {
+                target.add(i, item);
+                targetKeys.add(i, k);
+                inserted++;
+                continue;
+            }
+            if (!k.equals(targetKeys.get(i))) {
+                int from = targetKeys.indexOf(k);
+                target.remove(from);
+                targetKeys.remove(from);
+                target.add(i, old);
+                targetKeys.add(i, k);
+                moved++;
+            }
+            if (old != item && !unchanged.test(old, item)) {
+                target.set(i, item);
+                replaced++;
+            }
+        }
+        return new Result(inserted, removed, replaced, moved);
+    }
+}
@@ -0,0 +1,322 @@
+package com.group12.greengrocer.utils;
+
+import com.group12.greengrocer.models.Product;
+
+import javafx.animation.PauseTransition;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.Separator;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Virtualized grid of product cards for the customer storefront.
+ * <p>
+ * The grid is a {@link ListView} whose items are {@link Row}s: a section header
+ * ("Vegetables", "Fruits") followed by rows of as many cards as fit the current
+ * width. The list only creates cells for the rows on screen and reuses them while
+ * scrolling; each cell keeps its card nodes and rebinds them to the products of
+ * the row it shows. Images come from {@link ProductImageCache}, so they are only
+ * decoded when a card becomes visible.
+ * </p>
+ * <p>
+ * Sorting or searching therefore only replaces the list of rows, whatever the size
+ * of the catalog. Changed products ({@link #updateProducts(List)}) only replace the
+ * rows that show them, so the other cards and the scroll position stay put.
+ * </p>
+ */
+public class ProductGrid {
+
+    /** Width of a product card in pixels. */
+    public static final double CARD_WIDTH = 200;
+
+    /** Height of a product card in pixels. */
+    public static final double CARD_HEIGHT = 290;
+
+    /** Space between cards in pixels. */
+    public static final double GAP = 20;
+
+    /** Padding around the grid in pixels. */
+    private static final double PADDING = 30;
+
+    /** Room kept free for the vertical scroll bar. */
+    private static final double SCROLL_BAR_WIDTH = 20;
+
+    private static final double IMAGE_WIDTH = 150;
+    private static final double IMAGE_HEIGHT = 110;
+
+    /**
+     * One line of the grid: either a section header or up to one row of products.
+     *
+     * @param header   The section title, or {@code null} for a product row.
+     * @param products The products of the row; empty for a header.
+     */
+    public record Row(String header, List<Product> products) {
+    }
+
+    /**
+     * A section of the grid.
+     *
+     * @param title The header shown above the section.
+     * @param type  The {@link Product#getType()} of the products in it, e.g. {@code "vegetable"}.
+     */
+    public record Section(String title, String type) {
+    }
+
+    private final ListView<Row> view;
+    private final List<Section> sections;
+    private final BiPredicate<Product, Double> onAdd;
+    private final ObservableList<Row> rows = FXCollections.observableArrayList();
+
+    private List<Product> products = List.of();
+    private int columns = 1;
+
+    /**
+     * Turns a list view into a product grid.
+     *
+     * @param view     The list view to show the grid in.
+     * @param sections The sections, in display order; products of other types are not shown.
+     * @param onAdd    Called with the product and quantity when "Ekle" is pressed;
+     *                 returns {@code true} if the product was added to the cart.
+     */
+    public ProductGrid(ListView<Row> view, List<Section> sections, BiPredicate<Product, Double> onAdd) {
+        this.view = view;
+        this.sections = List.copyOf(sections);
+        this.onAdd = onAdd;
+
+        view.setItems(rows);
+        view.setFocusTraversable(false);
+        view.setStyle("-fx-background-color: transparent; -fx-background-insets: 0; -fx-padding: "
+                + PADDING + " 0 0 " + PADDING + ";");
+        view.setCellFactory(v -> new RowCell());
+        view.widthProperty().addListener((obs, oldWidth, width) -> {
+            int fitting = columnsFor(width.doubleValue());
+            if (fitting != columns) {
+                columns = fitting;
+                rebuild();
+            }
+        });
+        columns = columnsFor(view.getWidth());
+        rebuild();
+    }
+
+    /**
+     * Shows the given products, in the given order, split into the sections.
+     *
+     * @param products The products to show.
+     */
+    public void setProducts(List<Product> products) {
+        this.products = products;
+        rebuild();
+        view.scrollTo(0);
+    }
+
+    /**
+     * Shows a new version of the same view, e.g. after some products changed. Only
+     * rows whose products differ are replaced; the scroll position is kept.
+     *
+     * @param products The products to show, sharing the unchanged {@link Product}
+     *                 objects with the current list.
+     */
+    public void updateProducts(List<Product> products) {
+        this.products = products;
+        List<Row> built = buildRows();
+        int common = Math.min(rows.size(), built.size());
+        for (int i = 0; i < common; i++) {
+            if (!rows.get(i).equals(built.get(i)))
+                rows.set(i, built.get(i));
+        }
+        if (built.size() < rows.size())
+            rows.remove(common, rows.size());
+        else if (built.size() > common)
+            rows.addAll(built.subList(common, built.size()));
+    }
+
+    /**
+     * @return The number of cards per row at the current width.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    private static int columnsFor(double width) {
+        double available = width - PADDING - SCROLL_BAR_WIDTH + GAP;
+        return Math.max(1, (int) (available / (CARD_WIDTH + GAP)));
+    }
+
+    private void rebuild() {
+        rows.setAll(buildRows());
+    }
+
+    /**
+     * Splits the products into header and product rows for the current column count.
+     */
+    private List<Row> buildRows() {
+        List<List<Product>> bySection = new ArrayList<>();
+        for (int i = 0; i < sections.size(); i++)
+            bySection.add(new ArrayList<>());
+        for (Product p : products) {
+            for (int i = 0; i < sections.size(); i++) {
+                if (sections.get(i).type().equalsIgnoreCase(p.getType())) {
+                    bySection.get(i).add(p);
+                    break;
+                }
+            }
+        }
+
+        List<Row> built = new ArrayList<>();
+        for (int i = 0; i < sections.size(); i++) {
+            built.add(new Row(sections.get(i).title(), List.of()));
+            List<Product> section = bySection.get(i);
+            for (int from = 0; from < section.size(); from += columns)
+                built.add(new Row(null, List.copyOf(section.subList(from, Math.min(from + columns, section.size())))));
+        }
+        return built;
+    }
+
+    /**
+     * A grid row. Keeps its header label and cards and rebinds them when the list
+     * reuses the cell for another row.
+     */
+    private final class RowCell extends ListCell<Row> {
+        private final Label headerLabel = new Label();
+        private final HBox cardBox = new HBox(GAP);
+        private final List<Card> cards = new ArrayList<>();
+
+        RowCell() {
+            setStyle("-fx-background-color: transparent; -fx-padding: 0 0 " + GAP + " 0;");
+            headerLabel.setStyle("-fx-font-size: 20px; -fx-font-weight: bold; -fx-text-fill: #37474f;");
+        }
+
+        @Override
+        protected void updateItem(Row row, boolean empty) {
+            super.updateItem(row, empty);
+            setText(null);
+            if (empty || row == null) {
+                setGraphic(null);
+                return;
+            }
+            if (row.header() != null) {
+                headerLabel.setText(row.header());
+                setGraphic(headerLabel);
+                return;
+            }
+
+            List<Product> items = row.products();
+            while (cards.size() < items.size())
+                cards.add(new Card());
+            cardBox.getChildren().setAll(cards.subList(0, items.size()));
+            for (int i = 0; i < items.size(); i++)
+                cards.get(i).show(items.get(i));
+            setGraphic(cardBox);
+        }
+    }
+
+    /**
+     * A reusable product card: image, stock badge, name, price and the add-to-cart
+     * controls.
+     */
+    private final class Card extends VBox {
+        private final ImageView imageView = new ImageView();
+        private final Label stockLabel = new Label();
+        private final Label stockAmountLabel = new Label();
+        private final Label nameLabel = new Label();
+        private final Label priceLabel = new Label();
+        private final SpinnerValueFactory.DoubleSpinnerValueFactory quantity =
+                new SpinnerValueFactory.DoubleSpinnerValueFactory(0.5, 20.0, 1.0, 0.5);
+        private final Spinner<Double> spinner = new Spinner<>(quantity);
+        private final Button addButton = new Button("Ekle");
+        private final PauseTransition addedFeedback = new PauseTransition(Duration.seconds(1));
+
+        private Product product;
+
+        Card() {
+            super(10);
+            setStyle("-fx-background-color: white; -fx-background-radius: 15; -fx-effect: dropshadow(three-pass-box, rgba(0,0,0,0.1), 10, 0, 0, 2);");
+            setAlignment(Pos.TOP_CENTER);
+            setPadding(new Insets(15));
+            setPrefWidth(CARD_WIDTH);
+            setMinWidth(CARD_WIDTH);
+            setMaxWidth(CARD_WIDTH);
+            setPrefHeight(CARD_HEIGHT);
+
+            imageView.setFitWidth(IMAGE_WIDTH);
+            imageView.setFitHeight(IMAGE_HEIGHT);
+            imageView.setPreserveRatio(true);
+            nameLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #333;");
+            priceLabel.setStyle("-fx-text-fill: #2e7d32; -fx-font-weight: bold; -fx-font-size: 14px;");
+            spinner.setEditable(true);
+            spinner.setPrefWidth(70);
+            addButton.setStyle(
+                    "-fx-background-color: #2e7d32; -fx-text-fill: white; -fx-background-radius: 5; -fx-cursor: hand;");
+            addButton.setOnAction(e -> {
+                if (product != null && onAdd.test(product, spinner.getValue())) {
+                    addButton.setText("✔");
+                    addedFeedback.playFromStart();
+                }
+            });
+            addedFeedback.setOnFinished(e -> addButton.setText("Ekle"));
+            stockAmountLabel.managedProperty().bind(stockAmountLabel.visibleProperty());
+
+            HBox actions = new HBox(10, spinner, addButton);
+            actions.setAlignment(Pos.CENTER);
+            getChildren().addAll(stockLabel, imageView, nameLabel, priceLabel, stockAmountLabel, new Separator(),
+                    actions);
+        }
+
+        /**
+         * Binds the card to a product. The chosen quantity is kept only if the card
+         * still shows the same product.
+         */
+        void show(Product p) {
+            if (product == null || product.getId() != p.getId()) {
+                quantity.setValue(1.0);
+                addedFeedback.stop();
+                addButton.setText("Ekle");
+            }
+            product = p;
+
+            if (p.hasImage()) {
+                ProductImageCache.getInstance().load(imageView, p.getId(), p.getImageVersion(), IMAGE_WIDTH,
+                        IMAGE_HEIGHT);
+            } else {
+                ProductImageCache.getInstance().clear(imageView);
+            }
+
+            boolean soldOut = p.getStock() <= 0;
+            boolean low = p.getStock() <= p.getThreshold();
+            stockLabel.setText(soldOut ? "TÜKENDİ" : (low ? "AZ KALDI" : "STOKTA"));
+            stockLabel.setStyle("-fx-background-color: " + (soldOut ? "#c62828" : (low ? "#f57c00" : "#4caf50"))
+                    + "; -fx-text-fill: white; -fx-padding: 3 8; -fx-background-radius: 5; -fx-font-size: 10px; -fx-font-weight: bold;");
+
+            // Show exact stock amount if low
+            stockAmountLabel.setVisible(low);
+            if (low) {
+                stockAmountLabel.setText(String.format("Stok: %.1f kg", p.getStock()));
+                stockAmountLabel.setStyle("-fx-font-size: 11px; -fx-text-fill: "
+                        + (soldOut ? "#c62828" : "#f57c00") + "; -fx-font-weight: bold;");
+            }
+
+            nameLabel.setText(p.getName());
+            String price = String.format("%.2f TL / kg", p.getCurrentPrice());
+            priceLabel.setText(low && !soldOut ? price + " (🔥 x2 Fiyat)" : price);
+
+            addButton.setDisable(soldOut);
+            spinner.setDisable(soldOut);
+        }
+    }
+}
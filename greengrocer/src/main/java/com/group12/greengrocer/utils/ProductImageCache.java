@@ -0,0 +1,222 @@
+package com.group12.greengrocer.utils;
+
+import com.group12.greengrocer.database.ProductDAO;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.io.ByteArrayInputStream;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared cache of decoded product images for all controllers.
+ * <p>
+ * This class implements the <b>Singleton Pattern</b>. Images are keyed by product ID,
+ * image version and display size, so the customer grid, the shopping cart and the
+ * order details each get an image decoded at exactly the size they show. Re-sorting
+ * or re-searching the catalog therefore costs no image decodes at all.
+ * </p>
+ * <ul>
+ * <li><b>Bounded:</b> at most {@link #MAX_ENTRIES} images are kept, least recently
+ * used first out. Entries are held through {@link SoftReference}s so the JVM can
+ * reclaim them under memory pressure.</li>
+ * <li><b>Background decoding:</b> the smallest stored variant that covers the
+ * display size is fetched and decoded on worker threads; the result is applied to
+ * the {@link ImageView} on the JavaFX thread, unless the view has been reused for
+ * another image in the meantime.</li>
+ * <li><b>Metrics:</b> hits, misses and decodes are counted, see {@link #getStats()}.</li>
+ * </ul>
+ */
+public class ProductImageCache {
+
+    /** Maximum number of decoded images kept in memory. */
+    public static final int MAX_ENTRIES = 256;
+
+    /** Key under which the requested image key is stored in {@link ImageView#getProperties()}. */
+    private static final String VIEW_KEY = "productImageCache.key";
+
+    /** The single static instance of the cache. */
+    private static ProductImageCache instance;
+
+    private final Map<String, SoftReference<Image>> images;
+    private final Map<String, CompletableFuture<Image>> inFlight = new HashMap<>();
+    private final ExecutorService decoder;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder decodes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Private constructor to prevent direct instantiation.
+     */
+    private ProductImageCache() {
+        this.images = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SoftReference<Image>> eldest) {
+                if (size() > MAX_ENTRIES) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.decoder = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "image-decoder");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Retrieves the singleton instance of the ProductImageCache.
+     *
+     * @return The single instance of {@link ProductImageCache}.
+     */
+    public static synchronized ProductImageCache getInstance() {
+        if (instance == null) {
+            instance = new ProductImageCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Shows a product image in the given view.
+     * <p>
+     * On a cache hit the image is set immediately. On a miss the view is cleared and
+     * the image is fetched and decoded at {@code width} x {@code height} in the
+     * background. Must be called on the JavaFX Application Thread.
+     * </p>
+     *
+     * @param view         The view to display the image in.
+     * @param productId    The product ID.
+     * @param imageVersion The product's image version.
+     * @param width        The display width in pixels.
+     * @param height       The display height in pixels.
+     */
+    public void load(ImageView view, int productId, int imageVersion, double width, double height) {
+        String key = productId + ":" + imageVersion + ":" + (int) width + "x" + (int) height;
+        view.getProperties().put(VIEW_KEY, key);
+
+        Image cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            view.setImage(cached);
+            return;
+        }
+
+        misses.increment();
+        view.setImage(null);
+        decode(key, productId, width, height).thenAccept(image -> Platform.runLater(() -> {
+            if (image != null && key.equals(view.getProperties().get(VIEW_KEY))) {
+                view.setImage(image);
+            }
+        }));
+    }
+
+    /**
+     * Empties a view, e.g. a reused grid cell whose new product has no image. A
+     * decode still running for the view's previous image is not applied to it.
+     * Must be called on the JavaFX Application Thread.
+     *
+     * @param view The view to clear.
+     */
+    public void clear(ImageView view) {
+        view.getProperties().remove(VIEW_KEY);
+        view.setImage(null);
+    }
+
+    /**
+     * Drops all cached images of a product, e.g. after its image was replaced.
+     *
+     * @param productId The product ID.
+     */
+    public synchronized void invalidate(int productId) {
+        String prefix = productId + ":";
+        images.keySet().removeIf(k -> k.startsWith(prefix));
+    }
+
+    /**
+     * Returns the cache counters.
+     *
+     * @return A snapshot of the current {@link Stats}.
+     */
+    public synchronized Stats getStats() {
+        return new Stats(images.size(), hits.sum(), misses.sum(), decodes.sum(), evictions.sum());
+    }
+
+    private synchronized Image lookup(String key) {
+        SoftReference<Image> ref = images.get(key);
+        if (ref == null)
+            return null;
+        Image image = ref.get();
+        if (image == null) {
+            images.remove(key);
+            evictions.increment();
+        }
+        return image;
+    }
+
+    /**
+     * Starts (or joins) the background fetch and decode for a key, so that several
+     * views asking for the same image share a single decode.
+     */
+    private synchronized CompletableFuture<Image> decode(String key, int productId, double width, double height) {
+        CompletableFuture<Image> pending = inFlight.get(key);
+        if (pending != null)
+            return pending;
+
+        CompletableFuture<Image> future = CompletableFuture.supplyAsync(() -> {
+            byte[] bytes = ProductDAO.getProductImage(productId, ProductDAO.ImageVariant.forSize(width, height));
+            if (bytes == null || bytes.length == 0)
+                return null;
+            decodes.increment();
+            Image image = new Image(new ByteArrayInputStream(bytes), width, height, true, true);
+            return image.isError() ? null : image;
+        }, decoder).exceptionally(e -> null);
+
+        inFlight.put(key, future);
+        future.whenComplete((image, e) -> {
+            synchronized (this) {
+                inFlight.remove(key);
+                if (image != null)
+                    images.put(key, new SoftReference<>(image));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Point-in-time cache counters.
+     *
+     * @param size      Images currently cached.
+     * @param hits      Requests served from the cache.
+     * @param misses    Requests that needed a background decode.
+     * @param decodes   Images actually decoded (misses for the same key share one decode).
+     * @param evictions Entries dropped by the LRU bound or reclaimed by the GC.
+     */
+    public record Stats(int size, long hits, long misses, long decodes, long evictions) {
+
+        /**
+         * @return The share of requests served from the cache (0..1).
+         */
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : hits / (double) requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ImageCache[size=%d/%d, hits=%d, misses=%d (%.1f%% hit rate), decodes=%d, evictions=%d]",
+                    size, MAX_ENTRIES, hits, misses, hitRate() * 100, decodes, evictions);
+        }
+    }
+}
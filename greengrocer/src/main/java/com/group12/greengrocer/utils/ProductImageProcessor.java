@@ -0,0 +1,254 @@
+package com.group12.greengrocer.utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Produces the downscaled variants of an uploaded product image.
+ * <p>
+ * Uploaded photos are stored unchanged as the original, together with two small
+ * variants that list views read instead:
+ * </p>
+ * <ul>
+ * <li><b>Thumbnail:</b> fits in {@value #THUMBNAIL_SIZE} x {@value #THUMBNAIL_SIZE}
+ * pixels (cart rows, order details).</li>
+ * <li><b>Card:</b> fits in {@value #CARD_WIDTH} x {@value #CARD_HEIGHT} pixels
+ * (customer product grid).</li>
+ * </ul>
+ * <p>
+ * Both sizes are twice the largest on-screen size so they stay sharp on HiDPI
+ * screens. Variants are keyed by the SHA-256 hash of the original bytes, so uploading
+ * the same file again reuses the variants generated before.
+ * </p>
+ */
+public class ProductImageProcessor {
+
+    /** Bounding box (in pixels) of the thumbnail variant. */
+    public static final int THUMBNAIL_SIZE = 128;
+
+    /** Maximum width (in pixels) of the card variant. */
+    public static final int CARD_WIDTH = 320;
+
+    /** Maximum height (in pixels) of the card variant. */
+    public static final int CARD_HEIGHT = 240;
+
+    /** JPEG quality used for the variants. */
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /** Number of recently generated variant sets kept in memory, keyed by hash. */
+    private static final int RECENT_VARIANTS = 32;
+
+    private static final Map<String, Variants> recent = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Variants> eldest) {
+            return size() > RECENT_VARIANTS;
+        }
+    };
+
+    /**
+     * The downscaled variants of one image.
+     *
+     * @param imageType The detected type of the original (e.g. "jpg", "png").
+     * @param thumbnail The thumbnail variant, or {@code null} if the image could not be decoded.
+     * @param card      The card variant, or {@code null} if the image could not be decoded.
+     */
+    public record Variants(String imageType, byte[] thumbnail, byte[] card) {
+    }
+
+    /**
+     * Computes the SHA-256 hash of the image bytes as a hex string.
+     *
+     * @param bytes The original image bytes.
+     * @return The 64-character lowercase hex digest.
+     */
+    public static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Returns the variants for an image, generating them unless the same image
+     * (same hash) was processed recently.
+     *
+     * @param hash          The hash of {@code bytes}, see {@link #hash(byte[])}.
+     * @param bytes         The original image bytes.
+     * @param fallbackType  The type to report if the format cannot be detected
+     *                      (typically the file extension).
+     * @return The {@link Variants}; the variant arrays are {@code null} if the bytes
+     *         are not a readable image.
+     */
+    public static Variants getVariants(String hash, byte[] bytes, String fallbackType) {
+        synchronized (recent) {
+            Variants cached = recent.get(hash);
+            if (cached != null)
+                return cached;
+        }
+
+        Variants variants;
+        try {
+            variants = createVariants(bytes, fallbackType);
+        } catch (IOException e) {
+            e.printStackTrace();
+            variants = new Variants(normalizeType(fallbackType), null, null);
+        }
+
+        synchronized (recent) {
+            recent.put(hash, variants);
+        }
+        return variants;
+    }
+
+    /**
+     * Remembers variants loaded from the database so later uploads of the same
+     * file in this session do not query for them again.
+     *
+     * @param hash     The hash of the original image.
+     * @param variants The variants stored for that hash.
+     */
+    public static void remember(String hash, Variants variants) {
+        synchronized (recent) {
+            recent.put(hash, variants);
+        }
+    }
+
+    /**
+     * Looks up variants generated earlier in this session.
+     *
+     * @param hash The hash of the original image.
+     * @return The remembered {@link Variants}, or {@code null}.
+     */
+    public static Variants getRecent(String hash) {
+        synchronized (recent) {
+            return recent.get(hash);
+        }
+    }
+
+    private static Variants createVariants(byte[] bytes, String fallbackType) throws IOException {
+        String type = normalizeType(fallbackType);
+        BufferedImage source;
+
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext())
+                return new Variants(type, null, null);
+
+            ImageReader reader = readers.next();
+            try {
+                type = normalizeType(reader.getFormatName());
+                reader.setInput(in, true, true);
+                source = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        boolean alpha = source.getColorModel().hasAlpha();
+        byte[] thumbnail = encode(scaleToFit(source, THUMBNAIL_SIZE, THUMBNAIL_SIZE), alpha);
+        byte[] card = encode(scaleToFit(source, CARD_WIDTH, CARD_HEIGHT), alpha);
+        return new Variants(type, thumbnail, card);
+    }
+
+    /**
+     * Scales the image down to fit in the box, preserving its aspect ratio. Large
+     * reductions are done in halving steps, which keeps bilinear scaling smooth.
+     * Images that already fit are returned unchanged.
+     */
+    private static BufferedImage scaleToFit(BufferedImage source, int maxWidth, int maxHeight) {
+        double scale = Math.min(1.0, Math.min(maxWidth / (double) source.getWidth(),
+                maxHeight / (double) source.getHeight()));
+        int targetW = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetH = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        if (targetW == source.getWidth() && targetH == source.getHeight())
+            return source;
+
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(targetW, w / 2);
+            h = Math.max(targetH, h / 2);
+            current = resize(current, w, h);
+        } while (w != targetW || h != targetH);
+        return current;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Encodes a variant: PNG for images with transparency, JPEG otherwise.
+     */
+    private static byte[] encode(BufferedImage image, boolean alpha) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (alpha) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+
+        // JPEG has no alpha channel: flatten onto white
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Normalizes format names and file extensions to one spelling (e.g. "JPEG" and
+     * "jpeg" both become "jpg").
+     */
+    private static String normalizeType(String type) {
+        if (type == null || type.isBlank())
+            return null;
+        String t = type.toLowerCase();
+        return t.equals("jpeg") ? "jpg" : t;
+    }
+}
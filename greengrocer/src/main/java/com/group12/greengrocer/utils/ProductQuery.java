@@ -0,0 +1,70 @@
+package com.group12.greengrocer.utils;
+
+import com.group12.greengrocer.models.Product;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Searching and sorting of the customer product catalog.
+ * <p>
+ * The logic lives outside {@code CustomerController} so it can be reused and
+ * benchmarked without a JavaFX stage. The sort options are the labels shown in the
+ * customer's sort combo box. The storefront itself keeps the sorted orders in a
+ * {@link CatalogViewModel}; {@link #sort} sorts a list once.
+ * </p>
+ */
+public class ProductQuery {
+
+    /** Sort by name, A to Z (the default). */
+    public static final String SORT_NAME_ASC = "Varsayılan (A-Z)";
+
+    /** Sort by name, Z to A. */
+    public static final String SORT_NAME_DESC = "İsim (Z-A)";
+
+    /** Sort by current price, cheapest first. */
+    public static final String SORT_PRICE_ASC = "Fiyat (Artan)";
+
+    /** Sort by current price, most expensive first. */
+    public static final String SORT_PRICE_DESC = "Fiyat (Azalan)";
+
+    /** All sort options, in display order. */
+    public static final List<String> SORT_OPTIONS = List.of(SORT_NAME_ASC, SORT_NAME_DESC, SORT_PRICE_ASC,
+            SORT_PRICE_DESC);
+
+    /**
+     * Returns the products whose name contains the query, ignoring case.
+     *
+     * @param products The products to search.
+     * @param query    The search text; an empty query matches every product.
+     * @return The matching products in their original order.
+     */
+    public static List<Product> search(List<Product> products, String query) {
+        String q = query.toLowerCase();
+        if (q.isEmpty())
+            return products;
+        return products.stream().filter(p -> p.getName().toLowerCase().contains(q)).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns a sorted copy of the products.
+     * <p>
+     * Price sorting uses {@link Product#getCurrentPrice()}, so products with low stock
+     * sort at their doubled price. Unknown options fall back to {@link #SORT_NAME_ASC}.
+     * </p>
+     *
+     * @param products The products to sort.
+     * @param sortType One of the {@link #SORT_OPTIONS}.
+     * @return A new, sorted list.
+     */
+    public static List<Product> sort(List<Product> products, String sortType) {
+        Comparator<Product> comparator = switch (sortType) {
+            case SORT_NAME_DESC -> Comparator.comparing(Product::getName).reversed();
+            case SORT_PRICE_ASC -> Comparator.comparingDouble(Product::getCurrentPrice);
+            case SORT_PRICE_DESC -> Comparator.comparingDouble(Product::getCurrentPrice).reversed();
+            default -> Comparator.comparing(Product::getName);
+        };
+        return products.stream().sorted(comparator).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,482 @@
+package com.group12.greengrocer.utils;
+
+import com.group12.greengrocer.database.ProductDAO;
+import com.group12.greengrocer.models.Product;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search index over product names.
+ * <p>
+ * Names and queries are folded the same way: lower-cased and stripped of
+ * diacritics, with the Turkish dotted and dotless I both becoming {@code i}, so
+ * "cilek", "ÇİLEK" and "Çilek" all find "Çilek". Every word of a name is indexed
+ * under its character trigrams and under its first one and two characters:
+ * </p>
+ * <ul>
+ * <li>Query words of three or more characters match anywhere inside a word of the
+ * name ("mate" finds "Domates").</li>
+ * <li>Shorter query words match the start of a word, so results appear from the
+ * first typed character ("d", "do", "dom"...).</li>
+ * </ul>
+ * <p>
+ * A product matches when it matches every query word. Matches are ranked: the
+ * whole name equal to the query, then names starting with it, then names with a
+ * word starting with it, then other matches; shorter names first within a rank.
+ * A search intersects the sorted ID lists of the query's keys and ranks the
+ * matches by a single {@code long}, so it allocates little and needs no string
+ * comparisons. Names with typos are found by {@link #searchFuzzy(String, int)}.
+ * </p>
+ * <p>
+ * This class implements the <b>Singleton Pattern</b>. It is filled with
+ * {@link #rebuild(List)} and then follows {@link ProductDAO}'s product changes
+ * (added, updated or deleted products), so it stays current without reloading
+ * the catalog. It is safe to use from any thread.
+ * </p>
+ */
+public class ProductSearchIndex {
+
+    /** Length of the grams that substring matches are looked up by. */
+    public static final int GRAM_LENGTH = 3;
+
+    /** Marks the keys of word prefixes shorter than {@link #GRAM_LENGTH}. */
+    private static final char PREFIX_MARK = '^';
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /** The single static instance of the index. */
+    private static ProductSearchIndex instance;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    /** Indexed products by ID; product IDs are small auto-increment values. */
+    private Entry[] entries = new Entry[64];
+    private FuzzyMatcher<Product> fuzzy = new FuzzyMatcher<>(Product::getName);
+    private int size;
+    private volatile boolean loaded;
+
+    /**
+     * A product with its folded name.
+     *
+     * @param product The product.
+     * @param words   The folded words of its name.
+     * @param text    The folded words joined by single spaces.
+     */
+    private record Entry(Product product, String[] words, String text) {
+    }
+
+    /**
+     * Private constructor to prevent direct instantiation.
+     *
+     * @param listen Whether to follow {@link ProductDAO}'s product changes.
+     */
+    private ProductSearchIndex(boolean listen) {
+        if (listen)
+            ProductDAO.addChangeListener(this::onProductChange);
+    }
+
+    /**
+     * Retrieves the singleton instance of the ProductSearchIndex.
+     *
+     * @return The single instance of {@link ProductSearchIndex}.
+     */
+    public static synchronized ProductSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new ProductSearchIndex(true);
+        }
+        return instance;
+    }
+
+    /**
+     * Creates an index that is not connected to {@link ProductDAO}, e.g. for
+     * benchmarks.
+     *
+     * @param products The products to index.
+     * @return A new index.
+     */
+    public static ProductSearchIndex of(List<Product> products) {
+        ProductSearchIndex index = new ProductSearchIndex(false);
+        index.rebuild(products);
+        return index;
+    }
+
+    /**
+     * Replaces the indexed products, e.g. after the catalog was loaded.
+     *
+     * @param products The active products.
+     */
+    public void rebuild(List<Product> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            entries = new Entry[64];
+            fuzzy = new FuzzyMatcher<>(Product::getName);
+            size = 0;
+            for (Product p : products)
+                put(p);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a product or replaces the indexed version of it.
+     *
+     * @param product The product.
+     */
+    public void update(Product product) {
+        lock.writeLock().lock();
+        try {
+            remove(product.getId());
+            put(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a product from the index.
+     *
+     * @param productId The product ID.
+     */
+    public void delete(int productId) {
+        lock.writeLock().lock();
+        try {
+            remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of indexed products.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns all products matching the query, best matches first.
+     *
+     * @param query The search text.
+     * @return The ranked matches; empty if the query has no letters or digits.
+     */
+    public List<Product> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the best matches for the query.
+     *
+     * @param query The search text.
+     * @param limit The maximum number of results.
+     * @return Up to {@code limit} ranked matches; empty if the query has no letters
+     *         or digits.
+     */
+    public List<Product> search(String query, int limit) {
+        String[] terms = words(fold(query));
+        if (terms.length == 0 || limit <= 0)
+            return List.of();
+        String text = String.join(" ", terms);
+        boolean exactKeys = terms.length == 1 && terms[0].length() <= GRAM_LENGTH;
+
+        lock.readLock().lock();
+        try {
+            Set<String> keys = new LinkedHashSet<>();
+            for (String term : terms)
+                keys.addAll(keys(term));
+            Postings[] lists = new Postings[keys.size()];
+            int n = 0;
+            for (String key : keys) {
+                Postings list = postings.get(key);
+                if (list == null)
+                    return List.of();
+                lists[n++] = list;
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            // Walk the shortest list and gallop through the others
+            Postings shortest = lists[0];
+            int[] cursors = new int[lists.length];
+            long[] ranked = new long[shortest.size];
+            int matches = 0;
+            candidates:
+            for (int i = 0; i < shortest.size; i++) {
+                int id = shortest.ids[i];
+                for (int l = 1; l < lists.length; l++) {
+                    int at = lists[l].seek(cursors[l], id);
+                    cursors[l] = at;
+                    if (at == lists[l].size)
+                        break candidates;
+                    if (lists[l].ids[at] != id)
+                        continue candidates;
+                }
+                Entry entry = entries[id];
+                // Sharing all grams does not imply containing the word, except for a single gram
+                if (!exactKeys && !matchesAll(entry, terms))
+                    continue;
+                ranked[matches++] = sortKey(rank(entry.text, text), entry.text.length(), id);
+            }
+
+            Arrays.sort(ranked, 0, matches);
+            int count = Math.min(matches, limit);
+            List<Product> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+                result.add(entries[(int) ranked[i]].product);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Folds text for matching: lower case without diacritics, with both Turkish
+     * I's as {@code i}.
+     *
+     * @param s The text; {@code null} is treated as empty.
+     * @return The folded text.
+     */
+    public static String fold(String s) {
+        if (s == null)
+            return "";
+        char[] folded = new char[s.length()];
+        for (int i = 0; i < folded.length; i++) {
+            char c = foldChar(s.charAt(i));
+            if (c == 0)
+                return foldSlow(s);
+            folded[i] = c;
+        }
+        return new String(folded);
+    }
+
+    /**
+     * Folds the ASCII and Turkish letters directly.
+     *
+     * @return The folded character, or 0 if it needs Unicode decomposition.
+     */
+    private static char foldChar(char c) {
+        if (c < 128)
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        return switch (c) {
+            case 'ç', 'Ç' -> 'c';
+            case 'ğ', 'Ğ' -> 'g';
+            case 'ı', 'İ', 'î', 'Î' -> 'i';
+            case 'ö', 'Ö' -> 'o';
+            case 'ş', 'Ş' -> 's';
+            case 'ü', 'Ü', 'û', 'Û' -> 'u';
+            case 'â', 'Â' -> 'a';
+            default -> 0;
+        };
+    }
+
+    private static String foldSlow(String s) {
+        String decomposed = Normalizer.normalize(s, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).replace('ı', 'i');
+    }
+
+    /**
+     * Returns the products whose name matches the query with typos, e.g. "domtaes"
+     * or "cilk" for "Çilek". Meant for when {@link #search(String, int)} finds
+     * nothing; see {@link FuzzyMatcher} for the tolerated edits.
+     *
+     * @param query The search text.
+     * @param limit The maximum number of results.
+     * @return Up to {@code limit} matches, most similar first.
+     */
+    public List<FuzzyMatcher.Match<Product>> searchFuzzy(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return fuzzy.match(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps the index in sync with product changes reported by {@link ProductDAO}.
+     * Changes before the first {@link #rebuild(List)} are ignored. Changed products
+     * are read from the catalog cache, which the change has already patched.
+     */
+    private void onProductChange(ProductDAO.ProductChange change) {
+        if (!loaded)
+            return;
+        for (int id : change.productIds()) {
+            if (change.type() == ProductDAO.ChangeType.DELETED) {
+                delete(id);
+                continue;
+            }
+            Product product = ProductDAO.getProductById(id);
+            if (product != null)
+                update(product);
+            else
+                delete(id); // inactive or gone
+        }
+    }
+
+    private void put(Product p) {
+        int id = p.getId();
+        if (id < 0)
+            return;
+        if (id >= entries.length)
+            entries = Arrays.copyOf(entries, Math.max(id + 1, entries.length * 2));
+        remove(id);
+        String[] words = words(fold(p.getName()));
+        entries[id] = new Entry(p, words, String.join(" ", words));
+        size++;
+        fuzzy.add(p);
+        for (String key : keys(words))
+            postings.computeIfAbsent(key, k -> new Postings()).add(id);
+    }
+
+    private void remove(int productId) {
+        if (productId < 0 || productId >= entries.length || entries[productId] == null)
+            return;
+        Entry entry = entries[productId];
+        entries[productId] = null;
+        size--;
+        fuzzy.remove(entry.product);
+        for (String key : keys(entry.words)) {
+            Postings list = postings.get(key);
+            if (list != null && list.remove(productId) && list.size == 0)
+                postings.remove(key);
+        }
+    }
+
+    /** Splits folded text into words of letters and digits. */
+    static String[] words(String folded) {
+        List<String> words = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean inWord = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    /** Index keys of a product's words. */
+    private static Set<String> keys(String[] words) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String word : words) {
+            for (int n = 1; n < GRAM_LENGTH && n <= word.length(); n++)
+                keys.add(PREFIX_MARK + word.substring(0, n));
+            for (int i = 0; i + GRAM_LENGTH <= word.length(); i++)
+                keys.add(word.substring(i, i + GRAM_LENGTH));
+        }
+        return keys;
+    }
+
+    /** Keys a product must have to match one query word. */
+    private static List<String> keys(String term) {
+        if (term.length() < GRAM_LENGTH)
+            return List.of(PREFIX_MARK + term);
+        List<String> keys = new ArrayList<>(term.length() - GRAM_LENGTH + 1);
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++)
+            keys.add(term.substring(i, i + GRAM_LENGTH));
+        return keys;
+    }
+
+    private static boolean matchesAll(Entry entry, String[] terms) {
+        for (String term : terms) {
+            boolean found = false;
+            for (String word : entry.words) {
+                if (term.length() < GRAM_LENGTH ? word.startsWith(term) : word.contains(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return 0 for an equal name, 1 if the name starts with the query, 2 if a
+     *         word of it does, 3 otherwise.
+     */
+    private static int rank(String name, String query) {
+        int at = name.indexOf(query);
+        if (at == 0)
+            return name.length() == query.length() ? 0 : 1;
+        while (at > 0) {
+            if (name.charAt(at - 1) == ' ')
+                return 2;
+            at = name.indexOf(query, at + 1);
+        }
+        return 3;
+    }
+
+    /** Orders by rank, then name length, then ID; the ID is in the low 32 bits. */
+    private static long sortKey(int rank, int length, int id) {
+        return ((long) rank << 48) | ((long) Math.min(length, 0xFFFF) << 32) | id;
+    }
+
+    /**
+     * Sorted product IDs of one key.
+     */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            int at = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0)
+                return;
+            at = -(at + 1);
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0)
+                return false;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Finds the first position at or after {@code from} whose ID is at least
+         * {@code id}, galloping from {@code from}.
+         *
+         * @return The position, or {@link #size} if there is none.
+         */
+        int seek(int from, int id) {
+            int step = 1;
+            int hi = from;
+            while (hi < size && ids[hi] < id) {
+                from = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int at = Arrays.binarySearch(ids, from, Math.min(hi + 1, size), id);
+            return at >= 0 ? at : -(at + 1);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.group12.greengrocer.utils;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.control.TextInputControl;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Filters a list by a search text in the background and publishes the final result
+ * to the JavaFX thread.
+ * <p>
+ * Each view owns one pipeline per searchable list:
+ * </p>
+ * <ul>
+ * <li><b>Debounced:</b> typing restarts a {@link #DEBOUNCE} timer; the search only
+ * runs once the user pauses.</li>
+ * <li><b>Indexed:</b> when the items are set, the searchable text of every item is
+ * lower-cased once with Turkish rules (İ/i, I/ı) on a worker thread; searches
+ * then only do substring checks.</li>
+ * <li><b>Typo-tolerant:</b> if no text contains the query, the items whose words
+ * are within a few typos of the query's are returned instead, most similar first
+ * (see {@link FuzzyMatcher}), e.g. "kadikoy" or "kadıkyö" for "Kadıköy".</li>
+ * <li><b>Cancellable:</b> a newer query or item list makes running searches stop
+ * early, and only the result of the latest one is published.</li>
+ * </ul>
+ * <p>
+ * All methods must be called on the JavaFX Application Thread.
+ * </p>
+ *
+ * @param <T> The item type.
+ */
+public class SearchPipeline<T> {
+
+    /** Pause in typing after which the search runs. */
+    public static final Duration DEBOUNCE = Duration.millis(200);
+
+    /** Items checked between two looks at the cancellation flag. */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    private static final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("search-worker-", 0).factory());
+
+    private final Function<? super T, String> text;
+    private final Consumer<? super List<T>> onResult;
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+
+    /** Incremented for every search; a search whose number is no longer current is stale. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private CompletableFuture<Index<T>> index = CompletableFuture.completedFuture(Index.empty());
+    private String query = "";
+
+    /**
+     * Creates a pipeline.
+     *
+     * @param text     The searchable text of an item, e.g. name and address.
+     * @param onResult Receives the matching items, in their original order, on the
+     *                 JavaFX thread. An empty query matches every item. Typo-tolerant
+     *                 matches are ordered by similarity instead.
+     */
+    public SearchPipeline(Function<? super T, String> text, Consumer<? super List<T>> onResult) {
+        this.text = text;
+        this.onResult = onResult;
+        debounce.setOnFinished(e -> search());
+    }
+
+    /**
+     * Searches whenever the field's text changes, debounced.
+     *
+     * @param field The search field.
+     */
+    public void bind(TextInputControl field) {
+        field.textProperty().addListener((obs, oldText, newText) -> setQuery(newText));
+    }
+
+    /**
+     * Sets the search text and searches once no further text arrives within
+     * {@link #DEBOUNCE}.
+     *
+     * @param query The search text.
+     */
+    public void setQuery(String query) {
+        this.query = query != null ? query : "";
+        debounce.playFromStart();
+    }
+
+    /**
+     * Sets the search text and searches immediately, e.g. for a search button.
+     *
+     * @param query The search text.
+     */
+    public void searchNow(String query) {
+        this.query = query != null ? query : "";
+        search();
+    }
+
+    /**
+     * Replaces the items and searches them with the current text immediately.
+     *
+     * @param items The items, in display order.
+     */
+    public void setItems(List<T> items) {
+        List<T> snapshot = List.copyOf(items);
+        index = CompletableFuture.supplyAsync(() -> Index.build(snapshot, text), executor);
+        search();
+    }
+
+    /**
+     * Searches again with the current text and items.
+     */
+    public void refresh() {
+        search();
+    }
+
+    /**
+     * Drops the pending and running searches; their results are not published.
+     */
+    public void cancel() {
+        debounce.stop();
+        generation.incrementAndGet();
+    }
+
+    private void search() {
+        debounce.stop();
+        long current = generation.incrementAndGet();
+        BooleanSupplier stale = () -> generation.get() != current;
+        String folded = fold(query.strip());
+
+        index.thenAcceptAsync(idx -> {
+            List<T> result = idx.filter(folded, stale);
+            if (result == null)
+                return; // cancelled
+            Platform.runLater(() -> {
+                if (!stale.getAsBoolean())
+                    onResult.accept(result);
+            });
+        }, executor).exceptionally(e -> {
+            e.printStackTrace();
+            return null;
+        });
+    }
+
+    /**
+     * Lower-cases text with Turkish rules, as stored in the index.
+     *
+     * @param s The text; {@code null} is treated as empty.
+     * @return The folded text.
+     */
+    public static String fold(String s) {
+        return s == null ? "" : s.toLowerCase(TURKISH);
+    }
+
+    /**
+     * Items with their folded searchable text.
+     */
+    private record Index<T>(List<T> items, String[] texts, FuzzyMatcher<T> fuzzy) {
+
+        static <T> Index<T> empty() {
+            return new Index<>(List.of(), new String[0], new FuzzyMatcher<>(t -> ""));
+        }
+
+        static <T> Index<T> build(List<T> items, Function<? super T, String> text) {
+            String[] texts = new String[items.size()];
+            for (int i = 0; i < texts.length; i++)
+                texts[i] = fold(text.apply(items.get(i)));
+            return new Index<>(items, texts, FuzzyMatcher.of(items, text));
+        }
+
+        /**
+         * @return The items whose text contains the folded query, else the items
+         *         matching it with typos, or {@code null} if the search became stale.
+         */
+        List<T> filter(String folded, BooleanSupplier stale) {
+            if (folded.isEmpty())
+                return items;
+            List<T> result = new ArrayList<>();
+            for (int i = 0; i < texts.length; i++) {
+                if (i % CANCEL_CHECK_INTERVAL == 0 && stale.getAsBoolean())
+                    return null;
+                if (texts[i].contains(folded))
+                    result.add(items.get(i));
+            }
+            if (result.isEmpty() && !stale.getAsBoolean()) {
+                for (FuzzyMatcher.Match<T> match : fuzzy.match(folded, Integer.MAX_VALUE))
+                    result.add(match.item());
+            }
+            return result;
+        }
+    }
+}
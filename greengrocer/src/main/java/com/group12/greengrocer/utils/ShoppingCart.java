@@ -102,6 +102,22 @@ public class ShoppingCart {
         items.add(new CartItem(product, quantity));
     }
 
+    /**
+     * Replaces the product of the cart line for the same product ID with a newer
+     * copy, e.g. after its price changed. The quantity and position are kept.
+     *
+     * @param product The current product.
+     */
+    public void updateProduct(Product product) {
+        for (int i = 0; i < items.size(); i++) {
+            CartItem item = items.get(i);
+            if (item.getProduct().getId() == product.getId()) {
+                items.set(i, new CartItem(product, item.getQuantity()));
+                return;
+            }
+        }
+    }
+
     /**
      * Removes a specific item from the shopping cart.
      *
@@ -0,0 +1,7 @@
+-- Change tracking for the AnalyticsEngine: each sync only re-reads the orders
+-- whose updated_at changed since the last one, through idx_updated_at.
+
+ALTER TABLE `orders`
+  ADD COLUMN `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP AFTER `created_at`;
+
+ALTER TABLE `orders` ADD KEY `idx_updated_at` (`updated_at`);
@@ -0,0 +1,8 @@
+-- Change tracking for the catalog cache of ProductDAO: each freshness check only
+-- re-reads the products whose updated_at changed since the last one, through
+-- idx_updated_at, so writes of other clients reach every running application.
+
+ALTER TABLE `products`
+  ADD COLUMN `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP;
+
+ALTER TABLE `products` ADD KEY `idx_updated_at` (`updated_at`);
@@ -0,0 +1,9 @@
+-- Every running client sweeps pending invoices. A client claims an invoice
+-- (pending -> rendering) before rendering it, so only one of them renders each.
+-- invoice_claimed_at lets the sweep take over claims of clients that stopped.
+
+ALTER TABLE `orders`
+  MODIFY COLUMN `invoice_status` enum('pending','rendering','ready','failed') NOT NULL DEFAULT 'pending';
+
+ALTER TABLE `orders`
+  ADD COLUMN `invoice_claimed_at` timestamp NULL DEFAULT NULL AFTER `invoice_status`;
@@ -0,0 +1,15 @@
+-- Keyset pagination of the owner's orders table and the customer's order history
+-- (OrderDAO.getOrdersPage): pages are read in order_time DESC, id DESC order, for
+-- all orders, one customer or one status. A neighborhood filter keeps only every
+-- few rows of idx_order_time and needs no index of its own.
+-- idx_user_order_time replaces `user_id`, also as the foreign key's index; the
+-- optimizer would otherwise keep picking `user_id`, which cannot return a
+-- customer's orders in page order.
+
+ALTER TABLE `orders` ADD KEY `idx_order_time` (`order_time`,`id`);
+
+ALTER TABLE `orders` ADD KEY `idx_status_order_time` (`status`,`order_time`,`id`);
+
+ALTER TABLE `orders`
+  DROP KEY `user_id`,
+  ADD KEY `idx_user_order_time` (`user_id`,`order_time`,`id`);
@@ -0,0 +1,8 @@
+-- Carrier dashboard (OrderDAO.getCarrierDashboardOrders). All three branches of
+-- the query (unassigned pending orders, the carrier's assigned orders and recent
+-- deliveries) filter on status and carrier_id; the pool branch also on
+-- delivery_neighborhood, and reads in dashboard order (priority_level DESC,
+-- order_time ASC).
+
+ALTER TABLE `orders`
+  ADD KEY `idx_carrier_dashboard` (`status`,`carrier_id`,`delivery_neighborhood`,`priority_level`,`order_time`);
@@ -0,0 +1,16 @@
+-- Support chat (MessageDAO).
+-- idx_conversation: both directions of a conversation, in created_at order. It
+-- replaces `sender_id`, which it starts with, also as the foreign key's index.
+-- idx_sender_subject / idx_receiver_subject: covering indexes for the ticket list
+-- (getTicketStatuses reads subject and status of a user's messages).
+-- idx_subject: ticket status updates and topic deletion by subject.
+
+ALTER TABLE `messages`
+  DROP KEY `sender_id`,
+  ADD KEY `idx_conversation` (`sender_id`,`receiver_id`,`created_at`);
+
+ALTER TABLE `messages` ADD KEY `idx_sender_subject` (`sender_id`,`subject`,`status`);
+
+ALTER TABLE `messages` ADD KEY `idx_receiver_subject` (`receiver_id`,`subject`,`status`);
+
+ALTER TABLE `messages` ADD KEY `idx_subject` (`subject`);
@@ -0,0 +1,11 @@
+-- Dashboard and report queries that still read the base tables.
+-- idx_status_user: covering index for completed orders per customer
+-- (getMostActiveCustomers, getCompletedOrderCount).
+-- idx_carrier_rating: covering index for average ratings per carrier.
+-- idx_status is dropped: every index above that starts with status covers it.
+
+ALTER TABLE `orders` ADD KEY `idx_status_user` (`status`,`user_id`);
+
+ALTER TABLE `orders` DROP KEY `idx_status`;
+
+ALTER TABLE `carrier_ratings` ADD KEY `idx_carrier_rating` (`carrier_id`,`rating`);
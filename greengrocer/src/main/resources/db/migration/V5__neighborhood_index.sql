@@ -0,0 +1,5 @@
+-- Neighborhood filter of the owner's orders table
+-- (OrderDAO.getDeliveryNeighborhoods): SELECT DISTINCT delivery_neighborhood reads
+-- one entry per neighborhood from this index instead of scanning all orders.
+
+ALTER TABLE `orders` ADD KEY `idx_delivery_neighborhood` (`delivery_neighborhood`);
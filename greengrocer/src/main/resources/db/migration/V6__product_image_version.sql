@@ -0,0 +1,4 @@
+-- Product catalog without image BLOBs (ProductDAO): list queries read
+-- image_version instead of the image, and the image cache keys on it.
+
+ALTER TABLE `products` ADD COLUMN `image_version` int NOT NULL DEFAULT '1' AFTER `image_type`;
@@ -0,0 +1,12 @@
+-- Downscaled image variants (ProductDAO.ImageVariant): list views read thumbnail
+-- and card_image instead of the original image. image_hash finds the variants of
+-- an image that was uploaded before, so they are not generated twice. Products
+-- uploaded before this migration have no variants and are served the original.
+
+ALTER TABLE `products` ADD COLUMN `image_hash` char(64) DEFAULT NULL AFTER `image_version`;
+
+ALTER TABLE `products` ADD COLUMN `thumbnail` mediumblob AFTER `image_hash`;
+
+ALTER TABLE `products` ADD COLUMN `card_image` mediumblob AFTER `thumbnail`;
+
+ALTER TABLE `products` ADD KEY `idx_image_hash` (`image_hash`);
@@ -0,0 +1,10 @@
+-- Invoices are rendered by the InvoiceWorker after checkout commits.
+-- invoice_status tracks each order's invoice; orders that already have one are
+-- ready. idx_invoice_status serves the worker's sweep for pending invoices.
+
+ALTER TABLE `orders`
+  ADD COLUMN `invoice_status` enum('pending','ready','failed') NOT NULL DEFAULT 'pending' AFTER `invoice`;
+
+UPDATE `orders` SET `invoice_status` = 'ready' WHERE `invoice` IS NOT NULL;
+
+ALTER TABLE `orders` ADD KEY `idx_invoice_status` (`invoice_status`);
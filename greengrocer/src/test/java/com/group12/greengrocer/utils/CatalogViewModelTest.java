@@ -0,0 +1,86 @@
+package com.group12.greengrocer.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.group12.greengrocer.models.Product;
+
+/**
+ * Checks {@link CatalogViewModel#view} against {@link ProductQuery#sort} of the
+ * catalog listed by name, then ID, which is the order the model breaks ties in.
+ */
+class CatalogViewModelTest {
+
+    /** Few names and prices, so many products tie on the sort key. */
+    private static final List<String> NAMES = List.of("Elma", "Armut", "Çilek", "Domates", "Biber");
+
+    @Test
+    void descendingViewsKeepTiesInNameOrder() {
+        List<Product> products = List.of(
+                new Product(1, "Elma", "fruit", 10, 50, 5),
+                new Product(2, "Armut", "fruit", 10, 50, 5),
+                new Product(3, "Biber", "vegetable", 5, 1, 5), // low stock, costs 10 as well
+                new Product(4, "Armut", "fruit", 20, 50, 5));
+        CatalogViewModel model = new CatalogViewModel(products);
+
+        assertEquals(List.of(4, 2, 3, 1), ids(model.view(ProductQuery.SORT_PRICE_DESC)));
+        assertEquals(List.of(1, 3, 2, 4), ids(model.view(ProductQuery.SORT_NAME_DESC)));
+    }
+
+    @Test
+    void viewMatchesStableSort() {
+        Random random = new Random(5);
+        List<Product> products = new ArrayList<>();
+        for (int id = 1; id <= 300; id++)
+            products.add(randomProduct(random, id));
+        CatalogViewModel model = new CatalogViewModel(products);
+        assertViews(model, products, random);
+
+        // Follow price, stock and name changes and deletes, as the catalog listener does
+        for (int i = 0; i < 500; i++) {
+            int at = random.nextInt(products.size());
+            if (random.nextInt(4) > 0) {
+                Product changed = randomProduct(random, products.get(at).getId());
+                products.set(at, changed);
+                model.update(changed);
+            } else {
+                model.delete(products.remove(at).getId());
+            }
+            if (i % 50 == 0)
+                assertViews(model, products, random);
+        }
+        assertEquals(products.size(), model.size());
+        assertViews(model, products, random);
+    }
+
+    /** Every sort option, for the whole catalog and for a random subset of it. */
+    private static void assertViews(CatalogViewModel model, List<Product> products, Random random) {
+        List<Product> byName = new ArrayList<>(products);
+        byName.sort(Comparator.comparing(Product::getName).thenComparingInt(Product::getId));
+        List<Product> subset = new ArrayList<>();
+        for (Product p : byName) {
+            if (random.nextBoolean())
+                subset.add(p);
+        }
+        for (String sortType : ProductQuery.SORT_OPTIONS) {
+            assertEquals(ids(ProductQuery.sort(byName, sortType)), ids(model.view(sortType)), sortType);
+            assertEquals(ids(ProductQuery.sort(subset, sortType)), ids(model.view(sortType, subset)), sortType);
+        }
+    }
+
+    /** A product at one of a few prices, sometimes below its threshold. */
+    private static Product randomProduct(Random random, int id) {
+        return new Product(id, NAMES.get(random.nextInt(NAMES.size())), "fruit", 5 * (1 + random.nextInt(4)),
+                random.nextInt(20), 5);
+    }
+
+    private static List<Integer> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
@@ -0,0 +1,148 @@
+package com.group12.greengrocer.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link FuzzyMatcher} against a full edit distance table and a linear
+ * scan over all items.
+ */
+class FuzzyMatcherTest {
+
+    /** Few letters, so random words are often within one or two edits. */
+    private static final String LETTERS = "abcdeş";
+
+    /** An item; matched by identity, so equal names stay distinct items. */
+    private record Item(int id, String name) {
+    }
+
+    @Test
+    void distanceCountsSwapsAsOneEdit() {
+        assertEquals(0, FuzzyMatcher.distance("domates", "domates"));
+        assertEquals(1, FuzzyMatcher.distance("domates", "domtaes"));
+        assertEquals(1, FuzzyMatcher.distance("cilek", "cilk"));
+        assertEquals(3, FuzzyMatcher.distance("ca", "abc")); // a swapped pair is not edited again
+    }
+
+    @Test
+    void distanceMatchesFullTable() {
+        Random random = new Random(3);
+        for (int i = 0; i < 20000; i++) {
+            String a = randomWord(random, 0, 8), b = randomWord(random, 0, 8);
+            assertEquals(osa(a, b), FuzzyMatcher.distance(a, b), a + " / " + b);
+        }
+    }
+
+    @Test
+    void matchMatchesLinearScan() {
+        Random random = new Random(11);
+        List<Item> items = new ArrayList<>();
+        for (int id = 0; id < 2000; id++) {
+            int words = 1 + random.nextInt(2);
+            StringBuilder name = new StringBuilder(randomWord(random, 2, 10));
+            for (int w = 1; w < words; w++)
+                name.append(' ').append(randomWord(random, 2, 10));
+            items.add(new Item(id, name.toString()));
+        }
+        FuzzyMatcher<Item> matcher = FuzzyMatcher.of(items, Item::name);
+
+        for (int q = 0; q < 1000; q++) {
+            String query = mutate(random, items.get(random.nextInt(items.size())).name());
+            Map<Item, Double> expected = linearMatch(items, query);
+
+            List<FuzzyMatcher.Match<Item>> matches = matcher.match(query, Integer.MAX_VALUE);
+            Map<Item, Double> actual = new IdentityHashMap<>();
+            for (int i = 0; i < matches.size(); i++) {
+                actual.put(matches.get(i).item(), matches.get(i).score());
+                if (i > 0)
+                    assertTrue(matches.get(i - 1).score() >= matches.get(i).score(), "not best first: " + query);
+            }
+            assertEquals(expected.keySet(), actual.keySet(), "query: " + query);
+            for (Map.Entry<Item, Double> e : expected.entrySet())
+                assertEquals(e.getValue(), actual.get(e.getKey()), 1e-9, "query: " + query);
+        }
+    }
+
+    /**
+     * The expected matches: every query word within {@link FuzzyMatcher#maxEdits}
+     * of some word of the item, scored by the mean of the best similarities.
+     */
+    private static Map<Item, Double> linearMatch(List<Item> items, String query) {
+        String[] terms = ProductSearchIndex.words(ProductSearchIndex.fold(query));
+        Map<Item, Double> result = new IdentityHashMap<>();
+        for (Item item : items) {
+            String[] words = ProductSearchIndex.words(ProductSearchIndex.fold(item.name()));
+            double sum = 0;
+            boolean all = terms.length > 0;
+            for (String term : terms) {
+                double best = -1;
+                for (String word : words) {
+                    int d = osa(term, word);
+                    if (d <= FuzzyMatcher.maxEdits(term.length()))
+                        best = Math.max(best, 1.0 - (double) d / Math.max(term.length(), word.length()));
+                }
+                if (best < 0)
+                    all = false;
+                sum += best;
+            }
+            if (all)
+                result.put(item, sum / terms.length);
+        }
+        return result;
+    }
+
+    /** Optimal string alignment distance over the whole table. */
+    private static int osa(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++)
+            d[i][0] = i;
+        for (int j = 0; j <= b.length(); j++)
+            d[0][j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1))
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static String randomWord(Random random, int minLength, int maxLength) {
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            word.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        return word.toString();
+    }
+
+    /** Applies up to two random typos: insert, delete, replace or swap. */
+    private static String mutate(Random random, String name) {
+        StringBuilder s = new StringBuilder(name);
+        int edits = random.nextInt(3);
+        for (int e = 0; e < edits && s.length() > 1; e++) {
+            int at = random.nextInt(s.length() - 1);
+            char c = LETTERS.charAt(random.nextInt(LETTERS.length()));
+            switch (random.nextInt(4)) {
+                case 0 -> s.insert(at, c);
+                case 1 -> s.deleteCharAt(at);
+                case 2 -> s.setCharAt(at, c);
+                default -> {
+                    char t = s.charAt(at);
+                    s.setCharAt(at, s.charAt(at + 1));
+                    s.setCharAt(at + 1, t);
+                }
+            }
+        }
+        return random.nextBoolean() ? s.toString().toUpperCase() : s.toString();
+    }
+}
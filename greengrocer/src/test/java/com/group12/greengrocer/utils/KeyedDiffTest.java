@@ -0,0 +1,83 @@
+package com.group12.greengrocer.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks {@link KeyedDiff#apply} against the list it is asked to produce.
+ */
+class KeyedDiffTest {
+
+    /** A list item: the key and a version standing in for its content. */
+    private record Item(int id, int version) {
+    }
+
+    @Test
+    void applyProducesNextAndKeepsUnchangedInstances() {
+        Random random = new Random(42);
+        for (int round = 0; round < 2000; round++) {
+            List<Item> target = randomList(random, null);
+            List<Item> next = randomList(random, target);
+
+            Map<Integer, Item> old = new HashMap<>();
+            for (Item item : target)
+                old.put(item.id(), item);
+
+            KeyedDiff.apply(target, next, Item::id, Item::equals);
+
+            assertEquals(next, target);
+            for (Item item : target) {
+                Item before = old.get(item.id());
+                if (item.equals(before))
+                    assertSame(before, item, "unchanged item was replaced");
+            }
+        }
+    }
+
+    @Test
+    void identicalListIsNotModified() {
+        List<Item> target = new ArrayList<>(List.of(new Item(1, 0), new Item(2, 0), new Item(3, 0)));
+        List<Item> next = List.of(new Item(1, 0), new Item(2, 0), new Item(3, 0));
+
+        assertTrue(KeyedDiff.apply(target, next, Item::id, Item::equals).isEmpty());
+        assertEquals(next, target);
+    }
+
+    /**
+     * A shuffled list of unique keys. Without a previous list it holds keys below
+     * 1000; otherwise most keys are taken from the previous list, some with a new
+     * version, plus a few keys from 1000 up, so the diff sees keeps, moves,
+     * changes, inserts and removals.
+     */
+    private static List<Item> randomList(Random random, List<Item> previous) {
+        List<Item> items = new ArrayList<>();
+        if (previous == null) {
+            int size = random.nextInt(20);
+            for (int id = 0; id < size; id++)
+                items.add(new Item(id, 0));
+        } else {
+            for (Item item : previous) {
+                int roll = random.nextInt(10);
+                if (roll < 6)
+                    items.add(new Item(item.id(), item.version()));
+                else if (roll < 8)
+                    items.add(new Item(item.id(), item.version() + 1));
+            }
+            int fresh = random.nextInt(6);
+            for (int i = 0; i < fresh; i++)
+                items.add(new Item(1000 + i, 0));
+        }
+        Collections.shuffle(items, random);
+        return items;
+    }
+}
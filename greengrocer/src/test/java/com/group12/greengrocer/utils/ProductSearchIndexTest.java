@@ -0,0 +1,144 @@
+package com.group12.greengrocer.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.group12.greengrocer.models.Product;
+
+/**
+ * Checks {@link ProductSearchIndex#search(String)} against a linear scan with
+ * {@code startsWith}/{@code contains} over the folded names.
+ */
+class ProductSearchIndexTest {
+
+    /** Few letters, so names share many grams and the postings lists get long. */
+    private static final String LETTERS = "abcdeçğıiİoöşuü";
+
+    /** Folded words of each product name, computed once per product. */
+    private final Map<Product, String[]> words = new HashMap<>();
+
+    @Test
+    void foldIgnoresCaseAndTurkishDiacritics() {
+        assertEquals("cilek", ProductSearchIndex.fold("ÇİLEK"));
+        assertEquals("cilek", ProductSearchIndex.fold("Çilek"));
+        assertEquals("isirgan", ProductSearchIndex.fold("Isırgan"));
+    }
+
+    @Test
+    void searchMatchesLinearScan() {
+        Random random = new Random(7);
+        List<Product> products = new ArrayList<>();
+        for (int id = 1; id <= 1500; id++)
+            products.add(new Product(id, randomName(random), "vegetable", 10, 10, 5));
+        ProductSearchIndex index = ProductSearchIndex.of(products);
+
+        for (int q = 0; q < 1000; q++) {
+            String query = randomQuery(random, products);
+            assertEquals(ids(linearSearch(products, query)), ids(index.search(query)), "query: " + query);
+        }
+
+        // Follow updates and deletes, as the catalog listener does
+        for (int i = 0; i < 300; i++) {
+            int at = random.nextInt(products.size());
+            if (random.nextBoolean()) {
+                Product renamed = new Product(products.get(at).getId(), randomName(random), "fruit", 10, 10, 5);
+                products.set(at, renamed);
+                index.update(renamed);
+            } else {
+                index.delete(products.remove(at).getId());
+            }
+        }
+        assertEquals(products.size(), index.size());
+        for (int q = 0; q < 1000; q++) {
+            String query = randomQuery(random, products);
+            assertEquals(ids(linearSearch(products, query)), ids(index.search(query)), "query: " + query);
+        }
+    }
+
+    /**
+     * The expected result: every query word must start a word of the name (under
+     * three characters) or occur in one, ranked equal name, name prefix, word
+     * prefix, other; then shorter names, then lower IDs.
+     */
+    private List<Product> linearSearch(List<Product> products, String query) {
+        String[] terms = split(ProductSearchIndex.fold(query));
+        if (terms.length == 0)
+            return List.of();
+        String text = String.join(" ", terms);
+
+        List<Product> matches = new ArrayList<>();
+        Map<Product, String> names = new HashMap<>();
+        for (Product p : products) {
+            String[] words = this.words.computeIfAbsent(p, q -> split(ProductSearchIndex.fold(q.getName())));
+            boolean all = true;
+            for (String term : terms) {
+                boolean found = false;
+                for (String word : words)
+                    found |= term.length() < 3 ? word.startsWith(term) : word.contains(term);
+                all &= found;
+            }
+            if (all) {
+                matches.add(p);
+                names.put(p, String.join(" ", words));
+            }
+        }
+        matches.sort(Comparator.<Product>comparingInt(p -> rank(names.get(p), text))
+                .thenComparingInt(p -> names.get(p).length())
+                .thenComparingInt(Product::getId));
+        return matches;
+    }
+
+    private static int rank(String name, String query) {
+        if (name.equals(query))
+            return 0;
+        if (name.startsWith(query))
+            return 1;
+        return (" " + name).contains(" " + query) ? 2 : 3;
+    }
+
+    private static String[] split(String folded) {
+        return Arrays.stream(folded.split("[^\\p{L}\\p{N}]+")).filter(w -> !w.isEmpty()).toArray(String[]::new);
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+        for (int w = 0; w < words; w++) {
+            if (w > 0)
+                name.append(random.nextBoolean() ? " " : " - ");
+            int length = 2 + random.nextInt(8);
+            for (int i = 0; i < length; i++) {
+                char c = LETTERS.charAt(random.nextInt(LETTERS.length()));
+                name.append(i == 0 && random.nextBoolean() ? Character.toUpperCase(c) : c);
+            }
+        }
+        return name.toString();
+    }
+
+    /** A piece of an existing name (any case), a random word, or a mix of both. */
+    private static String randomQuery(Random random, List<Product> products) {
+        String name = products.get(random.nextInt(products.size())).getName();
+        return switch (random.nextInt(4)) {
+            case 0 -> {
+                int from = random.nextInt(name.length());
+                yield name.substring(from, from + 1 + random.nextInt(name.length() - from)).toUpperCase();
+            }
+            case 1 -> name.substring(0, 1 + random.nextInt(Math.min(3, name.length())));
+            case 2 -> randomName(random);
+            default -> name.substring(0, 1 + random.nextInt(name.length())) + " " + randomName(random).substring(0, 2);
+        };
+    }
+
+    private static List<Integer> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+}
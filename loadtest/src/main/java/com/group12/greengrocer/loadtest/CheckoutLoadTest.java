@@ -0,0 +1,510 @@
+package com.group12.greengrocer.loadtest;
+
+import com.group12.greengrocer.database.DatabaseConnection;
+import com.group12.greengrocer.database.InvoiceWorker;
+import com.group12.greengrocer.database.MigrationRunner;
+import com.group12.greengrocer.database.OrderDAO;
+import com.group12.greengrocer.database.ProductDAO;
+import com.group12.greengrocer.models.CartItem;
+import com.group12.greengrocer.models.Product;
+import com.group12.greengrocer.models.User;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Headless load generator for the checkout, cancellation, pick-up and delivery paths.
+ * <p>
+ * Customer threads place orders through {@link OrderDAO#placeOrder} and cancel some
+ * of them again through {@link OrderDAO#cancelOrder}; carrier threads race for the
+ * same pending orders through {@link OrderDAO#assignAndPickUp}, deliver some of them
+ * through {@link OrderDAO#completeOrder} and undo a few deliveries through
+ * {@link OrderDAO#undoCompleteOrder}. By default the run
+ * uses an embedded MariaDB seeded from {@code database/Group12.sql}; pass
+ * {@code --url=...} to run against an existing MySQL server instead. An existing
+ * database is left as it is unless {@code --reseed} is given, which adds the load-test
+ * accounts and resets the stock of every product.
+ * </p>
+ * <p>
+ * At the end the harness reports throughput, p50/p95/p99 latency per operation,
+ * deadlocks, rollbacks and stock and rollup consistency violations. It exits with status 1 if
+ * any violation was found, if there were more deadlocks than {@code --max-deadlocks}
+ * or if the error rate exceeds {@code --max-error-rate}, so it can be used as a
+ * regression gate.
+ * </p>
+ */
+public class CheckoutLoadTest {
+
+    /** Number of recently placed orders that cancellations and pick-ups are drawn from. */
+    private static final int RECENT_ORDERS = 256;
+
+    private static final String[] TIME_SLOTS = { "09:00 - 12:00", "12:00 - 15:00", "15:00 - 18:00" };
+
+    private final Options options;
+    private final List<Product> products;
+    private final List<User> customers;
+    private final List<Integer> carriers;
+
+    /** Ring buffer of recently placed order IDs (0 = empty slot). */
+    private final AtomicIntegerArray recentOrders = new AtomicIntegerArray(RECENT_ORDERS);
+    private final AtomicLong placedCount = new AtomicLong();
+    private final AtomicLong shortageCount = new AtomicLong();
+    private final AtomicLong priceChangeCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    private CheckoutLoadTest(Options options, List<Product> products, List<User> customers, List<Integer> carriers) {
+        this.options = options;
+        this.products = products;
+        this.customers = customers;
+        this.carriers = carriers;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        LocalDatabase local = null;
+        int exitCode;
+
+        try {
+            String url = options.url;
+            if (url == null) {
+                System.out.println("Starting embedded database on port " + options.port + "...");
+                local = LocalDatabase.start(options.port, options.dump);
+                url = local.getJdbcUrl();
+            }
+
+            if (local != null || options.reseed) {
+                System.out.printf("Seeding %d customers, %d carriers, %.0f kg stock per product...%n",
+                        options.customers, options.carriers, options.stock);
+                LocalDatabase.seed(url, options.user, options.password, options.customers, options.carriers,
+                        options.stock);
+            }
+
+            // Must be set before the DAOs load DatabaseConfig
+            System.setProperty("greengrocer.db.url", url);
+            System.setProperty("greengrocer.db.user", options.user);
+            System.setProperty("greengrocer.db.password", options.password);
+            System.setProperty("greengrocer.db.pool.max", String.valueOf(options.poolSize));
+
+            // Same schema as the application after startup
+            if (!MigrationRunner.migrate())
+                throw new IllegalStateException("Schema migrations failed");
+
+            exitCode = run(options, url);
+        } finally {
+            InvoiceWorker.shutdown();
+            DatabaseConnection.closeConnection();
+            if (local != null)
+                local.stop();
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(Options options, String url) throws Exception {
+        try (Connection admin = DriverManager.getConnection(url, options.user, options.password)) {
+            List<User> customers = loadUsers(admin, "load_customer_%");
+            List<Integer> carriers = new ArrayList<>();
+            for (User u : loadUsers(admin, "load_carrier_%"))
+                carriers.add(u.getId());
+
+            List<Product> products = new ArrayList<>();
+            for (Product p : ProductDAO.getAllProducts()) {
+                if (p.isActive())
+                    products.add(p);
+            }
+            if (products.isEmpty() || customers.isEmpty())
+                throw new IllegalStateException("No products or customers to run against"
+                        + (options.url != null && !options.reseed ? "; seed the database once with --reseed." : "."));
+
+            int firstOrderId = queryInt(admin, "SELECT COALESCE(MAX(id), 0) + 1 FROM orders");
+            Map<Integer, Double> initialStock = LocalDatabase.readStock(admin);
+            ServerCounters before = ServerCounters.read(admin);
+
+            CheckoutLoadTest test = new CheckoutLoadTest(options, products, customers, carriers);
+            System.out.printf("Running %d customer and %d carrier threads for %d s (pool size %d)...%n",
+                    options.customers, options.carriers, options.durationSeconds, options.poolSize);
+            Result result = test.execute();
+
+            ServerCounters server = ServerCounters.read(admin).minus(before);
+            StockAudit audit = StockAudit.run(admin, initialStock, firstOrderId);
+            return test.report(result, server, audit);
+        }
+    }
+
+    /**
+     * Starts all worker threads, lets them run for the configured duration and
+     * collects their latency samples.
+     */
+    private Result execute() throws InterruptedException {
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < options.customers; i++)
+            workers.add(new Worker("customer-" + i, this::customerStep));
+        for (int i = 0; i < options.carriers; i++)
+            workers.add(new Worker("carrier-" + i, this::carrierStep));
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (Worker w : workers) {
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    w.loop();
+                } catch (InterruptedException ignored) {
+                }
+            }, w.name);
+            t.start();
+            threads.add(t);
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(options.durationSeconds * 1000L);
+        running = false;
+        for (Thread t : threads)
+            t.join();
+        long elapsed = System.nanoTime() - begin;
+
+        Result result = new Result(elapsed);
+        for (Worker w : workers) {
+            result.place.merge(w.place);
+            result.cancel.merge(w.cancel);
+            result.pickUp.merge(w.pickUp);
+            result.deliver.merge(w.deliver);
+            result.undo.merge(w.undo);
+        }
+        return result;
+    }
+
+    /**
+     * One customer action: place an order, and sometimes cancel a recent order
+     * (possibly one a carrier is about to pick up).
+     */
+    private void customerStep(Worker w) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        User customer = customers.get(random.nextInt(customers.size()));
+
+        List<CartItem> cart = randomCart(random);
+        double subtotal = 0;
+        for (CartItem item : cart)
+            subtotal += item.getTotalPrice();
+        double vat = subtotal * 0.18;
+
+        long t0 = System.nanoTime();
+        OrderDAO.OrderResult result;
+        try {
+            result = OrderDAO.placeOrder(customer, cart, subtotal, vat, 0, subtotal + vat,
+                    LocalDate.now().plusDays(1), TIME_SLOTS[random.nextInt(TIME_SLOTS.length)],
+                    "CASH_ON_DELIVERY", 0);
+        } catch (RuntimeException e) {
+            w.place.record(System.nanoTime() - t0, false);
+            errorCount.incrementAndGet();
+            return;
+        }
+        w.place.record(System.nanoTime() - t0, result.isSuccess());
+
+        if (result.isSuccess()) {
+            placedCount.incrementAndGet();
+            recentOrders.set(random.nextInt(RECENT_ORDERS), result.orderId);
+        } else if (!result.shortages.isEmpty()) {
+            shortageCount.incrementAndGet();
+        } else if (!result.priceChanges.isEmpty()) {
+            priceChangeCount.incrementAndGet();
+        } else {
+            errorCount.incrementAndGet();
+        }
+
+        if (random.nextDouble() < options.cancelRatio) {
+            int orderId = recentOrders.get(random.nextInt(RECENT_ORDERS));
+            if (orderId > 0) {
+                long t1 = System.nanoTime();
+                boolean cancelled = call(() -> OrderDAO.cancelOrder(orderId));
+                w.cancel.record(System.nanoTime() - t1, cancelled);
+            }
+        }
+    }
+
+    /**
+     * One carrier action: try to pick up a recently placed order, then sometimes
+     * deliver it and sometimes undo the delivery.
+     */
+    private void carrierStep(Worker w) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int orderId = recentOrders.get(random.nextInt(RECENT_ORDERS));
+        if (orderId <= 0 || carriers.isEmpty()) {
+            Thread.onSpinWait();
+            return;
+        }
+        int carrierId = carriers.get(random.nextInt(carriers.size()));
+
+        long t0 = System.nanoTime();
+        boolean assigned = call(() -> OrderDAO.assignAndPickUp(orderId, carrierId));
+        w.pickUp.record(System.nanoTime() - t0, assigned);
+        if (!assigned || random.nextDouble() >= options.deliverRatio)
+            return;
+
+        long t1 = System.nanoTime();
+        boolean delivered = call(() -> OrderDAO.completeOrder(orderId, carrierId, LocalDateTime.now()));
+        w.deliver.record(System.nanoTime() - t1, delivered);
+        if (!delivered) {
+            errorCount.incrementAndGet(); // nobody else can complete an order assigned to this carrier
+            return;
+        }
+
+        if (random.nextDouble() < options.undoRatio) {
+            long t2 = System.nanoTime();
+            boolean undone = call(() -> OrderDAO.undoCompleteOrder(orderId, carrierId));
+            w.undo.record(System.nanoTime() - t2, undone);
+        }
+    }
+
+    /**
+     * Runs a DAO call that reports failure as {@code false}. A {@code false} from
+     * cancel or pick-up usually means another thread won the race, so only
+     * exceptions count as errors here.
+     */
+    private boolean call(BooleanSupplier action) {
+        try {
+            return action.getAsBoolean();
+        } catch (RuntimeException e) {
+            errorCount.incrementAndGet();
+            return false;
+        }
+    }
+
+    private List<CartItem> randomCart(ThreadLocalRandom random) {
+        int lines = 1 + random.nextInt(Math.min(options.maxCartLines, products.size()));
+        List<CartItem> cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            // Priced like the storefront: from the catalog cache, which follows the stock
+            Product p = ProductDAO.getProductById(products.get(random.nextInt(products.size())).getId());
+            if (p == null)
+                continue;
+            double kg = (1 + random.nextInt(6)) * 0.5;
+            cart.add(new CartItem(p, kg));
+        }
+        return cart;
+    }
+
+    /**
+     * Prints the report and evaluates the gate.
+     *
+     * @return The process exit code: 0 if the run passed, 1 otherwise.
+     */
+    private int report(Result result, ServerCounters server, StockAudit audit) {
+        double seconds = result.elapsedNanos / 1e9;
+        long operations = result.place.getCount() + result.cancel.getCount() + result.pickUp.getCount()
+                + result.deliver.getCount() + result.undo.getCount();
+        double errorRate = operations == 0 ? 0.0 : errorCount.get() / (double) operations;
+
+        System.out.println();
+        System.out.println("=== Checkout load test ===");
+        System.out.printf("Duration:   %.1f s, %d operations, %.1f ops/s%n", seconds, operations, operations / seconds);
+        System.out.printf("%-10s %8s %9s %9s %9s %9s %9s%n", "operation", "count", "ops/s", "p50 ms", "p95 ms",
+                "p99 ms", "failed");
+        printLine("place", result.place, seconds);
+        printLine("cancel", result.cancel, seconds);
+        printLine("pick-up", result.pickUp, seconds);
+        printLine("deliver", result.deliver, seconds);
+        printLine("undo", result.undo, seconds);
+        System.out.printf("Orders:     %d placed, %d rejected for stock, %d for changed prices%n", placedCount.get(),
+                shortageCount.get(), priceChangeCount.get());
+        System.out.printf("Errors:     %d (%.2f%%)%n", errorCount.get(), errorRate * 100);
+        System.out.printf("Server:     %s deadlocks, %d rollbacks%n",
+                server.deadlocks() < 0 ? "n/a" : String.valueOf(server.deadlocks()), server.rollbacks());
+        System.out.println("Pool:       " + DatabaseConnection.getPoolStats());
+        System.out.println("Violations: " + audit.getViolations().size());
+        for (String v : audit.getViolations())
+            System.out.println("  - " + v);
+
+        List<String> failures = new ArrayList<>();
+        if (!audit.getViolations().isEmpty())
+            failures.add("consistency violations");
+        if (server.deadlocks() > options.maxDeadlocks)
+            failures.add(server.deadlocks() + " deadlocks > " + options.maxDeadlocks);
+        if (errorRate > options.maxErrorRate)
+            failures.add(String.format("error rate %.2f%% > %.2f%%", errorRate * 100, options.maxErrorRate * 100));
+
+        System.out.println(failures.isEmpty() ? "RESULT: PASS" : "RESULT: FAIL (" + String.join(", ", failures) + ")");
+        return failures.isEmpty() ? 0 : 1;
+    }
+
+    private static void printLine(String name, LatencyRecorder r, double seconds) {
+        System.out.printf("%-10s %8d %9.1f %9.2f %9.2f %9.2f %9d%n", name, r.getCount(), r.getCount() / seconds,
+                r.percentileMillis(50), r.percentileMillis(95), r.percentileMillis(99), r.getFailures());
+    }
+
+    private static List<User> loadUsers(Connection conn, String usernamePattern) throws SQLException {
+        String sql = "SELECT id, username, role, address, email, phone_number, neighborhood FROM users "
+                + "WHERE username LIKE ? ORDER BY id";
+        List<User> users = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, usernamePattern);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    users.add(new User(rs.getInt("id"), rs.getString("username"), null, rs.getString("role"),
+                            rs.getString("address"), rs.getString("email"), rs.getString("phone_number"),
+                            rs.getString("neighborhood")));
+                }
+            }
+        }
+        return users;
+    }
+
+    private static int queryInt(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    /**
+     * A worker thread's loop and its private latency recorders.
+     */
+    private class Worker {
+        final String name;
+        final Consumer<Worker> step;
+        final LatencyRecorder place = new LatencyRecorder();
+        final LatencyRecorder cancel = new LatencyRecorder();
+        final LatencyRecorder pickUp = new LatencyRecorder();
+        final LatencyRecorder deliver = new LatencyRecorder();
+        final LatencyRecorder undo = new LatencyRecorder();
+
+        Worker(String name, Consumer<Worker> step) {
+            this.name = name;
+            this.step = step;
+        }
+
+        void loop() throws InterruptedException {
+            while (running) {
+                step.accept(this);
+                if (options.thinkMillis > 0)
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(options.thinkMillis + 1));
+            }
+        }
+    }
+
+    /**
+     * Merged latencies of a run.
+     */
+    private static class Result {
+        final long elapsedNanos;
+        final LatencyRecorder place = new LatencyRecorder();
+        final LatencyRecorder cancel = new LatencyRecorder();
+        final LatencyRecorder pickUp = new LatencyRecorder();
+        final LatencyRecorder deliver = new LatencyRecorder();
+        final LatencyRecorder undo = new LatencyRecorder();
+
+        Result(long elapsedNanos) {
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    /**
+     * Command line options, given as {@code --name=value}.
+     */
+    private static class Options {
+        int customers = 100;
+        int carriers = 20;
+        int durationSeconds = 30;
+        int poolSize = 20;
+        int thinkMillis = 0;
+        int maxCartLines = 4;
+        double stock = 500;
+        double cancelRatio = 0.3;
+        double deliverRatio = 0.5;
+        double undoRatio = 0.1;
+        long maxDeadlocks = 0;
+        double maxErrorRate = 0.01;
+        int port = 3307;
+        Path dump = Path.of("../greengrocer/database/Group12.sql");
+        String url = null;
+        String user = LocalDatabase.USER;
+        String password = LocalDatabase.PASSWORD;
+        boolean reseed = false;
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (arg.equals("--help")) {
+                    printUsage();
+                    System.exit(0);
+                }
+                if (arg.equals("--reseed")) {
+                    o.reseed = true;
+                    continue;
+                }
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0)
+                    throw new IllegalArgumentException("Unrecognized argument: " + arg);
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+
+            for (Map.Entry<String, String> e : values.entrySet()) {
+                String v = e.getValue();
+                switch (e.getKey()) {
+                    case "customers" -> o.customers = Integer.parseInt(v);
+                    case "carriers" -> o.carriers = Integer.parseInt(v);
+                    case "duration" -> o.durationSeconds = Integer.parseInt(v);
+                    case "pool" -> o.poolSize = Integer.parseInt(v);
+                    case "think-ms" -> o.thinkMillis = Integer.parseInt(v);
+                    case "cart-lines" -> o.maxCartLines = Integer.parseInt(v);
+                    case "stock" -> o.stock = Double.parseDouble(v);
+                    case "cancel-ratio" -> o.cancelRatio = Double.parseDouble(v);
+                    case "deliver-ratio" -> o.deliverRatio = Double.parseDouble(v);
+                    case "undo-ratio" -> o.undoRatio = Double.parseDouble(v);
+                    case "max-deadlocks" -> o.maxDeadlocks = Long.parseLong(v);
+                    case "max-error-rate" -> o.maxErrorRate = Double.parseDouble(v);
+                    case "port" -> o.port = Integer.parseInt(v);
+                    case "dump" -> o.dump = Path.of(v);
+                    case "url" -> o.url = v;
+                    case "user" -> o.user = v;
+                    case "password" -> o.password = v;
+                    default -> throw new IllegalArgumentException("Unknown option: --" + e.getKey());
+                }
+            }
+            return o;
+        }
+
+        static void printUsage() {
+            System.out.println("""
+                    Usage: mvn exec:java -Dexec.args="[options]"
+                      --customers=N       customer threads (100)
+                      --carriers=N        carrier threads (20)
+                      --duration=S        run time in seconds (30)
+                      --pool=N            connection pool size (20)
+                      --think-ms=N        max random pause between actions (0)
+                      --cart-lines=N      max lines per cart (4)
+                      --stock=KG          starting stock of every product when seeding (500)
+                      --cancel-ratio=R    share of actions followed by a cancel (0.3)
+                      --deliver-ratio=R   share of pick-ups that are delivered (0.5)
+                      --undo-ratio=R      share of deliveries that are undone (0.1)
+                      --max-deadlocks=N   gate: allowed deadlocks (0)
+                      --max-error-rate=R  gate: allowed error rate (0.01)
+                      --port=N            embedded database port (3307)
+                      --dump=PATH         seed dump (../greengrocer/database/Group12.sql)
+                      --url=JDBC_URL      use an existing, already seeded database instead
+                      --user=NAME --password=SECRET  credentials for --url
+                      --reseed            with --url: add the load-test accounts and reset all
+                                          product stock first (changes the database!)""");
+        }
+    }
+}
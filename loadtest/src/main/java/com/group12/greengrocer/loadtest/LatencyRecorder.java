@@ -0,0 +1,76 @@
+package com.group12.greengrocer.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Records the latencies of one operation type.
+ * <p>
+ * Each worker thread owns its own recorder, so recording needs no synchronization;
+ * the recorders are merged once the run is over. All samples are kept, which keeps
+ * the percentiles exact for runs of a few million operations.
+ * </p>
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count = 0;
+    private long failures = 0;
+
+    /**
+     * Records one completed call.
+     *
+     * @param nanos   The call's duration in nanoseconds.
+     * @param success Whether the call succeeded.
+     */
+    public void record(long nanos, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        if (!success)
+            failures++;
+    }
+
+    /**
+     * Adds all samples of another recorder to this one.
+     *
+     * @param other The recorder to merge.
+     */
+    public void merge(LatencyRecorder other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(samples.length * 2, count + other.count));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        failures += other.failures;
+    }
+
+    /**
+     * @return The number of recorded calls.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return The number of calls that did not succeed.
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Computes a latency percentile.
+     *
+     * @param percentile The percentile (0..100).
+     * @return The latency in milliseconds, or 0 if nothing was recorded.
+     */
+    public double percentileMillis(double percentile) {
+        if (count == 0)
+            return 0.0;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,195 @@
+package com.group12.greengrocer.loadtest;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An embedded MariaDB server used as a local stand-in for the application's MySQL
+ * database.
+ * <p>
+ * The server is started in a temporary directory and seeded from the same
+ * {@code database/Group12.sql} dump the application ships with. MySQL 8 specific
+ * collations and version comments are rewritten on the fly so the dump loads
+ * unchanged on MariaDB. The load test then adds its own customers and carriers and
+ * resets product stock to a known value.
+ * </p>
+ */
+public class LocalDatabase {
+
+    /** Name of the database created by the dump. */
+    public static final String DATABASE = "greengrocer";
+
+    /** Account used by the load test (the embedded server's default superuser). */
+    public static final String USER = "root";
+    public static final String PASSWORD = "";
+
+    private final DB db;
+    private final int port;
+
+    private LocalDatabase(DB db, int port) {
+        this.db = db;
+        this.port = port;
+    }
+
+    /**
+     * Starts an embedded server and loads the schema and sample data.
+     *
+     * @param port The TCP port to listen on (0 picks a free port).
+     * @param dump The {@code Group12.sql} dump to seed from.
+     * @return The running database.
+     * @throws Exception If the server cannot be started or the dump fails to load.
+     */
+    public static LocalDatabase start(int port, Path dump) throws Exception {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(port);
+        config.addArg("--innodb-lock-wait-timeout=10");
+        config.addArg("--max-connections=500");
+        config.addArg("--character-set-server=utf8mb4");
+        config.addArg("--collation-server=utf8mb4_unicode_ci");
+        if ("root".equals(System.getProperty("user.name")))
+            config.addArg("--user=root"); // mariadbd refuses to run as root otherwise (CI containers)
+
+        DB db = DB.newEmbeddedDB(config.build());
+        db.start();
+        LocalDatabase local = new LocalDatabase(db, config.getPort());
+
+        db.source(new ByteArrayInputStream(readDump(dump)), USER, PASSWORD, null);
+        return local;
+    }
+
+    /**
+     * @return The JDBC URL of the seeded database.
+     */
+    public String getJdbcUrl() {
+        return "jdbc:mysql://localhost:" + port + "/" + DATABASE;
+    }
+
+    /**
+     * Stops the server and deletes its data directory.
+     */
+    public void stop() {
+        try {
+            db.stop();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Adds synthetic customers and carriers and resets the stock of every active
+     * product.
+     *
+     * @param url       The JDBC URL of the database.
+     * @param user      The database user.
+     * @param password  The database password.
+     * @param customers Number of customer accounts to create.
+     * @param carriers  Number of carrier accounts to create.
+     * @param stock     Stock (kg) every active product starts with.
+     * @throws SQLException If seeding fails.
+     */
+    public static void seed(String url, String user, String password, int customers, int carriers, double stock)
+            throws SQLException {
+        String insertUser = "INSERT INTO users (username, password, role, address, neighborhood, email, phone_number) "
+                + "VALUES (?, 'load', ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE role = VALUES(role)";
+        String[] neighborhoods = { "Beşiktaş", "Kadıköy", "Şişli" };
+
+        try (Connection conn = DriverManager.getConnection(url, user, password)) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(insertUser)) {
+                addUsers(ps, "load_customer_", "customer", customers, neighborhoods);
+                addUsers(ps, "load_carrier_", "carrier", carriers, neighborhoods);
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement("UPDATE products SET stock = ? WHERE is_active = 1")) {
+                ps.setDouble(1, stock);
+                ps.executeUpdate();
+            }
+            conn.commit();
+        }
+    }
+
+    /**
+     * Reads the current stock of every active product.
+     *
+     * @param conn An open connection.
+     * @return Stock by product ID.
+     * @throws SQLException If the query fails.
+     */
+    public static Map<Integer, Double> readStock(Connection conn) throws SQLException {
+        Map<Integer, Double> stock = new HashMap<>();
+        try (Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery("SELECT id, stock FROM products WHERE is_active = 1")) {
+            while (rs.next()) {
+                stock.put(rs.getInt("id"), rs.getDouble("stock"));
+            }
+        }
+        return stock;
+    }
+
+    private static void addUsers(PreparedStatement ps, String prefix, String role, int count, String[] neighborhoods)
+            throws SQLException {
+        for (int i = 1; i <= count; i++) {
+            String name = prefix + i;
+            String neighborhood = neighborhoods[i % neighborhoods.length];
+            ps.setString(1, name);
+            ps.setString(2, role);
+            ps.setString(3, "Load Test Sok. No:" + i);
+            ps.setString(4, neighborhood);
+            ps.setString(5, name + "@load.test");
+            ps.setString(6, String.format("590%07d", i));
+            ps.addBatch();
+        }
+    }
+
+    /**
+     * Reads the dump and rewrites the few MySQL 8 constructs MariaDB rejects. The dump
+     * contains binary image data, so it is patched as bytes rather than as text.
+     */
+    private static byte[] readDump(Path dump) throws IOException {
+        byte[] bytes = Files.readAllBytes(dump);
+        bytes = replace(bytes, "utf8mb4_0900_ai_ci", "utf8mb4_unicode_ci");
+        bytes = replace(bytes, "/*!80016 DEFAULT ENCRYPTION='N' */", "");
+        return bytes;
+    }
+
+    private static byte[] replace(byte[] source, String target, String replacement) {
+        byte[] from = target.getBytes(StandardCharsets.US_ASCII);
+        byte[] to = replacement.getBytes(StandardCharsets.US_ASCII);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(source.length);
+
+        int start = 0;
+        for (int i = 0; i <= source.length - from.length; i++) {
+            if (matches(source, i, from)) {
+                out.write(source, start, i - start);
+                out.write(to, 0, to.length);
+                i += from.length - 1;
+                start = i + 1;
+            }
+        }
+        out.write(source, start, source.length - start);
+        return out.toByteArray();
+    }
+
+    private static boolean matches(byte[] source, int offset, byte[] target) {
+        for (int j = 0; j < target.length; j++) {
+            if (source[offset + j] != target[j])
+                return false;
+        }
+        return true;
+    }
+}
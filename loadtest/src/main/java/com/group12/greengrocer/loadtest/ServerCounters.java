@@ -0,0 +1,60 @@
+package com.group12.greengrocer.loadtest;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Server-side concurrency counters, read before and after a run.
+ * <p>
+ * Deadlocks are read from {@code information_schema.INNODB_METRICS} on MySQL and from
+ * the {@code Innodb_deadlocks} status variable on MariaDB. Rollbacks are the server's
+ * {@code Com_rollback} counter; note that it also counts the no-op rollback the
+ * connection pool issues when a transactional connection is returned.
+ * </p>
+ *
+ * @param deadlocks Deadlocks detected by InnoDB (-1 if the server does not expose them).
+ * @param rollbacks ROLLBACK statements executed.
+ */
+public record ServerCounters(long deadlocks, long rollbacks) {
+
+    /**
+     * Reads the current counters.
+     *
+     * @param conn An open connection.
+     * @return The counters.
+     * @throws SQLException If the status cannot be read.
+     */
+    public static ServerCounters read(Connection conn) throws SQLException {
+        return new ServerCounters(readDeadlocks(conn), readStatus(conn, "Com_rollback"));
+    }
+
+    /**
+     * @param before The counters read before the run.
+     * @return The change since {@code before}.
+     */
+    public ServerCounters minus(ServerCounters before) {
+        long d = deadlocks < 0 || before.deadlocks < 0 ? -1 : deadlocks - before.deadlocks;
+        return new ServerCounters(d, rollbacks - before.rollbacks);
+    }
+
+    private static long readDeadlocks(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery(
+                        "SELECT COUNT FROM information_schema.INNODB_METRICS WHERE NAME = 'lock_deadlocks'")) {
+            if (rs.next())
+                return rs.getLong(1);
+        } catch (SQLException e) {
+            // Not available on this server, fall back to the status variable
+        }
+        return readStatus(conn, "Innodb_deadlocks");
+    }
+
+    private static long readStatus(Connection conn, String name) throws SQLException {
+        try (Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery("SHOW GLOBAL STATUS LIKE '" + name + "'")) {
+            return rs.next() ? rs.getLong(2) : -1;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.group12.greengrocer.loadtest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks the database for consistency violations after a run.
+ * <p>
+ * For every product, the stock at the start minus the quantities of all orders
+ * placed during the run that were not cancelled must equal the final stock. In
+ * addition, no stock may be negative, every order must have items, an order's
+ * carrier must match its status, and the analytics rollups must add up to the
+ * completed orders.
+ * </p>
+ */
+public class StockAudit {
+
+    /** Tolerance for comparing decimal(10,2) quantities. */
+    private static final double EPSILON = 0.005;
+
+    private final List<String> violations = new ArrayList<>();
+
+    /**
+     * Runs all checks.
+     *
+     * @param conn         An open connection.
+     * @param initialStock Stock by product ID at the start of the run.
+     * @param firstOrderId The lowest order ID that may have been created by the run.
+     * @return The audit with its violations.
+     * @throws SQLException If a query fails.
+     */
+    public static StockAudit run(Connection conn, Map<Integer, Double> initialStock, int firstOrderId)
+            throws SQLException {
+        StockAudit audit = new StockAudit();
+        audit.checkStockBalance(conn, initialStock, firstOrderId);
+        audit.checkCount(conn, "SELECT COUNT(*) FROM products WHERE stock < 0",
+                0, "product(s) with negative stock");
+        audit.checkCount(conn, "SELECT COUNT(*) FROM orders o WHERE o.id >= ? "
+                + "AND NOT EXISTS (SELECT 1 FROM order_items oi WHERE oi.order_id = o.id)",
+                firstOrderId, "order(s) without items");
+        audit.checkCount(conn, "SELECT COUNT(*) FROM orders WHERE id >= ? AND ("
+                + "(status IN ('assigned', 'in_delivery', 'completed') AND carrier_id IS NULL) "
+                + "OR (status IN ('pending', 'cancelled') AND carrier_id IS NOT NULL))",
+                firstOrderId, "order(s) whose carrier does not match the status");
+        audit.checkRollups(conn);
+        return audit;
+    }
+
+    /**
+     * @return The violations found; empty if the data is consistent.
+     */
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    private void checkStockBalance(Connection conn, Map<Integer, Double> initialStock, int firstOrderId)
+            throws SQLException {
+        String sql = "SELECT oi.product_id, SUM(oi.quantity) AS sold FROM order_items oi "
+                + "JOIN orders o ON o.id = oi.order_id "
+                + "WHERE o.id >= ? AND o.status <> 'cancelled' GROUP BY oi.product_id";
+
+        Map<Integer, Double> sold = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, firstOrderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sold.put(rs.getInt("product_id"), rs.getDouble("sold"));
+                }
+            }
+        }
+
+        Map<Integer, Double> finalStock = LocalDatabase.readStock(conn);
+        for (Map.Entry<Integer, Double> e : initialStock.entrySet()) {
+            double expected = e.getValue() - sold.getOrDefault(e.getKey(), 0.0);
+            double actual = finalStock.getOrDefault(e.getKey(), Double.NaN);
+            if (!(Math.abs(expected - actual) < EPSILON)) {
+                violations.add(String.format("product #%d: expected stock %.2f kg, found %.2f kg",
+                        e.getKey(), expected, actual));
+            }
+        }
+    }
+
+    /**
+     * Compares the grand totals of every rollup table with the completed orders.
+     */
+    private void checkRollups(Connection conn) throws SQLException {
+        String orders = "SELECT COUNT(*), COALESCE(SUM(total_cost), 0) FROM orders WHERE status = 'completed'";
+        String items = "SELECT COALESCE(SUM(oi.quantity), 0), COALESCE(SUM(oi.total_price), 0) FROM order_items oi "
+                + "JOIN orders o ON o.id = oi.order_id WHERE o.status = 'completed'";
+        double[] orderTotals = queryTotals(conn, orders);
+        double[] itemTotals = queryTotals(conn, items);
+
+        for (String table : new String[] { "order_rollup_hourly", "order_rollup_daily" })
+            compareTotals(table, queryTotals(conn, "SELECT COALESCE(SUM(order_count), 0), "
+                    + "COALESCE(SUM(revenue), 0) FROM " + table), orderTotals, "orders");
+        for (String table : new String[] { "sales_rollup_hourly", "sales_rollup_daily" })
+            compareTotals(table, queryTotals(conn, "SELECT COALESCE(SUM(quantity), 0), "
+                    + "COALESCE(SUM(revenue), 0) FROM " + table), itemTotals, "kg");
+    }
+
+    private void compareTotals(String table, double[] actual, double[] expected, String unit) {
+        if (Math.abs(actual[0] - expected[0]) >= EPSILON || Math.abs(actual[1] - expected[1]) >= EPSILON) {
+            violations.add(String.format("%s: %.2f %s / %.2f revenue, completed orders have %.2f %s / %.2f",
+                    table, actual[0], unit, actual[1], expected[0], unit, expected[1]));
+        }
+    }
+
+    private static double[] queryTotals(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return new double[] { rs.getDouble(1), rs.getDouble(2) };
+        }
+    }
+
+    private void checkCount(Connection conn, String sql, int firstOrderId, String description) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            if (sql.contains("?"))
+                ps.setInt(1, firstOrderId);
+            try (ResultSet rs = ps.executeQuery()) {
+                long count = rs.next() ? rs.getLong(1) : 0;
+                if (count > 0)
+                    violations.add(count + " " + description);
+            }
+        }
+    }
+}